@@ -0,0 +1,60 @@
+package com.woowacamp.storage.domain.file.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.woowacamp.storage.domain.file.dto.ByteRange;
+import com.woowacamp.storage.support.SlowS3StandIn;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * 연결 하나의 처리량이 BYTES_PER_SECOND로 제한된 S3 대역에서 OBJECT_SIZE 파일 하나를 끝까지 받는 시간을 비교합니다.
+ * maxParallelism이 1이면 지금까지처럼 getObject 스트림 하나로 받고, 그보다 크면 CHUNK_SIZE 단위의 ranged GET을 동시에 보냅니다.
+ * 연결마다 처리량이 제한되므로 동시에 받는 chunk 수만큼 빨라지는 것을 기대합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ParallelRangeDownloadBenchmark {
+
+	private static final long OBJECT_SIZE = 32 * 1024 * 1024;
+	private static final long BYTES_PER_SECOND = 32 * 1024 * 1024;
+	private static final int CHUNK_SIZE = 4 * 1024 * 1024;
+	private static final long S3_LATENCY_MILLIS = 20;
+
+	@Param({"1", "4", "8"})
+	private int maxParallelism;
+
+	private ParallelRangeDownloader parallelRangeDownloader;
+
+	@Setup
+	public void setUp() {
+		parallelRangeDownloader = new ParallelRangeDownloader("bucket", CHUNK_SIZE, CHUNK_SIZE, maxParallelism, 16,
+			SlowS3StandIn.create(S3_LATENCY_MILLIS, BYTES_PER_SECOND, OBJECT_SIZE), new SimpleMeterRegistry());
+	}
+
+	@TearDown
+	public void tearDown() {
+		parallelRangeDownloader.shutdown();
+	}
+
+	@Benchmark
+	public long download() throws IOException {
+		try (InputStream inputStream = parallelRangeDownloader.open("key", new ByteRange(0, OBJECT_SIZE - 1))) {
+			return inputStream.transferTo(OutputStream.nullOutputStream());
+		}
+	}
+}
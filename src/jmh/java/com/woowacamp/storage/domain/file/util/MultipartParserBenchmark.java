@@ -0,0 +1,128 @@
+package com.woowacamp.storage.domain.file.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * 기존 컨트롤러의 줄 단위 파싱 루프와 MultipartStreamParser를 비교합니다.
+ * 바이너리 데이터는 개행 문자가 불규칙하게 섞여 있고, 텍스트 데이터는 80바이트마다 개행 문자가 있습니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MultipartParserBenchmark {
+
+	private static final String BOUNDARY = "--" + "----WebKitFormBoundary7MA4YWxkTrZu0gW";
+	private static final int BUFFER_SIZE = 8192;
+	private static final int LINE_BUFFER_MAX_SIZE = 1024 * 1024;
+	private static final int CHUNK_SIZE = 5 * 1024 * 1024;
+
+	@Param({"BINARY", "TEXT"})
+	private String payload;
+
+	@Param({"16777216"})
+	private int fileSize;
+
+	private byte[] body;
+
+	@Setup
+	public void setUp() throws Exception {
+		byte[] content = new byte[fileSize];
+		if (payload.equals("BINARY")) {
+			new Random(42).nextBytes(content);
+		} else {
+			byte[] line = "Lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod tempor\r\n"
+				.getBytes(StandardCharsets.US_ASCII);
+			for (int i = 0; i < fileSize; i++) {
+				content[i] = line[i % line.length];
+			}
+		}
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream(fileSize + 1024);
+		out.write((BOUNDARY + "\r\nContent-Disposition: form-data; name=\"userId\"\r\n\r\n1\r\n").getBytes());
+		out.write((BOUNDARY + "\r\nContent-Disposition: form-data; name=\"file\"; filename=\"sample.bin\"\r\n"
+			+ "Content-Type: application/octet-stream\r\n\r\n").getBytes());
+		out.write(content);
+		out.write(("\r\n" + BOUNDARY + "--\r\n").getBytes());
+		body = out.toByteArray();
+	}
+
+	@Benchmark
+	public void lineLoop(Blackhole blackhole) throws Exception {
+		InputStream inputStream = new ByteArrayInputStream(body);
+		byte[] buffer = new byte[BUFFER_SIZE];
+		ByteArrayOutputStream lineBuffer = new ByteArrayOutputStream(LINE_BUFFER_MAX_SIZE);
+		ByteArrayOutputStream contentBuffer = new ByteArrayOutputStream(CHUNK_SIZE + 1024 * 600);
+		String finalBoundary = BOUNDARY + "--";
+		int bytesRead;
+		while ((bytesRead = inputStream.read(buffer)) != -1) {
+			for (int i = 0; i < bytesRead; i++) {
+				byte b = buffer[i];
+				lineBuffer.write(b);
+				if (b != '\n') {
+					continue;
+				}
+				String line = lineBuffer.toString().trim();
+				if (line.equals(BOUNDARY) || line.equals(finalBoundary)) {
+					blackhole.consume(contentBuffer.size());
+					contentBuffer.reset();
+				} else {
+					contentBuffer.write(lineBuffer.toByteArray());
+					if (contentBuffer.size() >= CHUNK_SIZE) {
+						blackhole.consume(contentBuffer.toByteArray());
+						contentBuffer.reset();
+					}
+				}
+				lineBuffer.reset();
+			}
+			if (lineBuffer.size() >= LINE_BUFFER_MAX_SIZE) {
+				contentBuffer.write(lineBuffer.toByteArray());
+				lineBuffer.reset();
+			}
+		}
+	}
+
+	@Benchmark
+	public void streamParser(Blackhole blackhole) throws Exception {
+		ByteArrayOutputStream contentBuffer = new ByteArrayOutputStream(CHUNK_SIZE + 1024 * 600);
+		MultipartStreamParser parser = new MultipartStreamParser(BOUNDARY, BUFFER_SIZE, LINE_BUFFER_MAX_SIZE,
+			new MultipartPartHandler() {
+				@Override
+				public void onPartBegin(Map<String, String> headers) {
+					blackhole.consume(headers);
+				}
+
+				@Override
+				public void onPartContent(byte[] buffer, int offset, int length) {
+					contentBuffer.write(buffer, offset, length);
+					if (contentBuffer.size() >= CHUNK_SIZE) {
+						blackhole.consume(contentBuffer.toByteArray());
+						contentBuffer.reset();
+					}
+				}
+
+				@Override
+				public boolean onPartEnd() {
+					blackhole.consume(contentBuffer.size());
+					contentBuffer.reset();
+					return false;
+				}
+			});
+		parser.parse(new ByteArrayInputStream(body));
+	}
+}
@@ -0,0 +1,76 @@
+package com.woowacamp.storage.domain.file.util;
+
+import static com.woowacamp.storage.global.constant.CommonConstant.*;
+
+import java.io.ByteArrayInputStream;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.woowacamp.storage.support.SlowS3StandIn;
+
+/**
+ * 느린 S3 대역을 상대로 스레드 풀 실행기와 가상 스레드 실행기의 업로드 처리량과 지연 시간을 비교합니다.
+ * 톰캣 스레드 수(20)만큼의 요청 스레드가 각각 파일 하나(PARTS 개의 part)를 업로드하고 모든 part가 끝날 때까지 기다립니다.
+ * SampleTime 결과의 p0.99 값이 업로드 한 건의 p99 지연 시간입니다.
+ * virtual 모드는 Java 21 이상에서 실행해야 합니다. (./gradlew -PjavaVersion=21 jmh)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(20)
+public class PartUploadExecutorBenchmark {
+
+	private static final int PARTS = 8;
+	private static final byte[] PART = new byte[64 * 1024];
+
+	@Param({"platform", "virtual"})
+	private String executor;
+
+	@Param({"50", "200"})
+	private long s3LatencyMillis;
+
+	private PartUploadExecutor partUploadExecutor;
+	private AmazonS3 amazonS3;
+
+	@Setup
+	public void setUp() {
+		amazonS3 = SlowS3StandIn.create(s3LatencyMillis);
+		partUploadExecutor = executor.equals("virtual")
+			? new VirtualThreadPartUploadExecutor(VIRTUAL_WRITER_MAX_IN_FLIGHT_PARTS,
+			VIRTUAL_WRITER_MAX_PARTS_PER_UPLOAD)
+			: new PlatformPartUploadExecutor();
+	}
+
+	@Benchmark
+	public void uploadFile() throws InterruptedException {
+		String uploadKey = UUID.randomUUID().toString();
+		CountDownLatch latch = new CountDownLatch(PARTS);
+		partUploadExecutor.register(uploadKey);
+		for (int partNumber = 1; partNumber <= PARTS; partNumber++) {
+			int currentPartNumber = partNumber;
+			partUploadExecutor.execute(uploadKey, () -> {
+				amazonS3.uploadPart(new UploadPartRequest()
+					.withKey(uploadKey)
+					.withPartNumber(currentPartNumber)
+					.withInputStream(new ByteArrayInputStream(PART))
+					.withPartSize(PART.length));
+				latch.countDown();
+			});
+		}
+		latch.await();
+		partUploadExecutor.unregister(uploadKey);
+	}
+}
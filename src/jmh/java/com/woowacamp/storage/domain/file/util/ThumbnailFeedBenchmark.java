@@ -0,0 +1,149 @@
+package com.woowacamp.storage.domain.file.util;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * 이미지 업로드 한 건을 처리하는 동안 썸네일 생성이 업로드 스레드에 주는 영향을 비교합니다.
+ * 업로드 스레드는 file.reader.bufferSize 단위로 이미지 본문을 part 버퍼에 복사하면서 썸네일 쪽으로도 넘깁니다.
+ * - none: 썸네일을 만들지 않는 기준값
+ * - piped: 기존 방식. PipedOutputStream에 쓰고 썸네일 스레드가 PipedInputStream으로 읽습니다.
+ * - ring: SpscByteRingBuffer에 넘기고, 버퍼가 가득 차면 그 파일의 썸네일을 포기합니다.
+ * uploadImage는 업로드 스레드가 본문을 모두 넘길 때까지의 시간만 잽니다. 썸네일 작업은 다음 호출 전에 끝날 때까지 기다립니다.
+ * dropped 보조 지표는 ring 모드에서 썸네일을 포기한 횟수입니다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(4)
+public class ThumbnailFeedBenchmark {
+
+	private static final int READ_BUFFER_SIZE = 8 * 1024;
+	private static final ExecutorService THUMBNAIL_THREADS = Executors.newCachedThreadPool();
+
+	@Param({"none", "piped", "ring"})
+	private String mode;
+
+	@Param({"1048576", "4194304"})
+	private int ringBufferSize;
+
+	private byte[] image;
+	private byte[] partBuffer;
+	private CompletableFuture<Void> thumbnail = CompletableFuture.completedFuture(null);
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Drops {
+		public long dropped;
+	}
+
+	@Setup
+	public void setUp() throws IOException {
+		image = createJpeg(2400, 1600);
+		partBuffer = new byte[image.length];
+	}
+
+	@TearDown(Level.Invocation)
+	public void awaitThumbnail() {
+		thumbnail.join();
+	}
+
+	@Benchmark
+	public int uploadImage(Drops drops) throws IOException {
+		return switch (mode) {
+			case "piped" -> feedPiped();
+			case "ring" -> feedRing(drops);
+			default -> copyToPart(0, image.length);
+		};
+	}
+
+	private int feedPiped() throws IOException {
+		PipedOutputStream outputStream = new PipedOutputStream();
+		PipedInputStream inputStream = new PipedInputStream(outputStream);
+		thumbnail = render(inputStream);
+		int copied = 0;
+		try (outputStream) {
+			for (int offset = 0; offset < image.length; offset += READ_BUFFER_SIZE) {
+				int length = Math.min(READ_BUFFER_SIZE, image.length - offset);
+				outputStream.write(image, offset, length);
+				copied += copyToPart(offset, length);
+			}
+		}
+		return copied;
+	}
+
+	private int feedRing(Drops drops) {
+		SpscByteRingBuffer ringBuffer = new SpscByteRingBuffer(ringBufferSize);
+		thumbnail = render(ringBuffer.getInputStream());
+		boolean aborted = false;
+		int copied = 0;
+		for (int offset = 0; offset < image.length; offset += READ_BUFFER_SIZE) {
+			int length = Math.min(READ_BUFFER_SIZE, image.length - offset);
+			if (!aborted && !ringBuffer.offer(image, offset, length)) {
+				ringBuffer.abort();
+				drops.dropped++;
+				aborted = true;
+			}
+			copied += copyToPart(offset, length);
+		}
+		ringBuffer.close();
+		return copied;
+	}
+
+	private int copyToPart(int offset, int length) {
+		System.arraycopy(image, offset, partBuffer, offset, length);
+		return length;
+	}
+
+	private CompletableFuture<Void> render(InputStream inputStream) {
+		return CompletableFuture.runAsync(() -> {
+			try (inputStream) {
+				ThumbnailRenderer.render(inputStream, "jpeg");
+				// 디코더가 읽지 않은 나머지 본문도 비워서 쓰는 쪽이 막히지 않게 한다.
+				inputStream.transferTo(OutputStream.nullOutputStream());
+			} catch (IOException ignored) {
+				// 썸네일을 포기한 경우
+			}
+		}, THUMBNAIL_THREADS);
+	}
+
+	private static byte[] createJpeg(int width, int height) throws IOException {
+		BufferedImage bufferedImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics = bufferedImage.createGraphics();
+		graphics.setPaint(new GradientPaint(0, 0, Color.ORANGE, width, height, Color.BLUE));
+		graphics.fillRect(0, 0, width, height);
+		for (int i = 0; i < 200; i++) {
+			graphics.setColor(new Color(i * 1_234_567 & 0xffffff));
+			graphics.fillOval(i * 37 % width, i * 53 % height, 120, 80);
+		}
+		graphics.dispose();
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		ImageIO.write(bufferedImage, "jpeg", outputStream);
+		return outputStream.toByteArray();
+	}
+}
@@ -0,0 +1,222 @@
+package com.woowacamp.storage.support;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 느린 클라이언트 여러 개가 동시에 파일을 올리는 상황을 재현하는 부하 도구입니다.
+ * 클라이언트마다 소켓을 열고 bytesPerSecond 속도로 multipart 본문을 나눠 보낸 뒤, 업로드 완료 응답까지의 시간을 잽니다.
+ * 업로드가 진행되는 동안 probePath로 1초마다 GET 요청을 보내서 다른 요청이 처리되는지도 확인합니다.
+ * <p>
+ * v1(/api/v1/files)은 느린 업로드가 톰캣 스레드를 모두 차지하면 probe 요청이 지연되고,
+ * v3(/api/v3/files)는 데이터를 기다리는 동안 스레드를 놓아주기 때문에 probe 지연이 늘지 않아야 합니다.
+ * <p>
+ * 실행: ./gradlew slowClientUploadLoad --args="localhost 8080 /api/v3/files 1 1 1000 65536 8192"
+ * 인자: host port path userId parentFolderId clients fileSize bytesPerSecond [probePath]
+ * userId 사용자가 parentFolderId 폴더에 쓰기 권한을 가지고 있어야 합니다.
+ */
+public final class SlowClientUploadLoad {
+
+	private static final String BOUNDARY = "----SlowClientBoundary";
+	private static final int TICK_MILLIS = 100;
+
+	private SlowClientUploadLoad() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		String host = args[0];
+		int port = Integer.parseInt(args[1]);
+		String path = args[2];
+		long userId = Long.parseLong(args[3]);
+		long parentFolderId = Long.parseLong(args[4]);
+		int clients = Integer.parseInt(args[5]);
+		int fileSize = Integer.parseInt(args[6]);
+		int bytesPerSecond = Integer.parseInt(args[7]);
+		String probePath = args.length > 8 ? args[8] : "/actuator/prometheus";
+
+		ScheduledExecutorService writers = Executors.newScheduledThreadPool(8);
+		ExecutorService readers = Executors.newCachedThreadPool();
+		List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+		List<Long> probeLatencies = Collections.synchronizedList(new ArrayList<>());
+		Map<String, AtomicInteger> statuses = new ConcurrentHashMap<>();
+		CountDownLatch done = new CountDownLatch(clients);
+		String runId = Long.toString(System.currentTimeMillis(), 36);
+
+		ScheduledExecutorService prober = Executors.newSingleThreadScheduledExecutor();
+		prober.scheduleAtFixedRate(() -> probeLatencies.add(probe(host, port, probePath)), 0, 1, TimeUnit.SECONDS);
+
+		for (int i = 0; i < clients; i++) {
+			byte[] body = body(userId, parentFolderId, "slow-" + runId + "-" + i + ".bin", fileSize);
+			new SlowClient(host, port, path, body, bytesPerSecond, writers, readers, latencies, statuses, done)
+				.start();
+		}
+		done.await();
+		prober.shutdownNow();
+		writers.shutdownNow();
+		readers.shutdownNow();
+
+		System.out.printf("clients=%d, fileSize=%d, bytesPerSecond=%d, path=%s%n", clients, fileSize,
+			bytesPerSecond, path);
+		System.out.println("statuses=" + statuses);
+		print("upload latency(ms)", latencies);
+		print("probe latency(ms)", probeLatencies);
+	}
+
+	private static byte[] body(long userId, long parentFolderId, String fileName, int fileSize) {
+		StringBuilder head = new StringBuilder();
+		appendField(head, "userId", Long.toString(userId));
+		appendField(head, "parentFolderId", Long.toString(parentFolderId));
+		appendField(head, "fileSize", Integer.toString(fileSize));
+		head.append("--").append(BOUNDARY).append("\r\n")
+			.append("Content-Disposition: form-data; name=\"file\"; filename=\"").append(fileName).append("\"\r\n")
+			.append("Content-Type: application/octet-stream\r\n\r\n");
+		byte[] headBytes = head.toString().getBytes(StandardCharsets.UTF_8);
+		byte[] tailBytes = ("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8);
+		byte[] body = new byte[headBytes.length + fileSize + tailBytes.length];
+		System.arraycopy(headBytes, 0, body, 0, headBytes.length);
+		System.arraycopy(tailBytes, 0, body, headBytes.length + fileSize, tailBytes.length);
+		return body;
+	}
+
+	private static void appendField(StringBuilder builder, String name, String value) {
+		builder.append("--").append(BOUNDARY).append("\r\n")
+			.append("Content-Disposition: form-data; name=\"").append(name).append("\"\r\n\r\n")
+			.append(value).append("\r\n");
+	}
+
+	private static long probe(String host, int port, String path) {
+		long start = System.nanoTime();
+		try {
+			HttpURLConnection connection = (HttpURLConnection)new URL("http", host, port, path).openConnection();
+			connection.setConnectTimeout(30_000);
+			connection.setReadTimeout(30_000);
+			connection.getInputStream().transferTo(OutputStream.nullOutputStream());
+			connection.disconnect();
+		} catch (IOException e) {
+			return -1;
+		}
+		return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+	}
+
+	private static void print(String name, List<Long> values) {
+		List<Long> sorted = new ArrayList<>(values);
+		sorted.removeIf(value -> value < 0);
+		Collections.sort(sorted);
+		if (sorted.isEmpty()) {
+			System.out.println(name + ": no samples");
+			return;
+		}
+		System.out.printf("%s: count=%d, p50=%d, p99=%d, max=%d, failed=%d%n", name, sorted.size(),
+			sorted.get(sorted.size() / 2), sorted.get((int)Math.min(sorted.size() - 1, sorted.size() * 0.99)),
+			sorted.get(sorted.size() - 1), values.size() - sorted.size());
+	}
+
+	/**
+	 * TICK_MILLIS마다 bytesPerSecond에 맞는 만큼만 본문을 보냅니다.
+	 */
+	private static class SlowClient {
+		private final String host;
+		private final int port;
+		private final String path;
+		private final byte[] body;
+		private final int bytesPerTick;
+		private final ScheduledExecutorService writers;
+		private final ExecutorService readers;
+		private final List<Long> latencies;
+		private final Map<String, AtomicInteger> statuses;
+		private final CountDownLatch done;
+		private Socket socket;
+		private int written;
+		private long startedAt;
+
+		private SlowClient(String host, int port, String path, byte[] body, int bytesPerSecond,
+			ScheduledExecutorService writers, ExecutorService readers, List<Long> latencies,
+			Map<String, AtomicInteger> statuses, CountDownLatch done) {
+			this.host = host;
+			this.port = port;
+			this.path = path;
+			this.body = body;
+			this.bytesPerTick = Math.max(1, bytesPerSecond * TICK_MILLIS / 1000);
+			this.writers = writers;
+			this.readers = readers;
+			this.latencies = latencies;
+			this.statuses = statuses;
+			this.done = done;
+		}
+
+		private void start() {
+			writers.execute(() -> {
+				try {
+					startedAt = System.nanoTime();
+					socket = new Socket(host, port);
+					socket.setSoTimeout(0);
+					String header = "POST " + path + " HTTP/1.1\r\n"
+						+ "Host: " + host + ":" + port + "\r\n"
+						+ "Content-Type: multipart/form-data; boundary=" + BOUNDARY + "\r\n"
+						+ "Content-Length: " + body.length + "\r\n"
+						+ "Connection: close\r\n\r\n";
+					socket.getOutputStream().write(header.getBytes(StandardCharsets.US_ASCII));
+					writeNext();
+				} catch (IOException e) {
+					finish("connect-error");
+				}
+			});
+		}
+
+		private void writeNext() {
+			try {
+				int length = Math.min(bytesPerTick, body.length - written);
+				socket.getOutputStream().write(body, written, length);
+				written += length;
+			} catch (IOException e) {
+				finish("write-error");
+				return;
+			}
+			if (written < body.length) {
+				writers.schedule(this::writeNext, TICK_MILLIS, TimeUnit.MILLISECONDS);
+				return;
+			}
+			readers.execute(this::readResponse);
+		}
+
+		private void readResponse() {
+			try (BufferedReader reader = new BufferedReader(
+				new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII))) {
+				String statusLine = reader.readLine();
+				latencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+				finish(statusLine == null ? "no-response" : statusLine.split(" ")[1]);
+			} catch (IOException e) {
+				finish("read-error");
+			}
+		}
+
+		private void finish(String status) {
+			statuses.computeIfAbsent(status, key -> new AtomicInteger()).incrementAndGet();
+			try {
+				if (socket != null) {
+					socket.close();
+				}
+			} catch (IOException ignored) {
+				// 이미 닫힌 소켓
+			}
+			done.countDown();
+		}
+	}
+}
@@ -0,0 +1,125 @@
+package com.woowacamp.storage.support;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadResult;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
+import com.amazonaws.services.s3.model.PutObjectResult;
+import com.amazonaws.services.s3.model.S3Object;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.amazonaws.services.s3.model.UploadPartResult;
+
+/**
+ * 벤치마크에서 사용하는 느린 S3 대역입니다.
+ * 요청마다 latencyMillis 만큼 대기한 뒤 성공 응답을 돌려줍니다.
+ * getObject는 크기가 objectSize인 객체를 돌려주며, 응답 스트림마다 초당 bytesPerSecond 바이트까지만 읽을 수 있습니다.
+ * 실제 S3처럼 연결 하나의 처리량은 제한되지만 연결을 늘리면 전체 처리량이 늘어나는 상황을 흉내 냅니다.
+ */
+public final class SlowS3StandIn {
+
+	private SlowS3StandIn() {
+	}
+
+	public static AmazonS3 create(long latencyMillis) {
+		return create(latencyMillis, Long.MAX_VALUE, 0);
+	}
+
+	public static AmazonS3 create(long latencyMillis, long bytesPerSecond, long objectSize) {
+		return (AmazonS3)Proxy.newProxyInstance(AmazonS3.class.getClassLoader(), new Class[] {AmazonS3.class},
+			(proxy, method, args) -> {
+				switch (method.getName()) {
+					case "initiateMultipartUpload" -> {
+						InitiateMultipartUploadResult result = new InitiateMultipartUploadResult();
+						result.setUploadId(UUID.randomUUID().toString());
+						return result;
+					}
+					case "uploadPart" -> {
+						UploadPartRequest request = (UploadPartRequest)args[0];
+						request.getInputStream().transferTo(OutputStream.nullOutputStream());
+						sleep(latencyMillis);
+						UploadPartResult result = new UploadPartResult();
+						result.setPartNumber(request.getPartNumber());
+						result.setETag(UUID.randomUUID().toString());
+						return result;
+					}
+					case "completeMultipartUpload" -> {
+						sleep(latencyMillis);
+						return new CompleteMultipartUploadResult();
+					}
+					case "getObject" -> {
+						long[] range = ((GetObjectRequest)args[0]).getRange();
+						long length = range == null ? objectSize : Math.min(range[1], objectSize - 1) - range[0] + 1;
+						sleep(latencyMillis);
+						S3Object s3Object = new S3Object();
+						s3Object.setObjectContent(new ThrottledInputStream(length, bytesPerSecond));
+						s3Object.getObjectMetadata().setContentLength(length);
+						return s3Object;
+					}
+					case "putObject" -> {
+						sleep(latencyMillis);
+						return new PutObjectResult();
+					}
+					case "toString" -> {
+						return "SlowS3StandIn(" + latencyMillis + "ms)";
+					}
+					default -> throw new UnsupportedOperationException(method.getName());
+				}
+			});
+	}
+
+	private static void sleep(long millis) throws InterruptedException {
+		TimeUnit.MILLISECONDS.sleep(millis);
+	}
+
+	/**
+	 * length 바이트의 0을 초당 bytesPerSecond 바이트 속도로 내보냅니다.
+	 */
+	private static class ThrottledInputStream extends InputStream {
+
+		private final long length;
+		private final long bytesPerSecond;
+		private final long startedAt = System.nanoTime();
+		private long sent;
+
+		ThrottledInputStream(long length, long bytesPerSecond) {
+			this.length = length;
+			this.bytesPerSecond = bytesPerSecond;
+		}
+
+		@Override
+		public int read() throws IOException {
+			byte[] single = new byte[1];
+			return read(single, 0, 1) == -1 ? -1 : 0;
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int count) throws IOException {
+			if (sent == length) {
+				return -1;
+			}
+			int read = (int)Math.min(Math.min(count, 64 * 1024), length - sent);
+			sent += read;
+			Arrays.fill(buffer, offset, offset + read, (byte)0);
+			long sendAt = startedAt + (long)(sent * 1_000_000_000.0 / bytesPerSecond);
+			long waitNanos = sendAt - System.nanoTime();
+			if (waitNanos > 0) {
+				try {
+					TimeUnit.NANOSECONDS.sleep(waitNanos);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException();
+				}
+			}
+			return read;
+		}
+	}
+}
@@ -1,11 +1,26 @@
 package com.woowacamp.storage.domain.file.controller;
 
+import static com.woowacamp.storage.global.constant.CommonConstant.*;
+
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
-import java.lang.management.ManagementFactory;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.apache.catalina.connector.ClientAbortException;
 import org.springframework.beans.factory.annotation.Value;
@@ -18,6 +33,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -28,18 +44,34 @@ import com.amazonaws.services.s3.model.AmazonS3Exception;
 import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
 import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
 import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.woowacamp.storage.domain.file.dto.BatchSizeValidationDto;
+import com.woowacamp.storage.domain.file.dto.ByteRange;
 import com.woowacamp.storage.domain.file.dto.FileDataDto;
 import com.woowacamp.storage.domain.file.dto.FileMetadataDto;
+import com.woowacamp.storage.domain.file.dto.FileUploadResultDto;
 import com.woowacamp.storage.domain.file.dto.FormMetadataDto;
 import com.woowacamp.storage.domain.file.dto.PartContext;
+import com.woowacamp.storage.domain.file.dto.PartPayload;
+import com.woowacamp.storage.domain.file.dto.SpoolFile;
 import com.woowacamp.storage.domain.file.dto.UploadContext;
 import com.woowacamp.storage.domain.file.dto.UploadState;
 import com.woowacamp.storage.domain.file.entity.FileMetadata;
 import com.woowacamp.storage.domain.file.repository.FileMetadataRepository;
+import com.woowacamp.storage.domain.file.service.ContentBlobService;
 import com.woowacamp.storage.domain.file.service.FileService;
+import com.woowacamp.storage.domain.file.service.ParallelRangeDownloader;
+import com.woowacamp.storage.domain.file.service.PartBufferPool;
+import com.woowacamp.storage.domain.file.service.PartSizePolicy;
 import com.woowacamp.storage.domain.file.service.FileWriterThreadPool;
 import com.woowacamp.storage.domain.file.service.S3FileService;
+import com.woowacamp.storage.domain.file.service.ThumbnailStorage;
 import com.woowacamp.storage.domain.file.service.ThumbnailWriterThreadPool;
+import com.woowacamp.storage.domain.file.service.UploadMetrics;
+import com.woowacamp.storage.domain.file.service.UploadSpool;
+import com.woowacamp.storage.domain.file.util.ByteRangeParser;
+import com.woowacamp.storage.domain.file.util.MultipartByteRanges;
+import com.woowacamp.storage.domain.file.util.MultipartPartHandler;
+import com.woowacamp.storage.domain.file.util.MultipartStreamParser;
 import com.woowacamp.storage.global.annotation.CheckField;
 import com.woowacamp.storage.global.annotation.RequestType;
 import com.woowacamp.storage.global.aop.PermissionFieldsDto;
@@ -47,6 +79,9 @@ import com.woowacamp.storage.global.aop.PermissionHandler;
 import com.woowacamp.storage.global.aop.type.FieldType;
 import com.woowacamp.storage.global.aop.type.FileType;
 import com.woowacamp.storage.global.constant.PermissionType;
+import com.woowacamp.storage.global.constant.ThumbnailSize;
+import com.woowacamp.storage.global.constant.UploadApi;
+import com.woowacamp.storage.global.constant.UploadStage;
 import com.woowacamp.storage.global.error.CustomException;
 import com.woowacamp.storage.global.error.ErrorCode;
 
@@ -62,14 +97,20 @@ import lombok.extern.slf4j.Slf4j;
 @Validated
 public class MultipartFileController {
 
-	public static final int INITIAL_CAPACITY = 5 * 1024 * 1024 + 1024 * 600;
 	private final AmazonS3 amazonS3;
 	private final S3FileService s3FileService;
 	private final FileWriterThreadPool fileWriterThreadPool;
 	private final FileMetadataRepository fileMetadataRepository;
 	private final FileService fileService;
 	private final ThumbnailWriterThreadPool thumbnailWriterThreadPool;
+	private final ThumbnailStorage thumbnailStorage;
 	private final PermissionHandler permissionHandler;
+	private final PartBufferPool partBufferPool;
+	private final PartSizePolicy partSizePolicy;
+	private final UploadMetrics uploadMetrics;
+	private final ContentBlobService contentBlobService;
+	private final UploadSpool uploadSpool;
+	private final ParallelRangeDownloader parallelRangeDownloader;
 
 	@Value("${cloud.aws.credentials.bucketName}")
 	private String bucketName;
@@ -83,157 +124,530 @@ public class MultipartFileController {
 	/**
 	 * MultipartFile은 임시 저장을 해서 직접 request를 통해 multipart/form-data를 파싱했습니다.
 	 * 파싱을 하고 S3에 이미지를 업로드합니다.
+	 * 한 요청에 파일 파트를 여러 개 보낼 수 있고, 파일마다 업로드 결과를 반환합니다.
+	 * 여러 파일을 보내는 경우 fileSize 대신 fileSizes 필드에 파일 순서대로 크기를 보내면 첫 파일에서 목록 전체의 용량을 한 번에 검사하고,
+	 * 용량을 넘는 파일만 그 파일의 결과로 거절합니다.
 	 */
 	@ResponseStatus(HttpStatus.CREATED)
 	@PostMapping
-	public void handleFileUpload(HttpServletRequest request) throws Exception {
-		Runtime runtime = Runtime.getRuntime();
-		long totalMemory = runtime.totalMemory();
-		long freeMemory = runtime.freeMemory();
-		long maxMemory = runtime.maxMemory();
-		long usedMemory = totalMemory - freeMemory;
-		log.info("new request, used mem: {}, free mem: {}, total mem: {}, max mem: {}", usedMemory, freeMemory,
-			totalMemory, maxMemory);
-		log.info("Active thread count: {}", ManagementFactory.getThreadMXBean().getThreadCount());
+	public List<FileUploadResultDto> handleFileUpload(HttpServletRequest request) throws Exception {
 		String boundary = "--" + extractBoundary(request.getContentType());
 		String finalBoundary = boundary + "--";
 
 		try (InputStream inputStream = request.getInputStream()) {
 			UploadContext context = new UploadContext(boundary, finalBoundary, new HashMap<>(), false);
-			processMultipartData(inputStream, context);
+			return processMultipartData(inputStream, context);
 		}
 	}
 
 	/**
-	 * 클라이언트 요청을 buffer 단위로 읽어서 processBuffer 메소드를 호출합니다.
-	 * processBuffer 메소드에서 헤더 파싱을 하고 boundary 체크를 하여 각 파트를 구분합니다.
+	 * 클라이언트 요청을 MultipartStreamParser로 읽어들입니다.
+	 * 파서가 boundary 기준으로 각 파트를 구분하고, 헤더와 본문 슬라이스를 UploadPartHandler에 전달합니다.
+	 * 모든 파트를 읽은 뒤 업로드한 파일들의 메타데이터를 한 번에 갱신합니다.
 	 */
-	private void processMultipartData(InputStream inputStream, UploadContext context) throws Exception {
-		byte[] buffer = new byte[bufferSize];
-		ByteArrayOutputStream lineBuffer = new ByteArrayOutputStream(lineBufferMaxSize);
-		ByteArrayOutputStream contentBuffer = new ByteArrayOutputStream(INITIAL_CAPACITY);
-		PartContext partContext = new PartContext();
-		UploadState state = new UploadState();
+	private List<FileUploadResultDto> processMultipartData(InputStream inputStream, UploadContext context)
+		throws Exception {
+		UploadPartHandler handler = new UploadPartHandler(context, new PartContext(), new UploadState());
+		MultipartStreamParser parser = new MultipartStreamParser(context.getBoundary(), bufferSize,
+			lineBufferMaxSize, handler);
 
 		try {
-			int bytesRead;
-			while ((bytesRead = inputStream.read(buffer)) != -1) {
-				if (processBuffer(buffer, bytesRead, lineBuffer, contentBuffer, context, partContext, state)) {
-					break;
-				}
-			}
+			parser.parse(inputStream);
+			handler.finalizeFiles();
+			handler.awaitCompletion();
+			return handler.getResults();
 		} catch (ClientAbortException e) {
 			log.error("[ClientAbortException] 입력 처리 중 예외 발생. ERROR MESSAGE = {}", e.getMessage());
-			if (context.getFileMetadata() == null) {
+			if (handler.files.isEmpty()) {
 				throw ErrorCode.INVALID_MULTIPART_FORM_DATA.baseException();
 			}
-			fileMetadataRepository.updateUploadStatusById(context.getFileMetadata().metadataId());
+			handler.failPendingFiles();
+			return handler.getResults();
 		} catch (AmazonS3Exception e) {
 			log.error("[AmazonS3Exception] 입력 예외로 완성되지 않은 S3 파일 제거 중 예외 발생. ERROR MESSAGE = {}", e.getMessage());
+			handler.failPendingFiles();
+			return handler.getResults();
 		} catch (CustomException e) {
+			handler.failPendingFiles();
 			throw e;
 		} catch (Exception e) {
 			log.error("[Exception] 예상치 못한 예외가 발생했습니다: {}, {}", e.getCause(), e.getMessage());
+			handler.failPendingFiles();
 			throw e;
+		} finally {
+			handler.releasePartBuffer();
+			handler.abortSpoolFiles();
+			handler.abortUnfinishedThumbnail();
 		}
 	}
 
 	/**
-	 * line 단위로 buffer를 읽어들입니다.
-	 * boundary 기준으로 헤더를 먼저 읽고 나머지는 processContent로 content 처리를 합니다.
-	 * 헤더 데이터를 읽은 후, 1차로 사용자 정보, 파일 이름 등의 메타데이터를 저장합니다.
-	 *
-	 * @return - true인 경우 API 명세에 따라 추가 데이터는 읽지 않는다.
+	 * 파서가 구분한 파트를 처리합니다.
+	 * 첫 파일 파트에서 권한을 확인하고, 파일마다 앞 파일들과 합친 용량을 확인한 뒤 1차 메타데이터를 저장합니다.
+	 * 폼 필드는 fieldBuffer에, 파일 데이터는 PartBufferPool에서 빌린 버퍼로 구성한 partPayload에 담습니다.
+	 * 메타데이터를 만들지 못한 파일은 본문을 건너뛰고 다음 파일을 계속 읽습니다.
 	 */
-	private boolean processBuffer(byte[] buffer, int bytesRead, ByteArrayOutputStream lineBuffer,
-		ByteArrayOutputStream contentBuffer, UploadContext context, PartContext partContext, UploadState state) throws
-		Exception {
-		for (int i = 0; i < bytesRead; i++) {
-			byte b = buffer[i];
-			lineBuffer.write(b);
-
-			if (b != '\n') {
-				continue;
-			}
-			String line = lineBuffer.toString().trim();
-
-			if (line.equals(context.getBoundary()) || line.equals(context.getFinalBoundary())) {
-				// boundary 한 줄을 읽은 경우
-				if (context.isFileRead()) {
-					// final boundary
-					// 메타데이터 쓰기에 성공을 해야 S3에 파일 업로드를 요청한다
-					s3FileService.finalizeMetadata(context.getFileMetadata(),
-						state.getFileSize() + contentBuffer.size() - 2);
-					processEndOfPart(contentBuffer, context, partContext, state);
-					return true;
+	@RequiredArgsConstructor
+	private class UploadPartHandler implements MultipartPartHandler {
+		private final UploadContext context;
+		private final PartContext partContext;
+		private final UploadState state;
+		private final ByteArrayOutputStream fieldBuffer = new ByteArrayOutputStream();
+		private final List<UploadedFile> files = new ArrayList<>();
+		private final long startedAt = System.nanoTime();
+		private UploadContext fileContext;
+		private UploadedFile currentFile;
+		private PartPayload partPayload;
+		private FormMetadataDto batchMetadata;
+		private List<Long> declaredFileSizes;
+		private final List<Long> acceptedFileSizes = new ArrayList<>();
+		private BatchSizeValidationDto sizeValidation;
+		private boolean finalized;
+
+		@Override
+		public void onPartBegin(Map<String, String> headers) throws Exception {
+			processHeader(headers, partContext);
+			if (partContext.getCurrentFileName() == null) {
+				return;
+			}
+			if (files.isEmpty()) {
+				uploadMetrics.recordStage(UploadApi.V1, UploadStage.HEADER_PARSE, startedAt);
+			}
+			if (files.size() >= MAX_FILES_PER_UPLOAD_REQUEST) {
+				throw ErrorCode.INVALID_MULTIPART_FORM_DATA.baseException("한 요청으로 최대 %d개의 파일을 올릴 수 있습니다.",
+					MAX_FILES_PER_UPLOAD_REQUEST);
+			}
+			// 메타데이터를 만들기 전에 업로드 메모리 예산에서 첫 버퍼를 받는다. 받지 못하면 503으로 거절한다.
+			partPayload = new PartPayload();
+			partPayload.addBuffer(partBufferPool.acquireForAdmission());
+			int fileIndex = files.size();
+			currentFile = new UploadedFile(partContext.getCurrentFileName());
+			files.add(currentFile);
+
+			FormMetadataDto formMetadataDto;
+			FileMetadataDto fileMetadataDto;
+			try {
+				formMetadataDto = nextFormMetadata(fileIndex);
+				long createStartedAt = System.nanoTime();
+				fileMetadataDto = s3FileService.createInitialMetadataInBatch(formMetadataDto, partContext,
+					sizeValidation.rootFolderId());
+				uploadMetrics.recordStage(UploadApi.V1, UploadStage.CREATE_METADATA, createStartedAt);
+			} catch (CustomException e) {
+				currentFile.exception = e;
+				releasePartBuffer();
+				return;
+			}
+			currentFile.fileMetadataDto = fileMetadataDto;
+			fileContext = context.nextFile();
+			if (partContext.getCurrentContentType().startsWith("image/")) {
+				String imageFormat = partContext.getCurrentContentType().substring(6);
+				fileContext.updateImageFormat(imageFormat, thumbnailWriterThreadPool.newThumbnailBuffer());
+			}
+			fileContext.updateFileMetadata(fileMetadataDto);
+			fileContext.updateIsFileRead();
+			partContext.setUploadFileName(fileMetadataDto.uuid());
+			// multipart upload는 첫 part가 가득 찼을 때 시작한다. 그 전에 파일이 끝나면 putObject 한 번으로 업로드한다.
+			state.setFileMetadataDto(fileMetadataDto);
+			state.setPartSize(partSizePolicy.choosePartSize(formMetadataDto.getFileSize()));
+			// 스풀 모드에서는 본문을 디스크에 바로 쓰므로 part 버퍼를 사용하지 않는다. 용량이 부족하면 S3로 바로 올린다.
+			currentFile.spoolFile = uploadSpool.open(fileMetadataDto.uuid(), formMetadataDto.getFileSize());
+			if (currentFile.spoolFile != null) {
+				releasePartBuffer();
+			}
+		}
+
+		@Override
+		public void onPartContent(byte[] buffer, int offset, int length) throws Exception {
+			if (partContext.getCurrentFileName() == null) {
+				processField(buffer, offset, length);
+				return;
+			}
+			if (currentFile.isSkipped()) {
+				return;
+			}
+			uploadMetrics.countUploadBytes(UploadApi.V1, length);
+			thumbnailWriterThreadPool.feed(fileContext, buffer, offset, length);
+			state.updateContentHash(buffer, offset, length);
+			if (currentFile.spoolFile != null) {
+				currentFile.spoolFile.write(buffer, offset, length);
+				state.addFileSize(length);
+			} else {
+				processContent(buffer, offset, length);
+			}
+		}
+
+		/**
+		 * 파일 파트가 끝나면 S3 업로드를 마무리하고, 메타데이터는 모든 파트를 읽은 뒤 finalizeFiles에서 한 번에 갱신합니다.
+		 */
+		@Override
+		public boolean onPartEnd() throws Exception {
+			if (partContext.getCurrentFileName() == null) {
+				processEndOfPart();
+			} else if (!currentFile.isSkipped()) {
+				finishFile();
+			}
+			resetState(partContext, state);
+			currentFile = null;
+			return false;
+		}
+
+		/**
+		 * 업로드한 파일들의 메타데이터를 한 트랜잭션에서 갱신하고, 폴더 크기는 합친 크기로 한 번만 반영합니다.
+		 */
+		private void finalizeFiles() {
+			List<FileMetadataDto> uploadedFiles = files.stream()
+				.filter(UploadedFile::isUploaded)
+				.map(file -> file.fileMetadataDto)
+				.toList();
+			if (!uploadedFiles.isEmpty()) {
+				long finalizeStartedAt = System.nanoTime();
+				s3FileService.finalizeMetadataBatch(uploadedFiles);
+				uploadMetrics.recordStage(UploadApi.V1, UploadStage.FINALIZE_METADATA, finalizeStartedAt);
+			}
+			finalized = true;
+		}
+
+		/**
+		 * 쓰기 작업 스레드 풀의 completeMultipartUpload가 끝날 때까지 기다립니다.
+		 * 제한 시간 안에 끝나지 않으면 응답을 먼저 보내고, 업로드는 쓰기 작업 스레드에서 계속 진행합니다.
+		 * S3 객체가 완성된 파일은 내용 해시로 등록해서 같은 내용의 객체가 있으면 그 객체를 함께 사용합니다.
+		 * 스풀 파일은 메타데이터를 갱신했으므로 drainer에 넘기고 기다리지 않습니다. 내용 해시 등록도 drainer가 합니다.
+		 * 모든 파일이 실패했다면 첫 번째 실패 원인을 그대로 던집니다.
+		 */
+		private void awaitCompletion() throws InterruptedException {
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(UPLOAD_COMPLETION_TIMEOUT_SECONDS);
+			for (UploadedFile file : files) {
+				if (!file.isUploaded()) {
+					continue;
+				}
+				if (file.spoolFile != null) {
+					uploadSpool.drain(file.fileMetadataDto.uuid());
+					file.spoolFile = null;
+					continue;
+				}
+				if (file.completion == null) {
+					registerContent(file);
+					continue;
 				}
-				processEndOfPart(contentBuffer, context, partContext, state);
-				resetState(partContext, state);
-				// boundary가 끝난 뒤에 데이터가 남아 있으면 항상 헤더부터 시작
-				partContext.setInHeader(true);
-			} else if (partContext.isInHeader()) {
-				// boundary 읽은 이후
-				processHeader(line, partContext);
-				if (!partContext.isInHeader() && partContext.getCurrentFileName() != null) {
-					FormMetadataDto formMetadataDto = FormMetadataDto.of(context.getFormFields());
-					// PermissionHandler로 접근 권한을 확인한다.
-					PermissionFieldsDto permissionFieldsDto = new PermissionFieldsDto();
-					long userId = formMetadataDto.getUserId();
-					long parentFolderId = formMetadataDto.getParentFolderId();
-					permissionFieldsDto.setUserId(userId);
-					permissionFieldsDto.setFolderId(parentFolderId);
-					// 파일 쓰기는 현재 파일이 존재하지 않으므로 폴더에 대한 권한을 검증하고 통과하면 ownerId를 받아온다.
-					long ownerId = permissionHandler.getOwnerIdAndCheckPermission(PermissionType.WRITE, FileType.FOLDER,
-						permissionFieldsDto);
-					formMetadataDto.setUserId(ownerId);
-					formMetadataDto.setCreatorId(userId);
-
-					FileMetadataDto fileMetadataDto = s3FileService.createInitialMetadata(formMetadataDto, partContext);
-					if (partContext.getCurrentContentType().startsWith("image/")) {
-						String imageFormat = partContext.getCurrentContentType().substring(6);
-						context.updateImageFormat(imageFormat);
-					}
-					context.updateFileMetadata(fileMetadataDto);
-					context.updateIsFileRead();
-					partContext.setUploadFileName(fileMetadataDto.uuid());
-					InitiateMultipartUploadResult initiateMultipartUploadResult = initializeFileUpload(
-						partContext.getUploadFileName(), partContext.getCurrentContentType());
-					state.setInitResponse(initiateMultipartUploadResult);
-					state.initPartEtag(partContext.getUploadFileName());
-					state.setFileMetadataDto(fileMetadataDto);
+				try {
+					file.completion.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+					registerContent(file);
+				} catch (ExecutionException e) {
+					fileMetadataRepository.updateUploadStatusById(file.fileMetadataDto.metadataId());
+					file.exception = ErrorCode.FILE_UPLOAD_FAILED.baseException();
+				} catch (TimeoutException e) {
+					log.warn("[Upload Completion Timeout] file: {}", file.fileMetadataDto.uuid());
+					file.completion.thenRun(() -> registerContent(file));
 				}
+			}
+			if (!files.isEmpty() && files.stream().noneMatch(UploadedFile::isUploaded)) {
+				throw files.get(0).exception;
+			}
+		}
+
+		/**
+		 * 중복 제거는 부가 기능이므로 등록에 실패해도 업로드는 성공으로 두고, 파일은 자신의 객체를 계속 사용합니다.
+		 */
+		private void registerContent(UploadedFile file) {
+			try {
+				contentBlobService.register(file.fileMetadataDto, file.contentHash);
+			} catch (RuntimeException e) {
+				log.warn("[Content Register Failed] file: {}, message: {}", file.fileMetadataDto.uuid(),
+					e.getMessage());
+			}
+		}
+
+		private List<FileUploadResultDto> getResults() {
+			return files.stream().map(UploadedFile::toResult).toList();
+		}
+
+		/**
+		 * 메타데이터를 갱신하기 전에 요청이 끝난 경우, 1차 메타데이터를 FAIL로 바꿔서 스케줄러가 S3 데이터를 지우게 합니다.
+		 * 아직 끝나지 않은 multipart upload는 세션을 닫고 중단해서 올라간 part와 실행기 자리를 바로 정리합니다.
+		 */
+		private void failPendingFiles() {
+			if (finalized) {
+				return;
+			}
+			for (UploadedFile file : files) {
+				if (file.isUploaded()) {
+					fileWriterThreadPool.abortFileUpload(file.fileMetadataDto.uuid());
+					fileMetadataRepository.updateUploadStatusById(file.fileMetadataDto.metadataId());
+					file.exception = ErrorCode.FILE_UPLOAD_FAILED.baseException();
+				}
+			}
+		}
+
+		/**
+		 * 업로드가 중간에 끝난 경우, 쓰기 작업 스레드 풀에 넘기지 못한 버퍼를 반납합니다.
+		 */
+		private void releasePartBuffer() {
+			if (partPayload != null) {
+				partBufferPool.release(partPayload);
+				partPayload = null;
+			}
+		}
+
+		/**
+		 * 읽는 도중에 요청이 끝난 파일은 썸네일 버퍼가 닫히지 않으므로, 버퍼를 중단해서 썸네일 스레드가 계속 기다리지 않게 합니다.
+		 * 건너뛴 파일은 fileContext가 이전 파일의 것이므로 건드리지 않습니다.
+		 */
+		private void abortUnfinishedThumbnail() {
+			if (currentFile != null && !currentFile.isSkipped()) {
+				fileContext.abortCreateThumbnail();
+			}
+		}
+
+		/**
+		 * drainer에 넘기지 못한 스풀 파일을 지웁니다. 메타데이터는 PENDING이나 FAIL로 남아서 스케줄러가 정리합니다.
+		 */
+		private void abortSpoolFiles() {
+			for (UploadedFile file : files) {
+				abortSpool(file);
+			}
+		}
+
+		private void abortSpool(UploadedFile file) {
+			if (file.spoolFile != null) {
+				uploadSpool.abort(file.spoolFile);
+				file.spoolFile = null;
+			}
+		}
+
+		/**
+		 * 권한은 첫 파일에서 한 번만 확인합니다. 확인에 실패하면 batchMetadata를 남기지 않으므로 다음 파일도 다시 확인합니다.
+		 * 용량은 앞에서 받아들인 파일 크기와 합쳐서 확인합니다. 메타데이터는 업로드가 끝나야 폴더 크기에 반영되므로,
+		 * 합치지 않으면 같은 요청의 파일들이 함께 용량을 넘을 수 있습니다.
+		 * fileSizes를 보냈다면 권한을 확인한 뒤 목록 전체를 한 번만 확인하고 파일마다 그 결과를 꺼내 씁니다.
+		 * 보내지 않았다면 파일 크기를 미리 알 수 없으므로 파일마다 확인합니다.
+		 * 확인에 실패한 파일은 예외를 그 파일의 결과로 남기고 건너뛰며, 나머지 파일은 계속 업로드합니다.
+		 */
+		private FormMetadataDto nextFormMetadata(int fileIndex) {
+			Map<String, String> formFields = context.getFormFields();
+			String fileSizes = formFields.get("fileSizes");
+			long fileSize;
+			if (fileSizes == null) {
+				fileSize = FormMetadataDto.of(formFields).getFileSize();
+			} else {
+				if (declaredFileSizes == null) {
+					declaredFileSizes = FormMetadataDto.parseFileSizes(fileSizes);
+				}
+				if (fileIndex >= declaredFileSizes.size()) {
+					throw ErrorCode.INVALID_INPUT_VALUE.baseException("fileSizes에 크기를 보내지 않은 파일입니다.");
+				}
+				fileSize = declaredFileSizes.get(fileIndex);
+			}
+			FormMetadataDto formMetadataDto = FormMetadataDto.of(formFields, fileSize);
+
+			if (batchMetadata == null) {
+				// PermissionHandler로 접근 권한을 확인한다.
+				PermissionFieldsDto permissionFieldsDto = new PermissionFieldsDto();
+				permissionFieldsDto.setUserId(formMetadataDto.getUserId());
+				permissionFieldsDto.setFolderId(formMetadataDto.getParentFolderId());
+				// 파일 쓰기는 현재 파일이 존재하지 않으므로 폴더에 대한 권한을 검증하고 통과하면 ownerId를 받아온다.
+				long permissionStartedAt = System.nanoTime();
+				long ownerId = permissionHandler.getOwnerIdAndCheckPermission(PermissionType.WRITE, FileType.FOLDER,
+					permissionFieldsDto);
+				uploadMetrics.recordStage(UploadApi.V1, UploadStage.PERMISSION_CHECK, permissionStartedAt);
+				formMetadataDto.setCreatorId(formMetadataDto.getUserId());
+				formMetadataDto.setUserId(ownerId);
+				batchMetadata = formMetadataDto;
+			} else if (formMetadataDto.getUserId() != batchMetadata.getCreatorId()
+				|| formMetadataDto.getParentFolderId() != batchMetadata.getParentFolderId()) {
+				// 권한은 첫 파일에서만 확인하므로 같은 요청의 파일은 모두 같은 폴더에 올려야 한다.
+				throw ErrorCode.INVALID_INPUT_VALUE.baseException("한 요청의 파일은 같은 폴더에 올려야 합니다.");
+			}
+			validateFileSize(fileIndex, fileSize);
+			return new FormMetadataDto(batchMetadata.getUserId(), batchMetadata.getParentFolderId(), fileSize,
+				batchMetadata.getCreatorId());
+		}
+
+		private void validateFileSize(int fileIndex, long fileSize) {
+			if (declaredFileSizes == null) {
+				List<Long> fileSizes = new ArrayList<>(acceptedFileSizes);
+				fileSizes.add(fileSize);
+				sizeValidation = s3FileService.validateBatchSize(batchMetadata.getUserId(), fileSizes);
+				sizeValidation.throwIfRejected(fileSizes.size() - 1);
 			} else {
-				if (context.getImageFormat() != null && !context.isAbortedCreateThumbnail()) {
-					context.getPos().write(lineBuffer.toByteArray());
-					if (!context.isStartedCreatedThumbnail()) {
-						context.updateStartedCreatedThumbnail();
-						thumbnailWriterThreadPool.createThumbnail(context);
-					}
+				if (sizeValidation == null) {
+					sizeValidation = s3FileService.validateBatchSize(batchMetadata.getUserId(), declaredFileSizes);
 				}
-				processContent(contentBuffer, lineBuffer, partContext, state);
+				sizeValidation.throwIfRejected(fileIndex);
 			}
-			lineBuffer.reset();
+			acceptedFileSizes.add(fileSize);
 		}
 
-		checkLineBufferSize(lineBuffer, contentBuffer, partContext, state);
-		return false;
+		/**
+		 * 크기가 다른 파일은 FAIL로 바꾸고 다음 파일을 계속 읽습니다.
+		 */
+		private void finishFile() throws IOException {
+			try {
+				processEndOfPart();
+				currentFile.contentHash = state.digestContentHash();
+				commitSpool();
+			} catch (CustomException e) {
+				fileMetadataRepository.updateUploadStatusById(currentFile.fileMetadataDto.metadataId());
+				currentFile.exception = e;
+				releasePartBuffer();
+				abortSpool(currentFile);
+			} finally {
+				fileContext.closeThumbnailStream();
+			}
+		}
+
+		/**
+		 * 스풀 파일을 디스크에 기록한 이후에만 업로드 성공으로 응답합니다.
+		 */
+		private void commitSpool() {
+			if (currentFile.spoolFile == null) {
+				return;
+			}
+			try {
+				uploadSpool.commit(currentFile.spoolFile, partContext.getCurrentContentType(), currentFile.contentHash);
+			} catch (IOException e) {
+				log.error("[Spool Commit Failed] file: {}, message: {}", partContext.getUploadFileName(),
+					e.getMessage());
+				throw ErrorCode.FILE_UPLOAD_FAILED.baseException();
+			}
+		}
+
+		/**
+		 * 폼 필드는 OOM 방지를 위해 lineBufferMaxSize까지만 받습니다.
+		 */
+		private void processField(byte[] buffer, int offset, int length) {
+			if (fieldBuffer.size() + length > lineBufferMaxSize) {
+				throw ErrorCode.INVALID_MULTIPART_FORM_DATA.baseException();
+			}
+			fieldBuffer.write(buffer, offset, length);
+		}
+
+		/**
+		 * file인 경우, 남은 buffer의 내용을 upload 하고 field인 경우, response에 추가합니다.
+		 */
+		private void processEndOfPart() {
+			if (partContext.getCurrentFieldName() == null) {
+				return;
+			}
+			if (partContext.getCurrentFileName() != null) {
+				finishFileUpload();
+				s3FileService.checkMetadata(state);
+			} else {
+				context.getFormFields().put(partContext.getCurrentFieldName(), fieldBuffer.toString().trim());
+			}
+			fieldBuffer.reset();
+		}
+
+		/**
+		 * 버퍼가 가득 차면 풀에서 다음 버퍼를 빌려 이어 쓰고, partPayload가 선택된 part 크기만큼 차면 part upload를 합니다.
+		 */
+		private void processContent(byte[] buffer, int offset, int length) {
+			while (length > 0) {
+				if (partPayload.needsBuffer()) {
+					partPayload.addBuffer(partBufferPool.acquire());
+				}
+				int written = partPayload.write(buffer, offset, length);
+				offset += written;
+				length -= written;
+				if (partPayload.size() >= state.getPartSize()) {
+					uploadChunk();
+				}
+			}
+		}
+
+		/**
+		 * 실제로 파일 바이너리 데이터 쓰기 작업을 요청하는 메소드입니다.
+		 * 채운 partPayload의 소유권을 쓰기 작업에 넘기고 다음 part를 채울 partPayload를 만듭니다.
+		 * 첫 part인 경우 이 시점에 multipart upload를 시작합니다.
+		 */
+		private void uploadChunk() {
+			if (state.getInitResponse() == null) {
+				state.setInitResponse(
+					initializeFileUpload(partContext.getUploadFileName(), partContext.getCurrentContentType()));
+				uploadMetrics.countMultipartUpload();
+			}
+			partContext.plusPartCount();
+			state.addPartNumber();
+			state.addFileSize(partPayload.size());
+			fileWriterThreadPool.produce(partContext.getUploadFileName(), state.getPartNumber(), handOverPartPayload());
+			partPayload = new PartPayload();
+		}
+
+		/**
+		 * part upload가 모두 끝난 이후, 최종 finish upload 요청을 합니다.
+		 * 버퍼에 보내지 못한 데이터가 존재할 수 있으니 확인을 하고 쓰기 작업 스레드 풀에 작업이 끝났음을 알립니다.
+		 * multipart upload를 시작하기 전에 파일이 끝났다면 putObject 한 번으로 업로드합니다.
+		 * 스풀 파일은 finishFile에서 디스크에 기록하고, S3 업로드는 drainer가 합니다.
+		 */
+		private void finishFileUpload() {
+			if (currentFile.spoolFile != null) {
+				return;
+			}
+			if (state.getInitResponse() == null) {
+				uploadSingleObject();
+				return;
+			}
+			uploadLeftOver();
+			currentFile.completion = fileWriterThreadPool.finishFileUpload(partContext.getUploadFileName(),
+				partContext.getPartCount());
+		}
+
+		/**
+		 * 마지막 part의 partPayload가 남아있는 경우, part 크기 이하의 데이터를 최종적으로 쓰기 작업 스레드 풀에 요청합니다.
+		 */
+		private void uploadLeftOver() {
+			if (partPayload.size() == 0) {
+				return;
+			}
+			partContext.plusPartCount();
+			state.addPartNumber();
+			state.addFileSize(partPayload.size());
+			log.debug("[Last Upload Ended] file total size = {}", state.getFileSize());
+			fileWriterThreadPool.produce(partContext.getUploadFileName(), state.getPartNumber(), handOverPartPayload());
+		}
+
+		private void uploadSingleObject() {
+			state.addFileSize(partPayload.size());
+			uploadMetrics.countSingleUpload();
+			fileWriterThreadPool.putObject(partContext.getUploadFileName(), partContext.getCurrentContentType(),
+				handOverPartPayload());
+		}
+
+		private PartPayload handOverPartPayload() {
+			PartPayload handedOver = partPayload;
+			partPayload = null;
+			return handedOver;
+		}
 	}
 
 	/**
-	 * file인 경우, 남은 buffer의 내용을 upload 하고 field인 경우, response에 추가합니다.
+	 * 한 요청으로 올리는 파일 하나의 업로드 상태입니다.
 	 */
-	private void processEndOfPart(ByteArrayOutputStream contentBuffer, UploadContext context, PartContext partContext,
-		UploadState state) {
-		if (partContext.isInHeader() || partContext.getCurrentFieldName() == null) {
-			return;
-		}
-		if (partContext.getCurrentFileName() != null) {
-			finishFileUpload(contentBuffer, state, partContext);
-			s3FileService.checkMetadata(state);
-		} else {
-			context.getFormFields().put(partContext.getCurrentFieldName(), contentBuffer.toString().trim());
-		}
-		contentBuffer.reset();
+	private static class UploadedFile {
+		private final String fileName;
+		private FileMetadataDto fileMetadataDto;
+		private CompletableFuture<Void> completion;
+		private SpoolFile spoolFile;
+		private String contentHash;
+		private CustomException exception;
+
+		private UploadedFile(String fileName) {
+			this.fileName = fileName;
+		}
+
+		private boolean isSkipped() {
+			return fileMetadataDto == null;
+		}
+
+		private boolean isUploaded() {
+			return fileMetadataDto != null && exception == null;
+		}
+
+		private FileUploadResultDto toResult() {
+			if (isUploaded()) {
+				return FileUploadResultDto.success(fileMetadataDto);
+			}
+			return FileUploadResultDto.fail(fileName, exception.getMessage());
+		}
 	}
 
 	/**
@@ -247,99 +661,28 @@ public class MultipartFileController {
 	/**
 	 * 헤더 데이터를 파싱합니다.
 	 */
-	private void processHeader(String line, PartContext partContext) {
-		if (line.isEmpty()) {
-			partContext.setCurrentFieldName(extractFieldName(partContext.getHeaders().get("Content-Disposition")));
-			partContext.setCurrentFileName(extractFileName(partContext.getHeaders().get("Content-Disposition")));
-			partContext.setCurrentContentType(partContext.getHeaders().get("Content-Type"));
-			partContext.setInHeader(false);
-		} else {
-			int colonIndex = line.indexOf(':');
-			if (colonIndex > 0) {
-				String headerName = line.substring(0, colonIndex).trim();
-				String headerValue = line.substring(colonIndex + 1).trim();
-				partContext.getHeaders().put(headerName, headerValue);
-			}
-		}
+	private void processHeader(Map<String, String> headers, PartContext partContext) {
+		partContext.getHeaders().putAll(headers);
+		partContext.setCurrentFieldName(extractFieldName(partContext.getHeaders().get("Content-Disposition")));
+		partContext.setCurrentFileName(extractFileName(partContext.getHeaders().get("Content-Disposition")));
+		partContext.setCurrentContentType(partContext.getHeaders().get("Content-Type"));
+		partContext.setInHeader(false);
 	}
 
 	/**
-	 * header를 읽은 후, file type이라면 S3에 part upload를 알려주는 initiate request 입니다.
+	 * 첫 part가 가득 차면 S3에 part upload를 알려주는 initiate request 입니다.
 	 */
 	private InitiateMultipartUploadResult initializeFileUpload(String fileName, String contentType) {
-		fileWriterThreadPool.initializePartCount(fileName);
 		ObjectMetadata metadata = new ObjectMetadata();
 		metadata.setContentType(contentType);
 		InitiateMultipartUploadRequest initRequest = new InitiateMultipartUploadRequest(bucketName,
 			fileName).withObjectMetadata(metadata);
 
-		return amazonS3.initiateMultipartUpload(initRequest);
-	}
-
-	/**
-	 * contentBuffer가 5MB 이상 찼을 경우, part upload를 합니다.
-	 */
-	private void processContent(ByteArrayOutputStream contentBuffer, ByteArrayOutputStream lineBuffer,
-		PartContext partContext, UploadState state) throws Exception {
-		contentBuffer.write(lineBuffer.toByteArray());
-		if (partContext.getCurrentFileName() != null && contentBuffer.size() >= s3ChunkSize) {
-			uploadChunk(contentBuffer, state, partContext);
-		}
-	}
-
-	/**
-	 * 실제로 파일 바이너리 데이터 쓰기 작업을 요청하는 메소드입니다.
-	 * 별도의 쓰기 작업 스레드 풀에 요청을 넘겨줍니다.
-	 */
-	private void uploadChunk(ByteArrayOutputStream contentBuffer, UploadState state, PartContext partContext) {
-		partContext.plusPartCount();
-		state.addPartNumber();
-		state.addFileSize(contentBuffer.size());
-		fileWriterThreadPool.produce(state.getInitResponse(), partContext.getUploadFileName(), state.getPartNumber(),
-			contentBuffer.toByteArray(), contentBuffer.size(),
-			state.getPartETagsMap().get(partContext.getUploadFileName()));
-		contentBuffer.reset();
-	}
-
-	/**
-	 * OOM 방지를 위해 lineBuffer가 일정 수준 이상에 도달하면 contentBuffer로 flush 합니다.
-	 * contentBuffer가 5MB 이상 차면, s3로 part upload를 합니다.
-	 */
-	private void checkLineBufferSize(ByteArrayOutputStream lineBuffer, ByteArrayOutputStream contentBuffer,
-		PartContext partContext, UploadState state) throws Exception {
-		if (lineBuffer.size() >= lineBufferMaxSize) {
-			contentBuffer.write(lineBuffer.toByteArray());
-			lineBuffer.reset();
-
-			if (contentBuffer.size() >= s3ChunkSize) {
-				uploadChunk(contentBuffer, state, partContext);
-			}
-		}
-	}
-
-	/**
-	 * part upload가 모두 끝난 이후, 최종 finish upload 요청을 합니다.
-	 * 버퍼에 보내지 못한 데이터가 존재할 수 있으니 확인을 하고 쓰기 작업 스레드 풀에 작업이 끝났음을 알립니다.
-	 */
-	private void finishFileUpload(ByteArrayOutputStream contentBuffer, UploadState state, PartContext partContext) {
-		uploadLeftOver(contentBuffer, state, partContext);
-		fileWriterThreadPool.finishFileUpload(partContext);
-	}
-
-	/**
-	 * 마지막 part의 contentBuffer가 남아있는 경우, 5MB 이하의 파일을 최종적으로 쓰기 작업 스레드 풀에 요청합니다.
-	 */
-	private void uploadLeftOver(ByteArrayOutputStream contentBuffer, UploadState state, PartContext partContext) {
-		if (contentBuffer.size() == 0) {
-			return;
-		}
-		partContext.plusPartCount();
-		state.addPartNumber();
-		state.addFileSize(contentBuffer.size() - 2);
-		log.info("[Last Upload Ended] file total size = {}", state.getFileSize());
-		fileWriterThreadPool.produce(state.getInitResponse(), partContext.getUploadFileName(), state.getPartNumber(),
-			contentBuffer.toByteArray(), contentBuffer.size() - 2,
-			state.getPartETagsMap().get(partContext.getUploadFileName()));
+		long startedAt = System.nanoTime();
+		InitiateMultipartUploadResult initResponse = amazonS3.initiateMultipartUpload(initRequest);
+		uploadMetrics.recordStage(UploadApi.V1, UploadStage.INITIATE_UPLOAD, startedAt);
+		fileWriterThreadPool.openSession(fileName, initResponse, UploadApi.V1);
+		return initResponse;
 	}
 
 	/**
@@ -371,37 +714,140 @@ public class MultipartFileController {
 		return null;
 	}
 
+	/**
+	 * 원본 다운로드는 Range 요청을 지원해서 동영상 탐색이나 이어받기에서 전체 파일을 다시 받지 않습니다.
+	 * 구간 하나는 Content-Range와 함께 206으로, 여러 구간은 multipart/byteranges로 응답하며, 구간마다 필요한 부분만 S3에서 읽습니다.
+	 * If-Range가 현재 ETag나 Last-Modified와 다르면 파일이 바뀐 것으로 보고 전체 파일로 응답합니다.
+	 * 썸네일은 Range를 지원하지 않고 항상 전체로 응답합니다.
+	 */
 	@RequestType(permission = PermissionType.READ, fileType = FileType.FILE)
 	@GetMapping("/download/{fileId}")
 	@Validated
 	ResponseEntity<InputStreamResource> download(@CheckField(FieldType.FILE_ID) @PathVariable Long fileId,
 		@CheckField(FieldType.USER_ID) @Positive(message = "올바른 입력값이 아닙니다.") @RequestParam("userId") Long userId,
-		@RequestParam("isThumbnail") boolean isThumbnail) {
+		@RequestParam(value = "isThumbnail", required = false) String isThumbnail,
+		@RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+		@RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange) {
 
 		FileMetadata fileMetadata = fileService.getFileMetadataBy(fileId, userId);
-		FileDataDto fileDataDto;
-		if (isThumbnail) {
-			fileDataDto = s3FileService.downloadByS3(fileId, bucketName, fileMetadata.getThumbnailUUID());
-		} else {
-			fileDataDto = s3FileService.downloadByS3(fileId, bucketName, fileMetadata.getUuidFileName());
+		// isThumbnail은 썸네일 크기(small, medium, preview)를 받는다. 기존 클라이언트의 true는 medium이다.
+		ThumbnailSize thumbnailSize = ThumbnailSize.fromParameter(isThumbnail);
+		HttpHeaders headers = downloadHeaders(fileMetadata);
+		if (thumbnailSize != null) {
+			// 썸네일은 캐시에서 바로 응답하고, 없을 때만 S3에서 읽는다. S3에도 없으면 원본으로 만든다.
+			byte[] thumbnail = thumbnailStorage.read(fileMetadata, thumbnailSize);
+			return ResponseEntity.ok()
+				.headers(headers)
+				.contentType(MediaType.APPLICATION_OCTET_STREAM)
+				.contentLength(thumbnail.length)
+				.body(new InputStreamResource(new ByteArrayInputStream(thumbnail)));
+		}
+
+		long fileSize = fileMetadata.getFileSize();
+		// 파일 내용은 바뀌지 않으므로 파일마다 고유한 uuidFileName을 강한 검증자로 사용한다.
+		// 저장 키는 내용 해시 등록 후 바뀔 수 있고, 같은 내용을 가진 다른 사용자의 객체 키일 수 있어서 쓰지 않는다.
+		String eTag = "\"" + fileMetadata.getUuidFileName() + "\"";
+		headers.add(HttpHeaders.ACCEPT_RANGES, "bytes");
+		headers.setETag(eTag);
+		ZonedDateTime lastModified = lastModified(fileMetadata);
+		if (lastModified != null) {
+			headers.setLastModified(lastModified);
+		}
+		List<ByteRange> ranges = matchesIfRange(ifRange, eTag, lastModified) ? ByteRangeParser.parse(range, fileSize)
+			: null;
+
+		if (ranges == null) {
+			// 스풀 모드로 올린 파일이 아직 S3로 옮겨지지 않았다면 스풀 파일에서 읽는다.
+			InputStream fileInputStream = uploadSpool.openSpooled(fileMetadata.getStorageKey());
+			if (fileInputStream == null && fileSize > 0) {
+				// 큰 파일은 여러 ranged GET으로 나눠서 동시에 받는다.
+				fileInputStream = parallelRangeDownloader.open(fileMetadata.getStorageKey(),
+					new ByteRange(0, fileSize - 1));
+			} else if (fileInputStream == null) {
+				FileDataDto fileDataDto = s3FileService.downloadByS3(fileId, bucketName, fileMetadata.getStorageKey());
+				fileInputStream = fileDataDto.fileInputStream();
+			}
+			return ResponseEntity.ok()
+				.headers(headers)
+				.contentType(MediaType.APPLICATION_OCTET_STREAM)
+				.contentLength(fileSize)
+				.body(new InputStreamResource(fileInputStream));
+		}
+		if (ranges.isEmpty()) {
+			headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + fileSize);
+			return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE).headers(headers).build();
+		}
+		if (ranges.size() == 1) {
+			ByteRange byteRange = ranges.get(0);
+			headers.set(HttpHeaders.CONTENT_RANGE, byteRange.contentRange(fileSize));
+			return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+				.headers(headers)
+				.contentType(MediaType.APPLICATION_OCTET_STREAM)
+				.contentLength(byteRange.length())
+				.body(new InputStreamResource(openRange(fileMetadata, byteRange)));
 		}
+		MultipartByteRanges multipartByteRanges = new MultipartByteRanges(ranges,
+			MediaType.APPLICATION_OCTET_STREAM_VALUE, fileSize);
+		return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+			.headers(headers)
+			.contentType(MediaType.parseMediaType(multipartByteRanges.getContentType()))
+			.contentLength(multipartByteRanges.getContentLength())
+			.body(new InputStreamResource(
+				multipartByteRanges.open(byteRange -> openRange(fileMetadata, byteRange))));
+	}
+
+	private HttpHeaders downloadHeaders(FileMetadata fileMetadata) {
 		HttpHeaders headers = new HttpHeaders();
 		// HTTP 응답 헤더에 Content-Type 설정
 		String fileType = fileMetadata.getFileType();
 		if (fileType == null) {
 			fileType = "application/octet-stream";
 		}
-		String fileName = fileDataDto.fileMetadataDto().uploadFileName();
+		String fileName = fileMetadata.getUploadFileName();
 		String encodedFileName = URLEncoder.encode(fileName, StandardCharsets.UTF_8).replaceAll("\\+", "%20");
 
 		headers.add(HttpHeaders.CONTENT_TYPE, fileType);
 		headers.add(HttpHeaders.CONTENT_DISPOSITION,
 			"attachment; filename=\"" + encodedFileName + "\"; filename*=UTF-8''" + encodedFileName);
+		return headers;
+	}
 
-		return ResponseEntity.ok()
-			.headers(headers)
-			.contentType(MediaType.APPLICATION_OCTET_STREAM)
-			.body(new InputStreamResource(fileDataDto.fileInputStream()));
+	/**
+	 * 스풀 파일이 남아있으면 스풀 파일에서, 아니면 S3 ranged GET으로 구간만 읽는다. 큰 구간은 나눠서 동시에 받는다.
+	 */
+	private InputStream openRange(FileMetadata fileMetadata, ByteRange byteRange) {
+		InputStream spooled = uploadSpool.openSpooled(fileMetadata.getStorageKey(), byteRange);
+		if (spooled != null) {
+			return spooled;
+		}
+		return parallelRangeDownloader.open(fileMetadata.getStorageKey(), byteRange);
+	}
+
+	/**
+	 * If-Range가 없거나 현재 파일과 같을 때만 Range를 적용한다. 약한 ETag는 일치하는 것으로 보지 않는다.
+	 */
+	private boolean matchesIfRange(String ifRange, String eTag, ZonedDateTime lastModified) {
+		if (ifRange == null) {
+			return true;
+		}
+		String validator = ifRange.strip();
+		if (validator.startsWith("\"") || validator.startsWith("W/")) {
+			return validator.equals(eTag);
+		}
+		if (lastModified == null) {
+			return false;
+		}
+		try {
+			ZonedDateTime since = ZonedDateTime.parse(validator, DateTimeFormatter.RFC_1123_DATE_TIME);
+			return since.toEpochSecond() == lastModified.toEpochSecond();
+		} catch (DateTimeParseException e) {
+			return false;
+		}
+	}
+
+	private ZonedDateTime lastModified(FileMetadata fileMetadata) {
+		LocalDateTime createdAt = fileMetadata.getCreatedAt();
+		return createdAt == null ? null : createdAt.atZone(ZoneId.systemDefault());
 	}
 
 }
@@ -0,0 +1,682 @@
+package com.woowacamp.storage.domain.file.controller;
+
+import static com.woowacamp.storage.global.constant.CommonConstant.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.woowacamp.storage.domain.file.dto.FileMetadataDto;
+import com.woowacamp.storage.domain.file.dto.FormMetadataDto;
+import com.woowacamp.storage.domain.file.dto.PartBuffer;
+import com.woowacamp.storage.domain.file.dto.PartContext;
+import com.woowacamp.storage.domain.file.dto.PartPayload;
+import com.woowacamp.storage.domain.file.dto.UploadState;
+import com.woowacamp.storage.domain.file.repository.FileMetadataRepository;
+import com.woowacamp.storage.domain.file.service.ContentBlobService;
+import com.woowacamp.storage.domain.file.service.FileWriterThreadPool;
+import com.woowacamp.storage.domain.file.service.PartBufferPool;
+import com.woowacamp.storage.domain.file.service.PartSizePolicy;
+import com.woowacamp.storage.domain.file.service.S3FileService;
+import com.woowacamp.storage.domain.file.service.ThumbnailJobService;
+import com.woowacamp.storage.domain.file.service.UploadMetrics;
+import com.woowacamp.storage.domain.file.util.MultipartPartHandler;
+import com.woowacamp.storage.domain.file.util.MultipartStreamParser;
+import com.woowacamp.storage.global.aop.PermissionFieldsDto;
+import com.woowacamp.storage.global.aop.PermissionHandler;
+import com.woowacamp.storage.global.aop.type.FileType;
+import com.woowacamp.storage.global.constant.PermissionType;
+import com.woowacamp.storage.global.constant.UploadApi;
+import com.woowacamp.storage.global.constant.UploadStage;
+import com.woowacamp.storage.global.error.CustomException;
+import com.woowacamp.storage.global.error.ErrorCode;
+import com.woowacamp.storage.global.response.ErrorResponse;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Servlet 3.1 논블로킹 IO로 multipart/form-data를 받는 업로드 API입니다. (POST /api/v3/files)
+ * v1은 요청 스레드가 request.getInputStream()을 끝까지 읽기 때문에 느린 클라이언트 20명이 톰캣 스레드를 모두 차지합니다.
+ * 여기서는 ReadListener로 읽을 수 있는 데이터가 있을 때만 톰캣 스레드가 읽어서 MultipartStreamParser에 넘기므로,
+ * 데이터를 기다리는 동안에는 어떤 스레드도 연결에 묶이지 않습니다.
+ * <p>
+ * 다음 part를 담을 버퍼나 쓰기 작업 스레드에 여유가 없으면 소켓에서 더 읽지 않고 멈췄다가 잠시 후 다시 확인합니다.
+ * 읽지 않은 데이터는 TCP 수신 버퍼에 쌓이므로 클라이언트는 자연스럽게 전송 속도가 줄어듭니다.
+ * S3 요청은 쓰기 작업 스레드에서 실행하고, 응답은 업로드가 끝났을 때 future 콜백에서 보냅니다.
+ * 권한 확인, 메타데이터 저장, multipart upload 시작처럼 응답을 기다리는 작업은 blockingExecutor에서 실행하고,
+ * 작업이 끝날 때까지 파서를 멈춰둔 채 소켓에서 읽지 않습니다. 톰캣 스레드는 DB나 S3 응답을 기다리지 않습니다.
+ * <p>
+ * v1과 같은 폼 필드(userId, parentFolderId, fileSize)와 파일 하나를 받습니다.
+ * 썸네일은 요청 스레드에서 만들지 않고, S3 객체가 완성된 이후 ThumbnailJobService에 작업으로 넘깁니다.
+ */
+@Component
+@Slf4j
+public class NonBlockingFileUploadServlet extends HttpServlet {
+
+	private final transient AmazonS3 amazonS3;
+	private final transient S3FileService s3FileService;
+	private final transient FileWriterThreadPool fileWriterThreadPool;
+	private final transient FileMetadataRepository fileMetadataRepository;
+	private final transient PermissionHandler permissionHandler;
+	private final transient PartBufferPool partBufferPool;
+	private final transient PartSizePolicy partSizePolicy;
+	private final transient UploadMetrics uploadMetrics;
+	private final transient ContentBlobService contentBlobService;
+	private final transient ThumbnailJobService thumbnailJobService;
+	private final transient ObjectMapper objectMapper;
+	private final transient ScheduledExecutorService resumeScheduler = Executors.newSingleThreadScheduledExecutor();
+	private final transient ExecutorService blockingExecutor = Executors.newFixedThreadPool(
+		NON_BLOCKING_UPLOAD_BLOCKING_THREADS);
+
+	@Value("${cloud.aws.credentials.bucketName}")
+	private String bucketName;
+	@Value("${file.reader.bufferSize}")
+	private int bufferSize;
+	@Value("${file.reader.lineBufferMaxSize}")
+	private int lineBufferMaxSize;
+
+	public NonBlockingFileUploadServlet(AmazonS3 amazonS3, S3FileService s3FileService,
+		FileWriterThreadPool fileWriterThreadPool, FileMetadataRepository fileMetadataRepository,
+		PermissionHandler permissionHandler, PartBufferPool partBufferPool, PartSizePolicy partSizePolicy,
+		UploadMetrics uploadMetrics, ContentBlobService contentBlobService, ThumbnailJobService thumbnailJobService,
+		ObjectMapper objectMapper) {
+		this.amazonS3 = amazonS3;
+		this.s3FileService = s3FileService;
+		this.fileWriterThreadPool = fileWriterThreadPool;
+		this.fileMetadataRepository = fileMetadataRepository;
+		this.permissionHandler = permissionHandler;
+		this.partBufferPool = partBufferPool;
+		this.partSizePolicy = partSizePolicy;
+		this.uploadMetrics = uploadMetrics;
+		this.contentBlobService = contentBlobService;
+		this.thumbnailJobService = thumbnailJobService;
+		this.objectMapper = objectMapper;
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		resumeScheduler.shutdownNow();
+		blockingExecutor.shutdownNow();
+	}
+
+	@Override
+	protected void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
+		String boundary = extractBoundary(request.getContentType());
+		if (boundary == null) {
+			writeError(response, ErrorCode.INVALID_MULTIPART_FORM_DATA.baseException());
+			return;
+		}
+		AsyncContext asyncContext = request.startAsync();
+		asyncContext.setTimeout(NON_BLOCKING_UPLOAD_TIMEOUT_MILLIS);
+		ServletInputStream inputStream = request.getInputStream();
+		NonBlockingUpload upload = new NonBlockingUpload(asyncContext, inputStream, "--" + boundary);
+		asyncContext.addListener(upload);
+		inputStream.setReadListener(upload);
+	}
+
+	/**
+	 * 요청 하나의 업로드 상태입니다.
+	 * 읽기 콜백은 한 번에 하나의 스레드에서만 실행되고, 읽기를 멈춘 동안에는 paused 플래그를 가진 쪽만 다시 읽기를 시작합니다.
+	 * blockingExecutor의 작업을 기다리는 동안에는 읽기 스레드가 빠져나가고, 작업 스레드가 끝난 뒤 읽기를 다시 시작합니다.
+	 */
+	private class NonBlockingUpload implements ReadListener, AsyncListener, MultipartPartHandler {
+		private final AsyncContext asyncContext;
+		private final ServletInputStream inputStream;
+		private final MultipartStreamParser parser;
+		private final byte[] readBuffer = new byte[bufferSize];
+		private final Map<String, String> formFields = new HashMap<>();
+		private final PartContext partContext = new PartContext();
+		private final UploadState state = new UploadState();
+		private final ByteArrayOutputStream fieldBuffer = new ByteArrayOutputStream();
+		private final AtomicBoolean paused = new AtomicBoolean();
+		private final AtomicBoolean finished = new AtomicBoolean();
+		private final AtomicBoolean markedFailed = new AtomicBoolean();
+		private final long startedAt = System.nanoTime();
+		private PartPayload partPayload;
+		// 다음 읽기에서 part 버퍼가 필요하더라도 대기하지 않도록 미리 빌려둔 버퍼
+		private PartBuffer spareBuffer;
+		// 파서가 멈춰서 readBuffer에서 아직 받아가지 않은 데이터의 위치
+		private int pendingOffset;
+		private int pendingLength;
+		private volatile boolean allDataRead;
+		// blockingExecutor 작업 상태. 읽기 스레드와 작업 스레드가 함께 사용하므로 this로 동기화한다.
+		private boolean taskRunning;
+		private boolean readerWaiting;
+		private RuntimeException taskFailure;
+		private boolean fileEnded;
+		// 파일의 첫 버퍼를 기다리기 시작한 시각과 업로드 메모리 예산에서 첫 버퍼를 받았는지 여부.
+		// 첫 버퍼는 onPartBegin에서 파일에 붙인 뒤에야 받은 것으로 본다.
+		private long admissionWaitStartedAt;
+		private boolean admitted;
+
+		private NonBlockingUpload(AsyncContext asyncContext, ServletInputStream inputStream, String boundary) {
+			this.asyncContext = asyncContext;
+			this.inputStream = inputStream;
+			this.parser = new MultipartStreamParser(boundary, bufferSize, lineBufferMaxSize, this);
+		}
+
+		@Override
+		public void onDataAvailable() {
+			drain();
+		}
+
+		/**
+		 * 파서가 멈췄거나 읽기를 멈춘 상태라면 남은 데이터는 읽기를 다시 시작한 쪽에서 처리합니다.
+		 */
+		@Override
+		public void onAllDataRead() {
+			allDataRead = true;
+			if (parser.isDone()) {
+				finish();
+				return;
+			}
+			if (!parser.isSuspended() && !paused.get()) {
+				fail(ErrorCode.INVALID_MULTIPART_FORM_DATA.baseException());
+			}
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			log.error("[Non Blocking Upload] 입력 처리 중 예외 발생. ERROR MESSAGE = {}", throwable.getMessage());
+			fail(throwable);
+		}
+
+		/**
+		 * 읽을 수 있는 데이터를 모두 읽습니다. isReady가 false를 반환하면 컨테이너가 데이터가 들어왔을 때 onDataAvailable을 호출합니다.
+		 * 파서가 멈췄다면 작업이 끝난 뒤 버퍼에 남은 데이터부터 다시 넘깁니다.
+		 */
+		private void drain() {
+			try {
+				while (!parser.isDone() && !finished.get()) {
+					if (!reserveCapacity()) {
+						pause();
+						return;
+					}
+					if (parser.isSuspended()) {
+						if (awaitTask()) {
+							return;
+						}
+						parser.resume();
+						continue;
+					}
+					if (pendingLength == 0) {
+						if (allDataRead) {
+							throw ErrorCode.INVALID_MULTIPART_FORM_DATA.baseException();
+						}
+						if (!inputStream.isReady()) {
+							return;
+						}
+						int read = inputStream.read(readBuffer);
+						if (read == -1) {
+							return;
+						}
+						pendingOffset = 0;
+						pendingLength = read;
+					}
+					int consumed = parser.feed(readBuffer, pendingOffset, pendingLength);
+					pendingOffset += consumed;
+					pendingLength -= consumed;
+				}
+				if (parser.isDone()) {
+					finish();
+				}
+			} catch (Exception e) {
+				fail(e);
+			}
+		}
+
+		/**
+		 * 다음 읽기에 필요한 버퍼와 쓰기 작업 스레드의 여유가 있는지 확인합니다.
+		 * 폼 필드를 읽는 중이라도 다음 데이터에서 파일 본문이 시작될 수 있으므로 버퍼를 먼저 빌려둡니다.
+		 * 풀에서 기다리지 않고 빌려오며, 남은 버퍼가 없으면 읽기를 멈췄다가 잠시 후 다시 확인합니다.
+		 * 한 번 읽는 양은 part 버퍼 크기보다 작아서 미리 빌려둔 버퍼 하나로 충분합니다.
+		 * 파일의 첫 버퍼를 받을 때까지는 폼 필드를 읽는 동안 기다린 시간까지 admissionTimeoutMillis에 포함하고,
+		 * 제한 시간 안에 받지 못하면 v1과 같이 503으로 거절합니다.
+		 */
+		private boolean reserveCapacity() {
+			if (spareBuffer == null) {
+				spareBuffer = partBufferPool.tryAcquire();
+			}
+			if (spareBuffer == null && !admitted) {
+				long now = System.currentTimeMillis();
+				if (admissionWaitStartedAt == 0) {
+					admissionWaitStartedAt = now;
+				} else if (now - admissionWaitStartedAt > partBufferPool.getAdmissionTimeoutMillis()) {
+					partBufferPool.rejectUpload();
+				}
+				return false;
+			}
+			return spareBuffer != null && (partContext.getUploadFileName() == null
+				|| fileWriterThreadPool.canProduce(partContext.getUploadFileName()));
+		}
+
+		private void pause() {
+			paused.set(true);
+			resumeScheduler.schedule(() -> {
+				if (paused.compareAndSet(true, false) && !finished.get()) {
+					asyncContext.start(this::drain);
+				}
+			}, NON_BLOCKING_UPLOAD_RESUME_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+		}
+
+		/**
+		 * 작업 스레드에서 실행 중인 작업이 있으면 끝난 뒤 읽기를 다시 시작하도록 표시합니다.
+		 *
+		 * @return - 작업이 아직 끝나지 않았으면 true
+		 */
+		private synchronized boolean awaitTask() {
+			if (taskFailure != null) {
+				throw taskFailure;
+			}
+			readerWaiting = taskRunning;
+			return taskRunning;
+		}
+
+		/**
+		 * 파서를 멈추고 task를 blockingExecutor에서 실행합니다. 작업이 끝나면 읽기 스레드가 기다리고 있던 경우 읽기를 다시 시작합니다.
+		 * 실패하면 예외를 남겨두고, 읽기 스레드가 이어서 실패 처리를 합니다.
+		 */
+		private void runBlocking(Runnable task) {
+			parser.suspend();
+			synchronized (this) {
+				taskRunning = true;
+			}
+			blockingExecutor.execute(() -> {
+				RuntimeException failure = null;
+				try {
+					task.run();
+				} catch (RuntimeException e) {
+					failure = e;
+				}
+				boolean resume;
+				synchronized (this) {
+					taskRunning = false;
+					taskFailure = failure;
+					resume = readerWaiting;
+					readerWaiting = false;
+				}
+				if (finished.get()) {
+					// 작업 중에 요청이 끝났다면 작업이 만든 메타데이터와 multipart upload를 여기서 정리한다.
+					markFailed();
+				} else if (resume) {
+					asyncContext.start(this::drain);
+				}
+			});
+		}
+
+		/**
+		 * 권한 확인과 1차 메타데이터 저장은 DB 응답을 기다리므로 blockingExecutor에서 실행합니다.
+		 */
+		@Override
+		public void onPartBegin(Map<String, String> headers) {
+			processHeader(headers, partContext);
+			if (partContext.getCurrentFileName() == null) {
+				return;
+			}
+			uploadMetrics.recordStage(UploadApi.V3, UploadStage.HEADER_PARSE, startedAt);
+			FormMetadataDto formMetadataDto = FormMetadataDto.of(formFields);
+			// 메타데이터를 만들기 전에 업로드 메모리 예산에서 받은 첫 버퍼를 파일에 붙인다.
+			// reserveCapacity가 읽기 전에 admissionTimeoutMillis 안에 빌려두었고, 받지 못했다면 503으로 거절했다.
+			partPayload = new PartPayload();
+			partPayload.addBuffer(takeSpareBuffer());
+			admitted = true;
+			runBlocking(() -> prepareFile(formMetadataDto));
+		}
+
+		/**
+		 * 첫 part를 채울 만큼 큰 파일이면 multipart upload도 여기서 미리 시작해서 읽기 스레드가 S3 응답을 기다리지 않게 합니다.
+		 */
+		private void prepareFile(FormMetadataDto formMetadataDto) {
+			// PermissionHandler로 접근 권한을 확인한다.
+			PermissionFieldsDto permissionFieldsDto = new PermissionFieldsDto();
+			long userId = formMetadataDto.getUserId();
+			permissionFieldsDto.setUserId(userId);
+			permissionFieldsDto.setFolderId(formMetadataDto.getParentFolderId());
+			long permissionStartedAt = System.nanoTime();
+			long ownerId = permissionHandler.getOwnerIdAndCheckPermission(PermissionType.WRITE, FileType.FOLDER,
+				permissionFieldsDto);
+			uploadMetrics.recordStage(UploadApi.V3, UploadStage.PERMISSION_CHECK, permissionStartedAt);
+			formMetadataDto.setUserId(ownerId);
+			formMetadataDto.setCreatorId(userId);
+
+			long createStartedAt = System.nanoTime();
+			FileMetadataDto fileMetadataDto = s3FileService.createInitialMetadata(formMetadataDto, partContext);
+			uploadMetrics.recordStage(UploadApi.V3, UploadStage.CREATE_METADATA, createStartedAt);
+			partContext.setUploadFileName(fileMetadataDto.uuid());
+			state.setFileMetadataDto(fileMetadataDto);
+			state.setPartSize(partSizePolicy.choosePartSize(formMetadataDto.getFileSize()));
+			if (formMetadataDto.getFileSize() >= state.getPartSize()) {
+				state.setInitResponse(
+					initializeFileUpload(partContext.getUploadFileName(), partContext.getCurrentContentType()));
+				uploadMetrics.countMultipartUpload();
+			}
+		}
+
+		@Override
+		public void onPartContent(byte[] buffer, int offset, int length) {
+			if (partContext.getCurrentFileName() == null) {
+				if (fieldBuffer.size() + length > lineBufferMaxSize) {
+					throw ErrorCode.INVALID_MULTIPART_FORM_DATA.baseException();
+				}
+				fieldBuffer.write(buffer, offset, length);
+				return;
+			}
+			state.updateContentHash(buffer, offset, length);
+			uploadMetrics.countUploadBytes(UploadApi.V3, length);
+			while (length > 0) {
+				if (partPayload.needsBuffer()) {
+					partPayload.addBuffer(takeSpareBuffer());
+				}
+				int written = partPayload.write(buffer, offset, length);
+				offset += written;
+				length -= written;
+				if (partPayload.size() >= state.getPartSize()) {
+					uploadChunk();
+				}
+			}
+		}
+
+		/**
+		 * 파일 파트가 끝나면 크기만 확인합니다. 메타데이터 갱신과 남은 데이터 업로드는 finish에서 합니다. 파일 이후의 데이터는 읽지 않습니다.
+		 */
+		@Override
+		public boolean onPartEnd() {
+			if (partContext.getCurrentFileName() == null) {
+				if (partContext.getCurrentFieldName() != null) {
+					formFields.put(partContext.getCurrentFieldName(), fieldBuffer.toString().trim());
+				}
+				fieldBuffer.reset();
+				partContext.reset();
+				return false;
+			}
+			long fileSize = state.getFileSize() + partPayload.size();
+			if (fileSize != state.getFileMetadataDto().fileSize()) {
+				throw ErrorCode.INVALID_FILE_SIZE.baseException();
+			}
+			fileEnded = true;
+			return true;
+		}
+
+		/**
+		 * 메타데이터를 갱신하고 남은 데이터를 업로드합니다. blockingExecutor에서 실행합니다.
+		 *
+		 * @return - S3 객체가 완성되면 완료되는 future
+		 */
+		private CompletableFuture<Void> completeFile() {
+			long fileSize = state.getFileSize() + partPayload.size();
+			// 메타데이터 쓰기에 성공을 해야 S3에 파일 업로드를 요청한다
+			long finalizeStartedAt = System.nanoTime();
+			s3FileService.finalizeMetadata(state.getFileMetadataDto(), fileSize);
+			uploadMetrics.recordStage(UploadApi.V3, UploadStage.FINALIZE_METADATA, finalizeStartedAt);
+			CompletableFuture<Void> completion;
+			if (state.getInitResponse() == null) {
+				state.addFileSize(partPayload.size());
+				uploadMetrics.countSingleUpload();
+				completion = fileWriterThreadPool.putObjectAsync(partContext.getUploadFileName(),
+					partContext.getCurrentContentType(), handOverPartPayload());
+			} else {
+				if (partPayload.size() > 0) {
+					uploadChunk();
+				}
+				completion = fileWriterThreadPool.finishFileUpload(partContext.getUploadFileName(),
+					partContext.getPartCount());
+			}
+			registerContentOnCompletion(completion);
+			return completion;
+		}
+
+		/**
+		 * S3 객체가 완성되면 쓰기 작업 스레드에서 내용 해시로 등록합니다. 실패해도 파일은 자신의 객체를 계속 사용합니다.
+		 * 이미지라면 등록 이후의 객체 키로 썸네일을 만들도록 썸네일 작업을 넘깁니다.
+		 */
+		private void registerContentOnCompletion(CompletableFuture<Void> completion) {
+			FileMetadataDto fileMetadataDto = state.getFileMetadataDto();
+			String contentHash = state.digestContentHash();
+			completion.thenRun(() -> {
+				try {
+					contentBlobService.register(fileMetadataDto, contentHash);
+				} catch (RuntimeException e) {
+					log.warn("[Content Register Failed] file: {}, message: {}", fileMetadataDto.uuid(),
+						e.getMessage());
+				}
+				thumbnailJobService.enqueue(fileMetadataDto);
+			});
+		}
+
+		/**
+		 * multipart upload는 prepareFile에서 파일 크기를 보고 시작합니다.
+		 * 시작하지 않은 파일에서 part가 가득 찼다면 본문이 fileSize보다 긴 것입니다.
+		 */
+		private void uploadChunk() {
+			if (state.getInitResponse() == null) {
+				throw ErrorCode.INVALID_FILE_SIZE.baseException();
+			}
+			partContext.plusPartCount();
+			state.addPartNumber();
+			state.addFileSize(partPayload.size());
+			fileWriterThreadPool.produce(partContext.getUploadFileName(), state.getPartNumber(), handOverPartPayload());
+			partPayload = new PartPayload();
+		}
+
+		/**
+		 * reserveCapacity에서 읽기 전에 버퍼를 빌려두므로 읽기 스레드는 풀에서 기다리지 않습니다.
+		 */
+		private PartBuffer takeSpareBuffer() {
+			if (spareBuffer == null) {
+				throw ErrorCode.FILE_UPLOAD_FAILED.baseException("미리 빌려둔 part 버퍼가 없습니다.");
+			}
+			PartBuffer partBuffer = spareBuffer;
+			spareBuffer = null;
+			return partBuffer;
+		}
+
+		private PartPayload handOverPartPayload() {
+			PartPayload handedOver = partPayload;
+			partPayload = null;
+			return handedOver;
+		}
+
+		/**
+		 * 메타데이터 갱신과 남은 데이터 업로드를 blockingExecutor에 넘기고, 업로드가 끝나면 응답을 보냅니다.
+		 * 제한 시간 안에 끝나지 않으면 v1과 같이 응답을 먼저 보내고 업로드는 계속 진행합니다.
+		 */
+		private void finish() {
+			if (!finished.compareAndSet(false, true)) {
+				return;
+			}
+			releaseSpareBuffer();
+			if (!fileEnded) {
+				releaseBuffers();
+				respondError(ErrorCode.INVALID_MULTIPART_FORM_DATA.baseException());
+				return;
+			}
+			CompletableFuture.supplyAsync(this::completeFile, blockingExecutor)
+				.whenComplete((completion, throwable) -> {
+					if (throwable != null) {
+						abandon(throwable instanceof CompletionException ? throwable.getCause() : throwable);
+						return;
+					}
+					respondOnCompletion(completion);
+				});
+		}
+
+		private void respondOnCompletion(CompletableFuture<Void> completion) {
+			completion.orTimeout(UPLOAD_COMPLETION_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+				.whenComplete((result, throwable) -> {
+					Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+					if (cause == null || cause instanceof TimeoutException) {
+						if (cause != null) {
+							log.warn("[Upload Completion Timeout] file: {}", partContext.getUploadFileName());
+						}
+						respond(HttpStatus.CREATED);
+						return;
+					}
+					respondError(ErrorCode.FILE_UPLOAD_FAILED.baseException());
+				});
+		}
+
+		/**
+		 * 업로드 도중 실패하면 1차 메타데이터를 FAIL로 바꿔서 스케줄러가 S3 데이터를 지우게 합니다.
+		 * 시작한 multipart upload가 있으면 세션을 닫고 중단합니다.
+		 */
+		private void fail(Throwable throwable) {
+			if (!finished.compareAndSet(false, true)) {
+				return;
+			}
+			abandon(throwable);
+		}
+
+		/**
+		 * 버퍼를 반납하고 에러 응답을 보냅니다. 메타데이터를 FAIL로 바꾸는 작업은 blockingExecutor에 넘깁니다.
+		 */
+		private void abandon(Throwable throwable) {
+			releaseBuffers();
+			if (state.getFileMetadataDto() != null) {
+				blockingExecutor.execute(this::markFailed);
+			}
+			if (throwable instanceof CustomException customException) {
+				respondError(customException);
+				return;
+			}
+			log.error("[Exception] 예상치 못한 예외가 발생했습니다: {}, {}", throwable.getCause(), throwable.getMessage());
+			respondError(ErrorCode.FILE_UPLOAD_FAILED.baseException());
+		}
+
+		/**
+		 * 작업 스레드와 실패 처리가 함께 호출할 수 있으므로 한 번만 실행합니다.
+		 */
+		private void markFailed() {
+			if (state.getFileMetadataDto() == null || !markedFailed.compareAndSet(false, true)) {
+				return;
+			}
+			fileWriterThreadPool.abortFileUpload(partContext.getUploadFileName());
+			fileMetadataRepository.updateUploadStatusById(state.getFileMetadataDto().metadataId());
+		}
+
+		private void releaseBuffers() {
+			if (partPayload != null) {
+				partBufferPool.release(partPayload);
+				partPayload = null;
+			}
+			releaseSpareBuffer();
+		}
+
+		private void releaseSpareBuffer() {
+			if (spareBuffer != null) {
+				partBufferPool.release(spareBuffer);
+				spareBuffer = null;
+			}
+		}
+
+		private void respond(HttpStatus httpStatus) {
+			try {
+				((HttpServletResponse)asyncContext.getResponse()).setStatus(httpStatus.value());
+			} finally {
+				asyncContext.complete();
+			}
+		}
+
+		private void respondError(CustomException exception) {
+			try {
+				writeError((HttpServletResponse)asyncContext.getResponse(), exception);
+			} catch (IOException | IllegalStateException e) {
+				log.warn("[Non Blocking Upload] 에러 응답을 보내지 못했습니다. ERROR MESSAGE = {}", e.getMessage());
+			} finally {
+				asyncContext.complete();
+			}
+		}
+
+		@Override
+		public void onTimeout(AsyncEvent event) {
+			fail(ErrorCode.FILE_UPLOAD_FAILED.baseException("업로드 시간이 초과되었습니다."));
+		}
+
+		@Override
+		public void onError(AsyncEvent event) {
+			onError(event.getThrowable());
+		}
+
+		@Override
+		public void onComplete(AsyncEvent event) {
+		}
+
+		@Override
+		public void onStartAsync(AsyncEvent event) {
+		}
+	}
+
+	private void writeError(HttpServletResponse response, CustomException exception) throws IOException {
+		response.setStatus(exception.getHttpStatus().value());
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		response.setCharacterEncoding("UTF-8");
+		objectMapper.writeValue(response.getOutputStream(),
+			ErrorResponse.of(exception.getHttpStatus(), exception.getMessage()));
+	}
+
+	private void processHeader(Map<String, String> headers, PartContext partContext) {
+		partContext.getHeaders().putAll(headers);
+		partContext.setCurrentFieldName(extractAttribute(partContext.getHeaders().get("Content-Disposition"), "name"));
+		partContext.setCurrentFileName(
+			extractAttribute(partContext.getHeaders().get("Content-Disposition"), "filename"));
+		partContext.setCurrentContentType(partContext.getHeaders().get("Content-Type"));
+		partContext.setInHeader(false);
+	}
+
+	private InitiateMultipartUploadResult initializeFileUpload(String fileName, String contentType) {
+		ObjectMetadata metadata = new ObjectMetadata();
+		metadata.setContentType(contentType);
+		long startedAt = System.nanoTime();
+		InitiateMultipartUploadResult initResponse = amazonS3.initiateMultipartUpload(
+			new InitiateMultipartUploadRequest(bucketName, fileName).withObjectMetadata(metadata));
+		uploadMetrics.recordStage(UploadApi.V3, UploadStage.INITIATE_UPLOAD, startedAt);
+		fileWriterThreadPool.openSession(fileName, initResponse, UploadApi.V3);
+		return initResponse;
+	}
+
+	private String extractBoundary(String contentType) {
+		if (contentType == null) {
+			return null;
+		}
+		return extractAttribute(contentType, "boundary");
+	}
+
+	private String extractAttribute(String source, String attribute) {
+		if (source == null) {
+			return null;
+		}
+		for (String part : source.split(";")) {
+			if (part.trim().startsWith(attribute + "=")) {
+				return part.split("=", 2)[1].trim().replaceAll("^\"|\"$", "");
+			}
+		}
+		return null;
+	}
+}
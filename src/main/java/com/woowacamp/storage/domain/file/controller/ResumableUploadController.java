@@ -0,0 +1,71 @@
+package com.woowacamp.storage.domain.file.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.woowacamp.storage.domain.file.dto.ResumablePartDto;
+import com.woowacamp.storage.domain.file.dto.ResumableUploadCreateDto;
+import com.woowacamp.storage.domain.file.dto.ResumableUploadDto;
+import com.woowacamp.storage.domain.file.service.ResumableUploadService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 이어 올리기 API입니다.
+ * 1. POST /resumable 로 세션을 만들고 part 크기와 개수를 받습니다.
+ * 2. PUT /resumable/{uploadId}/parts/{partNumber} 로 part를 보냅니다. 본문은 part 바이너리 그대로 보냅니다.
+ *    part 요청은 서로 독립적이므로 여러 연결로 maxParallelParts 개까지 동시에 보낼 수 있습니다.
+ * 3. 연결이 끊긴 경우 GET /resumable/{uploadId} 로 받은 part 목록을 확인하고 남은 part만 다시 보냅니다.
+ * 4. POST /resumable/{uploadId}/complete 로 업로드를 완료합니다.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/files/resumable")
+@Validated
+public class ResumableUploadController {
+
+	private final ResumableUploadService resumableUploadService;
+
+	@ResponseStatus(HttpStatus.CREATED)
+	@PostMapping
+	public ResumableUploadDto create(@Valid @RequestBody ResumableUploadCreateDto requestDto) {
+		return resumableUploadService.create(requestDto);
+	}
+
+	@PutMapping("/{uploadId}/parts/{partNumber}")
+	public ResumablePartDto uploadPart(@PathVariable String uploadId, @PathVariable int partNumber,
+		@Positive(message = "올바른 입력값이 아닙니다.") @RequestParam("userId") Long userId,
+		HttpServletRequest request) throws IOException {
+		try (InputStream inputStream = request.getInputStream()) {
+			return resumableUploadService.uploadPart(uploadId, partNumber, userId, request.getContentLengthLong(),
+				request.getHeader("Content-MD5"), inputStream);
+		}
+	}
+
+	@GetMapping("/{uploadId}")
+	public ResumableUploadDto getStatus(@PathVariable String uploadId,
+		@Positive(message = "올바른 입력값이 아닙니다.") @RequestParam("userId") Long userId) {
+		return resumableUploadService.getStatus(uploadId, userId);
+	}
+
+	@PostMapping("/{uploadId}/complete")
+	public void complete(@PathVariable String uploadId,
+		@Positive(message = "올바른 입력값이 아닙니다.") @RequestParam("userId") Long userId) {
+		resumableUploadService.complete(uploadId, userId);
+	}
+}
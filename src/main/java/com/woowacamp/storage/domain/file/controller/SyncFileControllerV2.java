@@ -3,6 +3,7 @@ package com.woowacamp.storage.domain.file.controller;
 import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.util.HashMap;
+import java.util.Map;
 
 import org.apache.catalina.connector.ClientAbortException;
 import org.springframework.beans.factory.annotation.Value;
@@ -21,17 +22,26 @@ import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.woowacamp.storage.domain.file.dto.FileMetadataDto;
 import com.woowacamp.storage.domain.file.dto.FormMetadataDto;
 import com.woowacamp.storage.domain.file.dto.PartContext;
+import com.woowacamp.storage.domain.file.dto.PartPayload;
 import com.woowacamp.storage.domain.file.dto.UploadContext;
 import com.woowacamp.storage.domain.file.dto.UploadState;
 import com.woowacamp.storage.domain.file.repository.FileMetadataRepository;
+import com.woowacamp.storage.domain.file.service.ContentBlobService;
 import com.woowacamp.storage.domain.file.service.FileService;
+import com.woowacamp.storage.domain.file.service.PartBufferPool;
+import com.woowacamp.storage.domain.file.service.PartSizePolicy;
 import com.woowacamp.storage.domain.file.service.S3FileService;
 import com.woowacamp.storage.domain.file.service.SyncFileService;
 import com.woowacamp.storage.domain.file.service.ThumbnailWriterThreadPool;
+import com.woowacamp.storage.domain.file.service.UploadMetrics;
+import com.woowacamp.storage.domain.file.util.MultipartPartHandler;
+import com.woowacamp.storage.domain.file.util.MultipartStreamParser;
 import com.woowacamp.storage.global.aop.PermissionFieldsDto;
 import com.woowacamp.storage.global.aop.PermissionHandler;
 import com.woowacamp.storage.global.aop.type.FileType;
 import com.woowacamp.storage.global.constant.PermissionType;
+import com.woowacamp.storage.global.constant.UploadApi;
+import com.woowacamp.storage.global.constant.UploadStage;
 import com.woowacamp.storage.global.error.ErrorCode;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -52,6 +62,10 @@ public class SyncFileControllerV2 {
 	private final FileService fileService;
 	private final ThumbnailWriterThreadPool thumbnailWriterThreadPool;
 	private final PermissionHandler permissionHandler;
+	private final PartBufferPool partBufferPool;
+	private final PartSizePolicy partSizePolicy;
+	private final ContentBlobService contentBlobService;
+	private final UploadMetrics uploadMetrics;
 
 	@Value("${cloud.aws.credentials.bucketName}")
 	private String bucketName;
@@ -79,23 +93,16 @@ public class SyncFileControllerV2 {
 	}
 
 	/**
-	 * 클라이언트 요청을 buffer 단위로 읽어서 processBuffer 메소드를 호출합니다.
-	 * processBuffer 메소드에서 헤더 파싱을 하고 boundary 체크를 하여 각 파트를 구분합니다.
+	 * 클라이언트 요청을 MultipartStreamParser로 읽어들입니다.
+	 * 파서가 boundary 기준으로 각 파트를 구분하고, 헤더와 본문 슬라이스를 UploadPartHandler에 전달합니다.
 	 */
 	private void processMultipartData(InputStream inputStream, UploadContext context) throws Exception {
-		byte[] buffer = new byte[bufferSize];
-		ByteArrayOutputStream lineBuffer = new ByteArrayOutputStream();
-		ByteArrayOutputStream contentBuffer = new ByteArrayOutputStream();
-		PartContext partContext = new PartContext();
-		UploadState state = new UploadState();
+		UploadPartHandler handler = new UploadPartHandler(context, new PartContext(), new UploadState());
+		MultipartStreamParser parser = new MultipartStreamParser(context.getBoundary(), bufferSize,
+			lineBufferMaxSize, handler);
 
 		try {
-			int bytesRead;
-			while ((bytesRead = inputStream.read(buffer)) != -1) {
-				if (processBuffer(buffer, bytesRead, lineBuffer, contentBuffer, context, partContext, state)) {
-					break;
-				}
-			}
+			parser.parse(inputStream);
 		} catch (ClientAbortException e) {
 			log.error("[ClientAbortException] 입력 처리 중 예외 발생. ERROR MESSAGE = {}", e.getMessage());
 			if (context.getFileMetadata() == null) {
@@ -105,111 +112,212 @@ public class SyncFileControllerV2 {
 		} catch (AmazonS3Exception e) {
 			log.error("[AmazonS3Exception] 입력 예외로 완성되지 않은 S3 파일 제거 중 예외 발생. ERROR MESSAGE = {}", e.getMessage());
 		} finally {
-			if (context.getPis() != null) {
-				context.getPis().close();
-			}
-			if (context.getPos() != null) {
-				context.getPos().close();
-			}
+			handler.releasePartBuffer();
+			context.closeThumbnailStream();
 		}
 	}
 
 	/**
-	 * line 단위로 buffer를 읽어들입니다.
-	 * boundary 기준으로 헤더를 먼저 읽고 나머지는 processContent로 content 처리를 합니다.
+	 * 파서가 구분한 파트를 처리합니다.
 	 * 헤더 데이터를 읽은 후, 1차로 사용자 정보, 파일 이름 등의 메타데이터를 저장합니다.
-	 *
-	 * @return - true인 경우 API 명세에 따라 추가 데이터는 읽지 않는다.
+	 * 폼 필드는 fieldBuffer에, 파일 데이터는 PartBufferPool에서 빌린 버퍼로 구성한 partPayload에 담습니다.
 	 */
-	private boolean processBuffer(byte[] buffer, int bytesRead, ByteArrayOutputStream lineBuffer,
-		ByteArrayOutputStream contentBuffer, UploadContext context, PartContext partContext, UploadState state) throws
-		Exception {
-		for (int i = 0; i < bytesRead; i++) {
-			byte b = buffer[i];
-			lineBuffer.write(b);
-
-			if (b != '\n') {
-				continue;
+	@RequiredArgsConstructor
+	private class UploadPartHandler implements MultipartPartHandler {
+		private final UploadContext context;
+		private final PartContext partContext;
+		private final UploadState state;
+		private final ByteArrayOutputStream fieldBuffer = new ByteArrayOutputStream();
+		private final long startedAt = System.nanoTime();
+		private PartPayload partPayload;
+
+		@Override
+		public void onPartBegin(Map<String, String> headers) throws Exception {
+			processHeader(headers, partContext);
+			if (partContext.getCurrentFileName() == null) {
+				return;
 			}
-			String line = lineBuffer.toString().trim();
-
-			if (line.equals(context.getBoundary()) || line.equals(context.getFinalBoundary())) {
-				// boundary 한 줄을 읽은 경우
-				if (context.isFileRead()) {
-					// final boundary
-					// 메타데이터 쓰기에 성공을 해야 S3에 파일 업로드를 요청한다
-					s3FileService.finalizeMetadata(context.getFileMetadata(),
-						state.getFileSize() + contentBuffer.size() - 2);
-					processEndOfPart(contentBuffer, context, partContext, state);
-					return true;
-				}
-				processEndOfPart(contentBuffer, context, partContext, state);
-				resetState(partContext, state);
-				// boundary가 끝난 뒤에 데이터가 남아 있으면 항상 헤더부터 시작
-				partContext.setInHeader(true);
-			} else if (partContext.isInHeader()) {
-				// boundary 읽은 이후
-				processHeader(line, partContext);
-				if (!partContext.isInHeader() && partContext.getCurrentFileName() != null) {
-					FormMetadataDto formMetadataDto = FormMetadataDto.of(context.getFormFields());
-					// PermissionHandler로 접근 권한을 확인한다.
-					PermissionFieldsDto permissionFieldsDto = new PermissionFieldsDto();
-					long userId = formMetadataDto.getUserId();
-					long parentFolderId = formMetadataDto.getParentFolderId();
-					permissionFieldsDto.setUserId(userId);
-					permissionFieldsDto.setFolderId(parentFolderId);
-					// 파일 쓰기는 현재 파일이 존재하지 않으므로 폴더에 대한 권한을 검증하고 통과하면 ownerId를 받아온다.
-					long ownerId = permissionHandler.getOwnerIdAndCheckPermission(PermissionType.WRITE, FileType.FOLDER,
-						permissionFieldsDto);
-					formMetadataDto.setUserId(ownerId);
-					formMetadataDto.setCreatorId(userId);
-
-					FileMetadataDto fileMetadataDto = s3FileService.createInitialMetadata(formMetadataDto, partContext);
-					if (partContext.getCurrentContentType().startsWith("image/")) {
-						String imageFormat = partContext.getCurrentContentType().substring(6);
-						context.updateImageFormat(imageFormat);
-					}
-					context.updateFileMetadata(fileMetadataDto);
-					context.updateIsFileRead();
-					partContext.setUploadFileName(fileMetadataDto.uuid());
-					InitiateMultipartUploadResult initiateMultipartUploadResult = initializeFileUpload(
-						partContext.getUploadFileName(), partContext.getCurrentContentType());
-					state.setInitResponse(initiateMultipartUploadResult);
-					state.initPartEtag(partContext.getUploadFileName());
-					state.setFileMetadataDto(fileMetadataDto);
-				}
+			uploadMetrics.recordStage(UploadApi.V2, UploadStage.HEADER_PARSE, startedAt);
+			// 메타데이터를 만들기 전에 업로드 메모리 예산에서 첫 버퍼를 받는다. 받지 못하면 503으로 거절한다.
+			partPayload = new PartPayload();
+			partPayload.addBuffer(partBufferPool.acquireForAdmission());
+			FormMetadataDto formMetadataDto = FormMetadataDto.of(context.getFormFields());
+			// PermissionHandler로 접근 권한을 확인한다.
+			PermissionFieldsDto permissionFieldsDto = new PermissionFieldsDto();
+			long userId = formMetadataDto.getUserId();
+			long parentFolderId = formMetadataDto.getParentFolderId();
+			permissionFieldsDto.setUserId(userId);
+			permissionFieldsDto.setFolderId(parentFolderId);
+			// 파일 쓰기는 현재 파일이 존재하지 않으므로 폴더에 대한 권한을 검증하고 통과하면 ownerId를 받아온다.
+			long permissionStartedAt = System.nanoTime();
+			long ownerId = permissionHandler.getOwnerIdAndCheckPermission(PermissionType.WRITE, FileType.FOLDER,
+				permissionFieldsDto);
+			uploadMetrics.recordStage(UploadApi.V2, UploadStage.PERMISSION_CHECK, permissionStartedAt);
+			formMetadataDto.setUserId(ownerId);
+			formMetadataDto.setCreatorId(userId);
+
+			long createStartedAt = System.nanoTime();
+			FileMetadataDto fileMetadataDto = s3FileService.createInitialMetadata(formMetadataDto, partContext);
+			uploadMetrics.recordStage(UploadApi.V2, UploadStage.CREATE_METADATA, createStartedAt);
+			if (partContext.getCurrentContentType().startsWith("image/")) {
+				String imageFormat = partContext.getCurrentContentType().substring(6);
+				context.updateImageFormat(imageFormat, thumbnailWriterThreadPool.newThumbnailBuffer());
+			}
+			context.updateFileMetadata(fileMetadataDto);
+			context.updateIsFileRead();
+			partContext.setUploadFileName(fileMetadataDto.uuid());
+			InitiateMultipartUploadResult initiateMultipartUploadResult = initializeFileUpload(
+				partContext.getUploadFileName(), partContext.getCurrentContentType());
+			state.setInitResponse(initiateMultipartUploadResult);
+			state.initPartEtag(partContext.getUploadFileName());
+			state.setFileMetadataDto(fileMetadataDto);
+			state.setPartSize(partSizePolicy.choosePartSize(formMetadataDto.getFileSize()));
+			state.setRetryBudget(syncFileService.newRetryBudget());
+		}
+
+		@Override
+		public void onPartContent(byte[] buffer, int offset, int length) throws Exception {
+			if (partContext.getCurrentFileName() == null) {
+				processField(buffer, offset, length);
+				return;
+			}
+			thumbnailWriterThreadPool.feed(context, buffer, offset, length);
+			state.updateContentHash(buffer, offset, length);
+			uploadMetrics.countUploadBytes(UploadApi.V2, length);
+			processContent(buffer, offset, length);
+		}
+
+		/**
+		 * @return - true인 경우 API 명세에 따라 추가 데이터는 읽지 않는다.
+		 */
+		@Override
+		public boolean onPartEnd() {
+			if (context.isFileRead()) {
+				// 메타데이터 쓰기에 성공을 해야 S3에 파일 업로드를 요청한다
+				long finalizeStartedAt = System.nanoTime();
+				s3FileService.finalizeMetadata(context.getFileMetadata(), state.getFileSize() + partPayload.size());
+				uploadMetrics.recordStage(UploadApi.V2, UploadStage.FINALIZE_METADATA, finalizeStartedAt);
+				processEndOfPart();
+				registerContent();
+				return true;
+			}
+			processEndOfPart();
+			resetState(partContext, state);
+			return false;
+		}
+
+		/**
+		 * complete 요청까지 끝난 파일을 내용 해시로 등록합니다. 실패해도 파일은 자신의 객체를 계속 사용합니다.
+		 */
+		private void registerContent() {
+			try {
+				contentBlobService.register(context.getFileMetadata(), state.digestContentHash());
+			} catch (RuntimeException e) {
+				log.warn("[Content Register Failed] file: {}, message: {}", partContext.getUploadFileName(),
+					e.getMessage());
+			}
+		}
+
+		/**
+		 * 업로드가 중간에 끝난 경우, 쓰기 작업 스레드 풀에 넘기지 못한 버퍼를 반납합니다.
+		 */
+		private void releasePartBuffer() {
+			if (partPayload != null) {
+				partBufferPool.release(partPayload);
+				partPayload = null;
+			}
+		}
+
+		/**
+		 * 폼 필드는 OOM 방지를 위해 lineBufferMaxSize까지만 받습니다.
+		 */
+		private void processField(byte[] buffer, int offset, int length) {
+			if (fieldBuffer.size() + length > lineBufferMaxSize) {
+				throw ErrorCode.INVALID_MULTIPART_FORM_DATA.baseException();
+			}
+			fieldBuffer.write(buffer, offset, length);
+		}
+
+		/**
+		 * file인 경우, 남은 buffer의 내용을 upload 하고 field인 경우, response에 추가합니다.
+		 */
+		private void processEndOfPart() {
+			if (partContext.getCurrentFieldName() == null) {
+				return;
+			}
+			if (partContext.getCurrentFileName() != null) {
+				finishFileUpload();
+				s3FileService.checkMetadata(state);
 			} else {
-				if (context.getImageFormat() != null && !context.isAbortedCreateThumbnail()) {
-					context.getPos().write(lineBuffer.toByteArray());
-					if (!context.isStartedCreatedThumbnail()) {
-						context.updateStartedCreatedThumbnail();
-						thumbnailWriterThreadPool.createThumbnail(context);
-					}
+				context.getFormFields().put(partContext.getCurrentFieldName(), fieldBuffer.toString().trim());
+			}
+			fieldBuffer.reset();
+		}
+
+		/**
+		 * 버퍼가 가득 차면 풀에서 다음 버퍼를 빌려 이어 쓰고, partPayload가 선택된 part 크기만큼 차면 part upload를 합니다.
+		 */
+		private void processContent(byte[] buffer, int offset, int length) {
+			while (length > 0) {
+				if (partPayload.needsBuffer()) {
+					partPayload.addBuffer(partBufferPool.acquire());
+				}
+				int written = partPayload.write(buffer, offset, length);
+				offset += written;
+				length -= written;
+				if (partPayload.size() >= state.getPartSize()) {
+					uploadChunk();
 				}
-				processContent(contentBuffer, lineBuffer, partContext, state);
 			}
-			lineBuffer.reset();
 		}
 
-		checkLineBufferSize(lineBuffer, contentBuffer, partContext, state);
-		return false;
-	}
+		/**
+		 * 실제로 파일 바이너리 데이터 쓰기 작업을 요청하는 메소드입니다.
+		 * 채운 partPayload의 소유권을 쓰기 작업에 넘기고 다음 part를 채울 partPayload를 만듭니다.
+		 */
+		private void uploadChunk() {
+			partContext.plusPartCount();
+			state.addPartNumber();
+			state.addFileSize(partPayload.size());
+			syncFileService.produce(state.getInitResponse(), partContext.getUploadFileName(),
+				state.getPartNumber(), handOverPartPayload(),
+				state.getPartETagsMap().get(partContext.getUploadFileName()), state.getRetryBudget(),
+				state.getChecksum());
+			partPayload = new PartPayload();
+		}
 
-	/**
-	 * file인 경우, 남은 buffer의 내용을 upload 하고 field인 경우, response에 추가합니다.
-	 */
-	private void processEndOfPart(ByteArrayOutputStream contentBuffer, UploadContext context, PartContext partContext,
-		UploadState state) {
-		if (partContext.isInHeader() || partContext.getCurrentFieldName() == null) {
-			return;
+		/**
+		 * part upload가 모두 끝난 이후, 최종 finish upload 요청을 합니다.
+		 * 버퍼에 보내지 못한 데이터가 존재할 수 있으니 확인을 하고 쓰기 작업 스레드 풀에 작업이 끝났음을 알립니다.
+		 */
+		private void finishFileUpload() {
+			uploadLeftOver();
+			syncFileService.finishFileUpload(state.getInitResponse(), partContext.getUploadFileName(),
+				state.getPartETagsMap().get(partContext.getUploadFileName()), state.getChecksum());
+		}
+
+		/**
+		 * 마지막 part의 partPayload가 남아있는 경우, part 크기 이하의 데이터를 최종적으로 쓰기 작업 스레드 풀에 요청합니다.
+		 */
+		private void uploadLeftOver() {
+			if (partPayload.size() == 0) {
+				return;
+			}
+			partContext.plusPartCount();
+			state.addPartNumber();
+			state.addFileSize(partPayload.size());
+			log.debug("[Last Upload Ended] file total size = {}", state.getFileSize());
+			syncFileService.produce(state.getInitResponse(), partContext.getUploadFileName(),
+				state.getPartNumber(), handOverPartPayload(),
+				state.getPartETagsMap().get(partContext.getUploadFileName()), state.getRetryBudget(),
+				state.getChecksum());
 		}
-		if (partContext.getCurrentFileName() != null) {
-			finishFileUpload(contentBuffer, state, partContext);
-			s3FileService.checkMetadata(state);
-		} else {
-			context.getFormFields().put(partContext.getCurrentFieldName(), contentBuffer.toString().trim());
+
+		private PartPayload handOverPartPayload() {
+			PartPayload handedOver = partPayload;
+			partPayload = null;
+			return handedOver;
 		}
-		contentBuffer.reset();
 	}
 
 	/**
@@ -223,20 +331,12 @@ public class SyncFileControllerV2 {
 	/**
 	 * 헤더 데이터를 파싱합니다.
 	 */
-	private void processHeader(String line, PartContext partContext) {
-		if (line.isEmpty()) {
-			partContext.setCurrentFieldName(extractFieldName(partContext.getHeaders().get("Content-Disposition")));
-			partContext.setCurrentFileName(extractFileName(partContext.getHeaders().get("Content-Disposition")));
-			partContext.setCurrentContentType(partContext.getHeaders().get("Content-Type"));
-			partContext.setInHeader(false);
-		} else {
-			int colonIndex = line.indexOf(':');
-			if (colonIndex > 0) {
-				String headerName = line.substring(0, colonIndex).trim();
-				String headerValue = line.substring(colonIndex + 1).trim();
-				partContext.getHeaders().put(headerName, headerValue);
-			}
-		}
+	private void processHeader(Map<String, String> headers, PartContext partContext) {
+		partContext.getHeaders().putAll(headers);
+		partContext.setCurrentFieldName(extractFieldName(partContext.getHeaders().get("Content-Disposition")));
+		partContext.setCurrentFileName(extractFileName(partContext.getHeaders().get("Content-Disposition")));
+		partContext.setCurrentContentType(partContext.getHeaders().get("Content-Type"));
+		partContext.setInHeader(false);
 	}
 
 	/**
@@ -248,74 +348,10 @@ public class SyncFileControllerV2 {
 		InitiateMultipartUploadRequest initRequest = new InitiateMultipartUploadRequest(bucketName,
 			fileName).withObjectMetadata(metadata);
 
-		return amazonS3.initiateMultipartUpload(initRequest);
-	}
-
-	/**
-	 * contentBuffer가 5MB 이상 찼을 경우, part upload를 합니다.
-	 */
-	private void processContent(ByteArrayOutputStream contentBuffer, ByteArrayOutputStream lineBuffer,
-		PartContext partContext, UploadState state) throws Exception {
-		contentBuffer.write(lineBuffer.toByteArray());
-		if (partContext.getCurrentFileName() != null && contentBuffer.size() >= s3ChunkSize) {
-			uploadChunk(contentBuffer, state, partContext);
-		}
-	}
-
-	/**
-	 * 실제로 파일 바이너리 데이터 쓰기 작업을 요청하는 메소드입니다.
-	 * 별도의 쓰기 작업 스레드 풀에 요청을 넘겨줍니다.
-	 */
-	private void uploadChunk(ByteArrayOutputStream contentBuffer, UploadState state, PartContext partContext) {
-		partContext.plusPartCount();
-		state.addPartNumber();
-		state.addFileSize(contentBuffer.size());
-		syncFileService.produce(state.getInitResponse(), partContext.getUploadFileName(), state.getPartNumber(),
-			contentBuffer.toByteArray(), contentBuffer.size(),
-			state.getPartETagsMap().get(partContext.getUploadFileName()));
-		contentBuffer.reset();
-	}
-
-	/**
-	 * OOM 방지를 위해 lineBuffer가 일정 수준 이상에 도달하면 contentBuffer로 flush 합니다.
-	 * contentBuffer가 5MB 이상 차면, s3로 part upload를 합니다.
-	 */
-	private void checkLineBufferSize(ByteArrayOutputStream lineBuffer, ByteArrayOutputStream contentBuffer,
-		PartContext partContext, UploadState state) throws Exception {
-		if (lineBuffer.size() >= lineBufferMaxSize) {
-			contentBuffer.write(lineBuffer.toByteArray());
-			lineBuffer.reset();
-
-			if (contentBuffer.size() >= s3ChunkSize) {
-				uploadChunk(contentBuffer, state, partContext);
-			}
-		}
-	}
-
-	/**
-	 * part upload가 모두 끝난 이후, 최종 finish upload 요청을 합니다.
-	 * 버퍼에 보내지 못한 데이터가 존재할 수 있으니 확인을 하고 쓰기 작업 스레드 풀에 작업이 끝났음을 알립니다.
-	 */
-	private void finishFileUpload(ByteArrayOutputStream contentBuffer, UploadState state, PartContext partContext) {
-		uploadLeftOver(contentBuffer, state, partContext);
-		syncFileService.finishFileUpload(state.getInitResponse(), partContext.getUploadFileName(),
-			state.getPartETagsMap().get(partContext.getUploadFileName()));
-	}
-
-	/**
-	 * 마지막 part의 contentBuffer가 남아있는 경우, 5MB 이하의 파일을 최종적으로 쓰기 작업 스레드 풀에 요청합니다.
-	 */
-	private void uploadLeftOver(ByteArrayOutputStream contentBuffer, UploadState state, PartContext partContext) {
-		if (contentBuffer.size() == 0) {
-			return;
-		}
-		partContext.plusPartCount();
-		state.addPartNumber();
-		state.addFileSize(contentBuffer.size() - 2);
-		log.info("[Last Upload Ended] file total size = {}", state.getFileSize());
-		syncFileService.produce(state.getInitResponse(), partContext.getUploadFileName(), state.getPartNumber(),
-			contentBuffer.toByteArray(), contentBuffer.size() - 2,
-			state.getPartETagsMap().get(partContext.getUploadFileName()));
+		long startedAt = System.nanoTime();
+		InitiateMultipartUploadResult initResponse = amazonS3.initiateMultipartUpload(initRequest);
+		uploadMetrics.recordStage(UploadApi.V2, UploadStage.INITIATE_UPLOAD, startedAt);
+		return initResponse;
 	}
 
 	/**
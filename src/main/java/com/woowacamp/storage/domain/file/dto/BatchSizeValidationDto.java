@@ -0,0 +1,19 @@
+package com.woowacamp.storage.domain.file.dto;
+
+import java.util.List;
+
+import com.woowacamp.storage.global.error.CustomException;
+
+/**
+ * 한 요청으로 올리는 파일들의 용량 검사 결과입니다.
+ * rejections는 파일 순서대로 거절 사유를 담고, 받아들인 파일 자리는 null입니다.
+ */
+public record BatchSizeValidationDto(Long rootFolderId, List<CustomException> rejections) {
+
+	public void throwIfRejected(int fileIndex) {
+		CustomException rejection = rejections.get(fileIndex);
+		if (rejection != null) {
+			throw rejection;
+		}
+	}
+}
@@ -0,0 +1,18 @@
+package com.woowacamp.storage.domain.file.dto;
+
+/**
+ * Range 요청 하나가 가리키는 파일의 구간입니다. start와 end 모두 포함하며, 파일 크기 안으로 잘라둔 값입니다.
+ */
+public record ByteRange(long start, long end) {
+
+	public long length() {
+		return end - start + 1;
+	}
+
+	/**
+	 * Content-Range 헤더 값을 만듭니다.
+	 */
+	public String contentRange(long completeLength) {
+		return "bytes " + start + "-" + end + "/" + completeLength;
+	}
+}
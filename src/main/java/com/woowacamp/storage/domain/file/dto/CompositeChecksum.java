@@ -0,0 +1,53 @@
+package com.woowacamp.storage.domain.file.dto;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * part마다 계산한 MD5로 파일 전체의 체크섬을 만듭니다.
+ * S3의 multipart ETag와 같은 방식으로 part MD5를 part 번호 순서로 이어 붙여 다시 MD5를 구하고 "-part 개수"를 붙입니다.
+ * 그래서 객체를 다시 읽지 않고도 S3가 돌려준 ETag와 비교해서 확인할 수 있습니다.
+ * 쓰기 작업 스레드 여러 개가 동시에 part를 추가할 수 있습니다.
+ */
+public class CompositeChecksum {
+
+	private final Map<Integer, byte[]> partDigests = new ConcurrentSkipListMap<>();
+
+	public void addPart(int partNumber, byte[] md5) {
+		partDigests.put(partNumber, md5);
+	}
+
+	/**
+	 * 모든 part를 추가한 뒤 호출합니다.
+	 */
+	public String compute() {
+		MessageDigest digest = newMd5Digest();
+		partDigests.values().forEach(digest::update);
+		return HexFormat.of().formatHex(digest.digest()) + "-" + partDigests.size();
+	}
+
+	/**
+	 * putObject 한 번으로 올린 객체의 체크섬입니다. S3 ETag와 같이 MD5의 16진수 문자열입니다.
+	 */
+	public static String ofSingleObject(byte[] md5) {
+		return HexFormat.of().formatHex(md5);
+	}
+
+	/**
+	 * S3가 돌려준 ETag와 같은지 확인합니다. ETag는 따옴표로 감싸져 올 수 있습니다.
+	 */
+	public static boolean matches(String checksum, String eTag) {
+		return eTag != null && checksum.equalsIgnoreCase(eTag.replace("\"", ""));
+	}
+
+	static MessageDigest newMd5Digest() {
+		try {
+			return MessageDigest.getInstance("MD5");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,20 @@
+package com.woowacamp.storage.domain.file.dto;
+
+import com.woowacamp.storage.global.constant.UploadStatus;
+
+/**
+ * 한 요청으로 올린 파일마다의 업로드 결과입니다.
+ * @param fileId  - 업로드에 실패한 경우 null
+ * @param message - 업로드에 실패한 이유
+ */
+public record FileUploadResultDto(String fileName, Long fileId, long fileSize, UploadStatus uploadStatus,
+								  String message) {
+	public static FileUploadResultDto success(FileMetadataDto fileMetadataDto) {
+		return new FileUploadResultDto(fileMetadataDto.uploadFileName(), fileMetadataDto.metadataId(),
+			fileMetadataDto.fileSize(), UploadStatus.SUCCESS, null);
+	}
+
+	public static FileUploadResultDto fail(String fileName, String message) {
+		return new FileUploadResultDto(fileName, null, 0, UploadStatus.FAIL, message);
+	}
+}
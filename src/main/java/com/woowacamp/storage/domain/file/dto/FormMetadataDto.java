@@ -1,5 +1,7 @@
 package com.woowacamp.storage.domain.file.dto;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 
 import com.woowacamp.storage.global.error.ErrorCode;
@@ -39,4 +41,25 @@ public class FormMetadataDto {
 			throw ErrorCode.INVALID_INPUT_VALUE.baseException();
 		}
 	}
+
+	public static FormMetadataDto of(Map<String, String> formFields, long fileSize) {
+		try {
+			long userId = Long.parseLong(formFields.get("userId"));
+			long parentFolderId = Long.parseLong(formFields.get("parentFolderId"));
+			return new FormMetadataDto(userId, parentFolderId, fileSize);
+		} catch (NumberFormatException exception) {
+			throw ErrorCode.INVALID_INPUT_VALUE.baseException();
+		}
+	}
+
+	/**
+	 * 여러 파일을 올리는 경우 fileSizes 필드에 파일 순서대로 크기를 쉼표로 구분해서 보냅니다.
+	 */
+	public static List<Long> parseFileSizes(String fileSizes) {
+		try {
+			return Arrays.stream(fileSizes.split(",")).map(String::trim).map(Long::parseLong).toList();
+		} catch (NumberFormatException exception) {
+			throw ErrorCode.INVALID_INPUT_VALUE.baseException();
+		}
+	}
 }
@@ -0,0 +1,43 @@
+package com.woowacamp.storage.domain.file.dto;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+/**
+ * S3 part 하나를 담는 고정 크기 버퍼입니다.
+ * PartBufferPool에서 빌려서 채운 뒤 쓰기 작업 스레드 풀에 소유권을 넘기고, uploadPart가 끝나면 풀로 반납합니다.
+ */
+public class PartBuffer {
+	private final byte[] data;
+	private int size;
+
+	public PartBuffer(int capacity) {
+		this.data = new byte[capacity];
+	}
+
+	/**
+	 * 남은 공간만큼 복사하고 실제로 복사한 길이를 반환합니다.
+	 */
+	public int write(byte[] source, int offset, int length) {
+		int written = Math.min(length, data.length - size);
+		System.arraycopy(source, offset, data, size, written);
+		size += written;
+		return written;
+	}
+
+	public boolean isFull() {
+		return size == data.length;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public InputStream toInputStream() {
+		return new ByteArrayInputStream(data, 0, size);
+	}
+
+	public void reset() {
+		size = 0;
+	}
+}
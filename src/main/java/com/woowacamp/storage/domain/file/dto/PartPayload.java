@@ -0,0 +1,75 @@
+package com.woowacamp.storage.domain.file.dto;
+
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * S3 part 하나의 데이터입니다.
+ * part 크기는 업로드마다 다르기 때문에 PartBufferPool의 고정 크기 버퍼 여러 개를 이어 붙여 part 하나를 만듭니다.
+ * 버퍼에 쓰는 동안 MD5를 함께 계산하므로 Content-MD5를 보내기 위해 part를 다시 읽지 않습니다.
+ */
+public class PartPayload {
+	private final List<PartBuffer> buffers = new ArrayList<>();
+	private final MessageDigest md5Digest = CompositeChecksum.newMd5Digest();
+	private byte[] md5;
+	private int size;
+
+	/**
+	 * 마지막 버퍼가 가득 차서 새 버퍼가 필요한 경우 true를 반환합니다.
+	 */
+	public boolean needsBuffer() {
+		return buffers.isEmpty() || buffers.get(buffers.size() - 1).isFull();
+	}
+
+	public void addBuffer(PartBuffer partBuffer) {
+		buffers.add(partBuffer);
+	}
+
+	/**
+	 * 마지막 버퍼의 남은 공간만큼 복사하고 실제로 복사한 길이를 반환합니다.
+	 */
+	public int write(byte[] source, int offset, int length) {
+		int written = buffers.get(buffers.size() - 1).write(source, offset, length);
+		md5Digest.update(source, offset, written);
+		size += written;
+		return written;
+	}
+
+	/**
+	 * part를 모두 채운 뒤, 쓰기 작업에 넘기기 전에 요청 스레드에서 호출합니다. 이후에는 write를 호출하면 안 됩니다.
+	 */
+	public byte[] getMd5() {
+		if (md5 == null) {
+			md5 = md5Digest.digest();
+		}
+		return md5;
+	}
+
+	/**
+	 * UploadPartRequest와 ObjectMetadata의 Content-MD5 형식입니다.
+	 */
+	public String getBase64Md5() {
+		return Base64.getEncoder().encodeToString(getMd5());
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public List<PartBuffer> getBuffers() {
+		return buffers;
+	}
+
+	public InputStream toInputStream() {
+		List<InputStream> streams = new ArrayList<>(buffers.size());
+		for (PartBuffer buffer : buffers) {
+			streams.add(buffer.toInputStream());
+		}
+		return new SequenceInputStream(Collections.enumeration(streams));
+	}
+}
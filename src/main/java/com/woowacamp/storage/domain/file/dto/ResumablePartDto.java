@@ -0,0 +1,4 @@
+package com.woowacamp.storage.domain.file.dto;
+
+public record ResumablePartDto(int partNumber, long partSize) {
+}
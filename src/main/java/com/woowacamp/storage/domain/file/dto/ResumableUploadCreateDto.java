@@ -0,0 +1,19 @@
+package com.woowacamp.storage.domain.file.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+
+public record ResumableUploadCreateDto(
+	@Positive long userId,
+	@Positive long parentFolderId,
+	@NotBlank String fileName,
+	@Positive long fileSize,
+	String contentType
+) {
+	public String getContentTypeOrDefault() {
+		if (contentType == null || contentType.isBlank()) {
+			return "application/octet-stream";
+		}
+		return contentType;
+	}
+}
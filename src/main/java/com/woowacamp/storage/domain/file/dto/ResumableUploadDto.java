@@ -0,0 +1,21 @@
+package com.woowacamp.storage.domain.file.dto;
+
+import static com.woowacamp.storage.global.constant.CommonConstant.*;
+
+import java.util.List;
+
+import com.woowacamp.storage.domain.file.entity.ResumableUpload;
+
+/**
+ * @param uploadId         - 이어 올리기 요청에 사용하는 세션 식별자
+ * @param receivedParts    - 업로드가 끝난 part 번호 목록
+ * @param maxParallelParts - 한 세션에서 동시에 보낼 수 있는 part 요청 수
+ */
+public record ResumableUploadDto(String uploadId, long fileSize, int partSize, int partCount,
+								 List<Integer> receivedParts, int maxParallelParts) {
+	public static ResumableUploadDto of(ResumableUpload resumableUpload, List<Integer> receivedParts) {
+		return new ResumableUploadDto(resumableUpload.getUuidFileName(), resumableUpload.getFileSize(),
+			resumableUpload.getPartSize(), resumableUpload.getPartCount(), receivedParts,
+			RESUMABLE_UPLOAD_MAX_PARALLEL_PARTS);
+	}
+}
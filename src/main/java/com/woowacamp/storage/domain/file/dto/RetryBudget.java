@@ -0,0 +1,22 @@
+package com.woowacamp.storage.domain.file.dto;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 업로드 하나에서 사용할 수 있는 part 재시도 횟수입니다.
+ * S3 장애가 길어질 때 모든 part가 최대 횟수만큼 재시도해서 요청이 몰리지 않도록 업로드 단위로 제한합니다.
+ */
+public class RetryBudget {
+	private final AtomicInteger remaining;
+
+	public RetryBudget(int retries) {
+		this.remaining = new AtomicInteger(retries);
+	}
+
+	/**
+	 * @return - 남은 재시도 횟수가 있어 하나를 사용한 경우 true
+	 */
+	public boolean tryAcquire() {
+		return remaining.getAndUpdate(count -> count > 0 ? count - 1 : 0) > 0;
+	}
+}
@@ -0,0 +1,73 @@
+package com.woowacamp.storage.domain.file.dto;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 스풀 모드에서 파일 하나의 본문을 순서대로 이어 쓰는 로컬 파일입니다.
+ * 요청 스레드 하나만 쓰고, commit 이후에는 UploadSpool의 drainer 스레드가 읽기만 합니다.
+ * reservedBytes는 UploadSpool의 용량 예산에서 이 파일이 예약한 크기입니다.
+ */
+public class SpoolFile {
+	private final String key;
+	private final Path dataPath;
+	private final long reservedBytes;
+	private final FileChannel channel;
+	private long size;
+
+	public SpoolFile(String key, Path dataPath, long reservedBytes) throws IOException {
+		this.key = key;
+		this.dataPath = dataPath;
+		this.reservedBytes = reservedBytes;
+		this.channel = FileChannel.open(dataPath, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+	}
+
+	/**
+	 * 예약한 크기를 넘는 데이터는 쓰지 않습니다. 선언한 크기와 다른 파일은 크기 검사에서 실패하므로 commit되지 않습니다.
+	 */
+	public void write(byte[] source, int offset, int length) throws IOException {
+		if (size + length > reservedBytes) {
+			return;
+		}
+		ByteBuffer byteBuffer = ByteBuffer.wrap(source, offset, length);
+		while (byteBuffer.hasRemaining()) {
+			channel.write(byteBuffer);
+		}
+		size += length;
+	}
+
+	/**
+	 * 디스크에 기록된 것을 확인하고 채널을 닫습니다. 이후에 클라이언트에 응답해도 서버가 죽었을 때 데이터를 잃지 않습니다.
+	 */
+	public void flushAndClose() throws IOException {
+		channel.force(true);
+		channel.close();
+	}
+
+	public void closeQuietly() {
+		try {
+			channel.close();
+		} catch (IOException ignored) {
+			// 이미 닫힌 채널
+		}
+	}
+
+	public String getKey() {
+		return key;
+	}
+
+	public Path getDataPath() {
+		return dataPath;
+	}
+
+	public long getReservedBytes() {
+		return reservedBytes;
+	}
+
+	public long getSize() {
+		return size;
+	}
+}
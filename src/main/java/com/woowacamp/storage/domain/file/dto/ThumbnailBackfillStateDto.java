@@ -0,0 +1,16 @@
+package com.woowacamp.storage.domain.file.dto;
+
+import com.woowacamp.storage.global.constant.BackfillStatus;
+
+/**
+ * /actuator/thumbnailbackfill에서 보여주는 썸네일 일괄 재생성 작업의 상태입니다.
+ * @param status         - 한 번도 시작하지 않은 작업이면 null
+ * @param lastFileId     - checkpoint에 기록된 마지막 파일 id. 다시 시작하면 이 다음 파일부터 처리한다.
+ * @param remaining      - 실행 중일 때만 계산하는 남은 대상 파일 수
+ * @param throughput     - 이번 실행에서 초당 처리한 파일 수
+ * @param etaSeconds     - 지금 처리 속도로 남은 파일을 처리하는 데 걸리는 시간
+ */
+public record ThumbnailBackfillStateDto(String jobName, BackfillStatus status, boolean running, long lastFileId,
+										long processedCount, long failedCount, long remaining, double throughput,
+										double etaSeconds) {
+}
@@ -1,10 +1,11 @@
 package com.woowacamp.storage.domain.file.dto;
 
-import java.io.IOException;
-import java.io.PipedInputStream;
-import java.io.PipedOutputStream;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import com.woowacamp.storage.domain.file.util.SpscByteRingBuffer;
+
+import lombok.AccessLevel;
 import lombok.Getter;
 
 @Getter
@@ -15,10 +16,12 @@ public final class UploadContext {
 	private boolean isFileRead;
 	private FileMetadataDto fileMetadata;
 	private String imageFormat;
-	private PipedOutputStream pos;
-	private PipedInputStream pis;
+	private SpscByteRingBuffer thumbnailBuffer;
 	private boolean startedCreatedThumbnail;
-	private boolean abortedCreateThumbnail;
+	// 썸네일 스레드가 실패하면 업로드 스레드가 더 이상 데이터를 넘기지 않는다.
+	// 업로드 스레드와 썸네일 스레드 중 처음 중단한 쪽만 썸네일 작업 큐에 넘기도록 AtomicBoolean으로 둔다.
+	@Getter(AccessLevel.NONE)
+	private final AtomicBoolean abortedCreateThumbnail = new AtomicBoolean();
 
 	public UploadContext(
 		String boundary,
@@ -31,10 +34,16 @@ public final class UploadContext {
 		this.formFields = formFields;
 		this.isFileRead = isFileRead;
 		this.imageFormat = null;
-		this.pos = null;
-		this.pis = null;
+		this.thumbnailBuffer = null;
 		this.startedCreatedThumbnail = false;
-		this.abortedCreateThumbnail = false;
+	}
+
+	/**
+	 * 같은 요청에서 다음 파일을 읽을 때 사용합니다.
+	 * 썸네일 작업이 이전 파일의 context를 계속 참조하기 때문에 값을 초기화하지 않고 새 객체를 만듭니다.
+	 */
+	public UploadContext nextFile() {
+		return new UploadContext(boundary, finalBoundary, formFields, false);
 	}
 
 	public boolean isFileRead() {
@@ -49,19 +58,37 @@ public final class UploadContext {
 		this.fileMetadata = fileMetadata;
 	}
 
-	public void updateImageFormat(String imageFormat) throws IOException {
+	public void updateImageFormat(String imageFormat, SpscByteRingBuffer thumbnailBuffer) {
 		this.imageFormat = imageFormat;
-		this.pos = new PipedOutputStream();
-		this.pis = new PipedInputStream();
-
-		pis.connect(pos);
+		this.thumbnailBuffer = thumbnailBuffer;
 	}
 
 	public void updateStartedCreatedThumbnail() {
 		this.startedCreatedThumbnail = true;
 	}
 
-	public void abortCreateThumbnail() {
-		this.abortedCreateThumbnail = true;
+	public boolean isAbortedCreateThumbnail() {
+		return abortedCreateThumbnail.get();
+	}
+
+	/**
+	 * 썸네일 버퍼를 중단해서 썸네일 스레드가 더 이상 기다리지 않게 합니다.
+	 *
+	 * @return - 이번 호출에서 처음 중단했으면 true
+	 */
+	public boolean abortCreateThumbnail() {
+		if (thumbnailBuffer != null) {
+			thumbnailBuffer.abort();
+		}
+		return abortedCreateThumbnail.compareAndSet(false, true);
+	}
+
+	/**
+	 * 파일을 다 읽었으면 썸네일 작업이 EOF를 받을 수 있도록 썸네일 버퍼를 닫습니다.
+	 */
+	public void closeThumbnailStream() {
+		if (thumbnailBuffer != null) {
+			thumbnailBuffer.close();
+		}
 	}
 }
@@ -0,0 +1,13 @@
+package com.woowacamp.storage.domain.file.dto;
+
+/**
+ * /actuator/uploads에서 보여주는 업로드 실행기와 버퍼 풀의 현재 상태입니다.
+ * @param executor        - 사용 중인 part upload 실행기 이름
+ * @param blockedParts    - 실행기가 가득 차서 요청 스레드가 대기한 누적 횟수
+ * @param bufferWaiting   - part 버퍼 반납을 기다리는 스레드 수
+ * @param activeSessions  - 진행 중인 multipart upload 세션 수
+ */
+public record UploadPoolStateDto(String executor, int activeParts, int queuedParts, long submittedParts,
+								 long completedParts, long blockedParts, int bufferInUse, int bufferCreated,
+								 int bufferMax, int bufferWaiting, int activeSessions) {
+}
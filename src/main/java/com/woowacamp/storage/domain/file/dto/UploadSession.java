@@ -0,0 +1,99 @@
+package com.woowacamp.storage.domain.file.dto;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.amazonaws.services.s3.model.PartETag;
+import com.woowacamp.storage.global.constant.UploadApi;
+
+import lombok.Getter;
+
+/**
+ * 진행 중인 multipart upload 하나의 상태입니다.
+ * 요청 스레드는 finish로 전체 part 개수를 알려주고, 쓰기 작업 스레드는 part가 끝날 때마다 completePart를 호출합니다.
+ * 두 호출 중 마지막 part와 전체 part 개수를 모두 확인한 쪽 하나만 true를 받아 completeMultipartUpload를 요청합니다.
+ */
+public class UploadSession {
+
+	private static final int UNKNOWN_PART_COUNT = -1;
+
+	@Getter
+	private final String key;
+	@Getter
+	private final String uploadId;
+	private final Map<Integer, PartETag> partETags = new ConcurrentHashMap<>();
+	private final AtomicInteger completedPartCount = new AtomicInteger();
+	private final AtomicBoolean completionStarted = new AtomicBoolean();
+	@Getter
+	private final RetryBudget retryBudget;
+	// 쓰기 작업 스레드에서 기록하는 단계 지표의 version 태그
+	@Getter
+	private final UploadApi api;
+	@Getter
+	private final CompletableFuture<Void> completion = new CompletableFuture<>();
+	@Getter
+	private final CompositeChecksum checksum = new CompositeChecksum();
+	private volatile int expectedPartCount = UNKNOWN_PART_COUNT;
+
+	public UploadSession(String key, String uploadId, RetryBudget retryBudget, UploadApi api) {
+		this.key = key;
+		this.uploadId = uploadId;
+		this.retryBudget = retryBudget;
+		this.api = api;
+	}
+
+	/**
+	 * part upload가 끝난 경우 호출합니다.
+	 *
+	 * @return - true인 경우 호출한 스레드가 completeMultipartUpload를 요청해야 한다.
+	 */
+	public boolean completePart(PartETag partETag) {
+		partETags.put(partETag.getPartNumber(), partETag);
+		completedPartCount.incrementAndGet();
+		return tryStartCompletion();
+	}
+
+	/**
+	 * 요청 스레드가 모든 part를 넘긴 경우 호출합니다.
+	 *
+	 * @return - true인 경우 호출한 스레드가 completeMultipartUpload를 요청해야 한다.
+	 */
+	public boolean finish(int partCount) {
+		expectedPartCount = partCount;
+		return tryStartCompletion();
+	}
+
+	/**
+	 * part upload 또는 complete 요청이 실패한 경우 호출합니다. 이후 completion은 예외로 끝납니다.
+	 */
+	public void fail(Throwable cause) {
+		completionStarted.set(true);
+		completion.completeExceptionally(cause);
+	}
+
+	public boolean isFailed() {
+		return completion.isCompletedExceptionally();
+	}
+
+	/**
+	 * completeMultipartUpload는 part 번호 순서로 정렬된 ETag 목록이 필요합니다.
+	 */
+	public List<PartETag> getSortedPartETags() {
+		List<PartETag> sorted = new ArrayList<>(partETags.values());
+		sorted.sort(Comparator.comparingInt(PartETag::getPartNumber));
+		return sorted;
+	}
+
+	private boolean tryStartCompletion() {
+		int expected = expectedPartCount;
+		return expected != UNKNOWN_PART_COUNT
+			&& completedPartCount.get() >= expected
+			&& completionStarted.compareAndSet(false, true);
+	}
+}
@@ -1,7 +1,10 @@
 package com.woowacamp.storage.domain.file.dto;
 
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
 
@@ -19,13 +22,21 @@ public class UploadState {
 	private Map<String, List<PartETag>> partETagsMap = new HashMap<>();
 	private int partNumber = 0;
 	private long fileSize = 0;
+	private int partSize = 0;
 	private FileMetadataDto fileMetadataDto;
+	private RetryBudget retryBudget;
+	private MessageDigest contentDigest;
+	private CompositeChecksum checksum = new CompositeChecksum();
 
 	public void reset() {
 		initResponse = null;
 		partETagsMap = new HashMap<>();
 		partNumber = 0;
 		fileSize = 0;
+		partSize = 0;
+		retryBudget = null;
+		contentDigest = null;
+		checksum = new CompositeChecksum();
 	}
 
 	public void addPartNumber() {
@@ -39,4 +50,32 @@ public class UploadState {
 	public void initPartEtag(String fileName) {
 		partETagsMap.put(fileName, new ArrayList<>());
 	}
+
+	/**
+	 * 파일 데이터를 읽은 순서대로 SHA-256 해시에 반영합니다. 파서가 넘겨준 슬라이스를 그대로 사용하므로 따로 복사하지 않습니다.
+	 */
+	public void updateContentHash(byte[] buffer, int offset, int length) {
+		if (contentDigest == null) {
+			contentDigest = newContentDigest();
+		}
+		contentDigest.update(buffer, offset, length);
+	}
+
+	/**
+	 * 지금까지 읽은 파일 데이터의 SHA-256 해시를 16진수 문자열로 반환합니다.
+	 */
+	public String digestContentHash() {
+		if (contentDigest == null) {
+			contentDigest = newContentDigest();
+		}
+		return HexFormat.of().formatHex(contentDigest.digest());
+	}
+
+	private static MessageDigest newContentDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
 }
@@ -0,0 +1,71 @@
+package com.woowacamp.storage.domain.file.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.validation.constraints.NotNull;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 내용이 같은 파일들이 함께 사용하는 S3 객체입니다.
+ * SHA-256 해시와 크기가 같은 파일은 objectKey 객체 하나를 참조하고, refCount가 0이 되면 S3 객체를 삭제합니다.
+ */
+@Entity
+@Table(name = "content_blob", uniqueConstraints = {
+	@UniqueConstraint(name = "content_blob_uk_content_hash_file_size", columnNames = {"content_hash", "file_size"})})
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Getter
+public class ContentBlob {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@Column(name = "content_blob_id")
+	private Long id;
+
+	@Column(name = "content_hash", columnDefinition = "CHAR(64) NOT NULL")
+	@NotNull
+	private String contentHash;
+
+	@Column(name = "file_size", columnDefinition = "BIGINT NOT NULL")
+	@NotNull
+	private Long fileSize;
+
+	@Column(name = "object_key", columnDefinition = "VARCHAR(100) NOT NULL")
+	@NotNull
+	private String objectKey;
+
+	@Column(name = "ref_count", columnDefinition = "BIGINT NOT NULL")
+	@NotNull
+	private Long refCount;
+
+	@Column(name = "created_at", columnDefinition = "TIMESTAMP NOT NULL")
+	@NotNull
+	private LocalDateTime createdAt;
+
+	@Builder
+	public ContentBlob(Long id, String contentHash, Long fileSize, String objectKey, Long refCount,
+		LocalDateTime createdAt) {
+		this.id = id;
+		this.contentHash = contentHash;
+		this.fileSize = fileSize;
+		this.objectKey = objectKey;
+		this.refCount = refCount;
+		this.createdAt = createdAt;
+	}
+
+	/**
+	 * @return - 감소한 이후의 참조 수
+	 */
+	public long decreaseRefCount() {
+		return --refCount;
+	}
+}
@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 
 import com.woowacamp.storage.global.constant.CommonConstant;
 import com.woowacamp.storage.global.constant.PermissionType;
+import com.woowacamp.storage.global.constant.ThumbnailStatus;
 import com.woowacamp.storage.global.constant.UploadStatus;
 
 import jakarta.persistence.Column;
@@ -82,6 +83,21 @@ public class FileMetadata {
 	@Column(name = "thumbnail_file_name", columnDefinition = "VARCHAR(100) unique")
 	private String thumbnailUUID;
 
+	@Enumerated(EnumType.STRING)
+	@Column(name = "thumbnail_status", columnDefinition = "VARCHAR(10)")
+	private ThumbnailStatus thumbnailStatus;
+
+	// 업로드가 끝난 뒤 ContentBlob에 등록한 파일만 값이 있다. 없으면 uuidFileName 객체를 혼자 사용한다.
+	@Column(name = "content_hash", columnDefinition = "CHAR(64)")
+	private String contentHash;
+
+	@Column(name = "object_key", columnDefinition = "VARCHAR(100)")
+	private String objectKey;
+
+	// part MD5로 만든 체크섬. multipart upload는 S3 ETag와 같은 "MD5-part 개수" 형식이다.
+	@Column(name = "checksum", columnDefinition = "VARCHAR(50)")
+	private String checksum;
+
 	@Column(name = "sharing_expired_at", columnDefinition = "TIMESTAMP NOT NULL")
 	@NotNull
 	private LocalDateTime sharingExpiredAt;
@@ -94,8 +110,8 @@ public class FileMetadata {
 	@Builder
 	public FileMetadata(Long id, Long rootId, Long creatorId, Long ownerId, String fileType, LocalDateTime createdAt,
 		LocalDateTime updatedAt, Long parentFolderId, Long fileSize, String uploadFileName, String uuidFileName,
-		UploadStatus uploadStatus, String thumbnailUUID, LocalDateTime sharingExpiredAt,
-		PermissionType permissionType) {
+		UploadStatus uploadStatus, String thumbnailUUID, ThumbnailStatus thumbnailStatus, String contentHash,
+		String objectKey, String checksum, LocalDateTime sharingExpiredAt, PermissionType permissionType) {
 		this.id = id;
 		this.rootId = rootId;
 		this.creatorId = creatorId;
@@ -109,6 +125,10 @@ public class FileMetadata {
 		this.uuidFileName = uuidFileName;
 		this.uploadStatus = uploadStatus;
 		this.thumbnailUUID = thumbnailUUID;
+		this.thumbnailStatus = thumbnailStatus;
+		this.contentHash = contentHash;
+		this.objectKey = objectKey;
+		this.checksum = checksum;
 		this.sharingExpiredAt = sharingExpiredAt;
 		this.permissionType = permissionType;
 	}
@@ -146,4 +166,11 @@ public class FileMetadata {
 	public boolean isSharingExpired() {
 		return sharingExpiredAt.isBefore(LocalDateTime.now());
 	}
+
+	/**
+	 * 파일 데이터가 저장된 S3 key를 반환합니다. 같은 내용의 파일과 객체를 함께 사용하면 다른 파일의 uuid일 수 있습니다.
+	 */
+	public String getStorageKey() {
+		return objectKey != null ? objectKey : uuidFileName;
+	}
 }
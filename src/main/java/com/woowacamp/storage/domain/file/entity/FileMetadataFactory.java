@@ -3,18 +3,19 @@ package com.woowacamp.storage.domain.file.entity;
 import java.time.LocalDateTime;
 
 import com.woowacamp.storage.domain.folder.entity.FolderMetadata;
-import com.woowacamp.storage.domain.user.entity.User;
+import com.woowacamp.storage.global.constant.ThumbnailStatus;
 import com.woowacamp.storage.global.constant.UploadStatus;
 
 public class FileMetadataFactory {
 
-	public static FileMetadata buildInitialMetadata(User user, long parentFolderId, long fileSize, String uuidFileName,
-		String fileName, String fileType, String thumbnailUUID, long creatorId, FolderMetadata parentFolderMetadata) {
+	public static FileMetadata buildInitialMetadata(Long rootFolderId, long ownerId, long parentFolderId, long fileSize,
+		String uuidFileName, String fileName, String fileType, String thumbnailUUID, long creatorId,
+		FolderMetadata parentFolderMetadata) {
 		LocalDateTime now = LocalDateTime.now();
 		return FileMetadata.builder()
-			.rootId(user.getRootFolderId())
+			.rootId(rootFolderId)
 			.creatorId(creatorId)
-			.ownerId(user.getId())
+			.ownerId(ownerId)
 			.parentFolderId(parentFolderId)
 			.fileSize(fileSize)
 			.uuidFileName(uuidFileName)
@@ -25,6 +26,7 @@ public class FileMetadataFactory {
 			.createdAt(now)
 			.updatedAt(now)
 			.thumbnailUUID(thumbnailUUID)
+			.thumbnailStatus(thumbnailUUID == null ? null : ThumbnailStatus.PENDING)
 			.permissionType(parentFolderMetadata.getPermissionType())
 			.build();
 	}
@@ -0,0 +1,107 @@
+package com.woowacamp.storage.domain.file.entity;
+
+import java.time.LocalDateTime;
+
+import com.woowacamp.storage.global.constant.ResumableUploadStatus;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 이어 올리기 세션입니다. S3 uploadId를 저장해두기 때문에 어느 서버에서든 남은 part를 이어서 받을 수 있습니다.
+ */
+@Entity
+@Table(name = "resumable_upload", indexes = {
+	@Index(name = "resumable_upload_idx_expired_at", columnList = "expired_at")})
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Getter
+public class ResumableUpload {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@Column(name = "resumable_upload_id")
+	private Long id;
+
+	@Column(name = "file_metadata_id", columnDefinition = "BIGINT NOT NULL")
+	@NotNull
+	private Long fileMetadataId;
+
+	@Column(name = "uuid_file_name", columnDefinition = "VARCHAR(100) NOT NULL unique")
+	@NotNull
+	private String uuidFileName;
+
+	@Column(name = "s3_upload_id", columnDefinition = "VARCHAR(300) NOT NULL")
+	@NotNull
+	private String s3UploadId;
+
+	@Column(name = "creator_id", columnDefinition = "BIGINT NOT NULL")
+	@NotNull
+	private Long creatorId;
+
+	@Column(name = "file_size", columnDefinition = "BIGINT NOT NULL")
+	@NotNull
+	private Long fileSize;
+
+	@Column(name = "part_size", columnDefinition = "INT NOT NULL")
+	@NotNull
+	private Integer partSize;
+
+	@Enumerated(EnumType.STRING)
+	@Column(name = "status", columnDefinition = "VARCHAR(20) NOT NULL")
+	@NotNull
+	private ResumableUploadStatus status;
+
+	@Column(name = "created_at", columnDefinition = "TIMESTAMP NOT NULL")
+	@NotNull
+	private LocalDateTime createdAt;
+
+	@Column(name = "expired_at", columnDefinition = "TIMESTAMP NOT NULL")
+	@NotNull
+	private LocalDateTime expiredAt;
+
+	@Builder
+	public ResumableUpload(Long id, Long fileMetadataId, String uuidFileName, String s3UploadId, Long creatorId,
+		Long fileSize, Integer partSize, ResumableUploadStatus status, LocalDateTime createdAt,
+		LocalDateTime expiredAt) {
+		this.id = id;
+		this.fileMetadataId = fileMetadataId;
+		this.uuidFileName = uuidFileName;
+		this.s3UploadId = s3UploadId;
+		this.creatorId = creatorId;
+		this.fileSize = fileSize;
+		this.partSize = partSize;
+		this.status = status;
+		this.createdAt = createdAt;
+		this.expiredAt = expiredAt;
+	}
+
+	public int getPartCount() {
+		return (int)((fileSize + partSize - 1) / partSize);
+	}
+
+	/**
+	 * 마지막 part를 제외한 모든 part는 partSize 크기여야 합니다.
+	 */
+	public long getExpectedPartSize(int partNumber) {
+		if (partNumber < getPartCount()) {
+			return partSize;
+		}
+		return fileSize - (long)partSize * (getPartCount() - 1);
+	}
+
+	public boolean isExpired() {
+		return expiredAt.isBefore(LocalDateTime.now());
+	}
+}
@@ -0,0 +1,51 @@
+package com.woowacamp.storage.domain.file.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.validation.constraints.NotNull;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 이어 올리기 세션에서 S3에 업로드가 끝난 part의 ETag입니다.
+ */
+@Entity
+@Table(name = "resumable_upload_part",
+	uniqueConstraints = {@UniqueConstraint(columnNames = {"resumable_upload_id", "part_number"})})
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Getter
+public class ResumableUploadPart {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@Column(name = "resumable_upload_part_id")
+	private Long id;
+
+	@Column(name = "resumable_upload_id", columnDefinition = "BIGINT NOT NULL")
+	@NotNull
+	private Long resumableUploadId;
+
+	@Column(name = "part_number", columnDefinition = "INT NOT NULL")
+	@NotNull
+	private Integer partNumber;
+
+	@Column(name = "etag", columnDefinition = "VARCHAR(100) NOT NULL")
+	@NotNull
+	private String etag;
+
+	@Column(name = "part_size", columnDefinition = "BIGINT NOT NULL")
+	@NotNull
+	private Long partSize;
+
+	@Column(name = "created_at", columnDefinition = "TIMESTAMP NOT NULL")
+	@NotNull
+	private LocalDateTime createdAt;
+}
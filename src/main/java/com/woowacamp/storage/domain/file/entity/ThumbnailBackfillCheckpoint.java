@@ -0,0 +1,87 @@
+package com.woowacamp.storage.domain.file.entity;
+
+import java.time.LocalDateTime;
+
+import com.woowacamp.storage.global.constant.BackfillStatus;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 썸네일 일괄 재생성 작업의 진행 상황입니다. 배치를 끝낼 때마다 마지막으로 처리한 파일 id를 기록하므로,
+ * 서버가 다시 시작되거나 작업을 멈춘 뒤 같은 jobName으로 시작하면 그 다음 파일부터 이어서 처리합니다.
+ */
+@Entity
+@Table(name = "thumbnail_backfill_checkpoint")
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Getter
+public class ThumbnailBackfillCheckpoint {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@Column(name = "thumbnail_backfill_checkpoint_id")
+	private Long id;
+
+	@Column(name = "job_name", columnDefinition = "VARCHAR(50) NOT NULL unique")
+	@NotNull
+	private String jobName;
+
+	@Column(name = "last_file_id", columnDefinition = "BIGINT NOT NULL")
+	@NotNull
+	private Long lastFileId;
+
+	@Column(name = "processed_count", columnDefinition = "BIGINT NOT NULL")
+	@NotNull
+	private Long processedCount;
+
+	@Column(name = "failed_count", columnDefinition = "BIGINT NOT NULL")
+	@NotNull
+	private Long failedCount;
+
+	@Enumerated(EnumType.STRING)
+	@Column(name = "status", columnDefinition = "VARCHAR(20) NOT NULL")
+	@NotNull
+	private BackfillStatus status;
+
+	@Column(name = "updated_at", columnDefinition = "TIMESTAMP NOT NULL")
+	@NotNull
+	private LocalDateTime updatedAt;
+
+	@Builder
+	public ThumbnailBackfillCheckpoint(Long id, String jobName, Long lastFileId, Long processedCount,
+		Long failedCount, BackfillStatus status, LocalDateTime updatedAt) {
+		this.id = id;
+		this.jobName = jobName;
+		this.lastFileId = lastFileId;
+		this.processedCount = processedCount;
+		this.failedCount = failedCount;
+		this.status = status;
+		this.updatedAt = updatedAt;
+	}
+
+	/**
+	 * 배치 하나를 끝낸 결과를 반영합니다. 실패한 파일도 다시 처리하지 않고 다음 파일로 넘어갑니다.
+	 */
+	public void advance(Long lastFileId, long processed, long failed) {
+		this.lastFileId = lastFileId;
+		this.processedCount += processed;
+		this.failedCount += failed;
+		this.updatedAt = LocalDateTime.now();
+	}
+
+	public void updateStatus(BackfillStatus status) {
+		this.status = status;
+		this.updatedAt = LocalDateTime.now();
+	}
+}
@@ -0,0 +1,40 @@
+package com.woowacamp.storage.domain.file.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.woowacamp.storage.domain.file.entity.ContentBlob;
+
+import jakarta.persistence.LockModeType;
+
+public interface ContentBlobRepository extends JpaRepository<ContentBlob, Long> {
+
+	Optional<ContentBlob> findByContentHashAndFileSize(String contentHash, Long fileSize);
+
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query(value = """
+			select b from ContentBlob b where b.contentHash = :contentHash and b.fileSize = :fileSize
+		""")
+	Optional<ContentBlob> findByContentHashAndFileSizeForUpdate(@Param("contentHash") String contentHash,
+		@Param("fileSize") Long fileSize);
+
+	/**
+	 * 같은 내용의 객체가 없으면 objectKey로 새로 만들고, 있으면 참조 수만 1 올립니다.
+	 * 같은 내용을 동시에 올려도 unique 제약 때문에 한 행만 만들어지고, 행 락이 걸리므로 참조 해제와 겹치지 않습니다.
+	 */
+	@Transactional
+	@Modifying
+	@Query(value = """
+			insert into content_blob (content_hash, file_size, object_key, ref_count, created_at)
+			values (:contentHash, :fileSize, :objectKey, 1, NOW())
+			on duplicate key update ref_count = ref_count + 1
+		""", nativeQuery = true)
+	int upsertReference(@Param("contentHash") String contentHash, @Param("fileSize") long fileSize,
+		@Param("objectKey") String objectKey);
+}
@@ -11,6 +11,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.woowacamp.storage.domain.file.entity.FileMetadata;
+import com.woowacamp.storage.global.constant.ThumbnailStatus;
 import com.woowacamp.storage.global.constant.UploadStatus;
 
 import jakarta.persistence.LockModeType;
@@ -25,6 +26,8 @@ public interface FileMetadataRepository extends JpaRepository<FileMetadata, Long
 	@Transactional
 	void deleteByUuidFileName(String uuidFileName);
 
+	Optional<FileMetadata> findByUuidFileName(String uuidFileName);
+
 	@Lock(LockModeType.PESSIMISTIC_WRITE)
 	@Query(value = """
 			select f from FileMetadata f where f.id = :id and f.uploadStatus != 'FAIL'
@@ -88,6 +91,52 @@ public interface FileMetadataRepository extends JpaRepository<FileMetadata, Long
 		""")
 	void updateUploadStatusByUuid(@Param("uuid") String uuid);
 
+	/**
+	 * 업로드가 끝난 파일이 사용할 S3 객체를 기록합니다. 그 사이 파일이 삭제되었거나 실패했다면 0을 반환합니다.
+	 */
+	@Transactional
+	@Modifying
+	@Query("""
+			update FileMetadata f set f.contentHash = :contentHash, f.objectKey = :objectKey
+			where f.id = :fileMetadataId and f.uploadStatus = 'SUCCESS'
+		""")
+	int updateContentObject(@Param("fileMetadataId") Long fileMetadataId, @Param("contentHash") String contentHash,
+		@Param("objectKey") String objectKey);
+
+	@Transactional
+	@Modifying
+	@Query("""
+			update FileMetadata f set f.checksum = :checksum where f.uuidFileName = :uuid
+		""")
+	void updateChecksumByUuid(@Param("uuid") String uuid, @Param("checksum") String checksum);
+
+	/**
+	 * 썸네일 일괄 재생성 대상을 id 순서로 가져옵니다. lastFileId 이후부터 읽기 때문에 offset 없이 기본 키 인덱스만 사용합니다.
+	 */
+	@Query(value = """
+			select * from file_metadata f
+			where f.file_metadata_id > :lastFileId and f.thumbnail_file_name is not null
+			and f.upload_status = 'SUCCESS'
+			order by f.file_metadata_id limit :batchSize
+		""", nativeQuery = true)
+	List<FileMetadata> findThumbnailTargetsAfter(@Param("lastFileId") long lastFileId,
+		@Param("batchSize") int batchSize);
+
+	@Query(value = """
+			select count(*) from file_metadata f
+			where f.file_metadata_id > :lastFileId and f.thumbnail_file_name is not null
+			and f.upload_status = 'SUCCESS'
+		""", nativeQuery = true)
+	long countThumbnailTargetsAfter(@Param("lastFileId") long lastFileId);
+
+	@Transactional
+	@Modifying
+	@Query("""
+			update FileMetadata f set f.thumbnailStatus = :thumbnailStatus where f.id = :fileMetadataId
+		""")
+	void updateThumbnailStatus(@Param("fileMetadataId") Long fileMetadataId,
+		@Param("thumbnailStatus") ThumbnailStatus thumbnailStatus);
+
 	@Transactional
 	@Query(value = """
 			select * from file_metadata f where f.upload_status = 'FAIL' limit 50;
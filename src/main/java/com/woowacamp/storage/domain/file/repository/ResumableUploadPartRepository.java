@@ -0,0 +1,35 @@
+package com.woowacamp.storage.domain.file.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.woowacamp.storage.domain.file.entity.ResumableUploadPart;
+
+public interface ResumableUploadPartRepository extends JpaRepository<ResumableUploadPart, Long> {
+
+	List<ResumableUploadPart> findByResumableUploadIdOrderByPartNumber(Long resumableUploadId);
+
+	/**
+	 * 같은 part를 다시 보낸 경우 마지막으로 업로드한 ETag로 덮어씁니다.
+	 * 여러 서버에서 같은 part를 동시에 저장해도 유니크 제약 조건 예외가 발생하지 않도록 upsert로 저장합니다.
+	 */
+	@Transactional
+	@Modifying
+	@Query(value = """
+			insert into resumable_upload_part (resumable_upload_id, part_number, etag, part_size, created_at)
+			values (:resumableUploadId, :partNumber, :etag, :partSize, NOW())
+			on duplicate key update etag = :etag, part_size = :partSize, created_at = NOW()
+		""", nativeQuery = true)
+	void upsert(@Param("resumableUploadId") long resumableUploadId, @Param("partNumber") int partNumber,
+		@Param("etag") String etag, @Param("partSize") long partSize);
+
+	@Transactional
+	@Modifying
+	@Query("DELETE FROM ResumableUploadPart p WHERE p.resumableUploadId = :resumableUploadId")
+	void deleteByResumableUploadId(@Param("resumableUploadId") Long resumableUploadId);
+}
@@ -0,0 +1,31 @@
+package com.woowacamp.storage.domain.file.repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.woowacamp.storage.domain.file.entity.ResumableUpload;
+import com.woowacamp.storage.global.constant.ResumableUploadStatus;
+
+public interface ResumableUploadRepository extends JpaRepository<ResumableUpload, Long> {
+
+	Optional<ResumableUpload> findByUuidFileName(String uuidFileName);
+
+	boolean existsByUuidFileNameAndExpiredAtAfter(String uuidFileName, LocalDateTime now);
+
+	/**
+	 * 상태가 from인 경우에만 to로 바꿉니다. 여러 서버에 완료 요청이 동시에 들어와도 한 요청만 1을 반환합니다.
+	 */
+	@Transactional
+	@Modifying
+	@Query(value = """
+			update ResumableUpload r set r.status = :to where r.id = :id and r.status = :from
+		""")
+	int updateStatus(@Param("id") Long id, @Param("from") ResumableUploadStatus from,
+		@Param("to") ResumableUploadStatus to);
+}
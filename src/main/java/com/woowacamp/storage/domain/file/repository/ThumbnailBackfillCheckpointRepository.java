@@ -0,0 +1,12 @@
+package com.woowacamp.storage.domain.file.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.woowacamp.storage.domain.file.entity.ThumbnailBackfillCheckpoint;
+
+public interface ThumbnailBackfillCheckpointRepository extends JpaRepository<ThumbnailBackfillCheckpoint, Long> {
+
+	Optional<ThumbnailBackfillCheckpoint> findByJobName(String jobName);
+}
@@ -0,0 +1,109 @@
+package com.woowacamp.storage.domain.file.service;
+
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.woowacamp.storage.domain.file.dto.FileMetadataDto;
+import com.woowacamp.storage.domain.file.entity.ContentBlob;
+import com.woowacamp.storage.domain.file.entity.FileMetadata;
+import com.woowacamp.storage.domain.file.repository.ContentBlobRepository;
+import com.woowacamp.storage.domain.file.repository.FileMetadataRepository;
+import com.woowacamp.storage.global.error.ErrorCode;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 내용이 같은 파일이 S3 객체 하나를 함께 사용하도록 참조 수를 관리합니다.
+ * <p>
+ * 업로드가 끝난 파일은 스트리밍 중에 계산한 SHA-256 해시와 크기로 등록합니다.
+ * 같은 해시와 크기의 객체가 이미 있으면 그 객체를 참조하고 방금 올린 객체는 지웁니다.
+ * 파일을 삭제할 때는 release로 참조를 반납하고, 반환된 key가 있을 때만 S3 객체를 지워야 합니다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ContentBlobService {
+
+	private final ContentBlobRepository contentBlobRepository;
+	private final FileMetadataRepository fileMetadataRepository;
+	private final AmazonS3 amazonS3;
+	private final UploadMetrics uploadMetrics;
+	@Value("${cloud.aws.credentials.bucketName}")
+	private String BUCKET_NAME;
+
+	/**
+	 * S3 업로드와 메타데이터 갱신이 모두 끝난 파일을 등록합니다.
+	 * 이미 같은 내용의 객체가 있다면 커밋 이후에 방금 올린 객체를 지웁니다. 커밋 전에 지우면 롤백됐을 때 파일 데이터가 사라집니다.
+	 */
+	@Transactional
+	public void register(FileMetadataDto fileMetadataDto, String contentHash) {
+		contentBlobRepository.upsertReference(contentHash, fileMetadataDto.fileSize(), fileMetadataDto.uuid());
+		ContentBlob contentBlob = contentBlobRepository.findByContentHashAndFileSize(contentHash,
+			fileMetadataDto.fileSize()).orElseThrow(ErrorCode.FILE_NOT_FOUND::baseException);
+		if (fileMetadataRepository.updateContentObject(fileMetadataDto.metadataId(), contentHash,
+			contentBlob.getObjectKey()) == 0) {
+			// 업로드가 끝나는 사이 파일이 삭제되었다면 참조 수를 올리지 않도록 롤백한다.
+			throw ErrorCode.FILE_NOT_FOUND.baseException();
+		}
+		if (contentBlob.getObjectKey().equals(fileMetadataDto.uuid())) {
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				deleteDuplicatedObject(fileMetadataDto);
+			}
+		});
+	}
+
+	/**
+	 * 파일의 참조를 반납합니다. 호출한 트랜잭션에서 파일 메타데이터도 함께 지워야 합니다.
+	 *
+	 * @return - 더 이상 참조하는 파일이 없어 지워야 하는 S3 key. 다른 파일이 사용 중이면 null
+	 */
+	@Transactional
+	public String release(FileMetadata fileMetadata) {
+		if (fileMetadata.getContentHash() == null) {
+			return fileMetadata.getUuidFileName();
+		}
+		Optional<ContentBlob> contentBlob = contentBlobRepository.findByContentHashAndFileSizeForUpdate(
+			fileMetadata.getContentHash(), fileMetadata.getFileSize());
+		if (contentBlob.isEmpty()) {
+			log.warn("[Content Blob Not Found] file metadata id = {}", fileMetadata.getId());
+			return fileMetadata.getStorageKey();
+		}
+		if (contentBlob.get().decreaseRefCount() > 0) {
+			return null;
+		}
+		contentBlobRepository.delete(contentBlob.get());
+		return contentBlob.get().getObjectKey();
+	}
+
+	/**
+	 * 스케줄러처럼 트랜잭션 밖에서 파일을 지울 때 사용합니다. 메타데이터 삭제와 참조 반납을 한 트랜잭션에서 처리합니다.
+	 *
+	 * @return - release와 같다.
+	 */
+	@Transactional
+	public String deleteMetadata(FileMetadata fileMetadata) {
+		fileMetadataRepository.deleteById(fileMetadata.getId());
+		return release(fileMetadata);
+	}
+
+	private void deleteDuplicatedObject(FileMetadataDto fileMetadataDto) {
+		try {
+			amazonS3.deleteObject(BUCKET_NAME, fileMetadataDto.uuid());
+			uploadMetrics.countDeduplicated(fileMetadataDto.fileSize());
+		} catch (AmazonClientException e) {
+			log.error("[Amazon S3 Exception] 중복 객체를 지우지 못했습니다. key = {}", fileMetadataDto.uuid());
+		}
+	}
+}
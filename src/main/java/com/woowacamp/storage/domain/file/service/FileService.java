@@ -35,6 +35,8 @@ public class FileService {
 	private final FolderSearchUtil folderSearchUtil;
 	private final AmazonS3 amazonS3;
 	private final ApplicationEventPublisher eventPublisher;
+	private final ContentBlobService contentBlobService;
+	private final ThumbnailStorage thumbnailStorage;
 	@Value("${cloud.aws.credentials.bucketName}")
 	private String BUCKET_NAME;
 
@@ -91,8 +93,16 @@ public class FileService {
 
 		fileMetadataRepository.delete(fileMetadata);
 
+		// 같은 내용의 다른 파일이 객체를 사용 중이면 S3 객체는 남겨둔다.
+		String objectKey = contentBlobService.release(fileMetadata);
 		try {
-			amazonS3.deleteObject(BUCKET_NAME, fileMetadata.getUuidFileName());
+			// 썸네일은 파일마다 따로 만들기 때문에 내용이 같은 파일이 있어도 지운다. 썸네일 캐시도 함께 비운다.
+			if (fileMetadata.getThumbnailUUID() != null) {
+				thumbnailStorage.deleteAll(fileMetadata.getThumbnailUUID());
+			}
+			if (objectKey != null) {
+				amazonS3.deleteObject(BUCKET_NAME, objectKey);
+			}
 		} catch (AmazonS3Exception e) {
 			throw ErrorCode.FILE_DELETE_FAILED.baseException();
 		}
@@ -1,30 +1,28 @@
 package com.woowacamp.storage.domain.file.service;
 
-import static com.woowacamp.storage.global.constant.CommonConstant.*;
-
-import java.io.ByteArrayInputStream;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.amazonaws.AmazonClientException;
 import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
 import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadResult;
 import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
-import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.UploadPartRequest;
 import com.amazonaws.services.s3.model.UploadPartResult;
-import com.woowacamp.storage.domain.file.dto.PartContext;
+import com.woowacamp.storage.domain.file.dto.CompositeChecksum;
+import com.woowacamp.storage.domain.file.dto.PartPayload;
+import com.woowacamp.storage.domain.file.dto.UploadSession;
 import com.woowacamp.storage.domain.file.repository.FileMetadataRepository;
-import com.woowacamp.storage.domain.file.util.CustomS3BlockingQueuePolicy;
+import com.woowacamp.storage.domain.file.util.PartUploadExecutor;
+import com.woowacamp.storage.global.constant.UploadApi;
+import com.woowacamp.storage.global.constant.UploadStage;
 import com.woowacamp.storage.global.error.ErrorCode;
+import com.woowacamp.storage.global.util.LogSampler;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -34,102 +32,223 @@ public class FileWriterThreadPool {
 	@Value("${cloud.aws.credentials.bucketName}")
 	private String BUCKET_NAME;
 
-	private final Map<String, Integer> maxPartCountMap;
-	private final Map<String, AtomicInteger> currentPartCountMap;
 	private final AmazonS3 amazonS3;
-	private final ThreadPoolExecutor executorService;
+	private final PartUploadExecutor partUploadExecutor;
 	private final FileMetadataRepository fileMetadataRepository;
-	public final ArrayBlockingQueue<Runnable> workQueue = new ArrayBlockingQueue<>(FILE_WRITER_QUEUE_SIZE);
+	private final PartBufferPool partBufferPool;
+	private final UploadSessionRegistry uploadSessionRegistry;
+	private final PartUploadRetryPolicy partUploadRetryPolicy;
+	private final UploadMetrics uploadMetrics;
+	private final LogSampler partLogSampler = new LogSampler(1000);
 
-	public FileWriterThreadPool(AmazonS3 amazonS3, FileMetadataRepository fileMetadataRepository) {
+	public FileWriterThreadPool(AmazonS3 amazonS3, FileMetadataRepository fileMetadataRepository,
+		PartBufferPool partBufferPool, PartUploadExecutor partUploadExecutor,
+		UploadSessionRegistry uploadSessionRegistry, PartUploadRetryPolicy partUploadRetryPolicy,
+		UploadMetrics uploadMetrics) {
 		this.amazonS3 = amazonS3;
-		this.maxPartCountMap = new HashMap<>();
-		this.currentPartCountMap = new HashMap<>();
-		this.executorService = new ThreadPoolExecutor(
-			FILE_WRITER_CORE_POOL_SIZE,
-			FILE_WRITER_MAXIMUM_POOL_SIZE,
-			FILE_WRITER_KEEP_ALIVE_TIME,
-			TimeUnit.SECONDS,
-			workQueue,
-			new CustomS3BlockingQueuePolicy()
-		);
-		// this.executorService.prestartAllCoreThreads();
+		this.partBufferPool = partBufferPool;
+		this.partUploadExecutor = partUploadExecutor;
 		this.fileMetadataRepository = fileMetadataRepository;
-		log.info("file writer queue size: {}", FILE_WRITER_QUEUE_SIZE);
-		// log.info("initial thread count: {}", ((ThreadPoolExecutor)executorService).getActiveCount());
-		// log.info("initial queue size: {}", ((ThreadPoolExecutor)executorService).getQueue().size());
+		this.uploadSessionRegistry = uploadSessionRegistry;
+		this.partUploadRetryPolicy = partUploadRetryPolicy;
+		this.uploadMetrics = uploadMetrics;
+		log.info("file writer executor: {}", partUploadExecutor.getClass().getSimpleName());
 	}
 
-	public void produce(InitiateMultipartUploadResult initResponse, String currentFileName, int partNumber,
-		byte[] contentBuffer, int bufferLength, List<PartETag> partETags) {
+	/**
+	 * multipart upload를 시작한 이후, part upload를 받을 세션을 등록합니다.
+	 * api는 쓰기 작업 스레드에서 기록하는 단계 지표의 version 태그입니다.
+	 */
+	public void openSession(String fileName, InitiateMultipartUploadResult initResponse, UploadApi api) {
+		uploadSessionRegistry.open(fileName, initResponse.getUploadId(), partUploadRetryPolicy.newRetryBudget(),
+			api);
+		partUploadExecutor.register(fileName);
+	}
 
-		if (!currentPartCountMap.containsKey(currentFileName)) {
+	/**
+	 * partPayload의 소유권을 넘겨받아 part upload를 요청합니다.
+	 * 재시도와 추가 요청까지 모두 끝나면 성공 여부와 관계없이 partPayload의 버퍼를 풀로 반납합니다.
+	 * 버퍼를 채우면서 계산한 MD5를 Content-MD5로 보내므로 전송 중에 깨진 part는 S3가 거절하고 그 part만 재시도합니다.
+	 */
+	public void produce(String currentFileName, int partNumber, PartPayload partPayload) {
+		UploadSession session = uploadSessionRegistry.get(currentFileName);
+		if (session == null || session.isFailed()) {
 			log.info("[Error Occurred] 이미 중단된 작업입니다. partNumber: {} ", partNumber);
+			partBufferPool.release(partPayload);
 			fileMetadataRepository.deleteByUuidFileName(currentFileName);
 			throw ErrorCode.FILE_UPLOAD_FAILED.baseException();
 		}
-		// log.info("current thread count: {}", ((ThreadPoolExecutor)executorService).getActiveCount());
-		// log.info("current queue size: {}", ((ThreadPoolExecutor)executorService).getQueue().size());
-		executorService.execute(() -> {
-			log.info("current file: {}, currentThread: {}, partNumber: {}", currentFileName,
-				Thread.currentThread().getId(), partNumber);
-			log.info("current thread count: {}", ((ThreadPoolExecutor)executorService).getActiveCount());
-			log.info("current queue size: {}", workQueue.size());
-			long start = System.currentTimeMillis();
-			uploadPart(initResponse.getUploadId(), currentFileName, partNumber, contentBuffer, bufferLength, partETags);
-			AtomicInteger currentConsumeCount = currentPartCountMap.get(currentFileName);
-			if (currentConsumeCount != null) {
-				currentConsumeCount.incrementAndGet();
+		byte[] md5 = partPayload.getMd5();
+		long enqueuedAt = System.nanoTime();
+		partUploadExecutor.execute(currentFileName, () -> {
+			uploadMetrics.recordStage(session.getApi(), UploadStage.PART_ENQUEUE_WAIT, enqueuedAt);
+			long start = System.nanoTime();
+			UploadPartResult uploadResult = uploadPart(session, partNumber, partPayload);
+			uploadMetrics.recordStage(session.getApi(), UploadStage.PART_UPLOAD, start);
+			logPartSample(currentFileName, partNumber, start);
+			if (uploadResult == null) {
+				return;
 			}
-			Integer maxConsumeCount = maxPartCountMap.get(currentFileName);
-			if (maxConsumeCount != null
-				&& currentConsumeCount.get() >= maxConsumeCount) {
-				completeFileUpload(initResponse.getUploadId(), currentFileName, partETags);
+			session.getChecksum().addPart(partNumber, md5);
+			if (session.completePart(uploadResult.getPartETag())) {
+				completeFileUpload(session);
 			}
-			log.info("uploadPart execute time: {}", System.currentTimeMillis() - start);
 		});
 	}
 
-	public void finishFileUpload(PartContext partContext) {
-		maxPartCountMap.put(partContext.getUploadFileName(), partContext.getPartCount());
+	/**
+	 * 첫 part를 채우기 전에 파일이 끝난 경우, multipart upload 없이 putObject 한 번으로 업로드합니다.
+	 * 스레드 풀에 넘기지 않고 요청 스레드에서 바로 업로드한 뒤 partPayload의 버퍼를 풀로 반납합니다.
+	 */
+	public void putObject(String key, String contentType, PartPayload partPayload) {
+		ObjectMetadata metadata = new ObjectMetadata();
+		metadata.setContentType(contentType);
+		metadata.setContentLength(partPayload.size());
+		metadata.setContentMD5(partPayload.getBase64Md5());
+		try {
+			amazonS3.putObject(BUCKET_NAME, key, partPayload.toInputStream(), metadata);
+			saveChecksum(key, CompositeChecksum.ofSingleObject(partPayload.getMd5()));
+		} catch (AmazonClientException e) {
+			log.error("[Error Occurred] putObject가 정상적으로 동작하지 않습니다. key: {}", key);
+			fileMetadataRepository.deleteByUuidFileName(key);
+			throw ErrorCode.FILE_UPLOAD_FAILED.baseException();
+		} finally {
+			partBufferPool.release(partPayload);
+		}
+	}
+
+	/**
+	 * putObject를 쓰기 작업 스레드에서 실행합니다. 요청 스레드를 S3 응답에 묶어두지 않아야 하는 논블로킹 업로드에서 사용합니다.
+	 *
+	 * @return - putObject가 끝나면 완료되는 future
+	 */
+	public CompletableFuture<Void> putObjectAsync(String key, String contentType, PartPayload partPayload) {
+		CompletableFuture<Void> completion = new CompletableFuture<>();
+		partUploadExecutor.execute(key, () -> {
+			try {
+				putObject(key, contentType, partPayload);
+				completion.complete(null);
+			} catch (RuntimeException e) {
+				completion.completeExceptionally(e);
+			}
+		});
+		return completion;
+	}
+
+	/**
+	 * produce나 putObjectAsync를 호출해도 요청 스레드가 대기하지 않는지 확인합니다.
+	 */
+	public boolean canProduce(String fileName) {
+		return partUploadExecutor.canExecute(fileName);
+	}
+
+	/**
+	 * 요청 스레드가 모든 part를 넘긴 이후 호출합니다.
+	 * 이미 모든 part upload가 끝났다면 요청 스레드에서 바로 complete 요청을 합니다.
+	 *
+	 * @return - completeMultipartUpload가 끝나면 완료되는 future
+	 */
+	public CompletableFuture<Void> finishFileUpload(String fileName, int partCount) {
+		UploadSession session = uploadSessionRegistry.get(fileName);
+		if (session == null) {
+			return CompletableFuture.failedFuture(ErrorCode.FILE_UPLOAD_FAILED.baseException());
+		}
+		if (session.finish(partCount)) {
+			completeFileUpload(session);
+		}
+		return session.getCompletion();
+	}
+
+	/**
+	 * 요청을 끝까지 읽지 못해 파일 업로드가 중간에 실패한 경우 호출합니다.
+	 * 세션을 닫아 이후 part와 complete 요청을 막고, S3에 올라간 part가 남지 않도록 multipart upload를 중단합니다.
+	 * 세션이 없으면(putObject로 올리는 파일이거나 이미 끝난 업로드) 아무것도 하지 않습니다.
+	 */
+	public void abortFileUpload(String fileName) {
+		UploadSession session = uploadSessionRegistry.get(fileName);
+		if (session == null) {
+			return;
+		}
+		closeSession(session);
+		session.fail(ErrorCode.FILE_UPLOAD_FAILED.baseException());
+		try {
+			amazonS3.abortMultipartUpload(new AbortMultipartUploadRequest(BUCKET_NAME, fileName,
+				session.getUploadId()));
+		} catch (AmazonClientException e) {
+			log.error("[Error Occurred] abortMultipartUpload가 정상적으로 동작하지 않습니다. key: {}", fileName);
+		}
 	}
 
-	private void uploadPart(String uploadId, String key, int partNumber, byte[] data, int length,
-		List<PartETag> partETags) {
-		UploadPartRequest uploadRequest = new UploadPartRequest()
-			.withBucketName(BUCKET_NAME)
-			.withKey(key)
-			.withUploadId(uploadId)
-			.withPartNumber(partNumber)
-			.withInputStream(new ByteArrayInputStream(data, 0, length))
-			.withPartSize(length);
-		UploadPartResult uploadResult;
+	private UploadPartResult uploadPart(UploadSession session, int partNumber, PartPayload partPayload) {
 		try {
-			uploadResult = amazonS3.uploadPart(uploadRequest);
+			// 재시도할 때마다 버퍼를 처음부터 읽어야 하므로 요청을 새로 만든다.
+			return partUploadRetryPolicy.execute(() -> amazonS3.uploadPart(new UploadPartRequest()
+					.withBucketName(BUCKET_NAME)
+					.withKey(session.getKey())
+					.withUploadId(session.getUploadId())
+					.withPartNumber(partNumber)
+					.withInputStream(partPayload.toInputStream())
+					.withPartSize(partPayload.size())
+					.withMD5Digest(partPayload.getBase64Md5())),
+				session.getRetryBudget(), () -> partBufferPool.release(partPayload));
 		} catch (AmazonClientException e) {
 			log.error("partNumber: {}, part upload가 정상적으로 동작하지 않습니다.", partNumber);
-			currentPartCountMap.remove(key);
-			fileMetadataRepository.deleteByUuidFileName(key);
-			return;
+			closeSession(session);
+			session.fail(e);
+			fileMetadataRepository.deleteByUuidFileName(session.getKey());
+			return null;
 		}
-		partETags.add(uploadResult.getPartETag());
 	}
 
-	private void completeFileUpload(String uploadId, String currentFileName, List<PartETag> partETags) {
-		log.info("currentThread: {}, finish upload", Thread.currentThread().getId());
-		maxPartCountMap.remove(currentFileName);
-		currentPartCountMap.remove(currentFileName);
+	/**
+	 * part마다 로그를 남기면 로그 I/O가 쓰기 작업 스레드를 붙잡으므로 1초에 한 번만 샘플로 남깁니다.
+	 * 실행기 상태가 더 필요하면 /actuator/uploads에서 확인합니다.
+	 */
+	private void logPartSample(String fileName, int partNumber, long startNanos) {
+		if (partLogSampler.tryAcquire()) {
+			log.info("[Part Upload Sample] file: {}, partNumber: {}, elapsed: {}ms, active: {}, queue: {}, skipped: {}",
+				fileName, partNumber, (System.nanoTime() - startNanos) / 1_000_000,
+				partUploadExecutor.getActiveCount(), partUploadExecutor.getQueueSize(),
+				partLogSampler.drainSuppressed());
+		}
+	}
+
+	private void completeFileUpload(UploadSession session) {
+		log.debug("finish upload, key: {}", session.getKey());
+		closeSession(session);
 		CompleteMultipartUploadRequest completeRequest = new CompleteMultipartUploadRequest(BUCKET_NAME,
-			currentFileName, uploadId, partETags);
+			session.getKey(), session.getUploadId(), session.getSortedPartETags());
 		try {
-			amazonS3.completeMultipartUpload(completeRequest);
+			long completeStartedAt = System.nanoTime();
+			CompleteMultipartUploadResult result = amazonS3.completeMultipartUpload(completeRequest);
+			uploadMetrics.recordStage(session.getApi(), UploadStage.COMPLETE_UPLOAD, completeStartedAt);
+			String checksum = session.getChecksum().compute();
+			if (!CompositeChecksum.matches(checksum, result.getETag())) {
+				log.warn("[Checksum Mismatch] key: {}, checksum: {}, eTag: {}", session.getKey(), checksum,
+					result.getETag());
+			}
+			saveChecksum(session.getKey(), checksum);
+			session.getCompletion().complete(null);
 		} catch (AmazonClientException e) {
 			log.error("[Error Occurred] completeFileUpload가 정상적으로 동작하지 않습니다.");
-			fileMetadataRepository.updateUploadStatusByUuid(currentFileName);
+			fileMetadataRepository.updateUploadStatusByUuid(session.getKey());
+			session.fail(e);
+		}
+	}
+
+	/**
+	 * 체크섬은 이후 검증에 쓰는 부가 정보이므로 저장하지 못해도 업로드는 성공으로 둡니다.
+	 */
+	private void saveChecksum(String key, String checksum) {
+		try {
+			fileMetadataRepository.updateChecksumByUuid(key, checksum);
+		} catch (RuntimeException e) {
+			log.warn("[Checksum Save Failed] key: {}, message: {}", key, e.getMessage());
 		}
 	}
 
-	public void initializePartCount(String fileName) {
-		currentPartCountMap.put(fileName, new AtomicInteger(0));
+	private void closeSession(UploadSession session) {
+		uploadSessionRegistry.close(session.getKey());
+		partUploadExecutor.unregister(session.getKey());
 	}
 }
@@ -0,0 +1,250 @@
+package com.woowacamp.storage.domain.file.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.S3Object;
+import com.woowacamp.storage.domain.file.dto.ByteRange;
+import com.woowacamp.storage.global.error.ErrorCode;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * S3 객체의 한 구간을 읽는 스트림을 엽니다. S3 연결 하나의 처리량에 다운로드 속도가 묶이지 않도록,
+ * 큰 구간은 chunkSize 단위로 나눠서 여러 ranged GET을 동시에 보내고 클라이언트에는 순서대로 씁니다.
+ * <p>
+ * 동시에 받는 chunk 수(parallelism)는 구간 크기에 맞춰 정하고 maxParallelism을 넘지 않습니다.
+ * 다음에 쓸 chunk부터 parallelism개까지만 요청하고, 클라이언트에 다 쓴 chunk 자리만큼 다음 chunk를 요청하므로
+ * 다운로드 하나가 메모리에 들고 있는 데이터는 parallelism * chunkSize를 넘지 않습니다.
+ * 클라이언트가 느리면 요청도 그만큼 늦게 보내서 S3에서 먼저 받아두는 양이 늘어나지 않습니다.
+ * minParallelBytes보다 작은 구간은 나눠 받는 이득보다 요청 수가 늘어나는 비용이 커서 ranged GET 하나로 읽습니다.
+ */
+@Service
+public class ParallelRangeDownloader {
+
+	private final String bucketName;
+	private final long minParallelBytes;
+	private final int chunkSize;
+	private final int maxParallelism;
+	private final AmazonS3 amazonS3;
+	private final ExecutorService fetchExecutor;
+	private final AtomicLong bufferedBytes = new AtomicLong();
+	private final Counter singleCounter;
+	private final Counter parallelCounter;
+	private final Counter chunkCounter;
+
+	public ParallelRangeDownloader(@Value("${cloud.aws.credentials.bucketName}") String bucketName,
+		@Value("${file.download.parallel.minBytes:16777216}") long minParallelBytes,
+		@Value("${file.download.parallel.chunkSize:4194304}") int chunkSize,
+		@Value("${file.download.parallel.maxParallelism:4}") int maxParallelism,
+		@Value("${file.download.parallel.threads:32}") int threads, AmazonS3 amazonS3, MeterRegistry meterRegistry) {
+		this.bucketName = bucketName;
+		this.minParallelBytes = minParallelBytes;
+		this.chunkSize = chunkSize;
+		this.maxParallelism = maxParallelism;
+		this.amazonS3 = amazonS3;
+		AtomicInteger threadNumber = new AtomicInteger();
+		this.fetchExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "range-fetch-" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.singleCounter = downloadCounter(meterRegistry, "single");
+		this.parallelCounter = downloadCounter(meterRegistry, "parallel");
+		this.chunkCounter = Counter.builder("download.range.chunks")
+			.description("나눠 받은 다운로드에서 S3에 보낸 ranged GET 수")
+			.register(meterRegistry);
+		Gauge.builder("download.range.buffered.bytes", bufferedBytes, AtomicLong::get)
+			.description("S3에서 받았지만 아직 클라이언트에 쓰지 않은 다운로드 데이터")
+			.baseUnit("bytes")
+			.register(meterRegistry);
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		fetchExecutor.shutdownNow();
+	}
+
+	public InputStream open(String storageKey, ByteRange range) {
+		int parallelism = parallelismFor(range);
+		if (parallelism <= 1) {
+			singleCounter.increment();
+			try {
+				return amazonS3.getObject(rangeRequest(storageKey, range)).getObjectContent();
+			} catch (AmazonClientException e) {
+				throw ErrorCode.FILE_NOT_FOUND.baseException();
+			}
+		}
+		parallelCounter.increment();
+		List<ByteRange> chunks = new ArrayList<>();
+		for (long start = range.start(); start <= range.end(); start += chunkSize) {
+			chunks.add(new ByteRange(start, Math.min(start + chunkSize - 1, range.end())));
+		}
+		return new ParallelRangeInputStream(storageKey, chunks, parallelism);
+	}
+
+	/**
+	 * 구간을 chunk로 나눈 개수만큼 동시에 받되 maxParallelism을 넘지 않습니다.
+	 */
+	int parallelismFor(ByteRange range) {
+		if (range.length() < minParallelBytes) {
+			return 1;
+		}
+		long chunks = (range.length() + chunkSize - 1) / chunkSize;
+		return (int)Math.min(maxParallelism, chunks);
+	}
+
+	private GetObjectRequest rangeRequest(String storageKey, ByteRange range) {
+		return new GetObjectRequest(bucketName, storageKey).withRange(range.start(), range.end());
+	}
+
+	/**
+	 * chunk 하나를 끝까지 받습니다. S3가 요청한 길이보다 적게 보내면 실패로 봅니다.
+	 */
+	private byte[] fetch(String storageKey, ByteRange chunk) {
+		chunkCounter.increment();
+		try (S3Object s3Object = amazonS3.getObject(rangeRequest(storageKey, chunk))) {
+			byte[] bytes = s3Object.getObjectContent().readNBytes((int)chunk.length());
+			if (bytes.length != chunk.length()) {
+				throw new IOException("Short range read: " + bytes.length + "/" + chunk.length());
+			}
+			bufferedBytes.addAndGet(bytes.length);
+			return bytes;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static Counter downloadCounter(MeterRegistry meterRegistry, String mode) {
+		return Counter.builder("download.range.requests")
+			.description("S3 구간 다운로드 수(single, parallel)")
+			.tag("mode", mode)
+			.register(meterRegistry);
+	}
+
+	/**
+	 * 읽고 있는 chunk를 포함해 parallelism개의 chunk를 받는 중이거나 받아둔 상태로 유지하면서 chunk 순서대로 읽는 스트림입니다.
+	 * 한 스레드에서만 읽는다고 가정합니다.
+	 */
+	private class ParallelRangeInputStream extends InputStream {
+
+		private final String storageKey;
+		private final List<ByteRange> chunks;
+		private final List<CompletableFuture<byte[]>> fetches;
+		private final int parallelism;
+		private int next;
+		private byte[] current;
+		private int position;
+		private volatile boolean closed;
+
+		ParallelRangeInputStream(String storageKey, List<ByteRange> chunks, int parallelism) {
+			this.storageKey = storageKey;
+			this.chunks = chunks;
+			this.fetches = new ArrayList<>(chunks.size());
+			this.parallelism = parallelism;
+			for (int i = 0; i < parallelism; i++) {
+				submit(i);
+			}
+		}
+
+		@Override
+		public int read() throws IOException {
+			if (!fill()) {
+				return -1;
+			}
+			return current[position++] & 0xff;
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int length) throws IOException {
+			if (length == 0) {
+				return 0;
+			}
+			if (!fill()) {
+				return -1;
+			}
+			int read = Math.min(length, current.length - position);
+			System.arraycopy(current, position, buffer, offset, read);
+			position += read;
+			return read;
+		}
+
+		/**
+		 * 지금 chunk를 다 읽었으면 그 자리에 새 chunk를 요청하고, 다음 chunk가 올 때까지 기다립니다.
+		 */
+		private boolean fill() throws IOException {
+			if (closed) {
+				throw new IOException("Stream closed");
+			}
+			if (current != null && position < current.length) {
+				return true;
+			}
+			if (current != null) {
+				bufferedBytes.addAndGet(-current.length);
+				current = null;
+				submit(next - 1 + parallelism);
+			}
+			if (next == chunks.size()) {
+				return false;
+			}
+			try {
+				current = fetches.get(next).join();
+			} catch (CompletionException | CancellationException e) {
+				throw new IOException("Failed to fetch " + storageKey + " " + chunks.get(next), e.getCause());
+			}
+			position = 0;
+			next++;
+			return true;
+		}
+
+		private void submit(int index) {
+			if (index >= chunks.size()) {
+				return;
+			}
+			ByteRange chunk = chunks.get(index);
+			fetches.add(CompletableFuture.supplyAsync(() -> {
+				if (closed) {
+					throw new CancellationException();
+				}
+				return fetch(storageKey, chunk);
+			}, fetchExecutor));
+		}
+
+		/**
+		 * 아직 쓰지 않은 chunk는 받는 중이라도 끝나는 대로 버립니다.
+		 */
+		@Override
+		public void close() {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			if (current != null) {
+				bufferedBytes.addAndGet(-current.length);
+				current = null;
+			}
+			for (int i = next; i < fetches.size(); i++) {
+				fetches.get(i).thenAccept(bytes -> bufferedBytes.addAndGet(-bytes.length));
+			}
+		}
+	}
+}
@@ -0,0 +1,201 @@
+package com.woowacamp.storage.domain.file.service;
+
+import static com.woowacamp.storage.global.constant.CommonConstant.*;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.woowacamp.storage.domain.file.dto.PartBuffer;
+import com.woowacamp.storage.domain.file.dto.PartPayload;
+import com.woowacamp.storage.global.error.ErrorCode;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * S3 part 업로드에 사용하는 버퍼를 재사용하기 위한 풀입니다.
+ * 요청마다 part 크기의 버퍼를 새로 만들고 toByteArray로 한 번 더 복사하면 짧게 살다 죽는 큰 배열이 계속 생기기 때문에,
+ * 최대 PART_BUFFER_POOL_SIZE 개의 버퍼만 만들어두고 돌려씁니다.
+ * 버퍼는 처음 필요할 때 만들고, 모두 사용 중이면 반납될 때까지 대기합니다.
+ * <p>
+ * 업로드 요청이 소켓에서 데이터를 더 읽으려면 먼저 이 풀에서 버퍼를 빌려야 하므로, 풀 크기가 서버 전체의 업로드 메모리 예산입니다.
+ * file.upload.memoryBudgetBytes로 예산을 바이트 단위로 정할 수 있습니다.
+ * 파일의 첫 버퍼를 admissionTimeoutMillis 안에 받지 못한 요청과, 업로드 도중 bufferWaitTimeoutMillis 동안 버퍼를 받지 못한 요청은
+ * 503으로 거절합니다. 이미 버퍼를 가진 요청끼리 서로 기다리더라도 무한히 대기하지 않도록 두 번째 제한 시간을 둡니다.
+ */
+@Service
+@Slf4j
+public class PartBufferPool {
+
+	private final int bufferSize;
+	private final int maxBuffers;
+	private final long admissionTimeoutMillis;
+	private final long bufferWaitTimeoutMillis;
+	private final BlockingQueue<PartBuffer> freeBuffers;
+	private final AtomicInteger createdCount = new AtomicInteger();
+	private final AtomicInteger inUseCount = new AtomicInteger();
+	private final AtomicInteger waitingCount = new AtomicInteger();
+	private final Counter waitCounter;
+	private final Counter rejectCounter;
+
+	public PartBufferPool(@Value("${file.reader.chunkSize}") int bufferSize,
+		@Value("${file.upload.memoryBudgetBytes:0}") long memoryBudgetBytes,
+		@Value("${file.upload.admissionTimeoutMillis:3000}") long admissionTimeoutMillis,
+		@Value("${file.upload.bufferWaitTimeoutMillis:30000}") long bufferWaitTimeoutMillis,
+		MeterRegistry meterRegistry) {
+		this.bufferSize = bufferSize;
+		this.maxBuffers = memoryBudgetBytes > 0 ? (int)Math.max(1, memoryBudgetBytes / bufferSize)
+			: PART_BUFFER_POOL_SIZE;
+		this.admissionTimeoutMillis = admissionTimeoutMillis;
+		this.bufferWaitTimeoutMillis = bufferWaitTimeoutMillis;
+		this.freeBuffers = new ArrayBlockingQueue<>(maxBuffers);
+		Gauge.builder("upload.memory.reserved.bytes", inUseCount, count -> (double)count.get() * bufferSize)
+			.description("업로드 요청과 쓰기 작업이 사용 중인 버퍼 메모리")
+			.baseUnit("bytes")
+			.register(meterRegistry);
+		Gauge.builder("upload.memory.available.bytes", inUseCount,
+				count -> (double)(maxBuffers - count.get()) * bufferSize)
+			.description("업로드 메모리 예산 중 남은 메모리")
+			.baseUnit("bytes")
+			.register(meterRegistry);
+		Gauge.builder("upload.part.buffer.in.use", inUseCount, AtomicInteger::get)
+			.description("쓰기 작업에 사용 중인 part 버퍼 개수")
+			.register(meterRegistry);
+		Gauge.builder("upload.part.buffer.created", createdCount, AtomicInteger::get)
+			.description("생성된 part 버퍼 개수")
+			.register(meterRegistry);
+		Gauge.builder("upload.part.buffer.waiting", waitingCount, AtomicInteger::get)
+			.description("part 버퍼 반납을 기다리는 스레드 개수")
+			.register(meterRegistry);
+		this.waitCounter = Counter.builder("upload.part.buffer.waits")
+			.description("part 버퍼가 없어서 대기한 횟수")
+			.register(meterRegistry);
+		this.rejectCounter = Counter.builder("upload.memory.rejected")
+			.description("업로드 메모리 예산이 부족해서 거절한 요청 수")
+			.register(meterRegistry);
+	}
+
+	/**
+	 * 업로드 중인 파일의 다음 버퍼를 빌려옵니다. 풀이 가득 찼다면 다른 업로드가 버퍼를 반납할 때까지 대기합니다.
+	 */
+	public PartBuffer acquire() {
+		return acquire(bufferWaitTimeoutMillis);
+	}
+
+	/**
+	 * 파일의 첫 버퍼를 빌려옵니다. 예산이 부족하면 데이터를 읽기 전에 빨리 거절하도록 짧게만 대기합니다.
+	 */
+	public PartBuffer acquireForAdmission() {
+		return acquire(admissionTimeoutMillis);
+	}
+
+	/**
+	 * 대기하지 않고 버퍼를 빌려옵니다. 남은 버퍼가 없으면 null을 반환합니다.
+	 */
+	public PartBuffer tryAcquire() {
+		PartBuffer partBuffer = freeBuffers.poll();
+		if (partBuffer == null) {
+			partBuffer = tryCreate();
+		}
+		if (partBuffer != null) {
+			inUseCount.incrementAndGet();
+		}
+		return partBuffer;
+	}
+
+	/**
+	 * 사용이 끝난 버퍼를 풀로 반납합니다.
+	 */
+	public void release(PartBuffer partBuffer) {
+		partBuffer.reset();
+		inUseCount.decrementAndGet();
+		freeBuffers.offer(partBuffer);
+	}
+
+	/**
+	 * part를 구성하는 버퍼를 모두 반납합니다.
+	 */
+	public void release(PartPayload partPayload) {
+		partPayload.getBuffers().forEach(this::release);
+		partPayload.getBuffers().clear();
+	}
+
+	public int getBufferSize() {
+		return bufferSize;
+	}
+
+	public long getAdmissionTimeoutMillis() {
+		return admissionTimeoutMillis;
+	}
+
+	public int getMaxBuffers() {
+		return maxBuffers;
+	}
+
+	public int getInUseCount() {
+		return inUseCount.get();
+	}
+
+	public int getCreatedCount() {
+		return createdCount.get();
+	}
+
+	public int getWaitingCount() {
+		return waitingCount.get();
+	}
+
+	/**
+	 * 제한 시간 안에 버퍼를 받지 못하면 UPLOAD_CAPACITY_EXCEEDED 예외를 던집니다.
+	 */
+	public void rejectUpload() {
+		rejectCounter.increment();
+		throw ErrorCode.UPLOAD_CAPACITY_EXCEEDED.baseException();
+	}
+
+	private PartBuffer acquire(long timeoutMillis) {
+		PartBuffer partBuffer = freeBuffers.poll();
+		if (partBuffer == null) {
+			partBuffer = createOrWait(timeoutMillis);
+		}
+		inUseCount.incrementAndGet();
+		return partBuffer;
+	}
+
+	private PartBuffer createOrWait(long timeoutMillis) {
+		PartBuffer partBuffer = tryCreate();
+		if (partBuffer != null) {
+			return partBuffer;
+		}
+		waitCounter.increment();
+		waitingCount.incrementAndGet();
+		try {
+			partBuffer = freeBuffers.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+			if (partBuffer == null) {
+				rejectUpload();
+			}
+			return partBuffer;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw ErrorCode.FILE_UPLOAD_FAILED.baseException("part 버퍼를 기다리는 중 인터럽트가 발생했습니다.");
+		} finally {
+			waitingCount.decrementAndGet();
+		}
+	}
+
+	private PartBuffer tryCreate() {
+		int created;
+		while ((created = createdCount.get()) < maxBuffers) {
+			if (createdCount.compareAndSet(created, created + 1)) {
+				return new PartBuffer(bufferSize);
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,55 @@
+package com.woowacamp.storage.domain.file.service;
+
+import static com.woowacamp.storage.global.constant.CommonConstant.*;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.woowacamp.storage.global.error.ErrorCode;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 선언된 파일 크기로 업로드마다 part 크기를 정합니다.
+ * 큰 파일은 part 크기를 키워 uploadPart 요청 수를 TARGET_PART_COUNT 근처로 줄이고,
+ * part 크기는 PartBufferPool 버퍼 크기(file.reader.chunkSize)의 배수로 맞춰 버퍼 여러 개를 이어 part 하나를 만듭니다.
+ * <p>
+ * part 하나가 사용할 수 있는 메모리는 file.writer.maxPartSize와 MAX_BUFFERS_PER_PART 중 작은 값으로 제한합니다.
+ */
+@Service
+@Slf4j
+public class PartSizePolicy {
+
+	private final int bufferSize;
+	private final int maxBuffersPerPart;
+	private final UploadMetrics uploadMetrics;
+
+	public PartSizePolicy(@Value("${file.reader.chunkSize}") int bufferSize,
+		@Value("${file.writer.maxPartSize:20971520}") long maxPartSize, UploadMetrics uploadMetrics) {
+		this.bufferSize = bufferSize;
+		this.maxBuffersPerPart = (int)Math.max(1, Math.min(MAX_BUFFERS_PER_PART, maxPartSize / bufferSize));
+		this.uploadMetrics = uploadMetrics;
+		log.info("part size: {} ~ {} bytes", bufferSize, (long)bufferSize * maxBuffersPerPart);
+	}
+
+	/**
+	 * @param fileSize - 폼 데이터로 선언된 파일 크기
+	 * @return - 이번 업로드에서 사용할 part 크기
+	 */
+	public int choosePartSize(long fileSize) {
+		long targetPartSize = ceilDiv(fileSize, TARGET_PART_COUNT);
+		int bufferCount = (int)Math.min(maxBuffersPerPart, Math.max(1, ceilDiv(targetPartSize, bufferSize)));
+		int partSize = bufferSize * bufferCount;
+		long expectedPartCount = ceilDiv(fileSize, partSize);
+		if (expectedPartCount > S3_MAX_PART_COUNT) {
+			throw ErrorCode.EXCEED_MAX_FILE_SIZE.baseException("part 개수가 S3 최대 개수를 초과합니다. fileSize: %d",
+				fileSize);
+		}
+		uploadMetrics.recordPartSize(partSize, expectedPartCount);
+		return partSize;
+	}
+
+	private static long ceilDiv(long dividend, long divisor) {
+		return (dividend + divisor - 1) / divisor;
+	}
+}
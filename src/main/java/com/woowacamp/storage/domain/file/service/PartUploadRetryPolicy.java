@@ -0,0 +1,267 @@
+package com.woowacamp.storage.domain.file.service;
+
+import static com.woowacamp.storage.global.constant.CommonConstant.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.retry.RetryUtils;
+import com.woowacamp.storage.domain.file.dto.RetryBudget;
+import com.woowacamp.storage.global.error.ErrorCode;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * part upload 재시도 정책입니다.
+ * 일시적인 S3 오류(5xx, throttling, 네트워크 오류)는 지터를 섞은 지수 백오프로 재시도하고,
+ * 업로드마다 RetryBudget을 두어 장애 상황에서 재시도 요청이 몰리지 않도록 합니다.
+ * <p>
+ * file.writer.hedge.enabled가 true이면 첫 요청이 최근 p99 응답 시간을 넘길 때 같은 part를 한 번 더 요청하고
+ * 먼저 성공한 응답을 사용합니다. 같은 내용의 part는 ETag가 같기 때문에 어느 응답을 사용해도 됩니다.
+ * 버퍼는 추가 요청까지 모든 시도가 끝난 뒤에 반납해야 하므로 execute의 onFinished로 반납합니다.
+ * 요청을 보내는 스레드는 HEDGE_EXECUTOR_THREADS개로 제한하고, 모두 사용 중이면 첫 요청은 호출한 스레드에서 보내고 추가 요청은 보내지 않습니다.
+ */
+@Service
+@Slf4j
+public class PartUploadRetryPolicy {
+
+	private final int maxAttempts;
+	private final long baseDelayMillis;
+	private final long maxDelayMillis;
+	private final int retryBudgetPerUpload;
+	private final boolean hedgeEnabled;
+	private final UploadMetrics uploadMetrics;
+	private final ExecutorService hedgeExecutor;
+	private final AtomicInteger hedgesInFlight = new AtomicInteger();
+
+	public PartUploadRetryPolicy(@Value("${file.writer.retry.maxAttempts:3}") int maxAttempts,
+		@Value("${file.writer.retry.baseDelayMillis:100}") long baseDelayMillis,
+		@Value("${file.writer.retry.maxDelayMillis:2000}") long maxDelayMillis,
+		@Value("${file.writer.retry.budgetPerUpload:10}") int retryBudgetPerUpload,
+		@Value("${file.writer.hedge.enabled:false}") boolean hedgeEnabled, UploadMetrics uploadMetrics) {
+		this.maxAttempts = maxAttempts;
+		this.baseDelayMillis = baseDelayMillis;
+		this.maxDelayMillis = maxDelayMillis;
+		this.retryBudgetPerUpload = retryBudgetPerUpload;
+		this.hedgeEnabled = hedgeEnabled;
+		this.uploadMetrics = uploadMetrics;
+		this.hedgeExecutor = hedgeEnabled ? newHedgeExecutor() : null;
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		if (hedgeExecutor != null) {
+			hedgeExecutor.shutdownNow();
+		}
+	}
+
+	public RetryBudget newRetryBudget() {
+		return new RetryBudget(retryBudgetPerUpload);
+	}
+
+	/**
+	 * attempt를 성공할 때까지 재시도합니다. attempt는 호출할 때마다 새 요청을 만들어야 합니다.
+	 * 모든 시도가 끝나면 성공 여부와 관계없이 onFinished를 한 번 호출합니다.
+	 *
+	 * @throws AmazonClientException - 재시도할 수 없는 오류이거나 재시도 횟수 또는 예산을 모두 사용한 경우
+	 */
+	public <T> T execute(Supplier<T> attempt, RetryBudget retryBudget, Runnable onFinished) {
+		// 추가 요청이 진행 중일 수 있으므로 시도마다 참조 수를 세고 마지막 시도가 끝날 때 onFinished를 호출한다.
+		AtomicInteger references = new AtomicInteger(1);
+		try {
+			return executeWithRetry(attempt, retryBudget, references, onFinished);
+		} finally {
+			releaseReference(references, onFinished);
+		}
+	}
+
+	private <T> T executeWithRetry(Supplier<T> attempt, RetryBudget retryBudget, AtomicInteger references,
+		Runnable onFinished) {
+		for (int attemptCount = 1; ; attemptCount++) {
+			try {
+				return attemptCount == 1 ? hedgedAttempt(attempt, references, onFinished) : timedAttempt(attempt);
+			} catch (AmazonClientException e) {
+				if (attemptCount >= maxAttempts || !isRetryable(e) || !retryBudget.tryAcquire()) {
+					uploadMetrics.countRetryExhausted();
+					throw e;
+				}
+				uploadMetrics.countRetry();
+				log.warn("[Part Upload Retry] attempt: {}, message: {}", attemptCount, e.getMessage());
+				sleep(backoffMillis(attemptCount));
+			}
+		}
+	}
+
+	/**
+	 * 첫 요청이 p99 응답 시간 안에 끝나지 않으면 같은 part를 한 번 더 요청하고 먼저 성공한 응답을 반환합니다.
+	 */
+	private <T> T hedgedAttempt(Supplier<T> attempt, AtomicInteger references, Runnable onFinished) {
+		long hedgeDelayMillis = hedgeEnabled ? uploadMetrics.partLatencyP99Millis(HEDGE_MIN_SAMPLES) : -1;
+		if (hedgeDelayMillis < 0) {
+			return timedAttempt(attempt);
+		}
+		CompletableFuture<T> primary;
+		try {
+			primary = submit(attempt, references, onFinished);
+		} catch (RejectedExecutionException e) {
+			return timedAttempt(attempt);
+		}
+		try {
+			return primary.get(hedgeDelayMillis, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			if (hedgesInFlight.incrementAndGet() > HEDGE_MAX_IN_FLIGHT) {
+				hedgesInFlight.decrementAndGet();
+				return await(primary);
+			}
+			CompletableFuture<T> hedge;
+			try {
+				hedge = submit(attempt, references, onFinished);
+			} catch (RejectedExecutionException rejected) {
+				hedgesInFlight.decrementAndGet();
+				return await(primary);
+			}
+			uploadMetrics.countHedge();
+			hedge.whenComplete((result, error) -> hedgesInFlight.decrementAndGet());
+			return await(firstSuccess(primary, hedge));
+		} catch (ExecutionException e) {
+			throw unwrap(e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw ErrorCode.FILE_UPLOAD_FAILED.baseException("part upload 대기 중 인터럽트가 발생했습니다.");
+		}
+	}
+
+	/**
+	 * @throws RejectedExecutionException - 요청을 보낼 스레드가 모두 사용 중인 경우
+	 */
+	private <T> CompletableFuture<T> submit(Supplier<T> attempt, AtomicInteger references, Runnable onFinished) {
+		references.incrementAndGet();
+		try {
+			return CompletableFuture.supplyAsync(() -> {
+				try {
+					return timedAttempt(attempt);
+				} finally {
+					releaseReference(references, onFinished);
+				}
+			}, hedgeExecutor);
+		} catch (RejectedExecutionException e) {
+			releaseReference(references, onFinished);
+			throw e;
+		}
+	}
+
+	/**
+	 * 대기 큐 없이 HEDGE_EXECUTOR_THREADS개까지만 스레드를 만들어서, 요청이 큐에서 기다리느라 p99 기준 시간을 넘기지 않도록 합니다.
+	 */
+	private static ExecutorService newHedgeExecutor() {
+		AtomicInteger threadNumber = new AtomicInteger();
+		return new ThreadPoolExecutor(HEDGE_EXECUTOR_THREADS, HEDGE_EXECUTOR_THREADS, 0L, TimeUnit.MILLISECONDS,
+			new SynchronousQueue<>(), runnable -> {
+				Thread thread = new Thread(runnable, "part-hedge-" + threadNumber.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+	}
+
+	/**
+	 * 두 요청 중 먼저 성공한 응답으로 완료되고, 둘 다 실패하면 나중 예외로 완료됩니다.
+	 */
+	private <T> CompletableFuture<T> firstSuccess(CompletableFuture<T> primary, CompletableFuture<T> hedge) {
+		CompletableFuture<T> winner = new CompletableFuture<>();
+		AtomicInteger failures = new AtomicInteger();
+		primary.whenComplete((result, error) -> {
+			if (error == null) {
+				winner.complete(result);
+			} else if (failures.incrementAndGet() == 2) {
+				winner.completeExceptionally(error);
+			}
+		});
+		hedge.whenComplete((result, error) -> {
+			if (error == null) {
+				if (winner.complete(result)) {
+					uploadMetrics.countHedgeWin();
+				}
+			} else if (failures.incrementAndGet() == 2) {
+				winner.completeExceptionally(error);
+			}
+		});
+		return winner;
+	}
+
+	private <T> T timedAttempt(Supplier<T> attempt) {
+		long start = System.nanoTime();
+		T result = attempt.get();
+		uploadMetrics.recordPartLatency(System.nanoTime() - start);
+		return result;
+	}
+
+	private <T> T await(CompletableFuture<T> future) {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			throw unwrap(e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw ErrorCode.FILE_UPLOAD_FAILED.baseException("part upload 대기 중 인터럽트가 발생했습니다.");
+		}
+	}
+
+	private RuntimeException unwrap(Throwable error) {
+		Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+		if (cause instanceof RuntimeException runtimeException) {
+			return runtimeException;
+		}
+		return new AmazonClientException(cause);
+	}
+
+	/**
+	 * 5xx, throttling 응답과 응답을 받지 못한 네트워크 오류만 재시도합니다.
+	 * Content-MD5가 맞지 않는 BadDigest는 400이지만 전송 중에 데이터가 깨진 경우이므로 버퍼를 다시 읽어 그 part만 재시도합니다.
+	 */
+	private boolean isRetryable(AmazonClientException e) {
+		if (e instanceof AmazonServiceException serviceException) {
+			return serviceException.getStatusCode() >= 500 || RetryUtils.isThrottlingException(serviceException)
+				|| "BadDigest".equals(serviceException.getErrorCode());
+		}
+		return e.isRetryable();
+	}
+
+	/**
+	 * full jitter: 0 ~ min(maxDelay, baseDelay * 2^(attempt - 1)) 사이에서 무작위로 기다립니다.
+	 */
+	private long backoffMillis(int attemptCount) {
+		long ceiling = Math.min(maxDelayMillis, baseDelayMillis << Math.min(attemptCount - 1, 20));
+		return ThreadLocalRandom.current().nextLong(ceiling + 1);
+	}
+
+	private void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw ErrorCode.FILE_UPLOAD_FAILED.baseException("part upload 재시도 대기 중 인터럽트가 발생했습니다.");
+		}
+	}
+
+	private void releaseReference(AtomicInteger references, Runnable onFinished) {
+		if (references.decrementAndGet() == 0) {
+			onFinished.run();
+		}
+	}
+}
@@ -0,0 +1,288 @@
+package com.woowacamp.storage.domain.file.service;
+
+import static com.woowacamp.storage.global.constant.CommonConstant.*;
+
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadResult;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.amazonaws.services.s3.model.UploadPartResult;
+import com.woowacamp.storage.domain.file.dto.FileMetadataDto;
+import com.woowacamp.storage.domain.file.dto.FormMetadataDto;
+import com.woowacamp.storage.domain.file.dto.PartContext;
+import com.woowacamp.storage.domain.file.dto.ResumablePartDto;
+import com.woowacamp.storage.domain.file.dto.ResumableUploadCreateDto;
+import com.woowacamp.storage.domain.file.dto.ResumableUploadDto;
+import com.woowacamp.storage.domain.file.entity.FileMetadata;
+import com.woowacamp.storage.domain.file.entity.ResumableUpload;
+import com.woowacamp.storage.domain.file.entity.ResumableUploadPart;
+import com.woowacamp.storage.domain.file.repository.FileMetadataRepository;
+import com.woowacamp.storage.domain.file.repository.ResumableUploadPartRepository;
+import com.woowacamp.storage.domain.file.repository.ResumableUploadRepository;
+import com.woowacamp.storage.global.aop.PermissionFieldsDto;
+import com.woowacamp.storage.global.aop.PermissionHandler;
+import com.woowacamp.storage.global.aop.type.FileType;
+import com.woowacamp.storage.global.constant.PermissionType;
+import com.woowacamp.storage.global.constant.ResumableUploadStatus;
+import com.woowacamp.storage.global.error.ErrorCode;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 이어 올리기 업로드를 처리합니다.
+ * 세션을 만들 때 S3 multipart upload를 시작하고, S3 uploadId와 업로드가 끝난 part의 ETag를 DB에 저장합니다.
+ * 요청마다 DB에서 상태를 읽기 때문에 연결이 끊긴 클라이언트는 어느 서버로든 남은 part만 다시 보내면 됩니다.
+ * part 요청은 서로 독립적이라 클라이언트가 여러 연결로 동시에 보낼 수 있고, 완료할 때 part 번호 순서로 정렬해서 합칩니다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ResumableUploadService {
+
+	private final AmazonS3 amazonS3;
+	private final S3FileService s3FileService;
+	private final PermissionHandler permissionHandler;
+	private final PartSizePolicy partSizePolicy;
+	private final UploadMetrics uploadMetrics;
+	private final FileMetadataRepository fileMetadataRepository;
+	private final ResumableUploadRepository resumableUploadRepository;
+	private final ResumableUploadPartRepository resumableUploadPartRepository;
+	private final ThumbnailJobService thumbnailJobService;
+	// uploadId 별로 이 서버에서 업로드 중인 part 수
+	private final Map<String, Integer> inFlightParts = new ConcurrentHashMap<>();
+
+	@Value("${cloud.aws.credentials.bucketName}")
+	private String BUCKET_NAME;
+
+	/**
+	 * 1차 메타데이터를 만들고 S3 multipart upload를 시작합니다.
+	 */
+	public ResumableUploadDto create(ResumableUploadCreateDto createDto) {
+		FormMetadataDto formMetadataDto = new FormMetadataDto(createDto.userId(), createDto.parentFolderId(),
+			createDto.fileSize());
+		PermissionFieldsDto permissionFieldsDto = new PermissionFieldsDto();
+		permissionFieldsDto.setUserId(createDto.userId());
+		permissionFieldsDto.setFolderId(createDto.parentFolderId());
+		long ownerId = permissionHandler.getOwnerIdAndCheckPermission(PermissionType.WRITE, FileType.FOLDER,
+			permissionFieldsDto);
+		formMetadataDto.setUserId(ownerId);
+		formMetadataDto.setCreatorId(createDto.userId());
+
+		PartContext partContext = new PartContext();
+		partContext.setCurrentFileName(createDto.fileName());
+		partContext.setCurrentContentType(createDto.getContentTypeOrDefault());
+		FileMetadataDto fileMetadataDto = s3FileService.createInitialMetadata(formMetadataDto, partContext);
+		int partSize = partSizePolicy.choosePartSize(createDto.fileSize());
+
+		String s3UploadId;
+		try {
+			ObjectMetadata metadata = new ObjectMetadata();
+			metadata.setContentType(createDto.getContentTypeOrDefault());
+			s3UploadId = amazonS3.initiateMultipartUpload(
+				new InitiateMultipartUploadRequest(BUCKET_NAME, fileMetadataDto.uuid()).withObjectMetadata(metadata))
+				.getUploadId();
+		} catch (AmazonClientException e) {
+			log.error("[Error Occurred] 이어 올리기 세션을 시작하지 못했습니다. ERROR MESSAGE = {}", e.getMessage());
+			fileMetadataRepository.deleteByUuidFileName(fileMetadataDto.uuid());
+			throw ErrorCode.FILE_UPLOAD_FAILED.baseException();
+		}
+
+		LocalDateTime now = LocalDateTime.now();
+		ResumableUpload resumableUpload = resumableUploadRepository.save(ResumableUpload.builder()
+			.fileMetadataId(fileMetadataDto.metadataId())
+			.uuidFileName(fileMetadataDto.uuid())
+			.s3UploadId(s3UploadId)
+			.creatorId(createDto.userId())
+			.fileSize(createDto.fileSize())
+			.partSize(partSize)
+			.status(ResumableUploadStatus.UPLOADING)
+			.createdAt(now)
+			.expiredAt(now.plusHours(RESUMABLE_UPLOAD_VALID_HOURS))
+			.build());
+		uploadMetrics.countResumableUpload();
+		return ResumableUploadDto.of(resumableUpload, List.of());
+	}
+
+	/**
+	 * 요청 본문을 버퍼에 모으지 않고 바로 S3 part upload로 보냅니다.
+	 * 같은 part를 다시 보내면 새로 업로드한 ETag로 덮어씁니다.
+	 * 한 세션이 Tomcat 스레드를 모두 차지하지 않도록 세션마다 동시에 처리하는 part 수를 제한합니다.
+	 * 본문을 모으지 않기 때문에 서버에서 MD5를 미리 계산할 수 없어서, 클라이언트가 보낸 Content-MD5를 그대로 S3에 전달합니다.
+	 */
+	public ResumablePartDto uploadPart(String uploadId, int partNumber, long userId, long contentLength,
+		String contentMd5, InputStream inputStream) {
+		ResumableUpload resumableUpload = getResumableUpload(uploadId, userId);
+		if (partNumber < 1 || partNumber > resumableUpload.getPartCount()) {
+			throw ErrorCode.INVALID_PART_NUMBER.baseException();
+		}
+		long expectedPartSize = resumableUpload.getExpectedPartSize(partNumber);
+		if (contentLength != expectedPartSize) {
+			throw ErrorCode.INVALID_FILE_SIZE.baseException("part %d의 크기는 %d 바이트여야 합니다.", partNumber,
+				expectedPartSize);
+		}
+		if (resumableUpload.getStatus() == ResumableUploadStatus.FAILED) {
+			throw ErrorCode.RESUMABLE_UPLOAD_FAILED.baseException();
+		}
+		if (resumableUpload.getStatus() != ResumableUploadStatus.UPLOADING) {
+			throw ErrorCode.RESUMABLE_UPLOAD_COMPLETING.baseException();
+		}
+
+		acquirePartSlot(uploadId);
+		UploadPartResult uploadResult;
+		try {
+			uploadResult = amazonS3.uploadPart(new UploadPartRequest()
+				.withBucketName(BUCKET_NAME)
+				.withKey(resumableUpload.getUuidFileName())
+				.withUploadId(resumableUpload.getS3UploadId())
+				.withPartNumber(partNumber)
+				.withInputStream(inputStream)
+				.withPartSize(expectedPartSize)
+				.withMD5Digest(contentMd5));
+		} catch (AmazonClientException e) {
+			log.error("partNumber: {}, 이어 올리기 part upload가 정상적으로 동작하지 않습니다.", partNumber);
+			throw ErrorCode.FILE_UPLOAD_FAILED.baseException();
+		} finally {
+			releasePartSlot(uploadId);
+		}
+		resumableUploadPartRepository.upsert(resumableUpload.getId(), partNumber, uploadResult.getETag(),
+			expectedPartSize);
+		return new ResumablePartDto(partNumber, expectedPartSize);
+	}
+
+	public ResumableUploadDto getStatus(String uploadId, long userId) {
+		ResumableUpload resumableUpload = getResumableUpload(uploadId, userId);
+		List<Integer> receivedParts = resumableUploadPartRepository.findByResumableUploadIdOrderByPartNumber(
+			resumableUpload.getId()).stream().map(ResumableUploadPart::getPartNumber).toList();
+		return ResumableUploadDto.of(resumableUpload, receivedParts);
+	}
+
+	/**
+	 * 모든 part가 올라왔다면 S3 업로드를 완료하고 메타데이터를 갱신합니다.
+	 * 완료 요청이 동시에 들어와도 폴더 크기가 두 번 반영되지 않도록 상태를 COMPLETING으로 바꾼 요청만 진행합니다.
+	 * S3 complete 요청이 실패하면 상태를 되돌려 클라이언트가 다시 완료 요청을 보낼 수 있습니다.
+	 * S3 객체를 완성한 뒤 메타데이터를 갱신하지 못하면 되돌릴 수 없으므로 세션을 FAILED로 끝내고,
+	 * 파일은 FAIL로 바꿔서 FailFileDeleteScheduler가 S3 객체를 지우게 합니다. 세션이 COMPLETING에 남지 않습니다.
+	 * 이어 올리기는 요청마다 part를 받으므로 썸네일은 완료 이후에 썸네일 작업으로 만듭니다.
+	 */
+	public void complete(String uploadId, long userId) {
+		ResumableUpload resumableUpload = getResumableUpload(uploadId, userId);
+		FileMetadata fileMetadata = fileMetadataRepository.findById(resumableUpload.getFileMetadataId())
+			.orElseThrow(ErrorCode.FILE_METADATA_NOT_FOUND::baseException);
+		// 업로드하는 동안 폴더 권한이 바뀌었을 수 있으므로 완료하기 전에 다시 확인합니다.
+		PermissionFieldsDto permissionFieldsDto = new PermissionFieldsDto();
+		permissionFieldsDto.setUserId(userId);
+		permissionFieldsDto.setFolderId(fileMetadata.getParentFolderId());
+		permissionHandler.getOwnerIdAndCheckPermission(PermissionType.WRITE, FileType.FOLDER, permissionFieldsDto);
+
+		if (resumableUpload.getStatus() == ResumableUploadStatus.FAILED) {
+			throw ErrorCode.RESUMABLE_UPLOAD_FAILED.baseException();
+		}
+		if (resumableUploadRepository.updateStatus(resumableUpload.getId(), ResumableUploadStatus.UPLOADING,
+			ResumableUploadStatus.COMPLETING) == 0) {
+			throw ErrorCode.RESUMABLE_UPLOAD_COMPLETING.baseException();
+		}
+		try {
+			completeMultipartUpload(resumableUpload);
+		} catch (RuntimeException e) {
+			resumableUploadRepository.updateStatus(resumableUpload.getId(), ResumableUploadStatus.COMPLETING,
+				ResumableUploadStatus.UPLOADING);
+			throw e;
+		}
+
+		try {
+			s3FileService.finalizeMetadata(FileMetadataDto.of(fileMetadata), resumableUpload.getFileSize());
+		} catch (RuntimeException e) {
+			log.error("[Error Occurred] 이어 올리기 메타데이터를 갱신하지 못했습니다. uploadId: {}, message: {}", uploadId,
+				e.getMessage());
+			resumableUploadRepository.updateStatus(resumableUpload.getId(), ResumableUploadStatus.COMPLETING,
+				ResumableUploadStatus.FAILED);
+			fileMetadataRepository.updateUploadStatusById(fileMetadata.getId());
+			throw e;
+		}
+		discard(resumableUpload.getUuidFileName());
+		thumbnailJobService.enqueue(FileMetadataDto.of(fileMetadata));
+	}
+
+	private void completeMultipartUpload(ResumableUpload resumableUpload) {
+		List<ResumableUploadPart> parts = resumableUploadPartRepository.findByResumableUploadIdOrderByPartNumber(
+			resumableUpload.getId());
+		if (parts.size() != resumableUpload.getPartCount()) {
+			throw ErrorCode.RESUMABLE_UPLOAD_INCOMPLETE.baseException("received: %d, expected: %d", parts.size(),
+				resumableUpload.getPartCount());
+		}
+
+		List<PartETag> partETags = parts.stream()
+			.map(part -> new PartETag(part.getPartNumber(), part.getEtag()))
+			.toList();
+		try {
+			CompleteMultipartUploadResult result = amazonS3.completeMultipartUpload(
+				new CompleteMultipartUploadRequest(BUCKET_NAME, resumableUpload.getUuidFileName(),
+					resumableUpload.getS3UploadId(), partETags));
+			// part를 서버에서 읽지 않으므로 S3가 part ETag로 계산한 값을 체크섬으로 저장한다.
+			fileMetadataRepository.updateChecksumByUuid(resumableUpload.getUuidFileName(),
+				result.getETag().replace("\"", ""));
+		} catch (AmazonClientException e) {
+			log.error("[Error Occurred] 이어 올리기 complete 요청이 정상적으로 동작하지 않습니다. uploadId: {}",
+				resumableUpload.getUuidFileName());
+			throw ErrorCode.FILE_UPLOAD_FAILED.baseException();
+		}
+	}
+
+	/**
+	 * 이어 올리기 세션과 저장된 part 정보를 삭제합니다.
+	 */
+	@Transactional
+	public void discard(String uuidFileName) {
+		resumableUploadRepository.findByUuidFileName(uuidFileName).ifPresent(resumableUpload -> {
+			resumableUploadPartRepository.deleteByResumableUploadId(resumableUpload.getId());
+			resumableUploadRepository.delete(resumableUpload);
+		});
+	}
+
+	/**
+	 * 카운터를 ConcurrentHashMap.compute 안에서 바꾸기 때문에 같은 세션의 요청이 동시에 들어와도 제한을 넘지 않고,
+	 * 업로드 중인 part가 없으면 항목을 지워서 끝난 세션이 맵에 남지 않습니다.
+	 */
+	private void acquirePartSlot(String uploadId) {
+		inFlightParts.compute(uploadId, (key, count) -> {
+			int current = count == null ? 0 : count;
+			if (current >= RESUMABLE_UPLOAD_MAX_PARALLEL_PARTS) {
+				throw ErrorCode.TOO_MANY_PART_UPLOADS.baseException("최대 %d개까지 동시에 업로드할 수 있습니다.",
+					RESUMABLE_UPLOAD_MAX_PARALLEL_PARTS);
+			}
+			return current + 1;
+		});
+	}
+
+	private void releasePartSlot(String uploadId) {
+		inFlightParts.computeIfPresent(uploadId, (key, count) -> count <= 1 ? null : count - 1);
+	}
+
+	/**
+	 * 만료된 세션은 AbortedUploadDeleteScheduler가 정리하기 전이라도 찾을 수 없는 세션으로 처리합니다.
+	 */
+	private ResumableUpload getResumableUpload(String uploadId, long userId) {
+		ResumableUpload resumableUpload = resumableUploadRepository.findByUuidFileName(uploadId)
+			.filter(upload -> !upload.isExpired())
+			.orElseThrow(ErrorCode.RESUMABLE_UPLOAD_NOT_FOUND::baseException);
+		if (!resumableUpload.getCreatorId().equals(userId)) {
+			throw ErrorCode.ACCESS_DENIED.baseException();
+		}
+		return resumableUpload;
+	}
+}
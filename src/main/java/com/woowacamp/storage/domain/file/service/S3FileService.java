@@ -3,9 +3,13 @@ package com.woowacamp.storage.domain.file.service;
 import static com.woowacamp.storage.global.error.ErrorCode.*;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -15,6 +19,7 @@ import org.springframework.transaction.annotation.Transactional;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.model.GetObjectRequest;
 import com.amazonaws.services.s3.model.S3Object;
+import com.woowacamp.storage.domain.file.dto.BatchSizeValidationDto;
 import com.woowacamp.storage.domain.file.dto.FileDataDto;
 import com.woowacamp.storage.domain.file.dto.FileMetadataDto;
 import com.woowacamp.storage.domain.file.dto.FormMetadataDto;
@@ -29,6 +34,7 @@ import com.woowacamp.storage.domain.user.entity.User;
 import com.woowacamp.storage.domain.user.repository.UserRepository;
 import com.woowacamp.storage.global.constant.CommonConstant;
 import com.woowacamp.storage.global.constant.UploadStatus;
+import com.woowacamp.storage.global.error.CustomException;
 import com.woowacamp.storage.global.error.ErrorCode;
 
 import lombok.RequiredArgsConstructor;
@@ -57,7 +63,51 @@ public class S3FileService {
 		String fileType = getFileTypeByFileName(fileName);
 		User user = userRepository.findById(formMetadataDto.getUserId())
 			.orElseThrow(ErrorCode.USER_NOT_FOUND::baseException);
-		FolderMetadata parentFolderMetadata = validateRequest(formMetadataDto, partContext, user, fileName, fileType);
+		validateFileSize(formMetadataDto.getFileSize(), user.getRootFolderId());
+		return saveInitialMetadata(formMetadataDto, partContext, user.getRootFolderId(), fileName, fileType);
+	}
+
+	/**
+	 * 한 요청으로 여러 파일을 올릴 때 사용하는 1차 메타데이터 생성 메소드.
+	 * 사용자 조회와 용량 확인은 validateBatchSize에서 끝냈으므로 그 결과의 rootFolderId를 받고 루트 폴더에 락을 걸지 않습니다.
+	 */
+	@Transactional
+	public FileMetadataDto createInitialMetadataInBatch(FormMetadataDto formMetadataDto, PartContext partContext,
+		Long rootFolderId) {
+		String fileName = partContext.getCurrentFileName();
+		String fileType = getFileTypeByFileName(fileName);
+		return saveInitialMetadata(formMetadataDto, partContext, rootFolderId, fileName, fileType);
+	}
+
+	/**
+	 * 한 요청으로 올리는 파일들의 용량을 사용자 조회와 루트 폴더 조회 한 번으로 확인합니다.
+	 * 파일 순서대로 앞에서 받아들인 파일 크기와 합쳐서 확인하고, 용량을 넘는 파일만 거절합니다.
+	 * 거절한 파일의 크기는 뒤 파일을 확인할 때 합치지 않습니다.
+	 */
+	@Transactional
+	public BatchSizeValidationDto validateBatchSize(long userId, List<Long> fileSizes) {
+		User user = userRepository.findById(userId).orElseThrow(ErrorCode.USER_NOT_FOUND::baseException);
+		FolderMetadata rootFolderMetadata = folderMetadataRepository.findByIdForUpdate(user.getRootFolderId())
+			.orElseThrow(ErrorCode.FOLDER_NOT_FOUND::baseException);
+
+		List<CustomException> rejections = new ArrayList<>(fileSizes.size());
+		long acceptedSize = rootFolderMetadata.getSize();
+		for (long fileSize : fileSizes) {
+			if (fileSize > MAX_FILE_SIZE) {
+				rejections.add(ErrorCode.EXCEED_MAX_FILE_SIZE.baseException());
+			} else if (acceptedSize + fileSize > MAX_STORAGE_SIZE) {
+				rejections.add(ErrorCode.EXCEED_MAX_STORAGE_SIZE.baseException());
+			} else {
+				acceptedSize += fileSize;
+				rejections.add(null);
+			}
+		}
+		return new BatchSizeValidationDto(user.getRootFolderId(), rejections);
+	}
+
+	private FileMetadataDto saveInitialMetadata(FormMetadataDto formMetadataDto, PartContext partContext,
+		Long rootFolderId, String fileName, String fileType) {
+		FolderMetadata parentFolderMetadata = validateRequest(formMetadataDto, partContext, fileName, fileType);
 
 		String uuidFileName = getUuidFileName();
 		String uuidThumbnail = null;
@@ -68,9 +118,9 @@ public class S3FileService {
 		// 1차 메타데이터 생성
 		// TODO: 공유 기능이 생길 때, creatorId, ownerId 따로
 		FileMetadata fileMetadata = fileMetadataRepository.save(
-			FileMetadataFactory.buildInitialMetadata(user, formMetadataDto.getParentFolderId(),
-				formMetadataDto.getFileSize(), uuidFileName, fileName, fileType, uuidThumbnail,
-				formMetadataDto.getCreatorId(), parentFolderMetadata));
+			FileMetadataFactory.buildInitialMetadata(rootFolderId, formMetadataDto.getUserId(),
+				formMetadataDto.getParentFolderId(), formMetadataDto.getFileSize(), uuidFileName, fileName, fileType,
+				uuidThumbnail, formMetadataDto.getCreatorId(), parentFolderMetadata));
 
 		return FileMetadataDto.of(fileMetadata);
 	}
@@ -93,7 +143,7 @@ public class S3FileService {
 		// }
 
 		LocalDateTime now = LocalDateTime.now();
-		updateFolderMetadataStatus(fileMetadataDto, fileSize, now);
+		updateFolderMetadataStatus(fileMetadataDto.parentFolderId(), fileSize, now);
 
 		// fileMetadata.updateFileSize(fileSize);
 		// fileMetadata.updateFinishUploadStatus();
@@ -101,6 +151,23 @@ public class S3FileService {
 		// fileMetadata.updateUpdatedAt(now);
 	}
 
+	/**
+	 * 여러 파일의 메타데이터를 한 트랜잭션에서 갱신합니다.
+	 * 상위 폴더 크기는 파일마다 갱신하지 않고 부모 폴더별로 합친 크기를 한 번만 반영합니다.
+	 */
+	@Transactional(isolation = Isolation.READ_COMMITTED)
+	public void finalizeMetadataBatch(List<FileMetadataDto> fileMetadataDtos) {
+		fileMetadataDtos.forEach(fileMetadataDto -> fileMetadataRepository.finalizeMetadata(
+			fileMetadataDto.metadataId(), fileMetadataDto.fileSize(), UploadStatus.SUCCESS));
+
+		Map<Long, Long> sizeByParentFolder = fileMetadataDtos.stream()
+			.collect(Collectors.groupingBy(FileMetadataDto::parentFolderId,
+				Collectors.summingLong(FileMetadataDto::fileSize)));
+		LocalDateTime now = LocalDateTime.now();
+		sizeByParentFolder.forEach((parentFolderId, fileSize) -> updateFolderMetadataStatus(parentFolderId,
+			fileSize, now));
+	}
+
 	/**
 	 * 요청 폼 데이터의 fieldFileSize와 실제 파일 크기인 uploadFileSize가 치일한 지 확인하는 메소드
 	 */
@@ -115,9 +182,8 @@ public class S3FileService {
 	/**
 	 * validateParentFolder를 먼저 호출해야 부모 폴더에 락이 걸려서 같은 파일 이름으로 동시에 써지지 않는다.
 	 */
-	private FolderMetadata validateRequest(FormMetadataDto formMetadataDto, PartContext partContext, User user,
+	private FolderMetadata validateRequest(FormMetadataDto formMetadataDto, PartContext partContext,
 		String fileName, String fileType) {
-		validateFileSize(formMetadataDto.getFileSize(), user.getRootFolderId());
 		FolderMetadata parentFolderMetadata = validateParentFolder(formMetadataDto.getParentFolderId(),
 			formMetadataDto.getUserId());
 		validateFile(partContext, formMetadataDto.getParentFolderId(), fileName, fileType);
@@ -126,12 +192,16 @@ public class S3FileService {
 	}
 
 	private void validateFileSize(long fileSize, Long rootFolderId) {
-		FolderMetadata rootFolderMetadata = folderMetadataRepository.findByIdForUpdate(rootFolderId)
-			.orElseThrow(ErrorCode.FOLDER_NOT_FOUND::baseException);
-
 		if (fileSize > MAX_FILE_SIZE) {
 			throw ErrorCode.EXCEED_MAX_FILE_SIZE.baseException();
 		}
+		validateStorageSize(fileSize, rootFolderId);
+	}
+
+	private void validateStorageSize(long fileSize, Long rootFolderId) {
+		FolderMetadata rootFolderMetadata = folderMetadataRepository.findByIdForUpdate(rootFolderId)
+			.orElseThrow(ErrorCode.FOLDER_NOT_FOUND::baseException);
+
 		if (rootFolderMetadata.getSize() + fileSize > MAX_STORAGE_SIZE) {
 			throw ErrorCode.EXCEED_MAX_STORAGE_SIZE.baseException();
 		}
@@ -141,8 +211,7 @@ public class S3FileService {
 	 * 현재 폴더에서 루트 폴더까지 모든 폴더에 대한 size, updatedAt을 갱신
 	 * 중간에 새로운 파일들이 써질 수 있으니 최상위 폴더까지의 락을 획득 후 작업을 진행한다.
 	 */
-	private void updateFolderMetadataStatus(FileMetadataDto req, long fileSize, LocalDateTime now) {
-		Long parentFolderId = req.parentFolderId();
+	private void updateFolderMetadataStatus(Long parentFolderId, long fileSize, LocalDateTime now) {
 		while (parentFolderId != null) {
 			FolderMetadata folderMetadata = folderMetadataRepository.findByIdForUpdate(parentFolderId)
 				.orElseThrow(ErrorCode.FOLDER_NOT_FOUND::baseException);
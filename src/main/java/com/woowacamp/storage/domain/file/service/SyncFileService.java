@@ -1,6 +1,5 @@
 package com.woowacamp.storage.domain.file.service;
 
-import java.io.ByteArrayInputStream;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -11,11 +10,17 @@ import org.springframework.stereotype.Service;
 import com.amazonaws.AmazonClientException;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadResult;
 import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
 import com.amazonaws.services.s3.model.PartETag;
 import com.amazonaws.services.s3.model.UploadPartRequest;
 import com.amazonaws.services.s3.model.UploadPartResult;
+import com.woowacamp.storage.domain.file.dto.CompositeChecksum;
+import com.woowacamp.storage.domain.file.dto.PartPayload;
+import com.woowacamp.storage.domain.file.dto.RetryBudget;
 import com.woowacamp.storage.domain.file.repository.FileMetadataRepository;
+import com.woowacamp.storage.global.constant.UploadApi;
+import com.woowacamp.storage.global.constant.UploadStage;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -28,51 +33,87 @@ public class SyncFileService {
 	private final Map<String, Integer> maxPartCountMap;
 	private final AmazonS3 amazonS3;
 	private final FileMetadataRepository fileMetadataRepository;
+	private final PartBufferPool partBufferPool;
+	private final PartUploadRetryPolicy partUploadRetryPolicy;
+	private final UploadMetrics uploadMetrics;
 
-	public SyncFileService(AmazonS3 amazonS3, FileMetadataRepository fileMetadataRepository) {
+	public SyncFileService(AmazonS3 amazonS3, FileMetadataRepository fileMetadataRepository,
+		PartBufferPool partBufferPool, PartUploadRetryPolicy partUploadRetryPolicy, UploadMetrics uploadMetrics) {
 		this.amazonS3 = amazonS3;
 		this.maxPartCountMap = new HashMap<>();
 		this.fileMetadataRepository = fileMetadataRepository;
+		this.partBufferPool = partBufferPool;
+		this.partUploadRetryPolicy = partUploadRetryPolicy;
+		this.uploadMetrics = uploadMetrics;
 	}
 
-	public void produce(InitiateMultipartUploadResult initResponse, String currentFileName, int partNumber,
-		byte[] contentBuffer, int bufferLength, List<PartETag> partETags) {
+	public RetryBudget newRetryBudget() {
+		return partUploadRetryPolicy.newRetryBudget();
+	}
 
-		log.info("partNumber: {}", partNumber);
-		uploadPart(initResponse.getUploadId(), currentFileName, partNumber, contentBuffer, bufferLength, partETags);
+	/**
+	 * 요청 스레드에서 바로 part upload를 하고, 재시도까지 모두 끝나면 partPayload의 버퍼를 풀로 반납합니다.
+	 * 성공한 part의 MD5는 checksum에 모아둡니다.
+	 */
+	public void produce(InitiateMultipartUploadResult initResponse, String currentFileName, int partNumber,
+		PartPayload partPayload, List<PartETag> partETags, RetryBudget retryBudget, CompositeChecksum checksum) {
 
+		long startedAt = System.nanoTime();
+		boolean uploaded = uploadPart(initResponse.getUploadId(), currentFileName, partNumber, partPayload,
+			partETags, retryBudget);
+		uploadMetrics.recordStage(UploadApi.V2, UploadStage.PART_UPLOAD, startedAt);
+		if (uploaded) {
+			checksum.addPart(partNumber, partPayload.getMd5());
+		}
 	}
 
 	public void finishFileUpload(InitiateMultipartUploadResult initResponse, String currentFileName,
-		List<PartETag> partETags) {
-		completeFileUpload(initResponse.getUploadId(), currentFileName, partETags);
+		List<PartETag> partETags, CompositeChecksum checksum) {
+		completeFileUpload(initResponse.getUploadId(), currentFileName, partETags, checksum);
 	}
 
-	private void uploadPart(String uploadId, String key, int partNumber, byte[] data, int length,
-		List<PartETag> partETags) {
-		UploadPartRequest uploadRequest = new UploadPartRequest()
-			.withBucketName(BUCKET_NAME)
-			.withKey(key)
-			.withUploadId(uploadId)
-			.withPartNumber(partNumber)
-			.withInputStream(new ByteArrayInputStream(data, 0, length))
-			.withPartSize(length);
+	/**
+	 * @return - part upload에 성공한 경우 true
+	 */
+	private boolean uploadPart(String uploadId, String key, int partNumber, PartPayload partPayload,
+		List<PartETag> partETags, RetryBudget retryBudget) {
+		// 재시도 중에 버퍼가 반납될 수 있으므로 MD5는 먼저 계산해 둔다.
+		String contentMd5 = partPayload.getBase64Md5();
 		UploadPartResult uploadResult;
 		try {
-			uploadResult = amazonS3.uploadPart(uploadRequest);
+			// 재시도할 때마다 버퍼를 처음부터 읽어야 하므로 요청을 새로 만든다.
+			uploadResult = partUploadRetryPolicy.execute(() -> amazonS3.uploadPart(new UploadPartRequest()
+					.withBucketName(BUCKET_NAME)
+					.withKey(key)
+					.withUploadId(uploadId)
+					.withPartNumber(partNumber)
+					.withInputStream(partPayload.toInputStream())
+					.withPartSize(partPayload.size())
+					.withMD5Digest(contentMd5)),
+				retryBudget, () -> partBufferPool.release(partPayload));
 		} catch (AmazonClientException e) {
 			log.error("partNumber: {}, part upload가 정상적으로 동작하지 않습니다.", partNumber);
 			fileMetadataRepository.deleteByUuidFileName(key);
-			return;
+			return false;
 		}
 		partETags.add(uploadResult.getPartETag());
+		return true;
 	}
 
-	private void completeFileUpload(String uploadId, String currentFileName, List<PartETag> partETags) {
+	private void completeFileUpload(String uploadId, String currentFileName, List<PartETag> partETags,
+		CompositeChecksum checksum) {
 		CompleteMultipartUploadRequest completeRequest = new CompleteMultipartUploadRequest(BUCKET_NAME,
 			currentFileName, uploadId, partETags);
 		try {
-			amazonS3.completeMultipartUpload(completeRequest);
+			long startedAt = System.nanoTime();
+			CompleteMultipartUploadResult result = amazonS3.completeMultipartUpload(completeRequest);
+			uploadMetrics.recordStage(UploadApi.V2, UploadStage.COMPLETE_UPLOAD, startedAt);
+			String compositeChecksum = checksum.compute();
+			if (!CompositeChecksum.matches(compositeChecksum, result.getETag())) {
+				log.warn("[Checksum Mismatch] key: {}, checksum: {}, eTag: {}", currentFileName, compositeChecksum,
+					result.getETag());
+			}
+			fileMetadataRepository.updateChecksumByUuid(currentFileName, compositeChecksum);
 		} catch (AmazonClientException e) {
 			log.error("[Error Occurred] completeFileUpload가 정상적으로 동작하지 않습니다.");
 			fileMetadataRepository.updateUploadStatusByUuid(currentFileName);
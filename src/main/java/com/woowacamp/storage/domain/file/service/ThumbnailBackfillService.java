@@ -0,0 +1,238 @@
+package com.woowacamp.storage.domain.file.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.woowacamp.storage.domain.file.dto.ThumbnailBackfillStateDto;
+import com.woowacamp.storage.domain.file.entity.FileMetadata;
+import com.woowacamp.storage.domain.file.entity.ThumbnailBackfillCheckpoint;
+import com.woowacamp.storage.domain.file.repository.FileMetadataRepository;
+import com.woowacamp.storage.domain.file.repository.ThumbnailBackfillCheckpointRepository;
+import com.woowacamp.storage.global.constant.BackfillStatus;
+import com.woowacamp.storage.global.constant.ThumbnailSize;
+import com.woowacamp.storage.global.util.RequestRateLimiter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 썸네일 크기 정책을 바꾼 뒤 기존 이미지의 썸네일을 모두 다시 만드는 일괄 작업입니다.
+ * <p>
+ * file_metadata를 id 순서로 batchSize개씩 읽고(keyset), 배치 안의 이미지는 코어 수만큼의 ForkJoinPool에서 동시에 디코딩합니다.
+ * 원본 읽기와 썸네일 저장 요청은 requestsPerSecond로 제한해서 사용자 요청이 쓰는 S3 처리량을 빼앗지 않습니다.
+ * 배치가 끝날 때마다 checkpoint 테이블에 마지막 파일 id를 기록하므로, 멈추거나 서버가 다시 시작된 뒤 같은 jobName으로 시작하면 이어서 처리합니다.
+ * 진행 상황은 thumbnail.backfill.* 지표와 thumbnailbackfill actuator 엔드포인트로 확인합니다.
+ */
+@Service
+@Slf4j
+public class ThumbnailBackfillService {
+
+	// 파일 하나마다 원본 읽기 한 번과 크기별 썸네일 저장
+	private static final int REQUESTS_PER_FILE = 1 + ThumbnailSize.values().length;
+
+	private final int batchSize;
+	private final int parallelism;
+	private final double requestsPerSecond;
+	private final FileMetadataRepository fileMetadataRepository;
+	private final ThumbnailBackfillCheckpointRepository checkpointRepository;
+	private final ThumbnailStorage thumbnailStorage;
+	private final ExecutorService coordinator = Executors.newSingleThreadExecutor();
+	private final AtomicReference<String> runningJob = new AtomicReference<>();
+	private final AtomicLong processedInRun = new AtomicLong();
+	private final AtomicLong remaining = new AtomicLong();
+	private final Counter processedCounter;
+	private final Counter failedCounter;
+	private volatile boolean stopRequested;
+	private volatile long runStartedAt;
+
+	public ThumbnailBackfillService(@Value("${file.thumbnail.backfill.batchSize:500}") int batchSize,
+		@Value("${file.thumbnail.backfill.parallelism:0}") int parallelism,
+		@Value("${file.thumbnail.backfill.requestsPerSecond:100}") double requestsPerSecond,
+		FileMetadataRepository fileMetadataRepository, ThumbnailBackfillCheckpointRepository checkpointRepository,
+		ThumbnailStorage thumbnailStorage, MeterRegistry meterRegistry) {
+		this.batchSize = batchSize;
+		this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+		this.requestsPerSecond = requestsPerSecond;
+		this.fileMetadataRepository = fileMetadataRepository;
+		this.checkpointRepository = checkpointRepository;
+		this.thumbnailStorage = thumbnailStorage;
+		this.processedCounter = Counter.builder("thumbnail.backfill.processed")
+			.description("일괄 작업에서 썸네일을 다시 만든 파일 수")
+			.register(meterRegistry);
+		this.failedCounter = Counter.builder("thumbnail.backfill.failed")
+			.description("일괄 작업에서 썸네일을 만들지 못하고 건너뛴 파일 수")
+			.register(meterRegistry);
+		Gauge.builder("thumbnail.backfill.throughput", this, ThumbnailBackfillService::getThroughput)
+			.description("이번 실행에서 초당 처리한 파일 수")
+			.register(meterRegistry);
+		Gauge.builder("thumbnail.backfill.remaining", remaining, AtomicLong::get)
+			.description("남은 대상 파일 수")
+			.register(meterRegistry);
+		Gauge.builder("thumbnail.backfill.eta", this, ThumbnailBackfillService::getEtaSeconds)
+			.description("지금 처리 속도로 남은 파일을 처리하는 데 걸리는 시간")
+			.baseUnit("seconds")
+			.register(meterRegistry);
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		stopRequested = true;
+		coordinator.shutdownNow();
+	}
+
+	/**
+	 * @return - 이미 다른 작업이 실행 중이면 false
+	 */
+	public boolean start(String jobName) {
+		if (!runningJob.compareAndSet(null, jobName)) {
+			return false;
+		}
+		stopRequested = false;
+		coordinator.execute(() -> {
+			try {
+				run(jobName);
+			} catch (RuntimeException e) {
+				log.error("[Thumbnail Backfill Failed] job: {}, message: {}", jobName, e.getMessage(), e);
+			} finally {
+				runningJob.set(null);
+			}
+		});
+		return true;
+	}
+
+	/**
+	 * 진행 중인 배치를 끝낸 뒤 멈춥니다.
+	 */
+	public void stop() {
+		stopRequested = true;
+	}
+
+	public ThumbnailBackfillStateDto getState(String jobName) {
+		ThumbnailBackfillCheckpoint checkpoint = checkpointRepository.findByJobName(jobName).orElse(null);
+		if (checkpoint == null) {
+			return new ThumbnailBackfillStateDto(jobName, null, false, 0, 0, 0, 0, 0, 0);
+		}
+		boolean running = jobName.equals(runningJob.get());
+		return new ThumbnailBackfillStateDto(jobName, checkpoint.getStatus(), running, checkpoint.getLastFileId(),
+			checkpoint.getProcessedCount(), checkpoint.getFailedCount(), running ? remaining.get() : 0,
+			running ? getThroughput() : 0, running ? getEtaSeconds() : 0);
+	}
+
+	void run(String jobName) {
+		ThumbnailBackfillCheckpoint checkpoint = checkpointRepository.findByJobName(jobName)
+			.orElseGet(() -> ThumbnailBackfillCheckpoint.builder()
+				.jobName(jobName)
+				.lastFileId(0L)
+				.processedCount(0L)
+				.failedCount(0L)
+				.status(BackfillStatus.RUNNING)
+				.updatedAt(LocalDateTime.now())
+				.build());
+		if (checkpoint.getStatus() == BackfillStatus.COMPLETED) {
+			log.info("[Thumbnail Backfill] job {} is already completed", jobName);
+			return;
+		}
+		checkpoint.updateStatus(BackfillStatus.RUNNING);
+		checkpoint = checkpointRepository.save(checkpoint);
+		remaining.set(fileMetadataRepository.countThumbnailTargetsAfter(checkpoint.getLastFileId()));
+		processedInRun.set(0);
+		runStartedAt = System.nanoTime();
+		log.info("[Thumbnail Backfill Started] job: {}, from: {}, targets: {}", jobName, checkpoint.getLastFileId(),
+			remaining.get());
+
+		RequestRateLimiter rateLimiter = new RequestRateLimiter(requestsPerSecond);
+		ForkJoinPool decodePool = new ForkJoinPool(parallelism);
+		try {
+			while (!stopRequested) {
+				List<FileMetadata> batch = fileMetadataRepository.findThumbnailTargetsAfter(
+					checkpoint.getLastFileId(), batchSize);
+				if (batch.isEmpty()) {
+					checkpoint.updateStatus(BackfillStatus.COMPLETED);
+					break;
+				}
+				long failed = processBatch(decodePool, rateLimiter, batch);
+				checkpoint.advance(batch.get(batch.size() - 1).getId(), batch.size() - failed, failed);
+				checkpoint = checkpointRepository.save(checkpoint);
+				processedInRun.addAndGet(batch.size());
+				remaining.addAndGet(-batch.size());
+			}
+			if (checkpoint.getStatus() != BackfillStatus.COMPLETED) {
+				checkpoint.updateStatus(BackfillStatus.STOPPED);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			checkpoint.updateStatus(BackfillStatus.STOPPED);
+		} finally {
+			decodePool.shutdownNow();
+		}
+		checkpointRepository.save(checkpoint);
+		remaining.set(0);
+		log.info("[Thumbnail Backfill Ended] job: {}, status: {}, lastFileId: {}, processed: {}, failed: {}", jobName,
+			checkpoint.getStatus(), checkpoint.getLastFileId(), checkpoint.getProcessedCount(),
+			checkpoint.getFailedCount());
+	}
+
+	/**
+	 * 배치의 모든 파일이 끝날 때까지 기다립니다. 실패한 파일은 건너뛰고 실패 수만 반환합니다.
+	 */
+	private long processBatch(ForkJoinPool decodePool, RequestRateLimiter rateLimiter, List<FileMetadata> batch)
+		throws InterruptedException {
+		List<Callable<Boolean>> tasks = new ArrayList<>(batch.size());
+		for (FileMetadata fileMetadata : batch) {
+			tasks.add(() -> regenerate(rateLimiter, fileMetadata));
+		}
+		long failed = 0;
+		for (Future<Boolean> result : decodePool.invokeAll(tasks)) {
+			try {
+				if (!result.get()) {
+					failed++;
+				}
+			} catch (ExecutionException e) {
+				failed++;
+			}
+		}
+		return failed;
+	}
+
+	private boolean regenerate(RequestRateLimiter rateLimiter, FileMetadata fileMetadata)
+		throws InterruptedException {
+		rateLimiter.acquire(REQUESTS_PER_FILE);
+		try {
+			thumbnailStorage.generate(fileMetadata);
+			processedCounter.increment();
+			return true;
+		} catch (Exception e) {
+			log.warn("[Thumbnail Backfill Skipped] fileId: {}, message: {}", fileMetadata.getId(), e.getMessage());
+			failedCounter.increment();
+			return false;
+		}
+	}
+
+	private double getThroughput() {
+		long elapsedNanos = System.nanoTime() - runStartedAt;
+		if (runningJob.get() == null || elapsedNanos <= 0) {
+			return 0;
+		}
+		return processedInRun.get() * 1_000_000_000.0 / elapsedNanos;
+	}
+
+	private double getEtaSeconds() {
+		double throughput = getThroughput();
+		return throughput == 0 ? 0 : remaining.get() / throughput;
+	}
+}
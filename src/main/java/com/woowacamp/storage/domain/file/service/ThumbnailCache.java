@@ -0,0 +1,258 @@
+package com.woowacamp.storage.domain.file.service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.woowacamp.storage.global.constant.ThumbnailSize;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 썸네일 다운로드에서 사용하는 2단계 캐시입니다. 키는 크기별 썸네일의 S3 객체 키(ThumbnailSize.objectKey)입니다.
+ * <p>
+ * 먼저 힙의 LRU(memoryBytes)에서 찾고, 없으면 로컬 디스크(diskBytes)에서 찾아 힙으로 올립니다.
+ * 둘 다 없으면 호출한 쪽이 S3에서 읽은 뒤 put으로 두 단계에 모두 넣습니다.
+ * 각 단계는 저장한 바이트 수로 크기를 제한하고, 가장 오래 사용하지 않은 썸네일부터 지웁니다.
+ * 디스크 단계는 임시 파일에 쓴 뒤 이름을 바꾸기 때문에 완전한 파일만 남고, 서버가 다시 시작되면 남아있는 파일을 다시 사용합니다.
+ * <p>
+ * 파일을 삭제하거나 썸네일을 다시 만들면 invalidate로 모든 크기를 지웁니다.
+ */
+@Service
+@Slf4j
+public class ThumbnailCache {
+
+	private static final String CACHE_SUFFIX = ".thumb";
+
+	private final long memoryCapacityBytes;
+	private final long diskCapacityBytes;
+	private final Path directory;
+	// accessOrder가 true인 LinkedHashMap은 가장 오래 사용하지 않은 항목이 맨 앞에 온다. 두 맵 모두 this로 동기화한다.
+	private final LinkedHashMap<String, byte[]> memoryEntries = new LinkedHashMap<>(256, 0.75f, true);
+	private final LinkedHashMap<String, Long> diskEntries = new LinkedHashMap<>(256, 0.75f, true);
+	private long memoryBytes;
+	private long diskBytes;
+	private final Counter memoryHitCounter;
+	private final Counter diskHitCounter;
+	private final Counter missCounter;
+	private final Counter evictionCounter;
+
+	public ThumbnailCache(@Value("${file.thumbnail.cache.memoryBytes:67108864}") long memoryCapacityBytes,
+		@Value("${file.thumbnail.cache.diskBytes:1073741824}") long diskCapacityBytes,
+		@Value("${file.thumbnail.cache.directory:${java.io.tmpdir}/my-storage-thumbnail-cache}") String directory,
+		MeterRegistry meterRegistry) {
+		this.memoryCapacityBytes = memoryCapacityBytes;
+		this.diskCapacityBytes = diskCapacityBytes;
+		this.directory = Path.of(directory);
+		this.memoryHitCounter = requestCounter(meterRegistry, "memory");
+		this.diskHitCounter = requestCounter(meterRegistry, "disk");
+		this.missCounter = requestCounter(meterRegistry, "miss");
+		this.evictionCounter = Counter.builder("thumbnail.cache.evicted")
+			.description("용량이 부족해서 디스크 캐시에서 지운 썸네일 수")
+			.register(meterRegistry);
+		Gauge.builder("thumbnail.cache.memory.bytes", this, ThumbnailCache::getMemoryBytes)
+			.description("힙 캐시에 있는 썸네일 크기")
+			.baseUnit("bytes")
+			.register(meterRegistry);
+		Gauge.builder("thumbnail.cache.disk.bytes", this, ThumbnailCache::getDiskBytes)
+			.description("디스크 캐시에 있는 썸네일 크기")
+			.baseUnit("bytes")
+			.register(meterRegistry);
+	}
+
+	/**
+	 * 디스크에 남아있는 썸네일을 수정 시각 순서로 다시 등록합니다. 쓰는 도중 종료되어 남은 임시 파일은 지웁니다.
+	 */
+	@PostConstruct
+	public void init() throws IOException {
+		Files.createDirectories(directory);
+		List<Path> cachedFiles = new ArrayList<>();
+		try (DirectoryStream<Path> paths = Files.newDirectoryStream(directory)) {
+			for (Path path : paths) {
+				if (path.getFileName().toString().endsWith(CACHE_SUFFIX)) {
+					cachedFiles.add(path);
+				} else {
+					Files.deleteIfExists(path);
+				}
+			}
+		}
+		cachedFiles.sort(Comparator.comparing(ThumbnailCache::lastModified));
+		for (Path path : cachedFiles) {
+			String fileName = path.getFileName().toString();
+			addDiskEntry(fileName.substring(0, fileName.length() - CACHE_SUFFIX.length()), Files.size(path));
+		}
+		evictDisk();
+	}
+
+	/**
+	 * @return - 힙과 디스크 모두 없으면 null
+	 */
+	public byte[] get(String key) {
+		synchronized (this) {
+			byte[] cached = memoryEntries.get(key);
+			if (cached != null) {
+				memoryHitCounter.increment();
+				return cached;
+			}
+			// containsKey는 사용 순서를 바꾸지 않으므로 get으로 확인한다.
+			if (diskEntries.get(key) == null) {
+				missCounter.increment();
+				return null;
+			}
+		}
+		try {
+			byte[] cached = Files.readAllBytes(cachePath(key));
+			diskHitCounter.increment();
+			putMemory(key, cached);
+			return cached;
+		} catch (IOException e) {
+			// 그 사이 지워진 파일은 없는 것으로 본다.
+			removeDiskEntry(key);
+			missCounter.increment();
+			return null;
+		}
+	}
+
+	public void put(String key, byte[] thumbnail) {
+		putMemory(key, thumbnail);
+		if (thumbnail.length > diskCapacityBytes) {
+			return;
+		}
+		Path temporary = null;
+		try {
+			// 같은 썸네일을 동시에 넣어도 서로의 임시 파일을 덮어쓰지 않는다.
+			temporary = Files.createTempFile(directory, key, ".tmp");
+			Files.write(temporary, thumbnail);
+			Files.move(temporary, cachePath(key), StandardCopyOption.ATOMIC_MOVE,
+				StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			log.warn("[Thumbnail Cache Write Failed] key: {}, message: {}", key, e.getMessage());
+			if (temporary != null) {
+				deleteQuietly(temporary);
+			}
+			return;
+		}
+		synchronized (this) {
+			addDiskEntry(key, thumbnail.length);
+		}
+		evictDisk();
+	}
+
+	/**
+	 * thumbnailUUID의 모든 크기를 힙과 디스크에서 지웁니다.
+	 */
+	public void invalidate(String thumbnailUUID) {
+		for (ThumbnailSize size : ThumbnailSize.values()) {
+			String key = size.objectKey(thumbnailUUID);
+			synchronized (this) {
+				byte[] removed = memoryEntries.remove(key);
+				if (removed != null) {
+					memoryBytes -= removed.length;
+				}
+			}
+			if (removeDiskEntry(key)) {
+				deleteQuietly(cachePath(key));
+			}
+		}
+	}
+
+	public synchronized long getMemoryBytes() {
+		return memoryBytes;
+	}
+
+	public synchronized long getDiskBytes() {
+		return diskBytes;
+	}
+
+	/**
+	 * 힙 용량의 1/8보다 큰 썸네일은 다른 썸네일을 모두 밀어내지 않도록 디스크에만 둡니다.
+	 */
+	private synchronized void putMemory(String key, byte[] thumbnail) {
+		if (thumbnail.length > memoryCapacityBytes / 8) {
+			return;
+		}
+		byte[] previous = memoryEntries.put(key, thumbnail);
+		memoryBytes += thumbnail.length - (previous == null ? 0 : previous.length);
+		Iterator<Map.Entry<String, byte[]>> iterator = memoryEntries.entrySet().iterator();
+		while (memoryBytes > memoryCapacityBytes && iterator.hasNext()) {
+			memoryBytes -= iterator.next().getValue().length;
+			iterator.remove();
+		}
+	}
+
+	private void addDiskEntry(String key, long size) {
+		Long previous = diskEntries.put(key, size);
+		diskBytes += size - (previous == null ? 0 : previous);
+	}
+
+	private synchronized boolean removeDiskEntry(String key) {
+		Long removed = diskEntries.remove(key);
+		if (removed == null) {
+			return false;
+		}
+		diskBytes -= removed;
+		return true;
+	}
+
+	/**
+	 * 용량을 넘은 만큼 오래된 항목을 목록에서 먼저 빼고, 파일은 락 밖에서 지웁니다.
+	 */
+	private void evictDisk() {
+		List<String> evicted = new ArrayList<>();
+		synchronized (this) {
+			Iterator<Map.Entry<String, Long>> iterator = diskEntries.entrySet().iterator();
+			while (diskBytes > diskCapacityBytes && iterator.hasNext()) {
+				Map.Entry<String, Long> entry = iterator.next();
+				diskBytes -= entry.getValue();
+				evicted.add(entry.getKey());
+				iterator.remove();
+			}
+		}
+		for (String key : evicted) {
+			deleteQuietly(cachePath(key));
+			evictionCounter.increment();
+		}
+	}
+
+	private Path cachePath(String key) {
+		return directory.resolve(key + CACHE_SUFFIX);
+	}
+
+	private static Counter requestCounter(MeterRegistry meterRegistry, String result) {
+		return Counter.builder("thumbnail.cache.requests")
+			.description("썸네일 캐시 조회 결과(memory, disk, miss)")
+			.tag("result", result)
+			.register(meterRegistry);
+	}
+
+	private static long lastModified(Path path) {
+		try {
+			return Files.getLastModifiedTime(path).toMillis();
+		} catch (IOException e) {
+			return 0;
+		}
+	}
+
+	private static void deleteQuietly(Path path) {
+		try {
+			Files.deleteIfExists(path);
+		} catch (IOException e) {
+			log.warn("[Thumbnail Cache Delete Failed] path: {}, message: {}", path, e.getMessage());
+		}
+	}
+}
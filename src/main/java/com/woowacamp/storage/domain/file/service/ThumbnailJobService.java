@@ -0,0 +1,223 @@
+package com.woowacamp.storage.domain.file.service;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.woowacamp.storage.domain.file.dto.FileMetadataDto;
+import com.woowacamp.storage.domain.file.entity.FileMetadata;
+import com.woowacamp.storage.domain.file.repository.FileMetadataRepository;
+import com.woowacamp.storage.global.constant.ThumbnailStatus;
+import com.woowacamp.storage.global.constant.UploadStatus;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 업로드 요청과 분리해서 썸네일을 만드는 작업 큐입니다.
+ * <p>
+ * 업로드 스레드가 썸네일을 함께 만들지 못한 이미지(썸네일 버퍼가 가득 찼거나 썸네일 스레드가 없던 경우, V3와 이어 올리기 업로드)는
+ * enqueue로 작업을 넘깁니다. 워커는 ThumbnailStorage.generate로 업로드가 끝난 원본을 S3에서 다시 읽어 썸네일을 만들고,
+ * 메타데이터의 thumbnailStatus를 READY로 바꿉니다. 같은 파일의 썸네일을 다운로드 요청이 만들고 있다면 그 결과를 함께 사용합니다.
+ * <p>
+ * 워커 수(file.thumbnail.job.workers)와 대기 작업 수(file.thumbnail.job.queueCapacity)는 업로드 스레드 풀과 따로 정합니다.
+ * 최근에 올린 파일을 먼저 보는 경우가 많으므로 나중에 들어온 작업부터 처리합니다.
+ * 썸네일을 만들지 못한 작업은 점점 간격을 늘려 다시 시도하고, maxAttempts번 모두 실패하면 FAILED로 바꿉니다.
+ * V1 여러 파일 업로드처럼 원본 업로드가 끝나기 전에 등록한 작업은 업로드가 끝날 때까지 기다리며, 이 대기는 시도 횟수에 넣지 않습니다.
+ * 등록 후 uploadWaitMillis가 지나도 업로드가 끝나지 않으면 작업만 버리고 PENDING으로 두어 다운로드할 때 만들도록 합니다.
+ * 큐는 메모리에만 있으므로 서버가 다시 시작되면 대기 중이던 파일은 PENDING으로 남습니다.
+ */
+@Service
+@Slf4j
+public class ThumbnailJobService {
+
+	// 업로드가 끝나기를 기다리는 동안 다시 확인하는 간격의 최댓값
+	private static final long MAX_UPLOAD_WAIT_DELAY_MILLIS = 30_000;
+
+	private final int workers;
+	private final int queueCapacity;
+	private final int maxAttempts;
+	private final long retryDelayMillis;
+	private final long uploadWaitMillis;
+	private final FileMetadataRepository fileMetadataRepository;
+	private final ThumbnailStorage thumbnailStorage;
+	// 나중에 들어온 작업(sequence가 큰 작업)을 먼저 꺼낸다. 재시도하는 작업도 처음 받은 sequence를 유지한다.
+	private final PriorityBlockingQueue<ThumbnailJob> queue = new PriorityBlockingQueue<>(64,
+		Comparator.comparingLong(ThumbnailJob::sequence).reversed());
+	private final AtomicLong sequence = new AtomicLong();
+	// 큐에서 기다리거나 재시도를 기다리는 작업 수
+	private final AtomicInteger pendingJobs = new AtomicInteger();
+	private final Counter completedCounter;
+	private final Counter retriedCounter;
+	private final Counter failedCounter;
+	private final Counter rejectedCounter;
+	private ExecutorService workerPool;
+	private ScheduledExecutorService retryScheduler;
+
+	public ThumbnailJobService(@Value("${file.thumbnail.job.workers:2}") int workers,
+		@Value("${file.thumbnail.job.queueCapacity:10000}") int queueCapacity,
+		@Value("${file.thumbnail.job.maxAttempts:5}") int maxAttempts,
+		@Value("${file.thumbnail.job.retryDelayMillis:2000}") long retryDelayMillis,
+		@Value("${file.thumbnail.job.uploadWaitMillis:3600000}") long uploadWaitMillis,
+		FileMetadataRepository fileMetadataRepository, ThumbnailStorage thumbnailStorage,
+		MeterRegistry meterRegistry) {
+		this.workers = workers;
+		this.queueCapacity = queueCapacity;
+		this.maxAttempts = maxAttempts;
+		this.retryDelayMillis = retryDelayMillis;
+		this.uploadWaitMillis = uploadWaitMillis;
+		this.fileMetadataRepository = fileMetadataRepository;
+		this.thumbnailStorage = thumbnailStorage;
+		Gauge.builder("thumbnail.job.pending", pendingJobs, AtomicInteger::get)
+			.description("처리를 기다리거나 재시도를 기다리는 썸네일 작업 수")
+			.register(meterRegistry);
+		this.completedCounter = Counter.builder("thumbnail.job.completed")
+			.description("작업 큐에서 만든 썸네일 수")
+			.register(meterRegistry);
+		this.retriedCounter = Counter.builder("thumbnail.job.retried")
+			.description("원본을 읽지 못했거나 썸네일을 만들지 못해서 다시 시도한 횟수")
+			.register(meterRegistry);
+		this.failedCounter = Counter.builder("thumbnail.job.failed")
+			.description("재시도를 모두 실패해서 FAILED로 바꾼 썸네일 수")
+			.register(meterRegistry);
+		this.rejectedCounter = Counter.builder("thumbnail.job.rejected")
+			.description("대기 작업이 가득 차서 받지 못한 썸네일 작업 수")
+			.register(meterRegistry);
+	}
+
+	@PostConstruct
+	public void init() {
+		retryScheduler = Executors.newSingleThreadScheduledExecutor();
+		workerPool = Executors.newFixedThreadPool(workers);
+		for (int i = 0; i < workers; i++) {
+			workerPool.execute(this::runWorker);
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		if (retryScheduler != null) {
+			retryScheduler.shutdownNow();
+		}
+		if (workerPool != null) {
+			workerPool.shutdownNow();
+		}
+	}
+
+	/**
+	 * 썸네일이 필요한 이미지 파일의 썸네일 작업을 등록합니다. 업로드 요청 스레드에서 호출해도 대기하지 않습니다.
+	 *
+	 * @return - 대기 작업이 가득 차서 등록하지 못하면 false
+	 */
+	public boolean enqueue(FileMetadataDto fileMetadataDto) {
+		if (fileMetadataDto.thumbnailUUID() == null) {
+			return false;
+		}
+		if (pendingJobs.incrementAndGet() > queueCapacity) {
+			pendingJobs.decrementAndGet();
+			rejectedCounter.increment();
+			log.warn("[Thumbnail Job Rejected] file: {}", fileMetadataDto.uuid());
+			return false;
+		}
+		queue.offer(new ThumbnailJob(fileMetadataDto.metadataId(), sequence.incrementAndGet(), 1,
+			System.nanoTime()));
+		return true;
+	}
+
+	public int getPendingJobs() {
+		return pendingJobs.get();
+	}
+
+	private void runWorker() {
+		while (!Thread.currentThread().isInterrupted()) {
+			ThumbnailJob job;
+			try {
+				job = queue.take();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			try {
+				process(job);
+			} catch (RuntimeException e) {
+				log.warn("[Thumbnail Job Error] fileId: {}, message: {}", job.fileMetadataId(), e.getMessage());
+				retryOrFail(job);
+			}
+		}
+	}
+
+	/**
+	 * 파일이 삭제됐거나 업로드에 실패했으면 작업을 버리고, 업로드가 아직 끝나지 않았으면 시도 횟수를 쓰지 않고 나중에 다시 확인합니다.
+	 */
+	void process(ThumbnailJob job) {
+		Optional<FileMetadata> found = fileMetadataRepository.findById(job.fileMetadataId());
+		if (found.isEmpty() || found.get().getUploadStatus() == UploadStatus.FAIL
+			|| found.get().getThumbnailStatus() == ThumbnailStatus.READY) {
+			pendingJobs.decrementAndGet();
+			return;
+		}
+		FileMetadata fileMetadata = found.get();
+		if (fileMetadata.getUploadStatus() != UploadStatus.SUCCESS) {
+			waitForUpload(job);
+			return;
+		}
+		try {
+			thumbnailStorage.generate(fileMetadata);
+		} catch (IOException | RuntimeException e) {
+			log.warn("[Thumbnail Job Failed] file: {}, attempt: {}, message: {}", fileMetadata.getUuidFileName(),
+				job.attempt(), e.getMessage());
+			retryOrFail(job);
+			return;
+		}
+		completedCounter.increment();
+		pendingJobs.decrementAndGet();
+	}
+
+	/**
+	 * 기다린 시간만큼 다음 확인 간격을 늘리되 MAX_UPLOAD_WAIT_DELAY_MILLIS를 넘기지 않습니다.
+	 * uploadWaitMillis가 지나면 썸네일 상태는 PENDING으로 둔 채 작업만 버립니다.
+	 */
+	private void waitForUpload(ThumbnailJob job) {
+		long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - job.enqueuedAt());
+		if (waitedMillis >= uploadWaitMillis) {
+			pendingJobs.decrementAndGet();
+			log.warn("[Thumbnail Job Expired] fileId: {}, waited: {}ms", job.fileMetadataId(), waitedMillis);
+			return;
+		}
+		long delayMillis = Math.max(retryDelayMillis, Math.min(waitedMillis, MAX_UPLOAD_WAIT_DELAY_MILLIS));
+		retryScheduler.schedule(() -> queue.offer(job), delayMillis, TimeUnit.MILLISECONDS);
+	}
+
+	private void retryOrFail(ThumbnailJob job) {
+		if (job.attempt() >= maxAttempts) {
+			pendingJobs.decrementAndGet();
+			failedCounter.increment();
+			fileMetadataRepository.updateThumbnailStatus(job.fileMetadataId(), ThumbnailStatus.FAILED);
+			return;
+		}
+		retriedCounter.increment();
+		long delayMillis = retryDelayMillis << (job.attempt() - 1);
+		retryScheduler.schedule(() -> queue.offer(job.nextAttempt()), delayMillis, TimeUnit.MILLISECONDS);
+	}
+
+	record ThumbnailJob(Long fileMetadataId, long sequence, int attempt, long enqueuedAt) {
+
+		ThumbnailJob nextAttempt() {
+			return new ThumbnailJob(fileMetadataId, sequence, attempt + 1, enqueuedAt);
+		}
+	}
+}
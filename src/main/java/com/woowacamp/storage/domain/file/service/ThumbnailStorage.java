@@ -0,0 +1,191 @@
+package com.woowacamp.storage.domain.file.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.S3Object;
+import com.woowacamp.storage.domain.file.entity.FileMetadata;
+import com.woowacamp.storage.domain.file.repository.FileMetadataRepository;
+import com.woowacamp.storage.domain.file.util.ThumbnailRenderer;
+import com.woowacamp.storage.global.constant.ThumbnailSize;
+import com.woowacamp.storage.global.constant.ThumbnailStatus;
+import com.woowacamp.storage.global.constant.UploadStatus;
+import com.woowacamp.storage.global.error.ErrorCode;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 크기별 썸네일을 S3에 저장하고 삭제합니다. 크기마다 thumbnailUUID에 ThumbnailSize의 접미사를 붙인 키를 사용합니다.
+ * 다운로드는 ThumbnailCache를 먼저 확인하고, 없을 때만 S3에서 읽어 캐시에 넣습니다.
+ * <p>
+ * 썸네일 기능 이전에 올린 이미지나 썸네일 생성을 포기한 이미지는 thumbnailUUID의 객체가 없습니다.
+ * 이런 썸네일을 요청하면 원본으로 바로 만들어서 저장하고 응답합니다.
+ * 같은 파일의 썸네일을 동시에 요청해도 원본은 한 번만 디코딩하도록 파일마다 진행 중인 생성 작업을 공유합니다.
+ */
+@Service
+@Slf4j
+public class ThumbnailStorage {
+
+	private final AmazonS3 amazonS3;
+	private final ThumbnailCache thumbnailCache;
+	private final FileMetadataRepository fileMetadataRepository;
+	// thumbnailUUID별로 진행 중인 썸네일 생성 작업
+	private final Map<String, CompletableFuture<Map<ThumbnailSize, byte[]>>> inFlight = new ConcurrentHashMap<>();
+	private final Counter generatedCounter;
+	private final Counter joinedCounter;
+
+	@Value("${cloud.aws.credentials.bucketName}")
+	private String BUCKET_NAME;
+
+	public ThumbnailStorage(AmazonS3 amazonS3, ThumbnailCache thumbnailCache,
+		FileMetadataRepository fileMetadataRepository, MeterRegistry meterRegistry) {
+		this.amazonS3 = amazonS3;
+		this.thumbnailCache = thumbnailCache;
+		this.fileMetadataRepository = fileMetadataRepository;
+		this.generatedCounter = Counter.builder("thumbnail.generated")
+			.description("원본을 디코딩해서 썸네일을 만든 횟수")
+			.register(meterRegistry);
+		this.joinedCounter = Counter.builder("thumbnail.generated.joined")
+			.description("같은 파일의 썸네일 생성이 이미 진행 중이라 그 결과를 기다린 횟수")
+			.register(meterRegistry);
+	}
+
+	/**
+	 * 썸네일은 100KB 안팎이라 스트림 대신 바이트 배열로 읽어서 캐시에 그대로 넣습니다.
+	 * S3에 썸네일이 없으면 업로드가 끝난 이미지에 한해 원본으로 만들어서 응답합니다.
+	 * 썸네일 작업이 이미 FAILED로 남긴 파일은 디코딩할 수 없는 원본이므로 다시 만들지 않습니다.
+	 */
+	public byte[] read(FileMetadata fileMetadata, ThumbnailSize size) {
+		String thumbnailUUID = fileMetadata.getThumbnailUUID();
+		if (thumbnailUUID == null) {
+			throw ErrorCode.FILE_NOT_FOUND.baseException();
+		}
+		String key = size.objectKey(thumbnailUUID);
+		byte[] thumbnail = thumbnailCache.get(key);
+		if (thumbnail != null) {
+			return thumbnail;
+		}
+		try (S3Object s3Object = amazonS3.getObject(BUCKET_NAME, key)) {
+			thumbnail = s3Object.getObjectContent().readAllBytes();
+		} catch (AmazonS3Exception e) {
+			if (e.getStatusCode() != HttpStatus.NOT_FOUND.value()
+				|| fileMetadata.getUploadStatus() != UploadStatus.SUCCESS
+				|| fileMetadata.getThumbnailStatus() == ThumbnailStatus.FAILED) {
+				throw ErrorCode.FILE_NOT_FOUND.baseException();
+			}
+			thumbnail = generateOnDemand(fileMetadata).get(size);
+		} catch (AmazonClientException | IOException e) {
+			throw ErrorCode.FILE_NOT_FOUND.baseException();
+		}
+		thumbnailCache.put(key, thumbnail);
+		return thumbnail;
+	}
+
+	/**
+	 * 원본을 한 번 디코딩해서 모든 크기의 썸네일을 만들고 저장한 뒤 썸네일 상태를 READY로 바꿉니다.
+	 * 같은 파일의 생성 작업이 진행 중이면 새로 디코딩하지 않고 그 결과를 기다립니다.
+	 *
+	 * @throws IOException - 원본이 이미지가 아니거나 디코딩하지 못한 경우
+	 */
+	public Map<ThumbnailSize, byte[]> generate(FileMetadata fileMetadata) throws IOException {
+		CompletableFuture<Map<ThumbnailSize, byte[]>> created = new CompletableFuture<>();
+		CompletableFuture<Map<ThumbnailSize, byte[]>> running = inFlight.putIfAbsent(fileMetadata.getThumbnailUUID(),
+			created);
+		if (running != null) {
+			joinedCounter.increment();
+			try {
+				return running.join();
+			} catch (CompletionException e) {
+				if (e.getCause() instanceof UncheckedIOException uncheckedIOException) {
+					throw uncheckedIOException.getCause();
+				}
+				throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : e;
+			}
+		}
+		try {
+			Map<ThumbnailSize, byte[]> thumbnails = renderFromOriginal(fileMetadata);
+			created.complete(thumbnails);
+			return thumbnails;
+		} catch (IOException e) {
+			created.completeExceptionally(new UncheckedIOException(e));
+			throw e;
+		} catch (RuntimeException e) {
+			created.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlight.remove(fileMetadata.getThumbnailUUID(), created);
+		}
+	}
+
+	/**
+	 * 다시 만든 썸네일이 이전 캐시에 가려지지 않도록 저장한 뒤 캐시를 비웁니다.
+	 */
+	public void putAll(String thumbnailUUID, String imageFormat, Map<ThumbnailSize, byte[]> thumbnails) {
+		thumbnails.forEach((size, thumbnail) -> {
+			ObjectMetadata metadata = new ObjectMetadata();
+			metadata.setContentType("image/" + imageFormat);
+			metadata.setContentLength(thumbnail.length);
+			amazonS3.putObject(BUCKET_NAME, size.objectKey(thumbnailUUID), new ByteArrayInputStream(thumbnail),
+				metadata);
+		});
+		thumbnailCache.invalidate(thumbnailUUID);
+	}
+
+	/**
+	 * 모든 크기의 썸네일을 캐시와 S3에서 삭제합니다. 만들지 못한 크기가 있어도 실패하지 않습니다.
+	 */
+	public void deleteAll(String thumbnailUUID) {
+		thumbnailCache.invalidate(thumbnailUUID);
+		String[] keys = Arrays.stream(ThumbnailSize.values())
+			.map(size -> size.objectKey(thumbnailUUID))
+			.toArray(String[]::new);
+		amazonS3.deleteObjects(new DeleteObjectsRequest(BUCKET_NAME).withKeys(keys).withQuiet(true));
+	}
+
+	private Map<ThumbnailSize, byte[]> generateOnDemand(FileMetadata fileMetadata) {
+		try {
+			return generate(fileMetadata);
+		} catch (IOException | AmazonClientException e) {
+			log.warn("[Thumbnail Generate Failed] file: {}, message: {}", fileMetadata.getUuidFileName(),
+				e.getMessage());
+			throw ErrorCode.FILE_NOT_FOUND.baseException();
+		}
+	}
+
+	/**
+	 * 원본의 Content-Type으로 썸네일 형식을 정합니다. 스풀 모드에서 원본이 아직 S3에 없으면 예외가 발생합니다.
+	 */
+	private Map<ThumbnailSize, byte[]> renderFromOriginal(FileMetadata fileMetadata) throws IOException {
+		Map<ThumbnailSize, byte[]> thumbnails;
+		String imageFormat;
+		try (S3Object s3Object = amazonS3.getObject(BUCKET_NAME, fileMetadata.getStorageKey())) {
+			String contentType = s3Object.getObjectMetadata().getContentType();
+			if (contentType == null || !contentType.startsWith("image/")) {
+				throw new IOException("Not an image: " + contentType);
+			}
+			imageFormat = contentType.substring(6);
+			thumbnails = ThumbnailRenderer.render(s3Object.getObjectContent(), imageFormat);
+		}
+		generatedCounter.increment();
+		putAll(fileMetadata.getThumbnailUUID(), imageFormat, thumbnails);
+		fileMetadataRepository.updateThumbnailStatus(fileMetadata.getId(), ThumbnailStatus.READY);
+		return thumbnails;
+	}
+}
@@ -1,30 +1,25 @@
 package com.woowacamp.storage.domain.file.service;
 
 import static com.woowacamp.storage.global.constant.CommonConstant.*;
-import static java.awt.image.BufferedImage.*;
 
-import java.awt.*;
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.util.Iterator;
+import java.io.InputStream;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
-import javax.imageio.ImageIO;
-import javax.imageio.ImageReadParam;
-import javax.imageio.ImageReader;
-import javax.imageio.stream.ImageInputStream;
-
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import com.amazonaws.services.s3.AmazonS3;
-import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.woowacamp.storage.domain.file.dto.UploadContext;
+import com.woowacamp.storage.domain.file.repository.FileMetadataRepository;
+import com.woowacamp.storage.domain.file.util.SpscByteRingBuffer;
+import com.woowacamp.storage.domain.file.util.ThumbnailRenderer;
+import com.woowacamp.storage.global.constant.ThumbnailSize;
+import com.woowacamp.storage.global.constant.ThumbnailStatus;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -32,22 +27,30 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class ThumbnailWriterThreadPool {
 
-	private final AmazonS3 amazonS3;
+	private final UploadMetrics uploadMetrics;
+	private final ThumbnailJobService thumbnailJobService;
+	private final FileMetadataRepository fileMetadataRepository;
+	private final ThumbnailStorage thumbnailStorage;
 	private final ExecutorService executorService;
-
-	@Value("${cloud.aws.credentials.bucketName}")
-	private String BUCKET_NAME;
+	private final int thumbnailBufferSize;
 
 	/**
-	 * MAX_POOL_SIZE는 톰캣 커넥션 풀 스레드 개수와 동일하게 설정합니다.
-	 * MAX_POOL_SIZE가 톰캣 커넥션 풀 스레드 개수보다 작다면 썸네일을 생성하는 작업이 blocking 돼서 PipedOutputStream이 오버플로우 될 수도 있습니다.
-	 * 어짜피 파일 업로드와 썸네일 생성은 1:1로 동작하기 때문에 SynchronousQueue로 큐에 작업이 전달되자마자 스레드가 작업을 받아서 처리하도록 했습니다.
+	 * 파일 업로드와 썸네일 생성은 1:1로 동작하기 때문에 SynchronousQueue로 큐에 작업이 전달되자마자 스레드가 작업을 받아서 처리하도록 했습니다.
+	 * 업로드 스레드는 SpscByteRingBuffer에 이미지 데이터를 넘기기만 하고 썸네일 스레드를 기다리지 않습니다.
+	 * file.thumbnail.bufferSize는 썸네일 스레드가 처리하지 못한 데이터를 얼마나 쌓아둘 수 있는지 정합니다.
+	 * 여기서 만들지 못한 썸네일은 ThumbnailJobService가 업로드가 끝난 원본으로 다시 만듭니다.
 	 */
-	public ThumbnailWriterThreadPool(AmazonS3 amazonS3) {
-		this.amazonS3 = amazonS3;
+	public ThumbnailWriterThreadPool(UploadMetrics uploadMetrics, ThumbnailJobService thumbnailJobService,
+		FileMetadataRepository fileMetadataRepository, ThumbnailStorage thumbnailStorage,
+		@Value("${file.thumbnail.bufferSize:1048576}") int thumbnailBufferSize) {
+		this.uploadMetrics = uploadMetrics;
+		this.thumbnailJobService = thumbnailJobService;
+		this.fileMetadataRepository = fileMetadataRepository;
+		this.thumbnailStorage = thumbnailStorage;
+		this.thumbnailBufferSize = thumbnailBufferSize;
 		executorService = new ThreadPoolExecutor(
 			THUMBNAIL_WRITER_CORE_POOL_SIZE,
-			THUMBNAIL_WRITER_MAXIMUM_POOL_SIZE, // TODO: 톰캣 커넥션 풀 스레드 개수랑 맞춰야함
+			THUMBNAIL_WRITER_MAXIMUM_POOL_SIZE,
 			THUMBNAIL_WRITER_KEEP_ALIVE_TIME,
 			TimeUnit.SECONDS,
 			new SynchronousQueue<>()
@@ -55,65 +58,63 @@ public class ThumbnailWriterThreadPool {
 	}
 
 	/**
-	 * PipedInputStream을 파라미터로 전달 받습니다.
-	 * 전달받은 스트림으로 ImageReader 객체를 만들어 BufferedImage 객체를 생성합니다.
-	 * 원본 이미지의 종횡비를 이용해 썸네일 파일의 높이와 넓이를 구합니다.
-	 * 이후 원본 이미지로 썸네일 이미지를 생성합니다.
+	 * 이미지 파일마다 썸네일 스레드에 데이터를 넘길 버퍼를 만듭니다.
 	 */
-	public void createThumbnail(UploadContext context) {
-		executorService.execute(() -> {
-			ImageReader reader = null;
-			try (ImageInputStream iis = ImageIO.createImageInputStream(context.getPis());
-				 ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-				Iterator<ImageReader> iter = ImageIO.getImageReaders(iis);
-				if (!iter.hasNext()) {
-					throw new RuntimeException("No image readers found");
-				}
-				reader = iter.next();
-				reader.setInput(iis, true, true);
-
-				// 썸네일은 1MB 고정
-				int width = reader.getWidth(0);
-				int height = reader.getHeight(0);
-				double rate = (double)width / height;
+	public SpscByteRingBuffer newThumbnailBuffer() {
+		return new SpscByteRingBuffer(thumbnailBufferSize);
+	}
 
-				int thumbnailSize = Math.min(THUMBNAIL_SIZE / 3, width * height);
-				int thumbnailHeight = (int)Math.sqrt(thumbnailSize / rate);
-				int thumbnailWidth = (int)(thumbnailHeight * rate);
+	/**
+	 * 업로드 스레드에서 이미지 데이터를 썸네일 버퍼로 넘기고, 첫 데이터를 넘길 때 썸네일 작업을 시작합니다.
+	 * 업로드 스레드는 대기하지 않습니다. 버퍼가 가득 찼거나 썸네일 스레드가 없으면 썸네일 작업 큐로 넘깁니다.
+	 */
+	public void feed(UploadContext context, byte[] buffer, int offset, int length) {
+		if (context.getImageFormat() == null || context.isAbortedCreateThumbnail()) {
+			return;
+		}
+		if (!context.getThumbnailBuffer().offer(buffer, offset, length)) {
+			uploadMetrics.countThumbnailDropped();
+			deferToJob(context);
+			return;
+		}
+		if (context.isStartedCreatedThumbnail()) {
+			return;
+		}
+		context.updateStartedCreatedThumbnail();
+		try {
+			createThumbnail(context);
+		} catch (RejectedExecutionException e) {
+			log.warn("[Thumbnail Rejected] file: {}", context.getFileMetadata().uuid());
+			uploadMetrics.countThumbnailDropped();
+			deferToJob(context);
+		}
+	}
 
-				// 썸네일 비율 계산
-				double scale = (double)thumbnailWidth / width;
-				// ImageReadParam 설정
-				ImageReadParam param = reader.getDefaultReadParam();
-				param.setSourceSubsampling((int)(1 / scale), (int)(1 / scale), 0, 0);
-				// 썸네일 이미지 읽기
-				BufferedImage thumbnailImage = reader.read(0, param);
-				// 정확한 크기로 조정
-				BufferedImage finalThumbnail = new BufferedImage(thumbnailWidth, thumbnailHeight, TYPE_INT_RGB);
-				Graphics2D g2d = finalThumbnail.createGraphics();
-				g2d.drawImage(thumbnailImage, 0, 0, thumbnailWidth, thumbnailHeight, null);
-				g2d.dispose();
+	/**
+	 * 업로드 스레드와 썸네일 스레드가 동시에 실패해도 작업은 한 번만 등록합니다.
+	 * 업로드 자체가 실패한 파일은 작업 큐에서 메타데이터를 확인하고 버립니다.
+	 */
+	private void deferToJob(UploadContext context) {
+		if (context.abortCreateThumbnail()) {
+			thumbnailJobService.enqueue(context.getFileMetadata());
+		}
+	}
 
-				// finalThumbnail에 imageFormat 형태로 write
-				ImageIO.write(finalThumbnail, context.getImageFormat(), baos);
-				ObjectMetadata metadata = new ObjectMetadata();
-				metadata.setContentType("image/" + context.getImageFormat());
-				byte[] byteArray = baos.toByteArray();
-				metadata.setContentLength(byteArray.length);
-				amazonS3.putObject(BUCKET_NAME, context.getFileMetadata().thumbnailUUID(),
-					new ByteArrayInputStream(byteArray), metadata);
+	/**
+	 * 썸네일 버퍼의 스트림을 한 번 디코딩해서 크기별 썸네일을 만들어 S3에 저장하고 썸네일 상태를 READY로 바꿉니다.
+	 */
+	private void createThumbnail(UploadContext context) {
+		SpscByteRingBuffer thumbnailBuffer = context.getThumbnailBuffer();
+		executorService.execute(() -> {
+			try (InputStream inputStream = thumbnailBuffer.getInputStream()) {
+				Map<ThumbnailSize, byte[]> thumbnails = ThumbnailRenderer.render(inputStream,
+					context.getImageFormat());
+				thumbnailStorage.putAll(context.getFileMetadata().thumbnailUUID(), context.getImageFormat(),
+					thumbnails);
+				fileMetadataRepository.updateThumbnailStatus(context.getFileMetadata().metadataId(),
+					ThumbnailStatus.READY);
 			} catch (RuntimeException | IOException e) {
-				context.abortCreateThumbnail();
-				try {
-					context.getPis().close();
-					context.getPos().close();
-				} catch (IOException ex) {
-					throw new RuntimeException(ex);
-				}
-			} finally {
-				if (reader != null) {
-					reader.dispose();
-				}
+				deferToJob(context);
 			}
 		});
 	}
@@ -0,0 +1,185 @@
+package com.woowacamp.storage.domain.file.service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Service;
+
+import com.woowacamp.storage.global.constant.UploadApi;
+import com.woowacamp.storage.global.constant.UploadStage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+
+/**
+ * 업로드 경로에서 사용하는 지표를 모아둔 컴포넌트입니다.
+ * upload.stage 타이머는 단계(stage)와 API 버전(version)으로 태그를 붙이고, 히스토그램을 함께 내보내서
+ * Prometheus에서 단계별 분위수를 구할 수 있습니다. upload.bytes 카운터의 rate가 버전별 초당 업로드 바이트입니다.
+ * 태그 조합은 많지 않아서 생성자에서 모두 만들어두고, 업로드 중에는 미터 레지스트리를 조회하지 않습니다.
+ */
+@Service
+public class UploadMetrics {
+
+	private final DistributionSummary partSizeSummary;
+	private final DistributionSummary expectedPartCountSummary;
+	private final Counter singleUploadCounter;
+	private final Counter multipartUploadCounter;
+	private final Counter resumableUploadCounter;
+	private final Timer partLatencyTimer;
+	private final Counter retryCounter;
+	private final Counter retryExhaustedCounter;
+	private final Counter hedgeCounter;
+	private final Counter hedgeWinCounter;
+	private final Counter dedupCounter;
+	private final Counter dedupBytesCounter;
+	private final Counter thumbnailDroppedCounter;
+	private final Map<UploadApi, Map<UploadStage, Timer>> stageTimers = new EnumMap<>(UploadApi.class);
+	private final Map<UploadApi, Counter> uploadBytesCounters = new EnumMap<>(UploadApi.class);
+
+	public UploadMetrics(MeterRegistry meterRegistry) {
+		this.partSizeSummary = DistributionSummary.builder("upload.part.size")
+			.description("업로드마다 선택된 part 크기")
+			.baseUnit("bytes")
+			.register(meterRegistry);
+		this.expectedPartCountSummary = DistributionSummary.builder("upload.part.expected.count")
+			.description("선언된 파일 크기와 선택된 part 크기로 계산한 part 개수")
+			.register(meterRegistry);
+		this.singleUploadCounter = uploadPathCounter(meterRegistry, "single");
+		this.multipartUploadCounter = uploadPathCounter(meterRegistry, "multipart");
+		this.resumableUploadCounter = uploadPathCounter(meterRegistry, "resumable");
+		this.partLatencyTimer = Timer.builder("upload.part.latency")
+			.description("성공한 uploadPart 요청 한 번의 응답 시간")
+			.publishPercentiles(0.99)
+			.register(meterRegistry);
+		this.retryCounter = Counter.builder("upload.part.retry")
+			.description("실패한 uploadPart를 다시 요청한 횟수")
+			.register(meterRegistry);
+		this.retryExhaustedCounter = Counter.builder("upload.part.retry.exhausted")
+			.description("재시도 횟수나 업로드별 재시도 예산을 모두 사용해 실패한 part 수")
+			.register(meterRegistry);
+		this.hedgeCounter = Counter.builder("upload.part.hedge")
+			.description("p99 응답 시간을 넘겨 같은 part를 한 번 더 요청한 횟수")
+			.register(meterRegistry);
+		this.hedgeWinCounter = Counter.builder("upload.part.hedge.win")
+			.description("추가 요청이 먼저 성공한 횟수")
+			.register(meterRegistry);
+		this.dedupCounter = Counter.builder("upload.dedup")
+			.description("같은 내용의 객체가 이미 있어서 새로 올린 객체를 지운 횟수")
+			.register(meterRegistry);
+		this.dedupBytesCounter = Counter.builder("upload.dedup.saved")
+			.description("중복 제거로 S3에 저장하지 않게 된 데이터 크기")
+			.baseUnit("bytes")
+			.register(meterRegistry);
+		this.thumbnailDroppedCounter = Counter.builder("thumbnail.dropped")
+			.description("썸네일 버퍼가 가득 찼거나 썸네일 스레드가 없어서 썸네일 생성을 포기한 파일 수")
+			.register(meterRegistry);
+		for (UploadApi api : UploadApi.values()) {
+			Map<UploadStage, Timer> timers = new EnumMap<>(UploadStage.class);
+			for (UploadStage stage : UploadStage.values()) {
+				timers.put(stage, Timer.builder("upload.stage")
+					.description("업로드 단계별 소요 시간")
+					.tag("version", api.getTagValue())
+					.tag("stage", stage.getTagValue())
+					.publishPercentileHistogram()
+					.register(meterRegistry));
+			}
+			stageTimers.put(api, timers);
+			uploadBytesCounters.put(api, Counter.builder("upload.bytes")
+				.description("요청에서 읽은 파일 데이터 크기")
+				.tag("version", api.getTagValue())
+				.baseUnit("bytes")
+				.register(meterRegistry));
+		}
+	}
+
+	/**
+	 * startNanos는 System.nanoTime()으로 잰 단계 시작 시각입니다.
+	 */
+	public void recordStage(UploadApi api, UploadStage stage, long startNanos) {
+		stageTimers.get(api).get(stage).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+	}
+
+	public void countUploadBytes(UploadApi api, int bytes) {
+		uploadBytesCounters.get(api).increment(bytes);
+	}
+
+	public void recordPartSize(int partSize, long expectedPartCount) {
+		partSizeSummary.record(partSize);
+		expectedPartCountSummary.record(expectedPartCount);
+	}
+
+	/**
+	 * 첫 part를 채우기 전에 파일이 끝나 putObject 한 번으로 업로드한 경우
+	 */
+	public void countSingleUpload() {
+		singleUploadCounter.increment();
+	}
+
+	/**
+	 * multipart upload를 시작한 경우
+	 */
+	public void countMultipartUpload() {
+		multipartUploadCounter.increment();
+	}
+
+	/**
+	 * 이어 올리기 세션을 만든 경우
+	 */
+	public void countResumableUpload() {
+		resumableUploadCounter.increment();
+	}
+
+	public void recordPartLatency(long nanos) {
+		partLatencyTimer.record(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * @return - 최근 uploadPart 응답 시간의 p99. 표본이 minSamples보다 적으면 -1
+	 */
+	public long partLatencyP99Millis(long minSamples) {
+		if (partLatencyTimer.count() < minSamples) {
+			return -1;
+		}
+		ValueAtPercentile[] percentiles = partLatencyTimer.takeSnapshot().percentileValues();
+		if (percentiles.length == 0) {
+			return -1;
+		}
+		return (long)percentiles[0].value(TimeUnit.MILLISECONDS);
+	}
+
+	public void countRetry() {
+		retryCounter.increment();
+	}
+
+	public void countRetryExhausted() {
+		retryExhaustedCounter.increment();
+	}
+
+	public void countHedge() {
+		hedgeCounter.increment();
+	}
+
+	public void countHedgeWin() {
+		hedgeWinCounter.increment();
+	}
+
+	public void countDeduplicated(long fileSize) {
+		dedupCounter.increment();
+		dedupBytesCounter.increment(fileSize);
+	}
+
+	public void countThumbnailDropped() {
+		thumbnailDroppedCounter.increment();
+	}
+
+	private Counter uploadPathCounter(MeterRegistry meterRegistry, String path) {
+		return Counter.builder("upload.path")
+			.description("S3 업로드 방식별 업로드 횟수")
+			.tag("path", path)
+			.register(meterRegistry);
+	}
+}
@@ -0,0 +1,50 @@
+package com.woowacamp.storage.domain.file.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Service;
+
+import com.woowacamp.storage.domain.file.dto.RetryBudget;
+import com.woowacamp.storage.domain.file.dto.UploadSession;
+import com.woowacamp.storage.global.constant.UploadApi;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 진행 중인 multipart upload 세션을 업로드 파일 이름(uuid)으로 관리합니다.
+ * 요청 스레드와 쓰기 작업 스레드가 동시에 접근하므로 ConcurrentHashMap을 사용합니다.
+ */
+@Service
+public class UploadSessionRegistry {
+
+	private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+	public UploadSessionRegistry(MeterRegistry meterRegistry) {
+		Gauge.builder("upload.session.active", sessions, Map::size)
+			.description("진행 중인 multipart upload 세션 개수")
+			.register(meterRegistry);
+	}
+
+	public UploadSession open(String key, String uploadId, RetryBudget retryBudget, UploadApi api) {
+		UploadSession session = new UploadSession(key, uploadId, retryBudget, api);
+		sessions.put(key, session);
+		return session;
+	}
+
+	/**
+	 * @return - 세션이 없거나 이미 끝난 경우 null
+	 */
+	public UploadSession get(String key) {
+		return sessions.get(key);
+	}
+
+	public void close(String key) {
+		sessions.remove(key);
+	}
+
+	public int getActiveSessionCount() {
+		return sessions.size();
+	}
+}
@@ -0,0 +1,436 @@
+package com.woowacamp.storage.domain.file.service;
+
+import static com.woowacamp.storage.global.constant.CommonConstant.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.woowacamp.storage.domain.file.dto.ByteRange;
+import com.woowacamp.storage.domain.file.dto.FileMetadataDto;
+import com.woowacamp.storage.domain.file.dto.RetryBudget;
+import com.woowacamp.storage.domain.file.dto.SpoolFile;
+import com.woowacamp.storage.domain.file.entity.FileMetadata;
+import com.woowacamp.storage.domain.file.repository.FileMetadataRepository;
+import com.woowacamp.storage.domain.file.util.BoundedInputStream;
+import com.woowacamp.storage.global.constant.UploadStatus;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * S3가 느릴 때 업로드 본문을 로컬 디스크에 먼저 쓰고 바로 응답하는 스풀 모드입니다. file.upload.spool.enabled로 켭니다.
+ * <p>
+ * 요청 스레드는 파일 본문을 {key}.spool 파일에 순서대로 쓰고, 끝나면 디스크에 기록된 것을 확인한 뒤 {key}.ready 매니페스트를 남깁니다.
+ * 메타데이터를 갱신한 이후 drain을 호출하면 drainer 스레드가 스풀 파일을 S3로 옮기고 로컬 파일을 지웁니다.
+ * S3 업로드가 실패하면 잠시 뒤에 다시 시도하고, SPOOL_DRAIN_MAX_ATTEMPTS번 모두 실패한 파일만 FAIL로 바꿉니다.
+ * <p>
+ * 스풀 파일은 capacityBytes 안에서만 만들고, 예산이 부족하면 open이 null을 반환해서 기존처럼 S3로 바로 업로드합니다.
+ * 서버가 다시 시작되면 매니페스트가 있는 파일은 다시 drain하고, 매니페스트가 없는 파일은 응답하지 못한 업로드이므로 지웁니다.
+ * S3로 옮기는 동안 들어온 다운로드 요청은 openSpooled로 스풀 파일에서 읽습니다.
+ */
+@Service
+@Slf4j
+public class UploadSpool {
+
+	private static final String DATA_SUFFIX = ".spool";
+	private static final String MANIFEST_SUFFIX = ".ready";
+	private static final int SPOOL_DRAIN_MAX_ATTEMPTS = 10;
+	private static final long SPOOL_DRAIN_RETRY_DELAY_SECONDS = 30;
+
+	private final boolean enabled;
+	private final Path directory;
+	private final long capacityBytes;
+	private final int drainerThreads;
+	private final AmazonS3 amazonS3;
+	private final FileMetadataRepository fileMetadataRepository;
+	private final PartUploadRetryPolicy partUploadRetryPolicy;
+	private final ContentBlobService contentBlobService;
+	private final AtomicLong reservedBytes = new AtomicLong();
+	// S3로 옮기기를 기다리는 스풀 파일. 다운로드 요청이 스풀 파일에서 읽을 수 있는지 확인할 때 사용한다.
+	private final Map<String, Path> spooledFiles = new ConcurrentHashMap<>();
+	private final Counter drainedCounter;
+	private final Counter drainFailedCounter;
+	private final Counter rejectedCounter;
+	private ScheduledExecutorService drainer;
+
+	@Value("${cloud.aws.credentials.bucketName}")
+	private String BUCKET_NAME;
+
+	public UploadSpool(@Value("${file.upload.spool.enabled:false}") boolean enabled,
+		@Value("${file.upload.spool.directory:${java.io.tmpdir}/my-storage-spool}") String directory,
+		@Value("${file.upload.spool.capacityBytes:10737418240}") long capacityBytes,
+		@Value("${file.upload.spool.drainerThreads:2}") int drainerThreads,
+		AmazonS3 amazonS3, FileMetadataRepository fileMetadataRepository,
+		PartUploadRetryPolicy partUploadRetryPolicy, ContentBlobService contentBlobService,
+		MeterRegistry meterRegistry) {
+		this.enabled = enabled;
+		this.directory = Path.of(directory);
+		this.capacityBytes = capacityBytes;
+		this.drainerThreads = drainerThreads;
+		this.amazonS3 = amazonS3;
+		this.fileMetadataRepository = fileMetadataRepository;
+		this.partUploadRetryPolicy = partUploadRetryPolicy;
+		this.contentBlobService = contentBlobService;
+		Gauge.builder("upload.spool.reserved.bytes", reservedBytes, AtomicLong::get)
+			.description("스풀 파일이 예약한 디스크 용량")
+			.baseUnit("bytes")
+			.register(meterRegistry);
+		Gauge.builder("upload.spool.files", spooledFiles, Map::size)
+			.description("S3로 옮기기를 기다리는 스풀 파일 개수")
+			.register(meterRegistry);
+		this.drainedCounter = Counter.builder("upload.spool.drained")
+			.description("S3로 옮긴 스풀 파일 수")
+			.register(meterRegistry);
+		this.drainFailedCounter = Counter.builder("upload.spool.drain.failed")
+			.description("S3로 옮기지 못해서 FAIL로 바꾼 스풀 파일 수")
+			.register(meterRegistry);
+		this.rejectedCounter = Counter.builder("upload.spool.rejected")
+			.description("스풀 용량이 부족해서 S3로 바로 업로드한 파일 수")
+			.register(meterRegistry);
+	}
+
+	@PostConstruct
+	public void init() throws IOException {
+		if (!enabled) {
+			return;
+		}
+		Files.createDirectories(directory);
+		drainer = Executors.newScheduledThreadPool(drainerThreads);
+		recover();
+		log.info("upload spool: {}, capacity: {} bytes", directory, capacityBytes);
+	}
+
+	/**
+	 * 기다리고 있는 drain 작업은 매니페스트가 남아있으므로 다시 시작할 때 이어서 처리합니다.
+	 */
+	@PreDestroy
+	public void shutdown() {
+		if (drainer != null) {
+			drainer.shutdownNow();
+		}
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * 선언된 파일 크기만큼 스풀 용량을 예약하고 스풀 파일을 만듭니다.
+	 *
+	 * @return - 스풀 모드가 꺼져 있거나 용량이 부족하면 null
+	 */
+	public SpoolFile open(String key, long declaredFileSize) {
+		if (!enabled) {
+			return null;
+		}
+		if (!reserve(declaredFileSize)) {
+			rejectedCounter.increment();
+			return null;
+		}
+		try {
+			return new SpoolFile(key, dataPath(key), declaredFileSize);
+		} catch (IOException e) {
+			log.warn("[Spool Open Failed] key: {}, message: {}", key, e.getMessage());
+			reservedBytes.addAndGet(-declaredFileSize);
+			return null;
+		}
+	}
+
+	/**
+	 * 스풀 파일을 디스크에 기록하고 매니페스트를 남깁니다. 이 메소드가 끝난 이후에 클라이언트에 응답해야 합니다.
+	 * 매니페스트는 임시 파일에 쓴 뒤 이름을 바꿔서, 서버가 죽더라도 완전한 매니페스트만 남게 합니다.
+	 */
+	public void commit(SpoolFile spoolFile, String contentType, String contentHash) throws IOException {
+		spoolFile.flushAndClose();
+		Properties manifest = new Properties();
+		manifest.setProperty("contentType", contentType == null ? "application/octet-stream" : contentType);
+		manifest.setProperty("fileSize", Long.toString(spoolFile.getSize()));
+		if (contentHash != null) {
+			manifest.setProperty("contentHash", contentHash);
+		}
+		Path temporary = directory.resolve(spoolFile.getKey() + MANIFEST_SUFFIX + ".tmp");
+		try (OutputStream outputStream = Files.newOutputStream(temporary)) {
+			manifest.store(outputStream, null);
+		}
+		Files.move(temporary, manifestPath(spoolFile.getKey()), StandardCopyOption.ATOMIC_MOVE);
+		// 파일 크기 검사를 통과한 파일만 commit하므로 예약한 크기와 실제 크기가 같다.
+		spooledFiles.put(spoolFile.getKey(), spoolFile.getDataPath());
+	}
+
+	/**
+	 * commit한 스풀 파일을 S3로 옮기도록 drainer에 넘깁니다. 메타데이터를 SUCCESS로 갱신한 이후에 호출해야 합니다.
+	 */
+	public void drain(String key) {
+		drainer.execute(() -> drainWithRetry(key, 1));
+	}
+
+	/**
+	 * commit하지 못한 스풀 파일을 지우고 예약한 용량을 반납합니다.
+	 */
+	public void abort(SpoolFile spoolFile) {
+		spoolFile.closeQuietly();
+		discard(spoolFile.getKey(), spoolFile.getReservedBytes());
+	}
+
+	/**
+	 * 아직 S3로 옮기지 못한 파일이면 스풀 파일을 엽니다.
+	 * 열고 나서 drainer가 파일을 지우더라도 이미 연 스트림은 끝까지 읽을 수 있습니다.
+	 *
+	 * @return - 스풀 파일이 없으면 null
+	 */
+	public InputStream openSpooled(String key) {
+		Path dataPath = spooledFiles.get(key);
+		if (dataPath == null) {
+			return null;
+		}
+		try {
+			return Files.newInputStream(dataPath);
+		} catch (NoSuchFileException e) {
+			return null;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * 아직 S3로 옮기지 못한 파일이면 스풀 파일에서 range 구간만 읽는 스트림을 엽니다.
+	 *
+	 * @return - 스풀 파일이 없으면 null
+	 */
+	public InputStream openSpooled(String key, ByteRange range) {
+		Path dataPath = spooledFiles.get(key);
+		if (dataPath == null) {
+			return null;
+		}
+		try {
+			SeekableByteChannel channel = Files.newByteChannel(dataPath);
+			try {
+				channel.position(range.start());
+			} catch (IOException e) {
+				channel.close();
+				throw e;
+			}
+			return new BoundedInputStream(Channels.newInputStream(channel), range.length());
+		} catch (NoSuchFileException e) {
+			return null;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * S3뿐 아니라 메타데이터 조회나 manifest 파싱에서 난 예외도 재시도합니다.
+	 * 예외가 drainer 밖으로 나가면 다시 예약되지 않아 스풀 파일과 예약한 용량이 남습니다.
+	 */
+	private void drainWithRetry(String key, int attempt) {
+		try {
+			drainToS3(key);
+			drainedCounter.increment();
+		} catch (RuntimeException | IOException e) {
+			if (attempt < SPOOL_DRAIN_MAX_ATTEMPTS) {
+				log.warn("[Spool Drain Retry] key: {}, attempt: {}, message: {}", key, attempt, e.getMessage());
+				drainer.schedule(() -> drainWithRetry(key, attempt + 1), SPOOL_DRAIN_RETRY_DELAY_SECONDS,
+					TimeUnit.SECONDS);
+				return;
+			}
+			log.error("[Spool Drain Failed] key: {}, message: {}", key, e.getMessage());
+			drainFailedCounter.increment();
+			fileMetadataRepository.updateUploadStatusByUuid(key);
+			discard(key, sizeOf(key));
+		}
+	}
+
+	/**
+	 * 메타데이터가 없거나 SUCCESS가 아니면 이미 삭제됐거나 응답하지 못한 업로드이므로 S3로 옮기지 않고 지웁니다.
+	 * 옮기는 사이에 파일이 삭제되었다면 방금 올린 객체를 지웁니다.
+	 */
+	private void drainToS3(String key) throws IOException {
+		Properties manifest = readManifest(key);
+		long fileSize = Long.parseLong(manifest.getProperty("fileSize"));
+		Optional<FileMetadata> fileMetadata = fileMetadataRepository.findByUuidFileName(key);
+		if (fileMetadata.isEmpty() || fileMetadata.get().getUploadStatus() != UploadStatus.SUCCESS) {
+			discard(key, fileSize);
+			return;
+		}
+		ObjectMetadata metadata = new ObjectMetadata();
+		metadata.setContentType(manifest.getProperty("contentType"));
+		metadata.setContentLength(fileSize);
+		String eTag = fileSize > drainPartSize(fileSize) ? uploadMultipart(key, fileSize, metadata)
+			: amazonS3.putObject(new PutObjectRequest(BUCKET_NAME, key, dataPath(key).toFile())
+			.withMetadata(metadata)).getETag();
+		discard(key, fileSize);
+		try {
+			finishDrain(fileMetadata.get(), eTag, manifest.getProperty("contentHash"));
+		} catch (RuntimeException e) {
+			log.warn("[Spool Finish Failed] key: {}, message: {}", key, e.getMessage());
+		}
+	}
+
+	/**
+	 * S3로 옮긴 이후의 작업은 실패해도 업로드는 성공으로 두고 다시 시도하지 않습니다.
+	 */
+	private void finishDrain(FileMetadata fileMetadata, String eTag, String contentHash) {
+		String key = fileMetadata.getUuidFileName();
+		if (!fileMetadataRepository.existsByUuidFileName(key)) {
+			amazonS3.deleteObject(BUCKET_NAME, key);
+			return;
+		}
+		fileMetadataRepository.updateChecksumByUuid(key, eTag);
+		if (contentHash != null) {
+			contentBlobService.register(FileMetadataDto.of(fileMetadata), contentHash);
+		}
+	}
+
+	/**
+	 * 스풀 파일의 구간을 part로 나눠서 올립니다. part마다 파일에서 다시 읽으므로 메모리 버퍼를 사용하지 않습니다.
+	 */
+	private String uploadMultipart(String key, long fileSize, ObjectMetadata metadata) {
+		InitiateMultipartUploadResult initResponse = amazonS3.initiateMultipartUpload(
+			new InitiateMultipartUploadRequest(BUCKET_NAME, key).withObjectMetadata(metadata));
+		try {
+			long partSize = drainPartSize(fileSize);
+			RetryBudget retryBudget = partUploadRetryPolicy.newRetryBudget();
+			List<PartETag> partETags = new ArrayList<>();
+			int partNumber = 1;
+			for (long offset = 0; offset < fileSize; offset += partSize, partNumber++) {
+				UploadPartRequest uploadPartRequest = new UploadPartRequest()
+					.withBucketName(BUCKET_NAME)
+					.withKey(key)
+					.withUploadId(initResponse.getUploadId())
+					.withPartNumber(partNumber)
+					.withFile(dataPath(key).toFile())
+					.withFileOffset(offset)
+					.withPartSize(Math.min(partSize, fileSize - offset));
+				partETags.add(partUploadRetryPolicy.execute(
+					() -> amazonS3.uploadPart(uploadPartRequest).getPartETag(), retryBudget, () -> {
+					}));
+			}
+			return amazonS3.completeMultipartUpload(new CompleteMultipartUploadRequest(BUCKET_NAME, key,
+				initResponse.getUploadId(), partETags)).getETag();
+		} catch (AmazonClientException e) {
+			try {
+				amazonS3.abortMultipartUpload(
+					new AbortMultipartUploadRequest(BUCKET_NAME, key, initResponse.getUploadId()));
+			} catch (AmazonClientException abortException) {
+				log.warn("[Spool Abort Failed] key: {}, message: {}", key, abortException.getMessage());
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * 매니페스트가 있는 파일은 다시 drain하고, 매니페스트가 없는 스풀 파일과 임시 매니페스트는 지웁니다.
+	 * 예약 용량은 이미 디스크에 있는 파일이므로 capacityBytes를 넘더라도 그대로 반영합니다.
+	 */
+	private void recover() throws IOException {
+		List<String> readyKeys = new ArrayList<>();
+		try (DirectoryStream<Path> paths = Files.newDirectoryStream(directory)) {
+			for (Path path : paths) {
+				String fileName = path.getFileName().toString();
+				if (fileName.endsWith(MANIFEST_SUFFIX)) {
+					readyKeys.add(fileName.substring(0, fileName.length() - MANIFEST_SUFFIX.length()));
+				} else if (fileName.endsWith(DATA_SUFFIX)) {
+					String key = fileName.substring(0, fileName.length() - DATA_SUFFIX.length());
+					if (!Files.exists(manifestPath(key))) {
+						Files.deleteIfExists(path);
+					}
+				} else {
+					Files.deleteIfExists(path);
+				}
+			}
+		}
+		for (String key : readyKeys) {
+			reservedBytes.addAndGet(sizeOf(key));
+			spooledFiles.put(key, dataPath(key));
+			drain(key);
+		}
+		if (!readyKeys.isEmpty()) {
+			log.info("[Spool Recovered] files: {}", readyKeys.size());
+		}
+	}
+
+	private boolean reserve(long bytes) {
+		long reserved;
+		while ((reserved = reservedBytes.get()) + bytes <= capacityBytes) {
+			if (reservedBytes.compareAndSet(reserved, reserved + bytes)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void discard(String key, long reserved) {
+		spooledFiles.remove(key);
+		try {
+			Files.deleteIfExists(manifestPath(key));
+			Files.deleteIfExists(dataPath(key));
+		} catch (IOException e) {
+			log.warn("[Spool Delete Failed] key: {}, message: {}", key, e.getMessage());
+		}
+		reservedBytes.addAndGet(-reserved);
+	}
+
+	private long sizeOf(String key) {
+		try {
+			return Files.size(dataPath(key));
+		} catch (IOException e) {
+			return 0;
+		}
+	}
+
+	private Properties readManifest(String key) throws IOException {
+		Properties manifest = new Properties();
+		try (InputStream inputStream = Files.newInputStream(manifestPath(key))) {
+			manifest.load(inputStream);
+		}
+		return manifest;
+	}
+
+	private static long drainPartSize(long fileSize) {
+		return Math.max(SPOOL_DRAIN_MIN_PART_SIZE, (fileSize + S3_MAX_PART_COUNT - 1) / S3_MAX_PART_COUNT);
+	}
+
+	private Path dataPath(String key) {
+		return directory.resolve(key + DATA_SUFFIX);
+	}
+
+	private Path manifestPath(String key) {
+		return directory.resolve(key + MANIFEST_SUFFIX);
+	}
+}
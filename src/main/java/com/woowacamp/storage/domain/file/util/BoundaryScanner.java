@@ -0,0 +1,61 @@
+package com.woowacamp.storage.domain.file.util;
+
+import java.util.Arrays;
+
+/**
+ * byte[] 위에서 boundary 패턴을 찾는 Boyer-Moore-Horspool 스캐너입니다.
+ * 패턴의 마지막 바이트를 기준으로 불일치 시 최대 패턴 길이만큼 건너뛰기 때문에 바이트 단위 비교보다 훨씬 적게 읽습니다.
+ * 후보 위치의 나머지 비교는 Arrays.equals 범위 비교를 사용해 JIT의 벡터화된 intrinsic을 타도록 했습니다.
+ */
+public final class BoundaryScanner {
+
+	private final byte[] pattern;
+	private final int[] shift = new int[256];
+
+	public BoundaryScanner(byte[] pattern) {
+		if (pattern.length == 0) {
+			throw new IllegalArgumentException("pattern must not be empty");
+		}
+		this.pattern = pattern.clone();
+		int last = pattern.length - 1;
+		Arrays.fill(shift, pattern.length);
+		for (int i = 0; i < last; i++) {
+			shift[pattern[i] & 0xff] = last - i;
+		}
+	}
+
+	public int length() {
+		return pattern.length;
+	}
+
+	/**
+	 * data[from, to) 구간에서 패턴이 처음 등장하는 위치를 반환합니다. 없으면 -1을 반환합니다.
+	 */
+	public int indexOf(byte[] data, int from, int to) {
+		int last = pattern.length - 1;
+		byte lastByte = pattern[last];
+		int i = from;
+		while (i + last < to) {
+			byte b = data[i + last];
+			if (b == lastByte && Arrays.equals(data, i, i + last, pattern, 0, last)) {
+				return i;
+			}
+			i += shift[b & 0xff];
+		}
+		return -1;
+	}
+
+	/**
+	 * data[from, to) 의 끝부분이 패턴의 앞부분과 일치하기 시작하는 가장 앞 위치를 반환합니다.
+	 * 다음 버퍼와 이어 붙였을 때 boundary가 될 수 있는 바이트들이므로 호출자는 이 위치부터는 흘려보내지 않고 남겨둬야 합니다.
+	 * 걸치는 부분이 없다면 to를 반환합니다.
+	 */
+	public int partialMatchStart(byte[] data, int from, int to) {
+		for (int k = Math.max(from, to - pattern.length + 1); k < to; k++) {
+			if (Arrays.equals(data, k, to, pattern, 0, to - k)) {
+				return k;
+			}
+		}
+		return to;
+	}
+}
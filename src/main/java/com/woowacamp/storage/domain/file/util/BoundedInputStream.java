@@ -0,0 +1,59 @@
+package com.woowacamp.storage.domain.file.util;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 감싼 스트림에서 최대 limit바이트만 읽습니다. 스풀 파일의 한 구간을 Range 응답으로 보낼 때 사용합니다.
+ */
+public class BoundedInputStream extends FilterInputStream {
+
+	private long remaining;
+
+	public BoundedInputStream(InputStream in, long limit) {
+		super(in);
+		this.remaining = limit;
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (remaining <= 0) {
+			return -1;
+		}
+		int read = super.read();
+		if (read != -1) {
+			remaining--;
+		}
+		return read;
+	}
+
+	@Override
+	public int read(byte[] buffer, int offset, int length) throws IOException {
+		if (remaining <= 0) {
+			return -1;
+		}
+		int read = super.read(buffer, offset, (int)Math.min(length, remaining));
+		if (read > 0) {
+			remaining -= read;
+		}
+		return read;
+	}
+
+	@Override
+	public long skip(long n) throws IOException {
+		long skipped = super.skip(Math.min(n, remaining));
+		remaining -= skipped;
+		return skipped;
+	}
+
+	@Override
+	public int available() throws IOException {
+		return (int)Math.min(super.available(), remaining);
+	}
+
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+}
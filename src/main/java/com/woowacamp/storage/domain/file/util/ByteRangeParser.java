@@ -0,0 +1,92 @@
+package com.woowacamp.storage.domain.file.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.woowacamp.storage.domain.file.dto.ByteRange;
+
+/**
+ * Range 헤더(RFC 9110 14.2)를 파일 크기에 맞춘 ByteRange 목록으로 바꿉니다.
+ * <p>
+ * 형식이 잘못된 헤더는 무시하고 전체 파일로 응답할 수 있도록 null을 반환합니다.
+ * 파일 범위를 벗어난 구간은 빼고, 남는 구간이 없으면 416으로 응답할 수 있도록 빈 목록을 반환합니다.
+ * 작은 구간을 잔뜩 보내서 같은 데이터를 여러 번 읽게 하는 요청을 막기 위해, 구간 수가 MAX_RANGES를 넘거나
+ * 구간 길이의 합이 파일 크기보다 크면 Range를 무시합니다.
+ */
+public class ByteRangeParser {
+
+	private static final String BYTES_UNIT = "bytes=";
+	private static final int MAX_RANGES = 100;
+	private static final long NO_POSITION = -1;
+	private static final long INVALID_POSITION = -2;
+
+	private ByteRangeParser() {
+	}
+
+	/**
+	 * @return - Range를 무시해야 하면 null, 만족하는 구간이 없으면 빈 목록
+	 */
+	public static List<ByteRange> parse(String rangeHeader, long completeLength) {
+		if (rangeHeader == null || !rangeHeader.regionMatches(true, 0, BYTES_UNIT, 0, BYTES_UNIT.length())) {
+			return null;
+		}
+		String[] specs = rangeHeader.substring(BYTES_UNIT.length()).split(",");
+		if (specs.length > MAX_RANGES) {
+			return null;
+		}
+		List<ByteRange> ranges = new ArrayList<>(specs.length);
+		long totalLength = 0;
+		for (String spec : specs) {
+			int dash = spec.indexOf('-');
+			if (dash < 0) {
+				return null;
+			}
+			long first = parsePosition(spec.substring(0, dash));
+			long last = parsePosition(spec.substring(dash + 1));
+			ByteRange range;
+			if (first == NO_POSITION) {
+				// bytes=-500은 마지막 500바이트
+				if (last == NO_POSITION || last == INVALID_POSITION) {
+					return null;
+				}
+				if (last == 0 || completeLength == 0) {
+					continue;
+				}
+				range = new ByteRange(Math.max(0, completeLength - last), completeLength - 1);
+			} else {
+				if (first == INVALID_POSITION || last == INVALID_POSITION || (last != NO_POSITION && last < first)) {
+					return null;
+				}
+				if (first >= completeLength) {
+					continue;
+				}
+				long end = last == NO_POSITION ? completeLength - 1 : Math.min(last, completeLength - 1);
+				range = new ByteRange(first, end);
+			}
+			totalLength += range.length();
+			ranges.add(range);
+		}
+		if (totalLength > completeLength) {
+			return null;
+		}
+		return ranges;
+	}
+
+	private static long parsePosition(String value) {
+		String position = value.strip();
+		if (position.isEmpty()) {
+			return NO_POSITION;
+		}
+		for (int i = 0; i < position.length(); i++) {
+			char c = position.charAt(i);
+			if (c < '0' || c > '9') {
+				return INVALID_POSITION;
+			}
+		}
+		try {
+			return Long.parseLong(position);
+		} catch (NumberFormatException e) {
+			return INVALID_POSITION;
+		}
+	}
+}
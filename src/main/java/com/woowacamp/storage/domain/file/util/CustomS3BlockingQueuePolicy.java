@@ -4,21 +4,32 @@ import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.woowacamp.storage.global.util.LogSampler;
 
 import lombok.extern.slf4j.Slf4j;
 
 /**
- * S3에 파일 쓰기 작업을 하는
+ * S3에 파일 쓰기 작업을 하는 스레드 풀의 큐가 가득 찼을 때, 요청 스레드를 큐에 자리가 생길 때까지 대기시킵니다.
+ * 대기한 횟수는 blockedCount로 세고, 로그는 1초에 한 번만 남깁니다.
  */
 @Slf4j
 public class CustomS3BlockingQueuePolicy implements RejectedExecutionHandler {
 
+	private final LongAdder blockedCount = new LongAdder();
+	private final LogSampler logSampler = new LogSampler(1000);
+
 	@Override
 	public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
 		BlockingQueue<Runnable> queue = executor.getQueue();
+		blockedCount.increment();
 		try {
 			// 큐에 공간이 생길 때까지 무기한 대기
-			log.info("current thread {} is blocked", Thread.currentThread().getName());
+			if (logSampler.tryAcquire()) {
+				log.info("current thread {} is blocked, suppressed: {}", Thread.currentThread().getName(),
+					logSampler.drainSuppressed());
+			}
 			queue.put(runnable);
 		} catch (InterruptedException e) {
 			// 인터럽트 발생 시 현재 스레드의 인터럽트 상태를 설정
@@ -26,4 +37,8 @@ public class CustomS3BlockingQueuePolicy implements RejectedExecutionHandler {
 			throw new RejectedExecutionException("Task interrupted while waiting for queue space", e);
 		}
 	}
+
+	public long getBlockedCount() {
+		return blockedCount.sum();
+	}
 }
@@ -0,0 +1,125 @@
+package com.woowacamp.storage.domain.file.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.woowacamp.storage.domain.file.dto.ByteRange;
+
+/**
+ * 여러 구간을 요청한 Range의 multipart/byteranges 응답 본문(RFC 9110 14.6)입니다.
+ * <p>
+ * 구간마다 따로 읽는 스트림을 파트 헤더 사이에 이어 붙입니다. 각 구간의 스트림은 응답이 그 파트까지 왔을 때 열기 때문에
+ * 클라이언트가 중간에 끊으면 남은 구간은 S3에 요청하지 않습니다.
+ * 파트 헤더의 길이를 미리 알 수 있으므로 Content-Length를 정확히 계산합니다.
+ */
+public class MultipartByteRanges {
+
+	private static final String CRLF = "\r\n";
+
+	private final String boundary = UUID.randomUUID().toString();
+	private final List<ByteRange> ranges;
+	private final String partContentType;
+	private final long completeLength;
+
+	public MultipartByteRanges(List<ByteRange> ranges, String partContentType, long completeLength) {
+		this.ranges = ranges;
+		this.partContentType = partContentType;
+		this.completeLength = completeLength;
+	}
+
+	public String getContentType() {
+		return "multipart/byteranges; boundary=" + boundary;
+	}
+
+	public long getContentLength() {
+		long contentLength = closeDelimiter().length;
+		for (ByteRange range : ranges) {
+			contentLength += partHeader(range).length + range.length();
+		}
+		return contentLength;
+	}
+
+	/**
+	 * @param rangeOpener - 구간 하나를 읽는 스트림을 여는 함수. 정확히 range.length()바이트를 읽어야 한다.
+	 */
+	public InputStream open(Function<ByteRange, InputStream> rangeOpener) {
+		List<Supplier<InputStream>> parts = new ArrayList<>(ranges.size() * 2 + 1);
+		for (ByteRange range : ranges) {
+			byte[] partHeader = partHeader(range);
+			parts.add(() -> new ByteArrayInputStream(partHeader));
+			parts.add(() -> rangeOpener.apply(range));
+		}
+		byte[] closeDelimiter = closeDelimiter();
+		parts.add(() -> new ByteArrayInputStream(closeDelimiter));
+		return new LazySequenceInputStream(parts);
+	}
+
+	private byte[] partHeader(ByteRange range) {
+		return (CRLF + "--" + boundary + CRLF
+			+ "Content-Type: " + partContentType + CRLF
+			+ "Content-Range: " + range.contentRange(completeLength) + CRLF
+			+ CRLF).getBytes(StandardCharsets.US_ASCII);
+	}
+
+	private byte[] closeDelimiter() {
+		return (CRLF + "--" + boundary + "--" + CRLF).getBytes(StandardCharsets.US_ASCII);
+	}
+
+	/**
+	 * SequenceInputStream은 close할 때 남은 스트림을 모두 열어서 닫으므로, 필요할 때만 여는 스트림을 따로 둡니다.
+	 */
+	private static class LazySequenceInputStream extends InputStream {
+
+		private final List<Supplier<InputStream>> parts;
+		private int next;
+		private InputStream current;
+
+		LazySequenceInputStream(List<Supplier<InputStream>> parts) {
+			this.parts = parts;
+		}
+
+		@Override
+		public int read() throws IOException {
+			byte[] single = new byte[1];
+			int read = read(single, 0, 1);
+			return read == -1 ? -1 : single[0] & 0xff;
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int length) throws IOException {
+			if (length == 0) {
+				return 0;
+			}
+			while (true) {
+				if (current == null) {
+					if (next == parts.size()) {
+						return -1;
+					}
+					current = parts.get(next++).get();
+				}
+				int read = current.read(buffer, offset, length);
+				if (read != -1) {
+					return read;
+				}
+				current.close();
+				current = null;
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			next = parts.size();
+			if (current != null) {
+				current.close();
+				current = null;
+			}
+		}
+	}
+}
@@ -0,0 +1,28 @@
+package com.woowacamp.storage.domain.file.util;
+
+import java.util.Map;
+
+/**
+ * MultipartStreamParser가 파트를 구분할 때마다 호출하는 콜백입니다.
+ * onPartContent로 전달되는 배열은 파서 내부 버퍼이므로 호출이 끝난 뒤에는 참조를 유지하면 안 됩니다.
+ */
+public interface MultipartPartHandler {
+
+	/**
+	 * 파트의 헤더를 모두 읽은 경우 호출됩니다.
+	 */
+	void onPartBegin(Map<String, String> headers) throws Exception;
+
+	/**
+	 * 파트의 본문 일부를 buffer[offset, offset + length) 슬라이스로 전달합니다.
+	 * 본문 끝의 CRLF는 boundary에 포함되므로 전달되지 않습니다.
+	 */
+	void onPartContent(byte[] buffer, int offset, int length) throws Exception;
+
+	/**
+	 * 파트가 끝난 경우 호출됩니다.
+	 *
+	 * @return - true인 경우 이후 데이터는 읽지 않는다.
+	 */
+	boolean onPartEnd() throws Exception;
+}
@@ -0,0 +1,224 @@
+package com.woowacamp.storage.domain.file.util;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.woowacamp.storage.global.error.ErrorCode;
+
+/**
+ * multipart/form-data 요청을 스트리밍으로 파싱합니다.
+ * 읽어들인 버퍼에서 BoundaryScanner로 "\r\n--boundary"를 바로 찾고, boundary 사이의 본문은 복사 없이 슬라이스로 넘겨줍니다.
+ * 줄 단위로 문자열을 만들지 않기 때문에 바이너리 파일에 개행 문자가 많아도 추가 할당이 생기지 않습니다.
+ * <p>
+ * 버퍼 끝에 boundary가 걸쳐 있을 수 있으므로 boundary 길이보다 짧은 꼬리만 다음 읽기까지 남겨둡니다.
+ * 헤더는 한 번에 파싱해야 하기 때문에 헤더가 버퍼보다 길면 maxHeaderSize까지 버퍼를 늘립니다.
+ * <p>
+ * handler가 onPartBegin에서 suspend를 호출하면 헤더까지만 처리하고 멈춥니다. 다른 스레드에서 파트를 준비하는 동안
+ * feed는 데이터를 받아가지 않고, resume을 호출하면 버퍼에 남은 본문부터 다시 넘겨줍니다.
+ */
+public class MultipartStreamParser {
+
+	private static final byte[] HEADER_END = {'\r', '\n', '\r', '\n'};
+	private static final BoundaryScanner HEADER_END_SCANNER = new BoundaryScanner(HEADER_END);
+
+	private final BoundaryScanner delimiterScanner;
+	private final MultipartPartHandler handler;
+	private final int maxHeaderSize;
+	private byte[] window;
+	private int pos;
+	private int limit;
+	private State state;
+	private boolean suspended;
+
+	/**
+	 * @param boundary      - Content-Type에 있는 boundary 값 앞에 "--"를 붙인 문자열
+	 * @param bufferSize    - 한 번에 읽어들일 크기
+	 * @param maxHeaderSize - 파트 헤더가 가질 수 있는 최대 크기
+	 */
+	public MultipartStreamParser(String boundary, int bufferSize, int maxHeaderSize, MultipartPartHandler handler) {
+		this.delimiterScanner = new BoundaryScanner(("\r\n" + boundary).getBytes(StandardCharsets.US_ASCII));
+		this.handler = handler;
+		this.maxHeaderSize = Math.max(maxHeaderSize, bufferSize);
+		this.window = new byte[bufferSize + delimiterScanner.length()];
+		// 첫 boundary 앞에는 CRLF가 없으므로 미리 넣어두고 모든 boundary를 같은 패턴으로 찾는다.
+		this.window[0] = '\r';
+		this.window[1] = '\n';
+		this.limit = 2;
+		this.state = State.PREAMBLE;
+	}
+
+	/**
+	 * 입력 스트림이 끝나거나 handler가 중단을 요청할 때까지 읽어들입니다.
+	 */
+	public void parse(InputStream inputStream) throws Exception {
+		while (state != State.DONE) {
+			ensureSpace();
+			int bytesRead = inputStream.read(window, limit, window.length - limit);
+			if (bytesRead == -1) {
+				return;
+			}
+			limit += bytesRead;
+			drain();
+		}
+	}
+
+	/**
+	 * 외부에서 읽은 데이터를 전달받아 파싱합니다. 파싱이 멈추면 남은 데이터는 받아가지 않습니다.
+	 *
+	 * @return - 받아간 바이트 수. length보다 작으면 resume 이후 나머지를 다시 넘겨야 한다.
+	 */
+	public int feed(byte[] data, int offset, int length) throws Exception {
+		int consumed = 0;
+		while (consumed < length && state != State.DONE && !suspended) {
+			ensureSpace();
+			int copied = Math.min(length - consumed, window.length - limit);
+			System.arraycopy(data, offset + consumed, window, limit, copied);
+			limit += copied;
+			consumed += copied;
+			drain();
+		}
+		return consumed;
+	}
+
+	/**
+	 * handler 콜백 안에서 호출하면 지금 처리 중인 헤더나 본문까지만 처리하고 멈춥니다.
+	 */
+	public void suspend() {
+		suspended = true;
+	}
+
+	public boolean isSuspended() {
+		return suspended;
+	}
+
+	/**
+	 * 멈춘 파싱을 이어갑니다. 버퍼에 남아 있던 데이터를 먼저 handler에 넘깁니다.
+	 */
+	public void resume() throws Exception {
+		suspended = false;
+		drain();
+	}
+
+	/**
+	 * final boundary를 읽었거나 handler가 중단을 요청한 경우 true를 반환합니다.
+	 */
+	public boolean isDone() {
+		return state == State.DONE;
+	}
+
+	private void drain() throws Exception {
+		boolean progress = true;
+		while (progress && state != State.DONE && !suspended) {
+			progress = switch (state) {
+				case PREAMBLE, BODY -> scanBody();
+				case DELIMITER_TAIL -> scanDelimiterTail();
+				case HEADERS -> scanHeaders();
+				case DONE -> false;
+			};
+		}
+		compact();
+	}
+
+	/**
+	 * boundary를 찾기 전까지의 데이터를 본문으로 넘깁니다.
+	 * boundary가 없다면 다음 버퍼와 이어질 수 있는 꼬리를 제외하고 넘깁니다.
+	 */
+	private boolean scanBody() throws Exception {
+		int index = delimiterScanner.indexOf(window, pos, limit);
+		if (index == -1) {
+			int safeEnd = delimiterScanner.partialMatchStart(window, pos, limit);
+			emitContent(safeEnd);
+			return false;
+		}
+		emitContent(index);
+		pos = index + delimiterScanner.length();
+		if (state == State.BODY && handler.onPartEnd()) {
+			state = State.DONE;
+			return false;
+		}
+		state = State.DELIMITER_TAIL;
+		return true;
+	}
+
+	private void emitContent(int end) throws Exception {
+		if (state == State.BODY && end > pos) {
+			handler.onPartContent(window, pos, end - pos);
+		}
+		pos = end;
+	}
+
+	/**
+	 * boundary 바로 뒤의 두 바이트로 final boundary 여부를 판단합니다.
+	 */
+	private boolean scanDelimiterTail() {
+		if (limit - pos < 2) {
+			return false;
+		}
+		if (window[pos] == '-' && window[pos + 1] == '-') {
+			state = State.DONE;
+			return false;
+		}
+		// boundary 줄의 CRLF는 헤더 종료 패턴을 찾을 때 함께 사용하므로 소비하지 않는다.
+		state = State.HEADERS;
+		return true;
+	}
+
+	private boolean scanHeaders() throws Exception {
+		int index = HEADER_END_SCANNER.indexOf(window, pos, limit);
+		if (index == -1) {
+			return false;
+		}
+		handler.onPartBegin(parseHeaders(pos, index));
+		pos = index + HEADER_END.length;
+		state = State.BODY;
+		return true;
+	}
+
+	/**
+	 * 헤더 영역을 줄 단위로 나눠 파싱합니다. 첫 줄은 boundary 줄의 나머지이므로 무시합니다.
+	 */
+	private Map<String, String> parseHeaders(int from, int to) {
+		Map<String, String> headers = new HashMap<>();
+		String[] lines = new String(window, from, to - from, StandardCharsets.UTF_8).split("\r\n");
+		for (int i = 1; i < lines.length; i++) {
+			int colonIndex = lines[i].indexOf(':');
+			if (colonIndex > 0) {
+				headers.put(lines[i].substring(0, colonIndex).trim(), lines[i].substring(colonIndex + 1).trim());
+			}
+		}
+		return headers;
+	}
+
+	/**
+	 * 처리하지 못한 꼬리를 버퍼 앞으로 옮깁니다.
+	 */
+	private void compact() {
+		if (pos == 0) {
+			return;
+		}
+		System.arraycopy(window, pos, window, 0, limit - pos);
+		limit -= pos;
+		pos = 0;
+	}
+
+	/**
+	 * 버퍼가 가득 찬 경우는 헤더가 버퍼보다 큰 경우뿐이므로 maxHeaderSize까지만 늘립니다.
+	 */
+	private void ensureSpace() {
+		if (limit < window.length) {
+			return;
+		}
+		if (window.length >= maxHeaderSize + HEADER_END.length) {
+			throw ErrorCode.INVALID_MULTIPART_FORM_DATA.baseException();
+		}
+		byte[] expanded = new byte[Math.min(window.length * 2, maxHeaderSize + HEADER_END.length)];
+		System.arraycopy(window, 0, expanded, 0, limit);
+		window = expanded;
+	}
+
+	private enum State {
+		PREAMBLE, DELIMITER_TAIL, HEADERS, BODY, DONE
+	}
+}
@@ -0,0 +1,44 @@
+package com.woowacamp.storage.domain.file.util;
+
+/**
+ * part upload 작업을 실행하는 실행기입니다.
+ * file.writer.executor 설정으로 고정 크기 스레드 풀(platform)과 가상 스레드(virtual) 중 하나를 선택합니다.
+ */
+public interface PartUploadExecutor {
+
+	/**
+	 * 업로드 하나가 시작될 때 호출합니다.
+	 */
+	void register(String uploadKey);
+
+	/**
+	 * part upload 작업을 실행합니다. 실행기가 받을 수 있는 작업 수를 넘으면 호출한 스레드가 대기합니다.
+	 */
+	void execute(String uploadKey, Runnable task);
+
+	/**
+	 * 지금 execute를 호출해도 대기하지 않는지 확인합니다. 논블로킹 업로드가 읽기를 멈출지 결정할 때 사용합니다.
+	 */
+	boolean canExecute(String uploadKey);
+
+	/**
+	 * 업로드가 끝나거나 실패한 경우 호출합니다.
+	 */
+	void unregister(String uploadKey);
+
+	/**
+	 * 아래 값들은 모두 락 없이 읽는 근사값이며, 매 part마다 호출해도 실행기 내부 락을 잡지 않습니다.
+	 */
+	int getActiveCount();
+
+	int getQueueSize();
+
+	long getSubmittedCount();
+
+	long getCompletedCount();
+
+	/**
+	 * 실행기가 가득 차서 execute를 호출한 스레드가 대기한 횟수입니다.
+	 */
+	long getBlockedCount();
+}
@@ -0,0 +1,100 @@
+package com.woowacamp.storage.domain.file.util;
+
+import static com.woowacamp.storage.global.constant.CommonConstant.*;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 고정 크기 스레드 풀로 part upload를 실행합니다.
+ * 큐가 가득 차면 CustomS3BlockingQueuePolicy가 요청 스레드를 큐에 자리가 생길 때까지 대기시킵니다.
+ * <p>
+ * ThreadPoolExecutor.getActiveCount()와 ArrayBlockingQueue.size()는 내부 락을 잡기 때문에,
+ * 작업을 감싸서 실행 중인 작업 수와 대기 중인 작업 수를 직접 세고 락 없이 읽습니다.
+ */
+public class PlatformPartUploadExecutor implements PartUploadExecutor {
+
+	private final ArrayBlockingQueue<Runnable> workQueue = new ArrayBlockingQueue<>(FILE_WRITER_QUEUE_SIZE);
+	private final ThreadPoolExecutor executorService;
+	private final CustomS3BlockingQueuePolicy rejectedPolicy = new CustomS3BlockingQueuePolicy();
+	private final AtomicInteger activeCount = new AtomicInteger();
+	private final AtomicInteger queuedCount = new AtomicInteger();
+	private final LongAdder submittedCount = new LongAdder();
+	private final LongAdder completedCount = new LongAdder();
+
+	public PlatformPartUploadExecutor() {
+		this.executorService = new ThreadPoolExecutor(
+			FILE_WRITER_CORE_POOL_SIZE,
+			FILE_WRITER_MAXIMUM_POOL_SIZE,
+			FILE_WRITER_KEEP_ALIVE_TIME,
+			TimeUnit.SECONDS,
+			workQueue,
+			rejectedPolicy
+		);
+	}
+
+	@Override
+	public void register(String uploadKey) {
+	}
+
+	@Override
+	public void execute(String uploadKey, Runnable task) {
+		queuedCount.incrementAndGet();
+		submittedCount.increment();
+		try {
+			executorService.execute(() -> {
+				queuedCount.decrementAndGet();
+				activeCount.incrementAndGet();
+				try {
+					task.run();
+				} finally {
+					activeCount.decrementAndGet();
+					completedCount.increment();
+				}
+			});
+		} catch (RuntimeException e) {
+			queuedCount.decrementAndGet();
+			throw e;
+		}
+	}
+
+	/**
+	 * 실행 중이거나 큐에서 기다리는 작업 수가 풀 크기와 큐 크기의 합보다 작으면 대기 없이 넣을 수 있습니다.
+	 */
+	@Override
+	public boolean canExecute(String uploadKey) {
+		return queuedCount.get() + activeCount.get() < FILE_WRITER_QUEUE_SIZE + FILE_WRITER_MAXIMUM_POOL_SIZE;
+	}
+
+	@Override
+	public void unregister(String uploadKey) {
+	}
+
+	@Override
+	public int getActiveCount() {
+		return activeCount.get();
+	}
+
+	@Override
+	public int getQueueSize() {
+		return queuedCount.get();
+	}
+
+	@Override
+	public long getSubmittedCount() {
+		return submittedCount.sum();
+	}
+
+	@Override
+	public long getCompletedCount() {
+		return completedCount.sum();
+	}
+
+	@Override
+	public long getBlockedCount() {
+		return rejectedPolicy.getBlockedCount();
+	}
+}
@@ -0,0 +1,163 @@
+package com.woowacamp.storage.domain.file.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 업로드 요청 스레드(생산자) 하나가 쓰고 썸네일 스레드(소비자) 하나가 읽는 고정 크기 바이트 링 버퍼입니다.
+ * <p>
+ * PipedOutputStream은 1KB 버퍼가 가득 차면 쓰는 쪽이 대기하고, 한 번 쓸 때마다 읽는 쪽을 깨우기 때문에
+ * 업로드 스레드가 썸네일 스레드 속도에 묶였습니다. 이 버퍼의 offer는 절대 대기하지 않고, 공간이 부족하면 false를 반환합니다.
+ * 생산자는 false를 받으면 썸네일 생성을 포기하면 됩니다.
+ * <p>
+ * 읽은 위치(head)와 쓴 위치(tail)는 각각 한 스레드만 갱신하므로 락 없이 release/acquire로만 주고받습니다.
+ * 소비자는 읽을 데이터가 없을 때만 잠들고, 생산자는 소비자가 잠들어 있을 때만 깨웁니다.
+ */
+public class SpscByteRingBuffer {
+
+	private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+	private final byte[] buffer;
+	private final int mask;
+	private final AtomicLong head = new AtomicLong();
+	private final AtomicLong tail = new AtomicLong();
+	private final InputStream inputStream = new RingBufferInputStream();
+	private volatile boolean closed;
+	private volatile boolean aborted;
+	private volatile boolean consumerClosed;
+	private volatile Thread waitingConsumer;
+
+	/**
+	 * @param capacity - 2의 거듭제곱으로 올림합니다.
+	 */
+	public SpscByteRingBuffer(int capacity) {
+		int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+		this.buffer = new byte[size];
+		this.mask = size - 1;
+	}
+
+	/**
+	 * 생산자 스레드에서 호출합니다. 남은 공간이 부족하면 아무것도 쓰지 않고 false를 반환합니다.
+	 * 소비자가 이미 읽기를 끝냈다면 데이터를 버리고 true를 반환합니다.
+	 */
+	public boolean offer(byte[] source, int offset, int length) {
+		if (consumerClosed || aborted) {
+			return !aborted;
+		}
+		long currentTail = tail.get();
+		if (buffer.length - (currentTail - head.getAcquire()) < length) {
+			return false;
+		}
+		int index = (int)(currentTail & mask);
+		int firstLength = Math.min(length, buffer.length - index);
+		System.arraycopy(source, offset, buffer, index, firstLength);
+		System.arraycopy(source, offset + firstLength, buffer, 0, length - firstLength);
+		tail.setRelease(currentTail + length);
+		wakeConsumer();
+		return true;
+	}
+
+	/**
+	 * 생산자가 모든 데이터를 쓴 이후 호출합니다. 소비자는 남은 데이터를 읽은 뒤 EOF를 받습니다.
+	 */
+	public void close() {
+		closed = true;
+		wakeConsumer();
+	}
+
+	/**
+	 * 어느 쪽에서든 호출할 수 있습니다. 소비자는 IOException을 받고, 생산자의 offer는 false를 반환합니다.
+	 */
+	public void abort() {
+		aborted = true;
+		wakeConsumer();
+	}
+
+	public boolean isAborted() {
+		return aborted;
+	}
+
+	/**
+	 * 소비자가 읽는 스트림입니다. 스트림을 닫으면 이후에 생산자가 쓰는 데이터는 버립니다.
+	 */
+	public InputStream getInputStream() {
+		return inputStream;
+	}
+
+	public int capacity() {
+		return buffer.length;
+	}
+
+	private void wakeConsumer() {
+		Thread consumer = waitingConsumer;
+		if (consumer != null) {
+			LockSupport.unpark(consumer);
+		}
+	}
+
+	private class RingBufferInputStream extends InputStream {
+
+		@Override
+		public int read() throws IOException {
+			byte[] single = new byte[1];
+			int read = read(single, 0, 1);
+			return read == -1 ? -1 : single[0] & 0xff;
+		}
+
+		@Override
+		public int read(byte[] target, int offset, int length) throws IOException {
+			if (length == 0) {
+				return 0;
+			}
+			long currentHead = head.get();
+			long available;
+			while ((available = tail.getAcquire() - currentHead) == 0) {
+				if (aborted) {
+					throw new IOException("썸네일 입력이 중단되었습니다.");
+				}
+				if (closed) {
+					// close 이전에 쓴 데이터가 보이도록 한 번 더 확인한다.
+					if (tail.getAcquire() == currentHead) {
+						return -1;
+					}
+					continue;
+				}
+				awaitData(currentHead);
+			}
+			if (aborted) {
+				throw new IOException("썸네일 입력이 중단되었습니다.");
+			}
+			int readLength = (int)Math.min(length, available);
+			int index = (int)(currentHead & mask);
+			int firstLength = Math.min(readLength, buffer.length - index);
+			System.arraycopy(buffer, index, target, offset, firstLength);
+			System.arraycopy(buffer, 0, target, offset + firstLength, readLength - firstLength);
+			head.setRelease(currentHead + readLength);
+			return readLength;
+		}
+
+		@Override
+		public int available() {
+			return (int)Math.min(Integer.MAX_VALUE, tail.getAcquire() - head.get());
+		}
+
+		@Override
+		public void close() {
+			consumerClosed = true;
+		}
+
+		/**
+		 * 잠들기 전에 waitingConsumer를 먼저 등록하고 다시 확인해서, 그 사이에 쓴 데이터의 깨우기를 놓치지 않습니다.
+		 */
+		private void awaitData(long currentHead) {
+			waitingConsumer = Thread.currentThread();
+			if (tail.getAcquire() == currentHead && !closed && !aborted) {
+				LockSupport.parkNanos(this, PARK_NANOS);
+			}
+			waitingConsumer = null;
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package com.woowacamp.storage.domain.file.util;
+
+import static java.awt.image.BufferedImage.*;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import com.woowacamp.storage.global.constant.ThumbnailSize;
+
+/**
+ * 원본 이미지 스트림을 읽어서 크기별 썸네일 이미지를 만듭니다.
+ * 썸네일 스레드와 벤치마크에서 같은 방식으로 썸네일을 만들기 위해 분리했습니다.
+ */
+public final class ThumbnailRenderer {
+
+	private ThumbnailRenderer() {
+	}
+
+	/**
+	 * 전달받은 스트림으로 ImageReader 객체를 만들어 원본 이미지를 한 번만 디코딩합니다.
+	 * 가장 큰 썸네일 크기에 맞춰 서브샘플링해서 읽고, 읽은 이미지를 크기별로 축소해서 인코딩합니다.
+	 * 각 크기는 원본 이미지의 종횡비를 유지하면서 ThumbnailSize의 최대 픽셀 수를 넘지 않습니다.
+	 *
+	 * @return - 크기별로 imageFormat 형식으로 인코딩한 썸네일
+	 */
+	public static Map<ThumbnailSize, byte[]> render(InputStream inputStream, String imageFormat) throws IOException {
+		ImageReader reader = null;
+		try (ImageInputStream iis = ImageIO.createImageInputStream(inputStream)) {
+			Iterator<ImageReader> iter = ImageIO.getImageReaders(iis);
+			if (!iter.hasNext()) {
+				throw new IOException("No image readers found");
+			}
+			reader = iter.next();
+			reader.setInput(iis, true, true);
+
+			int width = reader.getWidth(0);
+			int height = reader.getHeight(0);
+			double rate = (double)width / height;
+
+			// 가장 큰 썸네일의 비율로 서브샘플링해서 한 번만 읽는다.
+			int largestWidth = 0;
+			for (ThumbnailSize size : ThumbnailSize.values()) {
+				largestWidth = Math.max(largestWidth, thumbnailWidth(size, width, height, rate));
+			}
+			int subsampling = Math.max(1, width / Math.max(1, largestWidth));
+			ImageReadParam param = reader.getDefaultReadParam();
+			param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+			BufferedImage decodedImage = reader.read(0, param);
+
+			Map<ThumbnailSize, byte[]> thumbnails = new EnumMap<>(ThumbnailSize.class);
+			for (ThumbnailSize size : ThumbnailSize.values()) {
+				int thumbnailWidth = thumbnailWidth(size, width, height, rate);
+				int thumbnailHeight = Math.max(1, (int)(thumbnailWidth / rate));
+				thumbnails.put(size, encode(decodedImage, thumbnailWidth, thumbnailHeight, imageFormat));
+			}
+			return thumbnails;
+		} finally {
+			if (reader != null) {
+				reader.dispose();
+			}
+		}
+	}
+
+	private static int thumbnailWidth(ThumbnailSize size, int width, int height, double rate) {
+		int thumbnailSize = (int)Math.min(size.getMaxPixels(), (long)width * height);
+		int thumbnailHeight = (int)Math.sqrt(thumbnailSize / rate);
+		return Math.max(1, (int)(thumbnailHeight * rate));
+	}
+
+	/**
+	 * 디코딩한 이미지를 정확한 크기로 조정하고 imageFormat 형태로 인코딩합니다.
+	 */
+	private static byte[] encode(BufferedImage decodedImage, int thumbnailWidth, int thumbnailHeight,
+		String imageFormat) throws IOException {
+		BufferedImage finalThumbnail = new BufferedImage(thumbnailWidth, thumbnailHeight, TYPE_INT_RGB);
+		Graphics2D g2d = finalThumbnail.createGraphics();
+		g2d.drawImage(decodedImage, 0, 0, thumbnailWidth, thumbnailHeight, null);
+		g2d.dispose();
+
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		ImageIO.write(finalThumbnail, imageFormat, baos);
+		return baos.toByteArray();
+	}
+}
@@ -0,0 +1,137 @@
+package com.woowacamp.storage.domain.file.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.woowacamp.storage.global.error.ErrorCode;
+
+/**
+ * part upload마다 가상 스레드를 만들어 실행합니다.
+ * 큐 길이 대신 두 개의 세마포어로 동시 실행 수를 제한합니다.
+ * - 전역 세마포어: 서버 전체에서 동시에 업로드 중인 part 수, 즉 part 버퍼가 차지하는 메모리의 상한
+ * - 업로드별 세마포어: 하나의 업로드가 전역 허용량을 독차지하지 못하도록 업로드마다 동시에 보낼 수 있는 part 수
+ * S3가 느려지면 요청 스레드는 큐에 넣기 위해 대기하는 대신 자기 업로드의 허용량이 생길 때까지만 대기합니다.
+ * <p>
+ * 가상 스레드는 Java 21부터 사용할 수 있어서 Java 17로도 컴파일되도록 리플렉션으로 실행기를 생성합니다.
+ * ./gradlew -PjavaVersion=21 로 빌드하고 Java 21 이상에서 실행해야 합니다.
+ */
+public class VirtualThreadPartUploadExecutor implements PartUploadExecutor {
+
+	private final ExecutorService executorService;
+	private final Semaphore globalPermits;
+	private final int maxInFlightParts;
+	private final int maxPartsPerUpload;
+	private final Map<String, Semaphore> uploadPermits = new ConcurrentHashMap<>();
+	private final LongAdder submittedCount = new LongAdder();
+	private final LongAdder completedCount = new LongAdder();
+	private final LongAdder blockedCount = new LongAdder();
+
+	public VirtualThreadPartUploadExecutor(int maxInFlightParts, int maxPartsPerUpload) {
+		this.executorService = newVirtualThreadPerTaskExecutor();
+		this.globalPermits = new Semaphore(maxInFlightParts, true);
+		this.maxInFlightParts = maxInFlightParts;
+		this.maxPartsPerUpload = maxPartsPerUpload;
+	}
+
+	@Override
+	public void register(String uploadKey) {
+		uploadPermits.put(uploadKey, new Semaphore(maxPartsPerUpload));
+	}
+
+	@Override
+	public void execute(String uploadKey, Runnable task) {
+		Semaphore uploadPermit = uploadPermits.get(uploadKey);
+		acquire(uploadPermit);
+		try {
+			acquire(globalPermits);
+		} catch (RuntimeException e) {
+			release(uploadPermit);
+			throw e;
+		}
+		submittedCount.increment();
+		executorService.execute(() -> {
+			try {
+				task.run();
+			} finally {
+				globalPermits.release();
+				release(uploadPermit);
+				completedCount.increment();
+			}
+		});
+	}
+
+	@Override
+	public boolean canExecute(String uploadKey) {
+		Semaphore uploadPermit = uploadPermits.get(uploadKey);
+		return globalPermits.availablePermits() > 0 && (uploadPermit == null || uploadPermit.availablePermits() > 0);
+	}
+
+	@Override
+	public void unregister(String uploadKey) {
+		uploadPermits.remove(uploadKey);
+	}
+
+	@Override
+	public int getActiveCount() {
+		return maxInFlightParts - globalPermits.availablePermits();
+	}
+
+	@Override
+	public int getQueueSize() {
+		return globalPermits.getQueueLength();
+	}
+
+	@Override
+	public long getSubmittedCount() {
+		return submittedCount.sum();
+	}
+
+	@Override
+	public long getCompletedCount() {
+		return completedCount.sum();
+	}
+
+	@Override
+	public long getBlockedCount() {
+		return blockedCount.sum();
+	}
+
+	/**
+	 * 등록되지 않은 업로드는 업로드별 제한 없이 전역 제한만 적용합니다.
+	 * 바로 받을 수 있는 허용량이 없어 대기하게 되면 blockedCount를 올립니다.
+	 * tryAcquire(0, ...)는 tryAcquire()와 달리 공정 세마포어의 대기 순서를 지킵니다.
+	 */
+	private void acquire(Semaphore semaphore) {
+		if (semaphore == null) {
+			return;
+		}
+		try {
+			if (!semaphore.tryAcquire(0, TimeUnit.MILLISECONDS)) {
+				blockedCount.increment();
+				semaphore.acquire();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw ErrorCode.FILE_UPLOAD_FAILED.baseException("part upload 대기 중 인터럽트가 발생했습니다.");
+		}
+	}
+
+	private void release(Semaphore semaphore) {
+		if (semaphore != null) {
+			semaphore.release();
+		}
+	}
+
+	private static ExecutorService newVirtualThreadPerTaskExecutor() {
+		try {
+			return (ExecutorService)Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("가상 스레드 실행기는 Java 21 이상에서만 사용할 수 있습니다.", e);
+		}
+	}
+}
@@ -24,6 +24,8 @@ import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.model.AmazonS3Exception;
 import com.woowacamp.storage.domain.file.entity.FileMetadata;
 import com.woowacamp.storage.domain.file.repository.FileMetadataRepository;
+import com.woowacamp.storage.domain.file.service.ContentBlobService;
+import com.woowacamp.storage.domain.file.service.ThumbnailStorage;
 import com.woowacamp.storage.domain.folder.dto.CursorType;
 import com.woowacamp.storage.domain.folder.dto.FolderContentsDto;
 import com.woowacamp.storage.domain.folder.dto.FolderContentsSortField;
@@ -51,6 +53,8 @@ public class FolderService {
 	private final FolderSearchUtil folderSearchUtil;
 	private final AmazonS3 amazonS3;
 	private final ApplicationEventPublisher eventPublisher;
+	private final ContentBlobService contentBlobService;
+	private final ThumbnailStorage thumbnailStorage;
 	@Value("${cloud.aws.credentials.bucketName}")
 	private String BUCKET_NAME;
 
@@ -318,10 +322,15 @@ public class FolderService {
 				}
 				try {
 					// s3에 파일 chunk를 쓰고 있을 수 있기 때문에 우선 조회 후 삭제 작업을 진행한다.
-					amazonS3.getObjectMetadata(BUCKET_NAME, fileMetadata.getUuidFileName());
-					amazonS3.deleteObject(BUCKET_NAME, fileMetadata.getUuidFileName());
+					amazonS3.getObjectMetadata(BUCKET_NAME, fileMetadata.getStorageKey());
+					// 참조를 반납한 파일은 메타데이터를 반드시 지워야 스케줄러가 참조를 한 번 더 반납하지 않는다.
+					String objectKey = contentBlobService.release(fileMetadata);
 					fileIdListForDelete.add(fileMetadata.getId());
 					fileIdListForUpdate.add(fileMetadata.getId());
+					if (objectKey != null) {
+						amazonS3.deleteObject(BUCKET_NAME, objectKey);
+					}
+					deleteThumbnails(fileMetadata);
 				} catch (AmazonS3Exception e) {
 					e.printStackTrace();
 					// 예외가 발생한 경우 해당 파일의 부모 폴더 필드를 -1로 만들어 준다.
@@ -354,7 +363,11 @@ public class FolderService {
 			// 하위의 파일 삭제
 			List<FileMetadata> childFiles = fileMetadataRepository.findByParentFolderIdForUpdate(currentFolderId);
 			childFiles.forEach(fileMetadata -> {
-				amazonS3.deleteObject(BUCKET_NAME, fileMetadata.getUuidFileName());
+				String objectKey = contentBlobService.release(fileMetadata);
+				if (objectKey != null) {
+					amazonS3.deleteObject(BUCKET_NAME, objectKey);
+				}
+				deleteThumbnails(fileMetadata);
 				fileIdListForDelete.add(fileMetadata.getId());
 			});
 
@@ -365,4 +378,13 @@ public class FolderService {
 			childFolder.stream().forEach(folder -> folderIdQueue.offer(folder.getId()));
 		}
 	}
+
+	/**
+	 * 썸네일은 파일마다 따로 만들기 때문에 내용이 같은 파일이 있어도 지웁니다. 썸네일 캐시도 함께 비웁니다.
+	 */
+	private void deleteThumbnails(FileMetadata fileMetadata) {
+		if (fileMetadata.getThumbnailUUID() != null) {
+			thumbnailStorage.deleteAll(fileMetadata.getThumbnailUUID());
+		}
+	}
 }
@@ -0,0 +1,46 @@
+package com.woowacamp.storage.global.actuator;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import com.woowacamp.storage.domain.file.dto.ThumbnailBackfillStateDto;
+import com.woowacamp.storage.domain.file.service.ThumbnailBackfillService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 썸네일 일괄 재생성 작업을 시작하고 멈추는 actuator 엔드포인트입니다.
+ * POST /actuator/thumbnailbackfill/{jobName}으로 시작하거나 이어서 처리하고, DELETE /actuator/thumbnailbackfill로 멈춥니다.
+ * 인증 없이 전체 이미지를 다시 처리할 수 있으므로 기본으로는 웹에 노출하지 않습니다. 실행할 때는 management.server.port로
+ * 외부에서 접근할 수 없는 포트를 따로 열고 management.endpoints.web.exposure.include에 추가합니다.
+ */
+@Component
+@Endpoint(id = "thumbnailbackfill")
+@RequiredArgsConstructor
+public class ThumbnailBackfillEndpoint {
+
+	private final ThumbnailBackfillService thumbnailBackfillService;
+
+	@ReadOperation
+	public ThumbnailBackfillStateDto state(@Selector String jobName) {
+		return thumbnailBackfillService.getState(jobName);
+	}
+
+	/**
+	 * 다른 작업이 실행 중이면 시작하지 않고 현재 상태만 반환합니다.
+	 */
+	@WriteOperation
+	public ThumbnailBackfillStateDto start(@Selector String jobName) {
+		thumbnailBackfillService.start(jobName);
+		return thumbnailBackfillService.getState(jobName);
+	}
+
+	@DeleteOperation
+	public void stop() {
+		thumbnailBackfillService.stop();
+	}
+}
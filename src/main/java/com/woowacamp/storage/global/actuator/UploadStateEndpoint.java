@@ -0,0 +1,36 @@
+package com.woowacamp.storage.global.actuator;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import com.woowacamp.storage.domain.file.dto.UploadPoolStateDto;
+import com.woowacamp.storage.domain.file.service.PartBufferPool;
+import com.woowacamp.storage.domain.file.service.UploadSessionRegistry;
+import com.woowacamp.storage.domain.file.util.PartUploadExecutor;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * part upload 실행기와 버퍼 풀의 현재 상태를 요청할 때만 계산해서 보여주는 actuator 엔드포인트입니다.
+ * 쓰기 작업마다 상태를 로그로 남기는 대신 GET /actuator/uploads로 확인합니다.
+ */
+@Component
+@Endpoint(id = "uploads")
+@RequiredArgsConstructor
+public class UploadStateEndpoint {
+
+	private final PartUploadExecutor partUploadExecutor;
+	private final PartBufferPool partBufferPool;
+	private final UploadSessionRegistry uploadSessionRegistry;
+
+	@ReadOperation
+	public UploadPoolStateDto uploadState() {
+		return new UploadPoolStateDto(partUploadExecutor.getClass().getSimpleName(),
+			partUploadExecutor.getActiveCount(), partUploadExecutor.getQueueSize(),
+			partUploadExecutor.getSubmittedCount(), partUploadExecutor.getCompletedCount(),
+			partUploadExecutor.getBlockedCount(), partBufferPool.getInUseCount(), partBufferPool.getCreatedCount(),
+			partBufferPool.getMaxBuffers(), partBufferPool.getWaitingCount(),
+			uploadSessionRegistry.getActiveSessionCount());
+	}
+}
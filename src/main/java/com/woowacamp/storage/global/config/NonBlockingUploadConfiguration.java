@@ -0,0 +1,24 @@
+package com.woowacamp.storage.global.config;
+
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.woowacamp.storage.domain.file.controller.NonBlockingFileUploadServlet;
+
+/**
+ * 논블로킹 업로드는 ReadListener를 직접 등록해야 해서 DispatcherServlet을 거치지 않는 별도 서블릿으로 등록합니다.
+ */
+@Configuration
+public class NonBlockingUploadConfiguration {
+
+	@Bean
+	public ServletRegistrationBean<NonBlockingFileUploadServlet> nonBlockingFileUploadServletRegistration(
+		NonBlockingFileUploadServlet nonBlockingFileUploadServlet) {
+		ServletRegistrationBean<NonBlockingFileUploadServlet> registration = new ServletRegistrationBean<>(
+			nonBlockingFileUploadServlet, "/api/v3/files");
+		registration.setAsyncSupported(true);
+		registration.setLoadOnStartup(1);
+		return registration;
+	}
+}
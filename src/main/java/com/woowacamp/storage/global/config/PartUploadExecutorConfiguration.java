@@ -0,0 +1,32 @@
+package com.woowacamp.storage.global.config;
+
+import static com.woowacamp.storage.global.constant.CommonConstant.*;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.woowacamp.storage.domain.file.util.PartUploadExecutor;
+import com.woowacamp.storage.domain.file.util.PlatformPartUploadExecutor;
+import com.woowacamp.storage.domain.file.util.VirtualThreadPartUploadExecutor;
+
+/**
+ * file.writer.executor 설정에 따라 part upload 실행기를 선택합니다.
+ * 설정하지 않으면 기존처럼 고정 크기 스레드 풀을 사용합니다.
+ */
+@Configuration
+public class PartUploadExecutorConfiguration {
+
+	@Bean
+	@ConditionalOnProperty(name = "file.writer.executor", havingValue = "platform", matchIfMissing = true)
+	public PartUploadExecutor platformPartUploadExecutor() {
+		return new PlatformPartUploadExecutor();
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "file.writer.executor", havingValue = "virtual")
+	public PartUploadExecutor virtualThreadPartUploadExecutor() {
+		return new VirtualThreadPartUploadExecutor(VIRTUAL_WRITER_MAX_IN_FLIGHT_PARTS,
+			VIRTUAL_WRITER_MAX_PARTS_PER_UPLOAD);
+	}
+}
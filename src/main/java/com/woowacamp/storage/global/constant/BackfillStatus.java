@@ -0,0 +1,8 @@
+package com.woowacamp.storage.global.constant;
+
+public enum BackfillStatus {
+
+	RUNNING,
+	STOPPED,
+	COMPLETED
+}
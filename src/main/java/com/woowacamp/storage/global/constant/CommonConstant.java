@@ -9,6 +9,38 @@ public class CommonConstant {
 	public static final int FILE_WRITER_MAXIMUM_POOL_SIZE = 30;
 	public static final int FILE_WRITER_KEEP_ALIVE_TIME = 10;
 	public static final int FILE_WRITER_QUEUE_SIZE = 40;
+	// 쓰기 작업 스레드 풀이 들고 있을 수 있는 part 개수 + 톰캣 스레드마다 채우고 있는 part 1개
+	public static final int PART_BUFFER_POOL_SIZE = FILE_WRITER_MAXIMUM_POOL_SIZE + FILE_WRITER_QUEUE_SIZE + 20;
+	// 가상 스레드 모드에서 동시에 업로드할 수 있는 part 수 (스레드 풀 모드의 최대 스레드 + 큐 길이와 같은 메모리 상한)
+	public static final int VIRTUAL_WRITER_MAX_IN_FLIGHT_PARTS = FILE_WRITER_MAXIMUM_POOL_SIZE + FILE_WRITER_QUEUE_SIZE;
+	public static final int VIRTUAL_WRITER_MAX_PARTS_PER_UPLOAD = 4;
+	public static final int S3_MAX_PART_COUNT = 10_000;
+	// 업로드 하나가 이 개수 이하의 part로 나눠지도록 part 크기를 늘립니다.
+	public static final int TARGET_PART_COUNT = 100;
+	// part 하나가 사용할 수 있는 버퍼 개수. 톰캣 스레드가 모두 part를 채우는 중이어도 버퍼 풀이 고갈되지 않도록
+	// (MAX_BUFFERS_PER_PART - 1) * 톰캣 스레드 수 < PART_BUFFER_POOL_SIZE 를 만족해야 합니다.
+	public static final int MAX_BUFFERS_PER_PART = 4;
+	// 요청 스레드가 completeMultipartUpload를 기다리는 최대 시간
+	public static final long UPLOAD_COMPLETION_TIMEOUT_SECONDS = 60;
+	// p99 응답 시간을 믿을 수 있는 최소 uploadPart 표본 수와 동시에 보낼 수 있는 추가 요청 수
+	public static final long HEDGE_MIN_SAMPLES = 100;
+	public static final int HEDGE_MAX_IN_FLIGHT = 10;
+	// hedge를 켜면 첫 요청도 이 스레드에서 보내므로 동시에 진행되는 part 수와 추가 요청 수를 합친 만큼 둔다.
+	public static final int HEDGE_EXECUTOR_THREADS = VIRTUAL_WRITER_MAX_IN_FLIGHT_PARTS + HEDGE_MAX_IN_FLIGHT;
+	// 이어 올리기 세션이 유지되는 시간. 이 시간이 지나면 AbortedUploadDeleteScheduler가 정리한다.
+	public static final long RESUMABLE_UPLOAD_VALID_HOURS = 24;
+	// 서버 한 대에서 이어 올리기 세션 하나가 동시에 업로드할 수 있는 part 수
+	public static final int RESUMABLE_UPLOAD_MAX_PARALLEL_PARTS = 8;
+	// multipart 요청 하나로 올릴 수 있는 최대 파일 개수
+	public static final int MAX_FILES_PER_UPLOAD_REQUEST = 1000;
+	// 논블로킹 업로드 요청 하나가 유지될 수 있는 최대 시간
+	public static final long NON_BLOCKING_UPLOAD_TIMEOUT_MILLIS = 10 * 60 * 1000;
+	// 버퍼나 쓰기 작업 스레드가 부족해서 읽기를 멈춘 요청을 다시 확인하는 간격
+	public static final long NON_BLOCKING_UPLOAD_RESUME_DELAY_MILLIS = 20;
+	// 논블로킹 업로드에서 권한 확인, 메타데이터 저장, multipart upload 시작처럼 응답을 기다리는 작업을 실행하는 스레드 수
+	public static final int NON_BLOCKING_UPLOAD_BLOCKING_THREADS = 16;
+	// 스풀 파일을 S3로 옮길 때 사용하는 part 크기의 최솟값. part 개수가 S3 최대 개수를 넘지 않도록 파일 크기에 맞춰 늘린다.
+	public static final long SPOOL_DRAIN_MIN_PART_SIZE = 16 * 1024 * 1024;
 	public static final int THUMBNAIL_WRITER_CORE_POOL_SIZE = 10;
 	public static final int THUMBNAIL_WRITER_MAXIMUM_POOL_SIZE = 20;
 	public static final int THUMBNAIL_WRITER_KEEP_ALIVE_TIME = 0;
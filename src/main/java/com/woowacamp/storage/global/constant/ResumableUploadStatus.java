@@ -0,0 +1,9 @@
+package com.woowacamp.storage.global.constant;
+
+public enum ResumableUploadStatus {
+
+	UPLOADING,
+	COMPLETING,
+	// S3 업로드는 완료했지만 메타데이터를 갱신하지 못한 세션. 파일은 FAIL로 바꿔서 스케줄러가 지운다.
+	FAILED
+}
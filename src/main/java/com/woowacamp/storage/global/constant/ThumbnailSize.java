@@ -0,0 +1,55 @@
+package com.woowacamp.storage.global.constant;
+
+import static com.woowacamp.storage.global.constant.CommonConstant.*;
+
+import java.util.Locale;
+
+import com.woowacamp.storage.global.error.ErrorCode;
+
+/**
+ * 썸네일 크기입니다. 크기마다 썸네일이 가질 수 있는 최대 픽셀 수와 S3 객체 키의 접미사가 다릅니다.
+ * SMALL은 목록, MEDIUM은 갤러리, PREVIEW는 미리보기 화면에서 사용합니다.
+ * MEDIUM은 기존 썸네일과 같은 크기라서 접미사 없이 thumbnailUUID를 그대로 키로 사용합니다.
+ */
+public enum ThumbnailSize {
+
+	SMALL(200 * 200, "_small"),
+	MEDIUM(THUMBNAIL_SIZE / 3, ""),
+	PREVIEW(1280 * 960, "_preview");
+
+	private final int maxPixels;
+	private final String keySuffix;
+
+	ThumbnailSize(int maxPixels, String keySuffix) {
+		this.maxPixels = maxPixels;
+		this.keySuffix = keySuffix;
+	}
+
+	public int getMaxPixels() {
+		return maxPixels;
+	}
+
+	public String objectKey(String thumbnailUUID) {
+		return thumbnailUUID + keySuffix;
+	}
+
+	/**
+	 * 다운로드 API의 isThumbnail 파라미터를 썸네일 크기로 바꿉니다.
+	 * 기존 클라이언트가 보내는 true는 MEDIUM, false나 값이 없으면 원본 파일입니다.
+	 *
+	 * @return - 원본 파일을 요청했다면 null
+	 */
+	public static ThumbnailSize fromParameter(String value) {
+		if (value == null || value.isBlank() || "false".equalsIgnoreCase(value)) {
+			return null;
+		}
+		if ("true".equalsIgnoreCase(value)) {
+			return MEDIUM;
+		}
+		try {
+			return valueOf(value.trim().toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException e) {
+			throw ErrorCode.INVALID_ARGUMENT_ERROR.baseException();
+		}
+	}
+}
@@ -0,0 +1,12 @@
+package com.woowacamp.storage.global.constant;
+
+/**
+ * 이미지 파일의 썸네일 생성 상태입니다. 이미지가 아닌 파일은 값이 없습니다.
+ * PENDING: 아직 만들지 못했거나 만드는 중, READY: 썸네일을 내려받을 수 있음, FAILED: 재시도까지 모두 실패함
+ */
+public enum ThumbnailStatus {
+
+	PENDING,
+	READY,
+	FAILED
+}
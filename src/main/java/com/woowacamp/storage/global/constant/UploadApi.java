@@ -0,0 +1,19 @@
+package com.woowacamp.storage.global.constant;
+
+import java.util.Locale;
+
+/**
+ * 업로드 지표의 version 태그입니다.
+ * V1은 쓰기 작업 스레드 풀로 part를 올리는 /api/v1/files, V2는 요청 스레드에서 part를 올리는 /api/v2/files,
+ * V3는 논블로킹 IO로 읽는 /api/v3/files 입니다.
+ */
+public enum UploadApi {
+
+	V1,
+	V2,
+	V3;
+
+	public String getTagValue() {
+		return name().toLowerCase(Locale.ROOT);
+	}
+}
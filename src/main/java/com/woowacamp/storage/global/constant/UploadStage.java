@@ -0,0 +1,25 @@
+package com.woowacamp.storage.global.constant;
+
+import java.util.Locale;
+
+/**
+ * upload.stage 타이머의 stage 태그입니다. 업로드 요청 하나가 지나가는 순서대로 나열했습니다.
+ */
+public enum UploadStage {
+
+	// 요청을 받은 뒤 첫 파일 파트의 헤더를 읽을 때까지. 폼 필드와 파트 헤더를 읽는 시간이다.
+	HEADER_PARSE,
+	PERMISSION_CHECK,
+	CREATE_METADATA,
+	INITIATE_UPLOAD,
+	// 요청 스레드가 part를 넘긴 뒤 쓰기 작업 스레드에서 실행되기 시작할 때까지
+	PART_ENQUEUE_WAIT,
+	// 재시도와 추가 요청을 포함한 part 하나의 S3 업로드 시간
+	PART_UPLOAD,
+	COMPLETE_UPLOAD,
+	FINALIZE_METADATA;
+
+	public String getTagValue() {
+		return name().toLowerCase(Locale.ROOT);
+	}
+}
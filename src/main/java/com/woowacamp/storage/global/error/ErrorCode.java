@@ -38,10 +38,17 @@ public enum ErrorCode {
 	WRONG_PERMISSION_TYPE(HttpStatus.BAD_REQUEST, "잘못된 권한 타입입니다."),
 	SHARED_LINK_NOT_FOUND(HttpStatus.NOT_FOUND, "공유 링크를 찾을 수 없습니다."),
 	EXPIRED_SHARED_LINK(HttpStatus.BAD_REQUEST, "만료된 공유 링크입니다."),
+	RESUMABLE_UPLOAD_NOT_FOUND(HttpStatus.NOT_FOUND, "업로드 세션을 찾을 수 없습니다."),
+	INVALID_PART_NUMBER(HttpStatus.BAD_REQUEST, "올바르지 않은 part 번호입니다."),
+	RESUMABLE_UPLOAD_INCOMPLETE(HttpStatus.BAD_REQUEST, "아직 업로드되지 않은 part가 있습니다."),
+	RESUMABLE_UPLOAD_COMPLETING(HttpStatus.CONFLICT, "업로드를 완료하는 중입니다."),
+	RESUMABLE_UPLOAD_FAILED(HttpStatus.CONFLICT, "업로드를 완료하지 못했습니다. 새로 업로드해 주세요."),
+	TOO_MANY_PART_UPLOADS(HttpStatus.TOO_MANY_REQUESTS, "동시에 업로드할 수 있는 part 개수를 초과했습니다."),
 	// 500,
 	FILE_UPLOAD_FAILED(HttpStatus.INTERNAL_SERVER_ERROR, "파일 업로드에 실패했습니다."),
 	FILE_DELETE_FAILED(HttpStatus.INTERNAL_SERVER_ERROR, "파일 삭제에 실패했습니다."),
-	PERMISSION_CHECK_FAILED(HttpStatus.INTERNAL_SERVER_ERROR, "권한 확인 중 예외가 발생했습니다.");
+	PERMISSION_CHECK_FAILED(HttpStatus.INTERNAL_SERVER_ERROR, "권한 확인 중 예외가 발생했습니다."),
+	UPLOAD_CAPACITY_EXCEEDED(HttpStatus.SERVICE_UNAVAILABLE, "업로드 요청이 많습니다. 잠시 후에 다시 시도해 주세요.");
 	private final HttpStatus status;
 	private final String message;
 
@@ -3,6 +3,7 @@ package com.woowacamp.storage.global.scheduler;
 import static java.time.Duration.*;
 import static java.time.ZonedDateTime.*;
 
+import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.List;
@@ -17,6 +18,8 @@ import com.amazonaws.services.s3.model.ListMultipartUploadsRequest;
 import com.amazonaws.services.s3.model.MultipartUpload;
 import com.amazonaws.services.s3.model.MultipartUploadListing;
 import com.woowacamp.storage.domain.file.repository.FileMetadataRepository;
+import com.woowacamp.storage.domain.file.repository.ResumableUploadRepository;
+import com.woowacamp.storage.domain.file.service.ResumableUploadService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -35,6 +38,8 @@ public class AbortedUploadDeleteScheduler {
 
 	private final AmazonS3 amazonS3;
 	private final FileMetadataRepository fileMetadataRepository;
+	private final ResumableUploadRepository resumableUploadRepository;
+	private final ResumableUploadService resumableUploadService;
 	@Value("${cloud.aws.credentials.bucketName}")
 	private String BUCKET_NAME;
 
@@ -42,6 +47,7 @@ public class AbortedUploadDeleteScheduler {
 	 * 완전히 쓰지 못한 파일들의 리스트를 추출합니다.
 	 * 이후 해당 리스트에서 6시간이 지난 데이터만 삭제합니다.
 	 * 실시간으로 쓰고 있는 데이터도 listMultipartUploads를 통해서 읽히기 때문에 긴 시간(6시간)이 지난 데이터만 제거합니다.
+	 * 이어 올리기 세션은 만료 시간이 지난 경우에만 제거합니다.
 	 */
 	@Scheduled(fixedDelay = DELAY)
 	public void deleteAbortedUpload() {
@@ -52,12 +58,16 @@ public class AbortedUploadDeleteScheduler {
 				ZonedDateTime now = now(ZoneId.of(ZONE_ID));
 				ZonedDateTime uploadDate = ofInstant(abortedUpload.getInitiated().toInstant(), ZoneId.of(ZONE_ID));
 				return isAfterGracePeriod(now, uploadDate);
-			}).forEach(
+			})
+			.filter(abortedUpload -> !resumableUploadRepository.existsByUuidFileNameAndExpiredAtAfter(
+				abortedUpload.getKey(), LocalDateTime.now()))
+			.forEach(
 				abortedUpload -> {
 					amazonS3.abortMultipartUpload(new AbortMultipartUploadRequest(BUCKET_NAME, abortedUpload.getKey(),
 						abortedUpload.getUploadId()));
 					amazonS3.deleteObject(BUCKET_NAME, "thumb_" + abortedUpload.getKey());
 					fileMetadataRepository.deleteByUuidFileName(abortedUpload.getKey());
+					resumableUploadService.discard(abortedUpload.getKey());
 				});
 	}
 
@@ -10,6 +10,8 @@ import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.model.AmazonS3Exception;
 import com.woowacamp.storage.domain.file.entity.FileMetadata;
 import com.woowacamp.storage.domain.file.repository.FileMetadataRepository;
+import com.woowacamp.storage.domain.file.service.ContentBlobService;
+import com.woowacamp.storage.domain.file.service.ThumbnailStorage;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -24,6 +26,8 @@ public class FailFileDeleteScheduler {
 	public static final int DELAY = 1000 * 30;
 	private final AmazonS3 amazonS3;
 	private final FileMetadataRepository fileMetadataRepository;
+	private final ContentBlobService contentBlobService;
+	private final ThumbnailStorage thumbnailStorage;
 	@Value("${cloud.aws.credentials.bucketName}")
 	private String BUCKET_NAME;
 
@@ -39,15 +43,16 @@ public class FailFileDeleteScheduler {
 
 		failFiles.forEach(fileMetadata -> {
 			try {
-				// s3 에서 파일 데이터와 썸네일 데이터를 삭제합니다.
+				// s3 에서 썸네일 데이터를 삭제합니다.
 				String thumbnailUUID = fileMetadata.getThumbnailUUID();
-				String uuidFileName = fileMetadata.getUuidFileName();
-				amazonS3.deleteObject(BUCKET_NAME, uuidFileName);
 				if (thumbnailUUID != null) {
-					amazonS3.deleteObject(BUCKET_NAME, thumbnailUUID);
+					thumbnailStorage.deleteAll(thumbnailUUID);
+				}
+				// 메타데이터를 지우고 참조를 반납한 뒤, 다른 파일이 사용하지 않는 경우에만 파일 데이터를 삭제합니다.
+				String objectKey = contentBlobService.deleteMetadata(fileMetadata);
+				if (objectKey != null) {
+					amazonS3.deleteObject(BUCKET_NAME, objectKey);
 				}
-				// 삭제가 된 경우 db 에서 메타데이터를 삭제합니다.
-				fileMetadataRepository.deleteById(fileMetadata.getId());
 			} catch (AmazonS3Exception e) {
 				log.error("[Amazon S3 Exception] cannot find fail file in S3, file metadata id = {}",
 					fileMetadata.getId());
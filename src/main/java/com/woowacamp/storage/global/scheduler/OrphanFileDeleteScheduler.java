@@ -12,6 +12,8 @@ import com.amazonaws.services.s3.model.AmazonS3Exception;
 import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.woowacamp.storage.domain.file.entity.FileMetadata;
 import com.woowacamp.storage.domain.file.repository.FileMetadataRepository;
+import com.woowacamp.storage.domain.file.service.ContentBlobService;
+import com.woowacamp.storage.domain.file.service.ThumbnailStorage;
 import com.woowacamp.storage.domain.folder.repository.FolderMetadataRepository;
 import com.woowacamp.storage.global.constant.CommonConstant;
 
@@ -30,6 +32,8 @@ public class OrphanFileDeleteScheduler {
 	private final AmazonS3 amazonS3;
 	private final FileMetadataRepository fileMetadataRepository;
 	private final FolderMetadataRepository folderMetadataRepository;
+	private final ContentBlobService contentBlobService;
+	private final ThumbnailStorage thumbnailStorage;
 	@Value("${cloud.aws.credentials.bucketName}")
 	private String BUCKET_NAME;
 
@@ -37,8 +41,8 @@ public class OrphanFileDeleteScheduler {
 	 * 부모 폴더가 없는 파일을 제거하는 스케줄러 입니다.
 	 * S3에 파일이 있는지 확인하고 제거 후 메타데이터를 제거합니다.
 	 * <p>
-	 * 메타데이터를 먼저 지우면 S3의 파일이 어떤 이유로 제거되지 않을 수 있습니다.
-	 * 그래서 S3 삭제가 된 후에 파일 메타데이터를 제거합니다.
+	 * 같은 내용의 다른 파일이 S3 객체를 사용 중일 수 있으므로 메타데이터 삭제와 참조 반납을 먼저 하고,
+	 * 더 이상 참조하는 파일이 없는 경우에만 S3 객체를 제거합니다.
 	 */
 	@Scheduled(fixedDelay = DELAY)
 	public void deleteOrphanFile() {
@@ -50,13 +54,15 @@ public class OrphanFileDeleteScheduler {
 		orphanFiles.forEach(fileMetadata -> {
 			try {
 				ObjectMetadata objectMetadata = amazonS3.getObjectMetadata(BUCKET_NAME,
-					fileMetadata.getUuidFileName());
+					fileMetadata.getStorageKey());
 				if (Objects.nonNull(objectMetadata)) {
-					amazonS3.deleteObject(BUCKET_NAME, fileMetadata.getUploadFileName());
 					if (fileMetadata.getThumbnailUUID() != null) {
-						amazonS3.deleteObject(BUCKET_NAME, fileMetadata.getThumbnailUUID());
+						thumbnailStorage.deleteAll(fileMetadata.getThumbnailUUID());
+					}
+					String objectKey = contentBlobService.deleteMetadata(fileMetadata);
+					if (objectKey != null) {
+						amazonS3.deleteObject(BUCKET_NAME, objectKey);
 					}
-					fileMetadataRepository.deleteById(fileMetadata.getId());
 				}
 			} catch (AmazonS3Exception e) {
 				log.error("[Amazon S3 Exception] cannot find orphan file in S3, file metadata id = {}",
@@ -0,0 +1,47 @@
+package com.woowacamp.storage.global.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 자주 호출되는 경로의 진단 로그를 intervalMillis에 한 번만 남기도록 거르는 샘플러입니다.
+ * 락 없이 마지막으로 로그를 남긴 시각을 CAS로 갱신하고, 그 사이에 건너뛴 로그 수를 함께 알려줍니다.
+ * <pre>
+ * if (logSampler.tryAcquire()) {
+ *     log.info("... suppressed: {}", ..., logSampler.drainSuppressed());
+ * }
+ * </pre>
+ * 로그 인자를 만드는 비용도 아끼도록 tryAcquire가 true일 때만 로그 메시지를 만들어야 합니다.
+ */
+public class LogSampler {
+
+	private final long intervalNanos;
+	private final AtomicLong lastLoggedAt;
+	private final LongAdder suppressed = new LongAdder();
+
+	public LogSampler(long intervalMillis) {
+		this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+		this.lastLoggedAt = new AtomicLong(System.nanoTime() - intervalNanos);
+	}
+
+	/**
+	 * 마지막 로그 이후 intervalMillis가 지났다면 true를 반환합니다. 동시에 호출해도 한 스레드만 true를 받습니다.
+	 */
+	public boolean tryAcquire() {
+		long now = System.nanoTime();
+		long last = lastLoggedAt.get();
+		if (now - last >= intervalNanos && lastLoggedAt.compareAndSet(last, now)) {
+			return true;
+		}
+		suppressed.increment();
+		return false;
+	}
+
+	/**
+	 * 마지막으로 로그를 남긴 이후 건너뛴 로그 수를 반환하고 0으로 초기화합니다.
+	 */
+	public long drainSuppressed() {
+		return suppressed.sumThenReset();
+	}
+}
@@ -0,0 +1,32 @@
+package com.woowacamp.storage.global.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 초당 요청 수를 permitsPerSecond로 제한합니다. 요청마다 다음 요청을 보낼 수 있는 시각을 뒤로 미루고,
+ * 그 시각이 지나지 않았으면 호출한 스레드가 남은 시간만큼 잠듭니다. 쉬던 시간만큼 한꺼번에 보내지는 않습니다.
+ */
+public class RequestRateLimiter {
+
+	private final double nanosPerPermit;
+	private long nextFreeAt = System.nanoTime();
+
+	public RequestRateLimiter(double permitsPerSecond) {
+		this.nanosPerPermit = TimeUnit.SECONDS.toNanos(1) / permitsPerSecond;
+	}
+
+	public void acquire(int permits) throws InterruptedException {
+		long waitNanos;
+		synchronized (this) {
+			long now = System.nanoTime();
+			if (nextFreeAt < now) {
+				nextFreeAt = now;
+			}
+			waitNanos = nextFreeAt - now;
+			nextFreeAt += (long)(permits * nanosPerPermit);
+		}
+		if (waitNanos > 0) {
+			TimeUnit.NANOSECONDS.sleep(waitNanos);
+		}
+	}
+}
@@ -0,0 +1,54 @@
+package com.woowacamp.storage.domain.file.dto;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CompositeChecksumTest {
+
+	@Test
+	@DisplayName("여러 버퍼에 나눠 쓴 part의 MD5는 part 전체 데이터의 MD5와 같다")
+	void getMd5_ShouldMatchWholePart_WhenWrittenAcrossBuffers() throws Exception {
+		byte[] content = new byte[10_000];
+		new Random(3).nextBytes(content);
+		PartPayload partPayload = new PartPayload();
+
+		int offset = 0;
+		while (offset < content.length) {
+			if (partPayload.needsBuffer()) {
+				partPayload.addBuffer(new PartBuffer(1024));
+			}
+			offset += partPayload.write(content, offset, Math.min(700, content.length - offset));
+		}
+
+		assertArrayEquals(MessageDigest.getInstance("MD5").digest(content), partPayload.getMd5());
+	}
+
+	@Test
+	@DisplayName("part가 순서와 관계없이 추가되어도 part 번호 순서로 S3 multipart ETag와 같은 체크섬을 만든다")
+	void compute_ShouldFollowS3MultipartETag_WhenPartsAddedOutOfOrder() throws Exception {
+		Random random = new Random(5);
+		byte[][] parts = new byte[3][];
+		ByteArrayOutputStream concatenated = new ByteArrayOutputStream();
+		CompositeChecksum checksum = new CompositeChecksum();
+		for (int i = 0; i < parts.length; i++) {
+			parts[i] = new byte[1000 + i];
+			random.nextBytes(parts[i]);
+			concatenated.write(MessageDigest.getInstance("MD5").digest(parts[i]));
+		}
+		for (int partNumber = parts.length; partNumber >= 1; partNumber--) {
+			checksum.addPart(partNumber, MessageDigest.getInstance("MD5").digest(parts[partNumber - 1]));
+		}
+
+		String expected = HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(concatenated.toByteArray()))
+			+ "-3";
+		assertEquals(expected, checksum.compute());
+		assertTrue(CompositeChecksum.matches(checksum.compute(), "\"" + expected + "\""));
+	}
+}
@@ -0,0 +1,91 @@
+package com.woowacamp.storage.domain.file.dto;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.amazonaws.services.s3.model.PartETag;
+import com.woowacamp.storage.global.constant.UploadApi;
+
+class UploadSessionTest {
+
+	private static final int SESSION_COUNT = 500;
+	private static final int MAX_PART_COUNT = 20;
+
+	@Test
+	@DisplayName("여러 세션에서 part 완료와 finish가 동시에 일어나도 세션마다 complete 요청은 한 번만 시작된다")
+	void completion_ShouldStartOnce_WhenPartsAndFinishRace() throws Exception {
+		Random random = new Random(11);
+		ExecutorService writers = Executors.newFixedThreadPool(32);
+		ExecutorService requests = Executors.newFixedThreadPool(16);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicIntegerArray completeCalls = new AtomicIntegerArray(SESSION_COUNT);
+		List<UploadSession> sessions = new ArrayList<>();
+		List<Integer> partCounts = new ArrayList<>();
+
+		for (int i = 0; i < SESSION_COUNT; i++) {
+			int index = i;
+			int partCount = 1 + random.nextInt(MAX_PART_COUNT);
+			UploadSession session = new UploadSession("key" + i, "upload" + i, new RetryBudget(0), UploadApi.V1);
+			sessions.add(session);
+			partCounts.add(partCount);
+			for (int partNumber = partCount; partNumber >= 1; partNumber--) {
+				PartETag partETag = new PartETag(partNumber, "etag" + partNumber);
+				writers.submit(() -> {
+					start.await();
+					if (session.completePart(partETag)) {
+						completeCalls.incrementAndGet(index);
+						session.getCompletion().complete(null);
+					}
+					return null;
+				});
+			}
+			requests.submit(() -> {
+				start.await();
+				if (session.finish(partCount)) {
+					completeCalls.incrementAndGet(index);
+					session.getCompletion().complete(null);
+				}
+				return null;
+			});
+		}
+		start.countDown();
+		writers.shutdown();
+		requests.shutdown();
+		assertTrue(writers.awaitTermination(30, TimeUnit.SECONDS));
+		assertTrue(requests.awaitTermination(30, TimeUnit.SECONDS));
+
+		for (int i = 0; i < SESSION_COUNT; i++) {
+			assertEquals(1, completeCalls.get(i), "session " + i);
+			assertTrue(sessions.get(i).getCompletion().isDone());
+			List<PartETag> partETags = sessions.get(i).getSortedPartETags();
+			assertEquals(partCounts.get(i), partETags.size());
+			for (int partNumber = 1; partNumber <= partETags.size(); partNumber++) {
+				assertEquals(partNumber, partETags.get(partNumber - 1).getPartNumber());
+			}
+		}
+	}
+
+	@Test
+	@DisplayName("실패한 세션은 이후 part가 끝나도 complete 요청을 하지 않는다")
+	void completion_ShouldNotStart_WhenSessionFailed() {
+		UploadSession session = new UploadSession("key", "upload", new RetryBudget(0), UploadApi.V1);
+		session.finish(2);
+		session.completePart(new PartETag(1, "etag1"));
+
+		session.fail(new IllegalStateException());
+
+		assertFalse(session.completePart(new PartETag(2, "etag2")));
+		assertTrue(session.isFailed());
+	}
+}
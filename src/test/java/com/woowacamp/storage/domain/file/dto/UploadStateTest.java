@@ -0,0 +1,44 @@
+package com.woowacamp.storage.domain.file.dto;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class UploadStateTest {
+
+	@Test
+	@DisplayName("파일 데이터를 여러 슬라이스로 나눠 반영해도 전체 데이터의 SHA-256 해시와 같다")
+	void digestContentHash_ShouldMatchWholeContent_WhenUpdatedInSlices() throws Exception {
+		byte[] content = new byte[100_000];
+		new Random(13).nextBytes(content);
+		UploadState state = new UploadState();
+
+		int offset = 0;
+		Random sliceRandom = new Random(17);
+		while (offset < content.length) {
+			int length = Math.min(content.length - offset, 1 + sliceRandom.nextInt(8192));
+			state.updateContentHash(content, offset, length);
+			offset += length;
+		}
+
+		String expected = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+		assertEquals(expected, state.digestContentHash());
+	}
+
+	@Test
+	@DisplayName("reset 이후에는 다음 파일의 해시를 처음부터 계산한다")
+	void digestContentHash_ShouldStartOver_WhenReset() throws Exception {
+		UploadState state = new UploadState();
+		state.updateContentHash(new byte[] {1, 2, 3}, 0, 3);
+		state.reset();
+		state.updateContentHash(new byte[] {4, 5}, 0, 2);
+
+		String expected = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(new byte[] {4, 5}));
+		assertEquals(expected, state.digestContentHash());
+	}
+}
@@ -0,0 +1,29 @@
+package com.woowacamp.storage.domain.file.entity;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ResumableUploadTest {
+
+	@Test
+	@DisplayName("마지막 part를 제외한 part는 partSize이고 마지막 part는 남은 크기다")
+	void getExpectedPartSize_ShouldReturnRemainder_ForLastPart() {
+		ResumableUpload resumableUpload = ResumableUpload.builder().fileSize(25L).partSize(10).build();
+
+		assertEquals(3, resumableUpload.getPartCount());
+		assertEquals(10, resumableUpload.getExpectedPartSize(1));
+		assertEquals(10, resumableUpload.getExpectedPartSize(2));
+		assertEquals(5, resumableUpload.getExpectedPartSize(3));
+	}
+
+	@Test
+	@DisplayName("파일 크기가 partSize로 나누어 떨어지면 마지막 part도 partSize다")
+	void getExpectedPartSize_ShouldReturnPartSize_WhenDivisible() {
+		ResumableUpload resumableUpload = ResumableUpload.builder().fileSize(20L).partSize(10).build();
+
+		assertEquals(2, resumableUpload.getPartCount());
+		assertEquals(10, resumableUpload.getExpectedPartSize(2));
+	}
+}
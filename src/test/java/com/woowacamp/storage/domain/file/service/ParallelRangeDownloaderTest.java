@@ -0,0 +1,90 @@
+package com.woowacamp.storage.domain.file.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.S3Object;
+import com.woowacamp.storage.domain.file.dto.ByteRange;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class ParallelRangeDownloaderTest {
+
+	private static final int CHUNK_SIZE = 1000;
+
+	@Mock
+	AmazonS3 amazonS3;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final byte[] file = new byte[10 * CHUNK_SIZE + 7];
+	private ParallelRangeDownloader parallelRangeDownloader;
+
+	@BeforeEach
+	void setUp() {
+		new Random(7).nextBytes(file);
+		parallelRangeDownloader = new ParallelRangeDownloader("bucket", 2 * CHUNK_SIZE, CHUNK_SIZE, 4, 8, amazonS3,
+			meterRegistry);
+	}
+
+	@AfterEach
+	void tearDown() {
+		parallelRangeDownloader.shutdown();
+	}
+
+	@Test
+	@DisplayName("앞쪽 chunk가 늦게 도착해도 요청한 구간을 순서대로 읽는다")
+	void open_ShouldReturnBytesInOrder_WhenChunksCompleteOutOfOrder() throws Exception {
+		given(amazonS3.getObject(any(GetObjectRequest.class))).willAnswer(invocation -> {
+			long[] range = invocation.getArgument(0, GetObjectRequest.class).getRange();
+			// 앞쪽 chunk일수록 늦게 응답한다.
+			TimeUnit.MILLISECONDS.sleep(Math.max(0, 50 - range[0] / CHUNK_SIZE * 10));
+			return s3Object(range);
+		});
+
+		byte[] downloaded;
+		try (InputStream inputStream = parallelRangeDownloader.open("key", new ByteRange(5, file.length - 1))) {
+			downloaded = inputStream.readAllBytes();
+		}
+
+		assertArrayEquals(Arrays.copyOfRange(file, 5, file.length), downloaded);
+		assertEquals(11, meterRegistry.get("download.range.chunks").counter().count());
+		assertEquals(0, meterRegistry.get("download.range.buffered.bytes").gauge().value());
+	}
+
+	@Test
+	@DisplayName("작은 구간은 나누지 않고 ranged GET 하나로 읽는다")
+	void open_ShouldUseSingleRequest_WhenRangeSmall() throws Exception {
+		given(amazonS3.getObject(any(GetObjectRequest.class))).willAnswer(
+			invocation -> s3Object(invocation.getArgument(0, GetObjectRequest.class).getRange()));
+
+		try (InputStream inputStream = parallelRangeDownloader.open("key", new ByteRange(0, CHUNK_SIZE))) {
+			assertArrayEquals(Arrays.copyOfRange(file, 0, CHUNK_SIZE + 1), inputStream.readAllBytes());
+		}
+
+		then(amazonS3).should(times(1)).getObject(any(GetObjectRequest.class));
+		assertEquals(1, meterRegistry.get("download.range.requests").tag("mode", "single").counter().count());
+	}
+
+	private S3Object s3Object(long[] range) {
+		S3Object s3Object = new S3Object();
+		s3Object.setObjectContent(new ByteArrayInputStream(file, (int)range[0], (int)(range[1] - range[0] + 1)));
+		return s3Object;
+	}
+}
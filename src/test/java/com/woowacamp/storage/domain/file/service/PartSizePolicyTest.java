@@ -0,0 +1,40 @@
+package com.woowacamp.storage.domain.file.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.woowacamp.storage.global.error.CustomException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PartSizePolicyTest {
+
+	private static final int MB = 1024 * 1024;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final PartSizePolicy partSizePolicy = new PartSizePolicy(5 * MB, 20L * MB,
+		new UploadMetrics(meterRegistry));
+
+	@Test
+	@DisplayName("작은 파일은 버퍼 하나 크기의 part를 사용한다")
+	void choosePartSize_ShouldUseBufferSize_WhenFileIsSmall() {
+		assertEquals(5 * MB, partSizePolicy.choosePartSize(1));
+		assertEquals(5 * MB, partSizePolicy.choosePartSize(500L * MB));
+	}
+
+	@Test
+	@DisplayName("큰 파일은 버퍼 크기의 배수로 part를 키우고 최대 part 크기를 넘지 않는다")
+	void choosePartSize_ShouldGrow_WhenFileIsLarge() {
+		assertEquals(10 * MB, partSizePolicy.choosePartSize(800L * MB));
+		assertEquals(20 * MB, partSizePolicy.choosePartSize(10L * 1024 * MB));
+		assertEquals(2, meterRegistry.get("upload.part.size").summary().count());
+	}
+
+	@Test
+	@DisplayName("최대 part 크기로도 S3 part 개수 제한을 넘으면 예외가 발생한다")
+	void choosePartSize_ShouldThrow_WhenPartCountExceedsLimit() {
+		assertThrows(CustomException.class, () -> partSizePolicy.choosePartSize(20L * MB * 10_000 + 1));
+	}
+}
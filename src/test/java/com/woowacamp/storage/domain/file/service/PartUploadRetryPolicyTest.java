@@ -0,0 +1,110 @@
+package com.woowacamp.storage.domain.file.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.amazonaws.AmazonServiceException;
+import com.woowacamp.storage.domain.file.dto.RetryBudget;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PartUploadRetryPolicyTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final AtomicInteger finishedCount = new AtomicInteger();
+
+	@Test
+	@DisplayName("일시적인 5xx 오류는 재시도하고 모든 시도가 끝나면 한 번만 onFinished를 호출한다")
+	void execute_ShouldRetry_WhenServerError() {
+		PartUploadRetryPolicy policy = policy(3, 10, false);
+		AtomicInteger attempts = new AtomicInteger();
+
+		String result = policy.execute(failFirst(attempts, 2, 503), policy.newRetryBudget(),
+			finishedCount::incrementAndGet);
+
+		assertEquals("etag", result);
+		assertEquals(3, attempts.get());
+		assertEquals(1, finishedCount.get());
+		assertEquals(2, meterRegistry.get("upload.part.retry").counter().count());
+	}
+
+	@Test
+	@DisplayName("4xx 오류는 재시도하지 않는다")
+	void execute_ShouldNotRetry_WhenClientError() {
+		PartUploadRetryPolicy policy = policy(3, 10, false);
+		AtomicInteger attempts = new AtomicInteger();
+
+		assertThrows(AmazonServiceException.class,
+			() -> policy.execute(failFirst(attempts, 1, 400), policy.newRetryBudget(), finishedCount::incrementAndGet));
+		assertEquals(1, attempts.get());
+		assertEquals(1, finishedCount.get());
+	}
+
+	@Test
+	@DisplayName("업로드별 재시도 예산을 모두 사용하면 더 이상 재시도하지 않는다")
+	void execute_ShouldStop_WhenBudgetExhausted() {
+		PartUploadRetryPolicy policy = policy(5, 1, false);
+		RetryBudget retryBudget = policy.newRetryBudget();
+		policy.execute(failFirst(new AtomicInteger(), 1, 503), retryBudget, finishedCount::incrementAndGet);
+
+		AtomicInteger attempts = new AtomicInteger();
+		assertThrows(AmazonServiceException.class,
+			() -> policy.execute(failFirst(attempts, 2, 503), retryBudget, finishedCount::incrementAndGet));
+		assertEquals(1, attempts.get());
+		assertEquals(1, meterRegistry.get("upload.part.retry.exhausted").counter().count());
+	}
+
+	@Test
+	@DisplayName("첫 요청이 p99 응답 시간을 넘기면 추가 요청을 보내고 먼저 성공한 응답을 사용한다")
+	void execute_ShouldHedge_WhenSlowerThanP99() throws Exception {
+		PartUploadRetryPolicy policy = policy(3, 10, true);
+		for (int i = 0; i < 100; i++) {
+			policy.execute(() -> "warm-up", policy.newRetryBudget(), () -> {
+			});
+		}
+		AtomicInteger attempts = new AtomicInteger();
+
+		String result = policy.execute(() -> {
+			if (attempts.incrementAndGet() == 1) {
+				sleep(1000);
+				return "slow";
+			}
+			return "fast";
+		}, policy.newRetryBudget(), finishedCount::incrementAndGet);
+
+		assertEquals("fast", result);
+		assertEquals(1, meterRegistry.get("upload.part.hedge.win").counter().count());
+		// 느린 요청이 끝난 뒤에 버퍼를 반납한다.
+		assertEquals(0, finishedCount.get());
+		sleep(1500);
+		assertEquals(1, finishedCount.get());
+	}
+
+	private PartUploadRetryPolicy policy(int maxAttempts, int budget, boolean hedgeEnabled) {
+		return new PartUploadRetryPolicy(maxAttempts, 1, 10, budget, hedgeEnabled, new UploadMetrics(meterRegistry));
+	}
+
+	private Supplier<String> failFirst(AtomicInteger attempts, int failures, int statusCode) {
+		return () -> {
+			if (attempts.incrementAndGet() <= failures) {
+				AmazonServiceException exception = new AmazonServiceException("failed");
+				exception.setStatusCode(statusCode);
+				throw exception;
+			}
+			return "etag";
+		};
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,103 @@
+package com.woowacamp.storage.domain.file.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.*;
+import static org.mockito.BDDMockito.*;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.woowacamp.storage.domain.file.entity.FileMetadata;
+import com.woowacamp.storage.domain.file.entity.ThumbnailBackfillCheckpoint;
+import com.woowacamp.storage.domain.file.repository.FileMetadataRepository;
+import com.woowacamp.storage.domain.file.repository.ThumbnailBackfillCheckpointRepository;
+import com.woowacamp.storage.global.constant.BackfillStatus;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class ThumbnailBackfillServiceTest {
+
+	@Mock
+	FileMetadataRepository fileMetadataRepository;
+	@Mock
+	ThumbnailBackfillCheckpointRepository checkpointRepository;
+	@Mock
+	ThumbnailStorage thumbnailStorage;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private ThumbnailBackfillService thumbnailBackfillService;
+
+	@BeforeEach
+	void setUp() {
+		thumbnailBackfillService = new ThumbnailBackfillService(2, 2, 10_000, fileMetadataRepository,
+			checkpointRepository, thumbnailStorage, meterRegistry);
+	}
+
+	@Test
+	@DisplayName("checkpoint의 마지막 파일 다음부터 처리하고, 실패한 파일은 건너뛰며 진행 상황을 기록한다")
+	void run_ShouldResumeFromCheckpoint_WhenCheckpointExists() throws Exception {
+		ThumbnailBackfillCheckpoint checkpoint = checkpoint(10L, BackfillStatus.STOPPED);
+		given(checkpointRepository.findByJobName("resize")).willReturn(Optional.of(checkpoint));
+		given(checkpointRepository.save(any())).willAnswer(returnsFirstArg());
+		given(fileMetadataRepository.countThumbnailTargetsAfter(10L)).willReturn(3L);
+		given(fileMetadataRepository.findThumbnailTargetsAfter(10L, 2)).willReturn(List.of(image(11L), image(12L)));
+		given(fileMetadataRepository.findThumbnailTargetsAfter(12L, 2)).willReturn(List.of(image(13L)));
+		given(fileMetadataRepository.findThumbnailTargetsAfter(13L, 2)).willReturn(List.of());
+		given(thumbnailStorage.generate(any())).willAnswer(invocation -> {
+			FileMetadata fileMetadata = invocation.getArgument(0);
+			if (fileMetadata.getId() == 12L) {
+				throw new IOException("broken image");
+			}
+			return Map.of();
+		});
+
+		thumbnailBackfillService.run("resize");
+
+		assertEquals(BackfillStatus.COMPLETED, checkpoint.getStatus());
+		assertEquals(13L, checkpoint.getLastFileId());
+		assertEquals(2L, checkpoint.getProcessedCount());
+		assertEquals(1L, checkpoint.getFailedCount());
+		assertEquals(2, meterRegistry.get("thumbnail.backfill.processed").counter().count());
+		assertEquals(1, meterRegistry.get("thumbnail.backfill.failed").counter().count());
+		then(thumbnailStorage).should(times(3)).generate(any());
+	}
+
+	@Test
+	@DisplayName("이미 끝난 작업은 다시 처리하지 않는다")
+	void run_ShouldSkip_WhenCheckpointCompleted() throws Exception {
+		given(checkpointRepository.findByJobName("resize"))
+			.willReturn(Optional.of(checkpoint(13L, BackfillStatus.COMPLETED)));
+
+		thumbnailBackfillService.run("resize");
+
+		then(fileMetadataRepository).should(never()).findThumbnailTargetsAfter(anyLong(), anyInt());
+		then(thumbnailStorage).should(never()).generate(any());
+	}
+
+	private static ThumbnailBackfillCheckpoint checkpoint(Long lastFileId, BackfillStatus status) {
+		return ThumbnailBackfillCheckpoint.builder()
+			.id(1L)
+			.jobName("resize")
+			.lastFileId(lastFileId)
+			.processedCount(0L)
+			.failedCount(0L)
+			.status(status)
+			.updatedAt(LocalDateTime.now())
+			.build();
+	}
+
+	private static FileMetadata image(Long id) {
+		return FileMetadata.builder().id(id).uuidFileName("key" + id).thumbnailUUID("thumb_key" + id).build();
+	}
+}
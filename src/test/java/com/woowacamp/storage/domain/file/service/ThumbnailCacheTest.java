@@ -0,0 +1,94 @@
+package com.woowacamp.storage.domain.file.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.woowacamp.storage.global.constant.ThumbnailSize;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ThumbnailCacheTest {
+
+	@TempDir
+	Path directory;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Test
+	@DisplayName("힙에서 밀려난 썸네일은 디스크에서 읽는다")
+	void get_ShouldReadDisk_WhenEvictedFromMemory() throws Exception {
+		ThumbnailCache thumbnailCache = cache(80, 1024);
+		for (int i = 0; i < 9; i++) {
+			thumbnailCache.put(i == 0 ? "first" : "key" + i, new byte[10]);
+		}
+
+		assertArrayEquals(new byte[10], thumbnailCache.get("first"));
+		assertEquals(1, requests("disk"));
+		assertNull(thumbnailCache.get("unknown"));
+		assertEquals(1, requests("miss"));
+		assertTrue(thumbnailCache.getMemoryBytes() <= 80);
+	}
+
+	@Test
+	@DisplayName("디스크 용량을 넘으면 가장 오래 사용하지 않은 썸네일부터 지운다")
+	void put_ShouldEvictLeastRecentlyUsed_WhenDiskFull() throws Exception {
+		ThumbnailCache thumbnailCache = cache(0, 20);
+		thumbnailCache.put("first", new byte[10]);
+		thumbnailCache.put("second", new byte[10]);
+		thumbnailCache.get("first");
+
+		thumbnailCache.put("third", new byte[10]);
+
+		assertNotNull(thumbnailCache.get("first"));
+		assertNull(thumbnailCache.get("second"));
+		assertEquals(20, thumbnailCache.getDiskBytes());
+	}
+
+	@Test
+	@DisplayName("invalidate는 모든 크기의 썸네일을 힙과 디스크에서 지운다")
+	void invalidate_ShouldRemoveEverySize_WhenFileDeleted() throws Exception {
+		ThumbnailCache thumbnailCache = cache(1024, 1024);
+		for (ThumbnailSize size : ThumbnailSize.values()) {
+			thumbnailCache.put(size.objectKey("thumb_key"), new byte[10]);
+		}
+
+		thumbnailCache.invalidate("thumb_key");
+
+		for (ThumbnailSize size : ThumbnailSize.values()) {
+			assertNull(thumbnailCache.get(size.objectKey("thumb_key")));
+		}
+		assertEquals(0, thumbnailCache.getMemoryBytes());
+		assertEquals(0, thumbnailCache.getDiskBytes());
+		try (var files = Files.list(directory)) {
+			assertEquals(0, files.count());
+		}
+	}
+
+	@Test
+	@DisplayName("다시 시작하면 디스크에 남은 썸네일을 다시 사용한다")
+	void init_ShouldReuseDiskEntries_WhenRestarted() throws Exception {
+		cache(1024, 1024).put("key", new byte[10]);
+
+		ThumbnailCache restarted = cache(1024, 1024);
+
+		assertArrayEquals(new byte[10], restarted.get("key"));
+		assertEquals(10, restarted.getDiskBytes());
+	}
+
+	private ThumbnailCache cache(long memoryBytes, long diskBytes) throws Exception {
+		ThumbnailCache thumbnailCache = new ThumbnailCache(memoryBytes, diskBytes, directory.toString(),
+			meterRegistry);
+		thumbnailCache.init();
+		return thumbnailCache;
+	}
+
+	private double requests(String result) {
+		return meterRegistry.get("thumbnail.cache.requests").tag("result", result).counter().count();
+	}
+}
@@ -0,0 +1,139 @@
+package com.woowacamp.storage.domain.file.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.woowacamp.storage.domain.file.dto.FileMetadataDto;
+import com.woowacamp.storage.domain.file.entity.FileMetadata;
+import com.woowacamp.storage.domain.file.repository.FileMetadataRepository;
+import com.woowacamp.storage.global.constant.ThumbnailStatus;
+import com.woowacamp.storage.global.constant.UploadStatus;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class ThumbnailJobServiceTest {
+
+	@Mock
+	FileMetadataRepository fileMetadataRepository;
+	@Mock
+	ThumbnailStorage thumbnailStorage;
+
+	private ThumbnailJobService thumbnailJobService;
+
+	@AfterEach
+	void tearDown() {
+		thumbnailJobService.shutdown();
+	}
+
+	@Test
+	@DisplayName("대기 작업이 가득 차면 썸네일 작업을 받지 않는다")
+	void enqueue_ShouldReturnFalse_WhenQueueFull() {
+		thumbnailJobService = service(1, 5);
+
+		assertTrue(thumbnailJobService.enqueue(image(1L)));
+		assertFalse(thumbnailJobService.enqueue(image(2L)));
+		assertEquals(1, thumbnailJobService.getPendingJobs());
+	}
+
+	@Test
+	@DisplayName("나중에 올린 파일의 썸네일 작업을 먼저 처리한다")
+	void worker_ShouldProcessRecentJobFirst_WhenJobsWaiting() {
+		thumbnailJobService = service(10, 5);
+		thumbnailJobService.enqueue(image(1L));
+		thumbnailJobService.enqueue(image(2L));
+
+		thumbnailJobService.init();
+
+		verify(fileMetadataRepository, timeout(5000).times(2)).findById(any());
+		InOrder inOrder = inOrder(fileMetadataRepository);
+		inOrder.verify(fileMetadataRepository).findById(2L);
+		inOrder.verify(fileMetadataRepository).findById(1L);
+	}
+
+	@Test
+	@DisplayName("재시도를 모두 실패하면 썸네일 상태를 FAILED로 바꾼다")
+	void process_ShouldMarkFailed_WhenAttemptsExhausted() {
+		thumbnailJobService = service(10, 1);
+		FileMetadata fileMetadata = file(UploadStatus.SUCCESS);
+		given(fileMetadataRepository.findById(1L)).willReturn(Optional.of(fileMetadata));
+		willThrow(new IOException("decode failed")).given(thumbnailStorage).generate(fileMetadata);
+		thumbnailJobService.enqueue(image(1L));
+
+		thumbnailJobService.process(job(1L));
+
+		then(fileMetadataRepository).should().updateThumbnailStatus(1L, ThumbnailStatus.FAILED);
+		assertEquals(0, thumbnailJobService.getPendingJobs());
+	}
+
+	@Test
+	@DisplayName("원본 업로드가 끝나기를 기다리는 동안은 재시도 횟수를 쓰지 않는다")
+	void process_ShouldKeepWaiting_WhenUploadNotFinished() {
+		thumbnailJobService = service(10, 1);
+		given(fileMetadataRepository.findById(1L)).willReturn(Optional.of(file(UploadStatus.PENDING)));
+		thumbnailJobService.enqueue(image(1L));
+
+		thumbnailJobService.init();
+
+		verify(fileMetadataRepository, timeout(5000).atLeast(3)).findById(1L);
+		then(fileMetadataRepository).should(never()).updateThumbnailStatus(any(), any());
+		then(thumbnailStorage).shouldHaveNoInteractions();
+		assertEquals(1, thumbnailJobService.getPendingJobs());
+	}
+
+	@Test
+	@DisplayName("업로드 대기 시간이 지나면 썸네일 상태를 바꾸지 않고 작업만 버린다")
+	void process_ShouldDropJobWithoutFailing_WhenUploadWaitExpired() {
+		thumbnailJobService = new ThumbnailJobService(1, 10, 5, 10, 0, fileMetadataRepository, thumbnailStorage,
+			new SimpleMeterRegistry());
+		given(fileMetadataRepository.findById(1L)).willReturn(Optional.of(file(UploadStatus.PENDING)));
+		thumbnailJobService.enqueue(image(1L));
+
+		thumbnailJobService.process(job(1L));
+
+		then(fileMetadataRepository).should(never()).updateThumbnailStatus(any(), any());
+		assertEquals(0, thumbnailJobService.getPendingJobs());
+	}
+
+	@Test
+	@DisplayName("삭제된 파일의 썸네일 작업은 원본을 읽지 않고 버린다")
+	void process_ShouldDropJob_WhenFileDeleted() {
+		thumbnailJobService = service(10, 5);
+		given(fileMetadataRepository.findById(1L)).willReturn(Optional.empty());
+		thumbnailJobService.enqueue(image(1L));
+
+		thumbnailJobService.process(job(1L));
+
+		then(thumbnailStorage).shouldHaveNoInteractions();
+		then(fileMetadataRepository).should(never()).updateThumbnailStatus(any(), any());
+		assertEquals(0, thumbnailJobService.getPendingJobs());
+	}
+
+	private ThumbnailJobService service(int queueCapacity, int maxAttempts) {
+		return new ThumbnailJobService(1, queueCapacity, maxAttempts, 10, 60_000, fileMetadataRepository,
+			thumbnailStorage, new SimpleMeterRegistry());
+	}
+
+	private static ThumbnailJobService.ThumbnailJob job(Long metadataId) {
+		return new ThumbnailJobService.ThumbnailJob(metadataId, 1, 1, System.nanoTime());
+	}
+
+	private static FileMetadata file(UploadStatus uploadStatus) {
+		return FileMetadata.builder().id(1L).uploadStatus(uploadStatus).thumbnailUUID("thumb_key").build();
+	}
+
+	private static FileMetadataDto image(Long metadataId) {
+		return new FileMetadataDto(metadataId, "key" + metadataId, 1L, 1L, 4, "image.png", "thumb_key" + metadataId);
+	}
+}
@@ -0,0 +1,160 @@
+package com.woowacamp.storage.domain.file.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.S3Object;
+import com.woowacamp.storage.domain.file.entity.FileMetadata;
+import com.woowacamp.storage.domain.file.repository.FileMetadataRepository;
+import com.woowacamp.storage.global.constant.ThumbnailSize;
+import com.woowacamp.storage.global.constant.ThumbnailStatus;
+import com.woowacamp.storage.global.constant.UploadStatus;
+import com.woowacamp.storage.global.error.CustomException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class ThumbnailStorageTest {
+
+	@TempDir
+	Path directory;
+	@Mock
+	AmazonS3 amazonS3;
+	@Mock
+	FileMetadataRepository fileMetadataRepository;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Test
+	@DisplayName("없는 썸네일을 동시에 요청해도 원본은 한 번만 디코딩한다")
+	void read_ShouldGenerateOnce_WhenThumbnailMissingConcurrently() throws Exception {
+		ThumbnailStorage thumbnailStorage = storage();
+		FileMetadata fileMetadata = image(UploadStatus.SUCCESS);
+		given(amazonS3.getObject(any(), eq(ThumbnailSize.SMALL.objectKey("thumb_key")))).willThrow(notFound());
+		CountDownLatch originalRead = new CountDownLatch(1);
+		given(amazonS3.getObject(any(), eq("key"))).willReturn(original(originalRead));
+
+		ExecutorService executorService = Executors.newFixedThreadPool(2);
+		try {
+			Future<byte[]> first = executorService.submit(() -> thumbnailStorage.read(fileMetadata,
+				ThumbnailSize.SMALL));
+			Future<byte[]> second = executorService.submit(() -> thumbnailStorage.read(fileMetadata,
+				ThumbnailSize.SMALL));
+			awaitJoined();
+			originalRead.countDown();
+
+			assertArrayEquals(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+		} finally {
+			originalRead.countDown();
+			executorService.shutdownNow();
+		}
+		verify(amazonS3, times(1)).getObject(any(), eq("key"));
+		verify(fileMetadataRepository).updateThumbnailStatus(1L, ThumbnailStatus.READY);
+	}
+
+	@Test
+	@DisplayName("업로드가 끝나지 않은 파일의 썸네일은 만들지 않는다")
+	void read_ShouldThrow_WhenUploadNotFinished() throws Exception {
+		ThumbnailStorage thumbnailStorage = storage();
+		given(amazonS3.getObject(any(), eq("thumb_key"))).willThrow(notFound());
+
+		assertThrows(CustomException.class,
+			() -> thumbnailStorage.read(image(UploadStatus.PENDING), ThumbnailSize.MEDIUM));
+		verify(amazonS3, never()).getObject(any(), eq("key"));
+	}
+
+	@Test
+	@DisplayName("썸네일 생성에 실패한 파일은 원본을 다시 디코딩하지 않는다")
+	void read_ShouldThrow_WhenThumbnailFailed() throws Exception {
+		ThumbnailStorage thumbnailStorage = storage();
+		given(amazonS3.getObject(any(), eq("thumb_key"))).willThrow(notFound());
+		FileMetadata fileMetadata = FileMetadata.builder().id(1L).uuidFileName("key").thumbnailUUID("thumb_key")
+			.uploadStatus(UploadStatus.SUCCESS).thumbnailStatus(ThumbnailStatus.FAILED).build();
+
+		assertThrows(CustomException.class, () -> thumbnailStorage.read(fileMetadata, ThumbnailSize.MEDIUM));
+		verify(amazonS3, never()).getObject(any(), eq("key"));
+	}
+
+	private ThumbnailStorage storage() throws IOException {
+		ThumbnailCache thumbnailCache = new ThumbnailCache(1024 * 1024, 1024 * 1024, directory.toString(),
+			meterRegistry);
+		thumbnailCache.init();
+		return new ThumbnailStorage(amazonS3, thumbnailCache, fileMetadataRepository, meterRegistry);
+	}
+
+	/**
+	 * 두 번째 요청이 진행 중인 생성 작업을 기다리기 시작할 때까지 원본 읽기를 멈춰둔다.
+	 */
+	private void awaitJoined() throws InterruptedException {
+		for (int i = 0; i < 100 && meterRegistry.get("thumbnail.generated.joined").counter().count() == 0; i++) {
+			Thread.sleep(50);
+		}
+		assertEquals(1, meterRegistry.get("thumbnail.generated.joined").counter().count());
+	}
+
+	private static FileMetadata image(UploadStatus uploadStatus) {
+		return FileMetadata.builder().id(1L).uuidFileName("key").thumbnailUUID("thumb_key")
+			.uploadStatus(uploadStatus).build();
+	}
+
+	private static AmazonS3Exception notFound() {
+		AmazonS3Exception exception = new AmazonS3Exception("Not Found");
+		exception.setStatusCode(404);
+		return exception;
+	}
+
+	private static S3Object original(CountDownLatch originalRead) throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		ImageIO.write(new BufferedImage(400, 300, BufferedImage.TYPE_INT_RGB), "jpeg", outputStream);
+		InputStream content = new FilterInputStream(new ByteArrayInputStream(outputStream.toByteArray())) {
+			@Override
+			public int read() throws IOException {
+				awaitOriginalRead();
+				return super.read();
+			}
+
+			@Override
+			public int read(byte[] buffer, int offset, int length) throws IOException {
+				awaitOriginalRead();
+				return super.read(buffer, offset, length);
+			}
+
+			private void awaitOriginalRead() throws IOException {
+				try {
+					originalRead.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IOException(e);
+				}
+			}
+		};
+		S3Object s3Object = new S3Object();
+		s3Object.setObjectContent(content);
+		s3Object.getObjectMetadata().setContentType("image/jpeg");
+		return s3Object;
+	}
+}
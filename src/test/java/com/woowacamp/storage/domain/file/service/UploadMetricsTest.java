@@ -0,0 +1,43 @@
+package com.woowacamp.storage.domain.file.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.woowacamp.storage.global.constant.UploadApi;
+import com.woowacamp.storage.global.constant.UploadStage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class UploadMetricsTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final UploadMetrics uploadMetrics = new UploadMetrics(meterRegistry);
+
+	@Test
+	@DisplayName("단계 시간은 API 버전과 단계 태그가 같은 타이머에만 기록된다")
+	void recordStage_ShouldRecordToTaggedTimer() {
+		uploadMetrics.recordStage(UploadApi.V1, UploadStage.PART_UPLOAD, System.nanoTime());
+		uploadMetrics.recordStage(UploadApi.V1, UploadStage.PART_UPLOAD, System.nanoTime());
+		uploadMetrics.recordStage(UploadApi.V2, UploadStage.COMPLETE_UPLOAD, System.nanoTime());
+
+		assertEquals(2, meterRegistry.get("upload.stage").tag("version", "v1").tag("stage", "part_upload")
+			.timer().count());
+		assertEquals(0, meterRegistry.get("upload.stage").tag("version", "v2").tag("stage", "part_upload")
+			.timer().count());
+		assertEquals(1, meterRegistry.get("upload.stage").tag("version", "v2").tag("stage", "complete_upload")
+			.timer().count());
+	}
+
+	@Test
+	@DisplayName("읽은 파일 데이터 크기는 API 버전별로 따로 센다")
+	void countUploadBytes_ShouldCountPerVersion() {
+		uploadMetrics.countUploadBytes(UploadApi.V1, 100);
+		uploadMetrics.countUploadBytes(UploadApi.V1, 20);
+		uploadMetrics.countUploadBytes(UploadApi.V2, 7);
+
+		assertEquals(120, meterRegistry.get("upload.bytes").tag("version", "v1").counter().count());
+		assertEquals(7, meterRegistry.get("upload.bytes").tag("version", "v2").counter().count());
+	}
+}
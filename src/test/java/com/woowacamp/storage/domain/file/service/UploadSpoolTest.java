@@ -0,0 +1,132 @@
+package com.woowacamp.storage.domain.file.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.PutObjectResult;
+import com.woowacamp.storage.domain.file.dto.SpoolFile;
+import com.woowacamp.storage.domain.file.entity.FileMetadata;
+import com.woowacamp.storage.domain.file.repository.FileMetadataRepository;
+import com.woowacamp.storage.global.constant.UploadStatus;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class UploadSpoolTest {
+
+	@TempDir
+	Path directory;
+	@Mock
+	AmazonS3 amazonS3;
+	@Mock
+	FileMetadataRepository fileMetadataRepository;
+	@Mock
+	ContentBlobService contentBlobService;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private UploadSpool uploadSpool;
+
+	@AfterEach
+	void tearDown() {
+		if (uploadSpool != null) {
+			uploadSpool.shutdown();
+		}
+	}
+
+	@Test
+	@DisplayName("스풀 용량이 부족하면 스풀 파일을 만들지 않는다")
+	void open_ShouldReturnNull_WhenCapacityExceeded() throws Exception {
+		uploadSpool = spool(10);
+
+		SpoolFile spoolFile = uploadSpool.open("first", 8);
+
+		assertNotNull(spoolFile);
+		assertNull(uploadSpool.open("second", 8));
+		uploadSpool.abort(spoolFile);
+		assertNotNull(uploadSpool.open("second", 8));
+	}
+
+	@Test
+	@DisplayName("commit한 스풀 파일은 S3로 옮기기 전에도 다운로드할 수 있다")
+	void openSpooled_ShouldReadSpoolFile_WhenCommitted() throws Exception {
+		uploadSpool = spool(1024);
+		byte[] content = "spooled content".getBytes(StandardCharsets.UTF_8);
+		SpoolFile spoolFile = uploadSpool.open("key", content.length);
+		spoolFile.write(content, 0, content.length);
+
+		uploadSpool.commit(spoolFile, "text/plain", null);
+
+		try (InputStream inputStream = uploadSpool.openSpooled("key")) {
+			assertArrayEquals(content, inputStream.readAllBytes());
+		}
+		assertTrue(Files.exists(directory.resolve("key.ready")));
+	}
+
+	@Test
+	@DisplayName("drain이 끝나면 S3에 올리고 로컬 스풀 파일을 지운다")
+	void drain_ShouldUploadAndDelete_WhenMetadataSucceeded() throws Exception {
+		uploadSpool = spool(1024);
+		given(fileMetadataRepository.findByUuidFileName("key")).willReturn(Optional.of(
+			FileMetadata.builder().uuidFileName("key").fileSize(4L).uploadStatus(UploadStatus.SUCCESS).build()));
+		given(fileMetadataRepository.existsByUuidFileName("key")).willReturn(true);
+		PutObjectResult putObjectResult = new PutObjectResult();
+		putObjectResult.setETag("etag");
+		given(amazonS3.putObject(any(PutObjectRequest.class))).willReturn(putObjectResult);
+		SpoolFile spoolFile = uploadSpool.open("key", 4);
+		spoolFile.write(new byte[4], 0, 4);
+		uploadSpool.commit(spoolFile, "application/octet-stream", null);
+
+		uploadSpool.drain("key");
+
+		verify(fileMetadataRepository, timeout(5000)).updateChecksumByUuid("key", "etag");
+		assertFalse(Files.exists(directory.resolve("key.spool")));
+		assertNull(uploadSpool.openSpooled("key"));
+	}
+
+	@Test
+	@DisplayName("다시 시작하면 매니페스트가 없는 스풀 파일은 지우고, 삭제된 파일의 스풀은 S3에 올리지 않는다")
+	void init_ShouldRecoverSpool_WhenRestarted() throws Exception {
+		Files.write(directory.resolve("incomplete.spool"), new byte[4]);
+		Files.write(directory.resolve("deleted.spool"), new byte[4]);
+		Files.writeString(directory.resolve("deleted.ready"), "contentType=text/plain\nfileSize=4\n");
+		given(fileMetadataRepository.findByUuidFileName("deleted")).willReturn(Optional.empty());
+
+		uploadSpool = spool(1024);
+
+		assertFalse(Files.exists(directory.resolve("incomplete.spool")));
+		awaitDeleted(directory.resolve("deleted.spool"));
+		assertFalse(Files.exists(directory.resolve("deleted.ready")));
+		verify(amazonS3, never()).putObject(any(PutObjectRequest.class));
+	}
+
+	private UploadSpool spool(long capacityBytes) throws Exception {
+		UploadSpool spool = new UploadSpool(true, directory.toString(), capacityBytes, 1, amazonS3,
+			fileMetadataRepository, new PartUploadRetryPolicy(1, 1, 10, 1, false, new UploadMetrics(meterRegistry)),
+			contentBlobService, meterRegistry);
+		spool.init();
+		return spool;
+	}
+
+	private static void awaitDeleted(Path path) throws InterruptedException {
+		for (int i = 0; i < 100 && Files.exists(path); i++) {
+			Thread.sleep(50);
+		}
+		assertFalse(Files.exists(path));
+	}
+}
@@ -0,0 +1,45 @@
+package com.woowacamp.storage.domain.file.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.woowacamp.storage.domain.file.dto.ByteRange;
+
+class ByteRangeParserTest {
+
+	@Test
+	@DisplayName("시작, 끝, 접미사 구간을 파일 크기 안으로 잘라서 반환한다")
+	void parse_ShouldClampRanges_WhenRangesValid() {
+		assertEquals(List.of(new ByteRange(0, 99), new ByteRange(200, 899), new ByteRange(950, 999)),
+			ByteRangeParser.parse("bytes=0-99, 200-899, -50", 1000));
+		assertEquals(List.of(new ByteRange(900, 999)), ByteRangeParser.parse("bytes=900-5000", 1000));
+		assertEquals(List.of(new ByteRange(0, 9)), ByteRangeParser.parse("bytes=-5000", 10));
+	}
+
+	@Test
+	@DisplayName("구간 길이의 합이 파일 크기보다 크면 Range를 무시한다")
+	void parse_ShouldReturnNull_WhenRangesOverlapTooMuch() {
+		assertNull(ByteRangeParser.parse("bytes=0-599, 500-", 1000));
+	}
+
+	@Test
+	@DisplayName("형식이 잘못된 Range는 무시하도록 null을 반환한다")
+	void parse_ShouldReturnNull_WhenHeaderMalformed() {
+		assertNull(ByteRangeParser.parse(null, 1000));
+		assertNull(ByteRangeParser.parse("items=0-10", 1000));
+		assertNull(ByteRangeParser.parse("bytes=10-5", 1000));
+		assertNull(ByteRangeParser.parse("bytes=abc-", 1000));
+		assertNull(ByteRangeParser.parse("bytes=-", 1000));
+	}
+
+	@Test
+	@DisplayName("파일 범위를 벗어난 구간만 있으면 빈 목록을 반환한다")
+	void parse_ShouldReturnEmpty_WhenNoRangeSatisfiable() {
+		assertEquals(List.of(), ByteRangeParser.parse("bytes=1000-", 1000));
+		assertEquals(List.of(new ByteRange(0, 0)), ByteRangeParser.parse("bytes=1000-,0-0", 1000));
+	}
+}
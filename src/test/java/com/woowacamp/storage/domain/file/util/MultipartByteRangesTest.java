@@ -0,0 +1,64 @@
+package com.woowacamp.storage.domain.file.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.woowacamp.storage.domain.file.dto.ByteRange;
+
+class MultipartByteRangesTest {
+
+	private static final byte[] FILE = "0123456789abcdefghij".getBytes(StandardCharsets.US_ASCII);
+
+	@Test
+	@DisplayName("구간마다 Content-Range 파트를 만들고, 계산한 Content-Length와 본문 길이가 같다")
+	void open_ShouldWriteEveryRange_WhenMultipleRangesRequested() throws Exception {
+		MultipartByteRanges multipartByteRanges = new MultipartByteRanges(
+			List.of(new ByteRange(0, 3), new ByteRange(15, 19)), "application/octet-stream", FILE.length);
+		String boundary = multipartByteRanges.getContentType().substring("multipart/byteranges; boundary=".length());
+
+		byte[] body;
+		try (InputStream inputStream = multipartByteRanges.open(this::openRange)) {
+			body = inputStream.readAllBytes();
+		}
+
+		assertEquals(multipartByteRanges.getContentLength(), body.length);
+		assertEquals("\r\n--" + boundary + "\r\n"
+			+ "Content-Type: application/octet-stream\r\n"
+			+ "Content-Range: bytes 0-3/20\r\n\r\n"
+			+ "0123"
+			+ "\r\n--" + boundary + "\r\n"
+			+ "Content-Type: application/octet-stream\r\n"
+			+ "Content-Range: bytes 15-19/20\r\n\r\n"
+			+ "fghij"
+			+ "\r\n--" + boundary + "--\r\n", new String(body, StandardCharsets.US_ASCII));
+	}
+
+	@Test
+	@DisplayName("응답을 중간에 닫으면 남은 구간은 열지 않는다")
+	void close_ShouldNotOpenRemainingRanges_WhenClosedEarly() throws Exception {
+		List<ByteRange> opened = new ArrayList<>();
+		MultipartByteRanges multipartByteRanges = new MultipartByteRanges(
+			List.of(new ByteRange(0, 3), new ByteRange(15, 19)), "application/octet-stream", FILE.length);
+
+		InputStream inputStream = multipartByteRanges.open(range -> {
+			opened.add(range);
+			return openRange(range);
+		});
+		inputStream.readNBytes(117);
+		inputStream.close();
+
+		assertEquals(List.of(new ByteRange(0, 3)), opened);
+	}
+
+	private InputStream openRange(ByteRange range) {
+		return new BoundedInputStream(new ByteArrayInputStream(FILE, (int)range.start(), FILE.length), range.length());
+	}
+}
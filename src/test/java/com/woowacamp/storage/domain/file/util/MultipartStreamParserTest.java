@@ -0,0 +1,138 @@
+package com.woowacamp.storage.domain.file.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.woowacamp.storage.global.error.CustomException;
+
+class MultipartStreamParserTest {
+
+	private static final String BOUNDARY = "--boundary1234";
+
+	@Test
+	@DisplayName("폼 필드와 파일 파트를 구분하고 본문 끝의 CRLF는 제외한다")
+	void parse_ShouldSplitParts() throws Exception {
+		byte[] file = "line1\r\nline2\n--boundary123\r\n".getBytes(StandardCharsets.UTF_8);
+		RecordingHandler handler = new RecordingHandler();
+
+		new MultipartStreamParser(BOUNDARY, 16, 1024, handler).parse(new ByteArrayInputStream(body(file)));
+
+		assertEquals(2, handler.headers.size());
+		assertEquals("1", handler.contents.get(0).toString(StandardCharsets.UTF_8));
+		assertEquals("image/png", handler.headers.get(1).get("Content-Type"));
+		assertArrayEquals(file, handler.contents.get(1).toByteArray());
+	}
+
+	@Test
+	@DisplayName("boundary가 여러 번에 나눠서 들어와도 같은 결과를 반환한다")
+	void feed_ShouldHandleBoundaryAcrossBuffers() throws Exception {
+		Random random = new Random(7);
+		byte[] file = new byte[50_000];
+		random.nextBytes(file);
+		byte[] body = body(file);
+
+		for (int chunk = 1; chunk < 100; chunk += 7) {
+			RecordingHandler handler = new RecordingHandler();
+			MultipartStreamParser parser = new MultipartStreamParser(BOUNDARY, 32, 1024, handler);
+			for (int i = 0; i < body.length; i += chunk) {
+				parser.feed(body, i, Math.min(chunk, body.length - i));
+			}
+			assertTrue(parser.isDone());
+			assertArrayEquals(file, handler.contents.get(1).toByteArray());
+		}
+	}
+
+	@Test
+	@DisplayName("handler가 중단을 요청하면 이후 데이터는 읽지 않는다")
+	void parse_ShouldStop_WhenHandlerRequests() throws Exception {
+		RecordingHandler handler = new RecordingHandler();
+		handler.stopAfterParts = 1;
+
+		MultipartStreamParser parser = new MultipartStreamParser(BOUNDARY, 16, 1024, handler);
+		parser.parse(new ByteArrayInputStream(body("data".getBytes())));
+
+		assertTrue(parser.isDone());
+		assertEquals(1, handler.headers.size());
+	}
+
+	@Test
+	@DisplayName("파일 파트에서 멈추면 데이터를 받아가지 않고, 다시 시작하면 남은 본문부터 이어서 넘긴다")
+	void feed_ShouldKeepData_WhenSuspended() throws Exception {
+		Random random = new Random(11);
+		byte[] file = new byte[5_000];
+		random.nextBytes(file);
+		byte[] body = body(file);
+		RecordingHandler handler = new RecordingHandler();
+		MultipartStreamParser parser = new MultipartStreamParser(BOUNDARY, 32, 1024, handler);
+		handler.suspendAtPart = parser;
+
+		int offset = 0;
+		while (offset < body.length && !parser.isDone()) {
+			int consumed = parser.feed(body, offset, Math.min(100, body.length - offset));
+			offset += consumed;
+			if (parser.isSuspended()) {
+				assertEquals(0, handler.contents.get(1).size());
+				parser.resume();
+			}
+		}
+
+		assertTrue(parser.isDone());
+		assertArrayEquals(file, handler.contents.get(1).toByteArray());
+	}
+
+	@Test
+	@DisplayName("헤더가 최대 크기를 넘으면 예외가 발생한다")
+	void parse_ShouldThrow_WhenHeaderTooLarge() {
+		String header = BOUNDARY + "\r\nContent-Disposition: form-data; name=\"" + "a".repeat(2048) + "\"\r\n\r\n";
+		MultipartStreamParser parser = new MultipartStreamParser(BOUNDARY, 16, 1024, new RecordingHandler());
+
+		assertThrows(CustomException.class, () -> parser.parse(new ByteArrayInputStream(header.getBytes())));
+	}
+
+	private byte[] body(byte[] file) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.write((BOUNDARY + "\r\nContent-Disposition: form-data; name=\"userId\"\r\n\r\n1\r\n").getBytes());
+		out.write((BOUNDARY + "\r\nContent-Disposition: form-data; name=\"file\"; filename=\"a.png\"\r\n"
+			+ "Content-Type: image/png\r\n\r\n").getBytes());
+		out.write(file);
+		out.write(("\r\n" + BOUNDARY + "--\r\n").getBytes());
+		return out.toByteArray();
+	}
+
+	private static class RecordingHandler implements MultipartPartHandler {
+		private final List<Map<String, String>> headers = new ArrayList<>();
+		private final List<ByteArrayOutputStream> contents = new ArrayList<>();
+		private int stopAfterParts = Integer.MAX_VALUE;
+		private MultipartStreamParser suspendAtPart;
+
+		@Override
+		public void onPartBegin(Map<String, String> headers) {
+			this.headers.add(headers);
+			this.contents.add(new ByteArrayOutputStream());
+			if (suspendAtPart != null && this.headers.size() == 2) {
+				suspendAtPart.suspend();
+			}
+		}
+
+		@Override
+		public void onPartContent(byte[] buffer, int offset, int length) {
+			contents.get(contents.size() - 1).write(buffer, offset, length);
+		}
+
+		@Override
+		public boolean onPartEnd() {
+			return headers.size() >= stopAfterParts;
+		}
+	}
+}
@@ -0,0 +1,77 @@
+package com.woowacamp.storage.domain.file.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class SpscByteRingBufferTest {
+
+	@Test
+	@DisplayName("생산자가 쓴 데이터를 소비자가 같은 순서로 모두 읽고, close 이후 EOF를 받는다")
+	void read_ShouldReturnWrittenBytesInOrder_WhenProducerCloses() throws Exception {
+		SpscByteRingBuffer ringBuffer = new SpscByteRingBuffer(1000);
+		byte[] data = new byte[2 * 1024 * 1024];
+		new Random(7).nextBytes(data);
+		CompletableFuture<byte[]> consumed = CompletableFuture.supplyAsync(() -> {
+			try (InputStream inputStream = ringBuffer.getInputStream()) {
+				ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+				inputStream.transferTo(outputStream);
+				return outputStream.toByteArray();
+			} catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+		});
+
+		Random random = new Random(11);
+		int position = 0;
+		while (position < data.length) {
+			int length = Math.min(1 + random.nextInt(300), data.length - position);
+			if (ringBuffer.offer(data, position, length)) {
+				position += length;
+			}
+		}
+		ringBuffer.close();
+
+		assertEquals(1024, ringBuffer.capacity());
+		assertArrayEquals(data, consumed.get(10, TimeUnit.SECONDS));
+	}
+
+	@Test
+	@DisplayName("남은 공간이 부족하면 대기하지 않고 false를 반환한다")
+	void offer_ShouldReturnFalse_WhenFull() {
+		SpscByteRingBuffer ringBuffer = new SpscByteRingBuffer(16);
+
+		assertTrue(ringBuffer.offer(new byte[16], 0, 16));
+		assertFalse(ringBuffer.offer(new byte[1], 0, 1));
+	}
+
+	@Test
+	@DisplayName("중단된 버퍼를 읽으면 IOException이 발생한다")
+	void read_ShouldThrow_WhenAborted() {
+		SpscByteRingBuffer ringBuffer = new SpscByteRingBuffer(16);
+		ringBuffer.offer(new byte[4], 0, 4);
+
+		ringBuffer.abort();
+
+		assertThrows(IOException.class, () -> ringBuffer.getInputStream().read(new byte[4]));
+		assertFalse(ringBuffer.offer(new byte[1], 0, 1));
+	}
+
+	@Test
+	@DisplayName("소비자가 스트림을 닫은 이후에 쓰는 데이터는 버린다")
+	void offer_ShouldDiscard_WhenConsumerClosed() throws IOException {
+		SpscByteRingBuffer ringBuffer = new SpscByteRingBuffer(16);
+
+		ringBuffer.getInputStream().close();
+
+		assertTrue(ringBuffer.offer(new byte[64], 0, 64));
+	}
+}
@@ -0,0 +1,54 @@
+package com.woowacamp.storage.domain.file.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.woowacamp.storage.global.constant.ThumbnailSize;
+
+class ThumbnailRendererTest {
+
+	@Test
+	@DisplayName("한 번 디코딩해서 모든 크기의 썸네일을 종횡비를 유지하며 만든다")
+	void render_ShouldCreateEverySize_WhenImageIsLarge() throws IOException {
+		Map<ThumbnailSize, byte[]> thumbnails = ThumbnailRenderer.render(jpeg(4000, 3000), "jpeg");
+
+		assertEquals(ThumbnailSize.values().length, thumbnails.size());
+		int previousPixels = 0;
+		for (ThumbnailSize size : ThumbnailSize.values()) {
+			BufferedImage thumbnail = ImageIO.read(new ByteArrayInputStream(thumbnails.get(size)));
+			int pixels = thumbnail.getWidth() * thumbnail.getHeight();
+			assertTrue(pixels <= size.getMaxPixels());
+			assertTrue(pixels > previousPixels);
+			assertEquals(4.0 / 3, (double)thumbnail.getWidth() / thumbnail.getHeight(), 0.02);
+			previousPixels = pixels;
+		}
+	}
+
+	@Test
+	@DisplayName("원본이 썸네일보다 작으면 원본 크기를 넘지 않는다")
+	void render_ShouldKeepOriginalSize_WhenImageIsSmall() throws IOException {
+		Map<ThumbnailSize, byte[]> thumbnails = ThumbnailRenderer.render(jpeg(100, 50), "jpeg");
+
+		for (byte[] thumbnail : thumbnails.values()) {
+			BufferedImage image = ImageIO.read(new ByteArrayInputStream(thumbnail));
+			assertEquals(100, image.getWidth());
+			assertEquals(50, image.getHeight());
+		}
+	}
+
+	private static ByteArrayInputStream jpeg(int width, int height) throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "jpeg", outputStream);
+		return new ByteArrayInputStream(outputStream.toByteArray());
+	}
+}
@@ -0,0 +1,63 @@
+package com.woowacamp.storage.global.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class LogSamplerTest {
+
+	@Test
+	@DisplayName("같은 구간 안에서는 처음 한 번만 로그를 남기고 나머지는 건너뛴 수로 센다")
+	void tryAcquire_ShouldAllowOnce_WhenWithinInterval() {
+		LogSampler logSampler = new LogSampler(60_000);
+
+		assertTrue(logSampler.tryAcquire());
+		assertFalse(logSampler.tryAcquire());
+		assertFalse(logSampler.tryAcquire());
+
+		assertEquals(2, logSampler.drainSuppressed());
+		assertEquals(0, logSampler.drainSuppressed());
+	}
+
+	@Test
+	@DisplayName("여러 스레드가 동시에 호출해도 한 구간에 한 스레드만 로그를 남긴다")
+	void tryAcquire_ShouldAllowSingleThread_WhenConcurrent() throws Exception {
+		LogSampler logSampler = new LogSampler(60_000);
+		ExecutorService executorService = Executors.newFixedThreadPool(16);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger acquired = new AtomicInteger();
+		for (int i = 0; i < 1000; i++) {
+			executorService.submit(() -> {
+				start.await();
+				if (logSampler.tryAcquire()) {
+					acquired.incrementAndGet();
+				}
+				return null;
+			});
+		}
+		start.countDown();
+		executorService.shutdown();
+		assertTrue(executorService.awaitTermination(10, TimeUnit.SECONDS));
+
+		assertEquals(1, acquired.get());
+		assertEquals(999, logSampler.drainSuppressed());
+	}
+
+	@Test
+	@DisplayName("구간이 지나면 다시 로그를 남길 수 있다")
+	void tryAcquire_ShouldAllowAgain_WhenIntervalElapsed() throws Exception {
+		LogSampler logSampler = new LogSampler(10);
+
+		assertTrue(logSampler.tryAcquire());
+		Thread.sleep(20);
+
+		assertTrue(logSampler.tryAcquire());
+	}
+}